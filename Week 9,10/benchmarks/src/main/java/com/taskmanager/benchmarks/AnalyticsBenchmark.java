@@ -0,0 +1,67 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.analytics.TaskCounterStore;
+import com.taskmanager.service.AnalyticsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Map building of the analytics endpoints over the seeded users and tasks
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsBenchmark {
+
+    private AnalyticsService analyticsService;
+
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        BenchmarkContext context = BenchmarkContext.get();
+        if (!context.bean(TaskCounterStore.class).isReady()) {
+            throw new IllegalStateException("Task counters are not loaded");
+        }
+        analyticsService = context.bean(AnalyticsService.class);
+        userId = context.getEmployees().get(0).getId();
+    }
+
+    @Benchmark
+    public Map<String, Object> dashboardStats() {
+        return analyticsService.getDashboardStats(userId);
+    }
+
+    @Benchmark
+    public Map<String, Object> overallStats() {
+        return analyticsService.getOverallStats();
+    }
+
+    @Benchmark
+    public Map<String, Object> productivityMetrics() {
+        return analyticsService.getProductivityMetrics();
+    }
+
+    @Benchmark
+    public Map<String, Object> workloadDistribution() {
+        return analyticsService.getWorkloadDistribution();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+}
@@ -0,0 +1,136 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.SmartTaskManagerApplication;
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.dto.response.TaskResponse;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.Role;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+import com.taskmanager.perf.SyntheticDataGenerator;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.TaskService;
+import org.hibernate.Hibernate;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// One application context per benchmark JVM, started on the "bench" profile over a generated dataset
+public final class BenchmarkContext {
+
+    public static final int[] WIDE_TASK_ASSIGNEES = {10, 100, 1000};
+
+    private static BenchmarkContext instance;
+
+    private final ConfigurableApplicationContext context;
+
+    private final User manager;
+
+    private final List<User> employees = new ArrayList<>();
+
+    private final Map<Integer, Long> wideTaskIds = new HashMap<>();
+
+    private BenchmarkContext() {
+        context = new SpringApplicationBuilder(SmartTaskManagerApplication.class)
+            .profiles("bench")
+            .web(WebApplicationType.NONE)
+            .run();
+        manager = bean(UserRepository.class).findByEmail("manager@taskmanager.com").orElseThrow();
+        seed();
+    }
+
+    public static synchronized BenchmarkContext get() {
+        if (instance == null) {
+            instance = new BenchmarkContext();
+        }
+        return instance;
+    }
+
+    // Stops the scheduler and executor threads so the forked JVM can exit
+    public static synchronized void close() {
+        if (instance != null) {
+            instance.context.close();
+            instance = null;
+        }
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public User getManager() {
+        return manager;
+    }
+
+    public List<User> getEmployees() {
+        return employees;
+    }
+
+    // Loads a task with its creator, assignees and tags initialized, detached from any session
+    public Task loadWideTask(int assignees) {
+        Long taskId = wideTaskIds.get(assignees);
+        if (taskId == null) {
+            throw new IllegalArgumentException("No seeded task with " + assignees + " assignees");
+        }
+        return new TransactionTemplate(bean(PlatformTransactionManager.class)).execute(status -> {
+            Task task = bean(TaskRepository.class).findById(taskId).orElseThrow();
+            Hibernate.initialize(task.getCreatedBy());
+            Hibernate.initialize(task.getAssignees());
+            Hibernate.initialize(task.getTags());
+            return task;
+        });
+    }
+
+    // Private methods are benchmarked on the unproxied bean
+    public static MethodHandle privateMethod(Object bean, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        Object target = AopProxyUtils.getSingletonTarget(bean);
+        if (target == null) {
+            target = bean;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(target.getClass(), MethodHandles.lookup());
+            return lookup.findVirtual(target.getClass(), name, MethodType.methodType(returnType, parameterTypes)).bindTo(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access " + target.getClass().getSimpleName() + "." + name, e);
+        }
+    }
+
+    // Users, tasks and activity logs come from SyntheticDataGenerator on startup; only the wide tasks are added here
+    private void seed() {
+        employees.addAll(bean(UserRepository.class).findByRoleAndActiveTrue(Role.EMPLOYEE).stream()
+            .filter(user -> user.getEmail().startsWith(SyntheticDataGenerator.EMAIL_PREFIX))
+            .sorted(Comparator.comparing(User::getId))
+            .collect(Collectors.toList()));
+        TaskService taskService = bean(TaskService.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int assignees : WIDE_TASK_ASSIGNEES) {
+            TaskRequest request = new TaskRequest("Wide task " + assignees, "Task shared by " + assignees + " assignees",
+                now.plusDays(7), Priority.HIGH);
+            Set<Long> assigneeIds = new HashSet<>();
+            for (int i = 0; i < Math.min(assignees, employees.size()); i++) {
+                assigneeIds.add(employees.get(i).getId());
+            }
+            request.setAssigneeIds(assigneeIds);
+            TaskResponse created = taskService.createTasks(List.of(request), manager).get(0);
+            wideTaskIds.put(assignees, created.getId());
+        }
+    }
+}
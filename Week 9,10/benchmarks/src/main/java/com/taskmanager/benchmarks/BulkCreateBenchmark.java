@@ -0,0 +1,92 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.dto.response.TaskResponse;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.User;
+import com.taskmanager.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Importing a batch of tasks, each with 2 tags and 2 assignees: the bulk endpoint's JDBC batch path
+// against one createTask call per task. Every invocation inserts a new batch.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BulkCreateBenchmark {
+
+    @Param({"1200"})
+    private int taskCount;
+
+    private TaskService taskService;
+
+    private User manager;
+
+    private List<User> employees;
+
+    private List<TaskRequest> requests;
+
+    private int batch;
+
+    @Setup
+    public void setUp() {
+        BenchmarkContext context = BenchmarkContext.get();
+        taskService = context.bean(TaskService.class);
+        manager = context.getManager();
+        employees = context.getEmployees();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareBatch() {
+        LocalDateTime dueDate = LocalDateTime.now().plusDays(7);
+        requests = new ArrayList<>(taskCount);
+        batch++;
+        for (int i = 0; i < taskCount; i++) {
+            TaskRequest request = new TaskRequest("Imported task " + batch + "-" + i, "Imported description " + i,
+                dueDate, Priority.MEDIUM);
+            request.setTags(Set.of("import", "tag-" + i % 20));
+            request.setAssigneeIds(Set.of(employees.get(i % employees.size()).getId(),
+                employees.get((i + 1) % employees.size()).getId()));
+            requests.add(request);
+        }
+    }
+
+    @Benchmark
+    public List<TaskResponse> bulkCreate() {
+        return taskService.createTasks(requests, manager);
+    }
+
+    @Benchmark
+    public List<TaskResponse> sequentialCreate() {
+        List<TaskResponse> created = new ArrayList<>(requests.size());
+        for (TaskRequest request : requests) {
+            created.add(taskService.createTask(request, manager));
+        }
+        return created;
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+}
@@ -0,0 +1,82 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.entity.EmailOutbox;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.service.EmailService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Reminder body formatting, without the outbox insert
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailFormattingBenchmark {
+
+    @Param({"5", "50"})
+    private int tasksPerEmail;
+
+    private MethodHandle buildTaskReminder;
+
+    private MethodHandle buildTaskReminderList;
+
+    private User assignee;
+
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        EmailService emailService = BenchmarkContext.get().bean(EmailService.class);
+        buildTaskReminder = BenchmarkContext.privateMethod(emailService, "buildTaskReminder",
+            EmailOutbox.class, User.class, Task.class);
+        buildTaskReminderList = BenchmarkContext.privateMethod(emailService, "buildTaskReminderList",
+            EmailOutbox.class, User.class, List.class);
+
+        assignee = new User("Bench", "Recipient", "recipient@taskmanager.com", "unused");
+        LocalDateTime now = LocalDateTime.now();
+        tasks = new ArrayList<>(tasksPerEmail);
+        for (int i = 0; i < tasksPerEmail; i++) {
+            // Half overdue, half due later today
+            Task task = new Task("Reminder task " + i, "Description of reminder task " + i,
+                now.plusHours(i % 2 == 0 ? -(i + 1) : i + 1), Priority.values()[i % Priority.values().length], assignee);
+            task.setStatus(i % 3 == 0 ? TaskStatus.IN_PROGRESS : TaskStatus.TODO);
+            tasks.add(task);
+        }
+    }
+
+    @Benchmark
+    public EmailOutbox singleReminder() throws Throwable {
+        return (EmailOutbox) buildTaskReminder.invokeExact(assignee, tasks.get(0));
+    }
+
+    @Benchmark
+    public EmailOutbox reminderList() throws Throwable {
+        return (EmailOutbox) buildTaskReminderList.invokeExact(assignee, tasks);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+}
@@ -0,0 +1,91 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.security.AuthTokenFilter;
+import com.taskmanager.security.JwtUtils;
+import com.taskmanager.security.PrincipalCache;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Token signing, validation and the full bearer-token filter, with a warm principal cache and with every
+// request missing it (the user loaded from the database as before the cache)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtils jwtUtils;
+
+    private AuthTokenFilter authTokenFilter;
+
+    private PrincipalCache principalCache;
+
+    private String username;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        BenchmarkContext context = BenchmarkContext.get();
+        jwtUtils = context.bean(JwtUtils.class);
+        authTokenFilter = context.bean(AuthTokenFilter.class);
+        principalCache = context.bean(PrincipalCache.class);
+        username = context.getEmployees().get(0).getEmail();
+        token = jwtUtils.generateTokenFromUsername(username);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtils.generateTokenFromUsername(username);
+    }
+
+    @Benchmark
+    public String validate() {
+        return jwtUtils.validateAndGetUserName(token);
+    }
+
+    @Benchmark
+    public Authentication authenticateRequest() throws ServletException, IOException {
+        return filter();
+    }
+
+    @Benchmark
+    public Authentication authenticateRequestWithoutCache() throws ServletException, IOException {
+        principalCache.invalidate(username);
+        return filter();
+    }
+
+    private Authentication filter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        authTokenFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+}
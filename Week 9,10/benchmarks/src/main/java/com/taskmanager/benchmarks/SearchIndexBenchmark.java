@@ -0,0 +1,100 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.search.InMemoryTaskSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Full-text search against the in-memory index only; no application context or database.
+// Words are drawn from a Zipf-like distribution, so w0x is in a large share of the tasks and most words are rare.
+// Query terms match as prefixes; the x suffix keeps one word (w1x) from being a prefix of others (w10x).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx6g")
+public class SearchIndexBenchmark {
+
+    @Param({"1000000"})
+    private int taskCount;
+
+    @Param({"20000"})
+    private int wordCount;
+
+    private InMemoryTaskSearchIndex index;
+
+    private double[] cumulative;
+
+    private double sum;
+
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        cumulative = new double[wordCount];
+        for (int rank = 0; rank < wordCount; rank++) {
+            sum += 1.0 / (rank + 1);
+            cumulative[rank] = sum;
+        }
+
+        random = new Random(42);
+        index = new InMemoryTaskSearchIndex();
+        for (long taskId = 1; taskId <= taskCount; taskId++) {
+            index.index(taskId, words(4), words(12), List.of(word(), word()));
+        }
+    }
+
+    @Benchmark
+    public List<Long> commonTerm() {
+        return index.search("w1x", 100);
+    }
+
+    @Benchmark
+    public List<Long> rareTerm() {
+        return index.search("w15000x", 100);
+    }
+
+    @Benchmark
+    public List<Long> twoTerms() {
+        return index.search("w3x w40x", 100);
+    }
+
+    // Matches w12x, w120x..w129x, w1200x..w1299x and w12000x..w12999x
+    @Benchmark
+    public List<Long> prefixTerm() {
+        return index.search("w12", 100);
+    }
+
+    // An edit re-indexes one task: its old postings are removed and the new ones added under the write lock
+    @Benchmark
+    public void reindexTask() {
+        index.index(1 + (long) random.nextInt(taskCount), words(4), words(12), List.of(word()));
+    }
+
+    private String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(word()).append(' ');
+        }
+        return text.toString();
+    }
+
+    private String word() {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+        return "w" + (rank >= 0 ? rank : -rank - 1) + "x";
+    }
+}
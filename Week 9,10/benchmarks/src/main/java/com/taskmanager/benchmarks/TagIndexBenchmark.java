@@ -0,0 +1,127 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.search.TagExpression;
+import com.taskmanager.search.TaskTagIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Tag filters and facets against the in-memory index only; no application context or database.
+// Tags are drawn from a Zipf-like distribution, so tag-0 is on a large share of the tasks and most tags are rare.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class TagIndexBenchmark {
+
+    @Param({"1000000"})
+    private int taskCount;
+
+    @Param({"10000"})
+    private int tagCount;
+
+    private TaskTagIndex index;
+
+    private TagExpression commonAnd;
+
+    private TagExpression rareAnd;
+
+    private TagExpression anyOf;
+
+    private TagExpression none;
+
+    private TagExpression complex;
+
+    private TagExpression single;
+
+    @Setup
+    public void setUp() {
+        double[] cumulative = new double[tagCount];
+        double sum = 0;
+        for (int rank = 0; rank < tagCount; rank++) {
+            sum += 1.0 / (rank + 1);
+            cumulative[rank] = sum;
+        }
+
+        Random random = new Random(42);
+        TaskStatus[] statuses = TaskStatus.values();
+        Priority[] priorities = Priority.values();
+        index = new TaskTagIndex();
+        for (long taskId = 1; taskId <= taskCount; taskId++) {
+            int tagsOnTask = 1 + random.nextInt(5);
+            Set<String> tags = new HashSet<>();
+            for (int i = 0; i < tagsOnTask; i++) {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                tags.add("tag-" + (rank >= 0 ? rank : -rank - 1));
+            }
+            index.add(taskId, tags, statuses[random.nextInt(statuses.length)], priorities[random.nextInt(priorities.length)]);
+        }
+
+        commonAnd = TagExpression.parse("tag-0 AND tag-1");
+        rareAnd = TagExpression.parse("tag-50 AND tag-2000");
+        anyOf = TagExpression.parse("tag-1 OR tag-2 OR tag-3 OR tag-4");
+        none = TagExpression.parse("NOT tag-0");
+        complex = TagExpression.parse("(tag-0 OR tag-7) AND tag-3 AND NOT (tag-20 OR tag-21)");
+        single = TagExpression.parse("tag-5");
+    }
+
+    @Benchmark
+    public RoaringBitmap andCommonTags() {
+        return index.match(commonAnd, null, null);
+    }
+
+    @Benchmark
+    public RoaringBitmap andRareTags() {
+        return index.match(rareAnd, null, null);
+    }
+
+    @Benchmark
+    public RoaringBitmap orTags() {
+        return index.match(anyOf, null, null);
+    }
+
+    @Benchmark
+    public RoaringBitmap notTag() {
+        return index.match(none, null, null);
+    }
+
+    @Benchmark
+    public RoaringBitmap complexExpression() {
+        return index.match(complex, null, null);
+    }
+
+    @Benchmark
+    public RoaringBitmap tagsWithStatusAndPriority() {
+        return index.match(anyOf, TaskStatus.TODO, Priority.HIGH);
+    }
+
+    @Benchmark
+    public List<TaskTagIndex.TagCount> topFacetsForFilter() {
+        return index.facets(index.match(single, null, null), 20);
+    }
+
+    @Benchmark
+    public List<TaskTagIndex.TagCount> topFacetsOverall() {
+        return index.facets(null, 20);
+    }
+}
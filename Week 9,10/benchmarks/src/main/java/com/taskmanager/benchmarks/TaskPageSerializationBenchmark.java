@@ -0,0 +1,57 @@
+package com.taskmanager.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.dto.response.TaskResponse;
+import com.taskmanager.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of a Page<TaskResponse> of regular tasks with the application's ObjectMapper
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskPageSerializationBenchmark {
+
+    @Param({"20", "100", "500"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+
+    private Page<TaskResponse> page;
+
+    @Setup
+    public void setUp() {
+        BenchmarkContext context = BenchmarkContext.get();
+        objectMapper = context.bean(ObjectMapper.class);
+        page = context.bean(TaskService.class).getAllTasks(PageRequest.of(0, pageSize, Sort.by("id")));
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+}
@@ -0,0 +1,55 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.dto.response.TaskResponse;
+import com.taskmanager.entity.Task;
+import com.taskmanager.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+// TaskService.convertToTaskResponse on tasks with a growing number of assignees
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskResponseBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int assignees;
+
+    private MethodHandle convertToTaskResponse;
+
+    private Task task;
+
+    @Setup
+    public void setUp() {
+        BenchmarkContext context = BenchmarkContext.get();
+        convertToTaskResponse = BenchmarkContext.privateMethod(context.bean(TaskService.class),
+            "convertToTaskResponse", TaskResponse.class, Task.class);
+        task = context.loadWideTask(assignees);
+    }
+
+    @Benchmark
+    public TaskResponse convertToTaskResponse() throws Throwable {
+        return (TaskResponse) convertToTaskResponse.invokeExact(task);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+}
@@ -0,0 +1,332 @@
+package com.taskmanager.activity;
+
+import com.taskmanager.dto.request.KeysetCursor;
+import com.taskmanager.entity.ActivityLog;
+import com.taskmanager.entity.JobWatermark;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.JobWatermarkRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.scheduling.ClusterJobs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Cold storage for activity logs. The retention job moves every month older than hot-months out of
+// activity_logs into ActivityLogSegment blobs in activity_log_segments, and records the end of the archived
+// months in the "activity_log_archive" watermark. Both live in the shared database, so every instance reads
+// the same archive whichever one ran the job. Range queries reaching before the watermark read the matching
+// months from here.
+@Component
+public class ActivityLogArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogArchive.class);
+
+    private static final String WATERMARK_NAME = "activity_log_archive";
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private static final String SELECT_MONTH_CHUNK =
+        "SELECT id, user_id, action, description, entity_type, entity_id, ip_address, created_at FROM activity_logs " +
+        "WHERE created_at < ? AND (created_at > ? OR (created_at = ? AND id > ?)) " +
+        "ORDER BY created_at, id LIMIT ?";
+
+    private static final String SELECT_MONTH_IDS =
+        "SELECT id FROM activity_logs WHERE created_at >= ? AND created_at < ? ORDER BY created_at, id LIMIT ?";
+
+    private static final String INSERT_SEGMENT =
+        "INSERT INTO activity_log_segments (archive_month, segment_index, row_count, min_created_at_micros, " +
+        "max_created_at_micros, data) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Only the columns needed to skip a segment; the data is loaded one segment at a time
+    private static final String SELECT_SEGMENTS =
+        "SELECT id FROM activity_log_segments " +
+        "WHERE archive_month >= ? AND archive_month <= ? AND row_count > 0 " +
+        "AND max_created_at_micros >= ? AND min_created_at_micros <= ? " +
+        "ORDER BY archive_month DESC, segment_index DESC";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JobWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ClusterJobs clusterJobs;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.activity-log.retention.hot-months:3}")
+    private int hotMonths;
+
+    @Value("${app.activity-log.archive.segment-rows:50000}")
+    private int segmentRows;
+
+    @Value("${app.activity-log.archive.delete-chunk-size:1000}")
+    private int deleteChunkSize;
+
+    public static class ArchivedPage {
+        private final List<ActivityLog> logs;
+        private final long total;
+
+        ArchivedPage(List<ActivityLog> logs, long total) {
+            this.logs = logs;
+            this.total = total;
+        }
+
+        public List<ActivityLog> getLogs() {
+            return logs;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+
+    // One instance archives; the others would write the same segments and delete the same rows
+    @Scheduled(cron = "${app.activity-log.retention.cron:0 30 3 * * *}")
+    public void archiveOnSchedule() {
+        clusterJobs.runExclusive("activity-log-archive", Duration.ofHours(2), Duration.ofMinutes(5), this::archiveExpiredMonths);
+    }
+
+    public void archiveExpiredMonths() {
+        YearMonth firstHotMonth = YearMonth.now().minusMonths(hotMonths);
+        LocalDateTime archivedBefore = getArchivedBefore();
+        LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM activity_logs", LocalDateTime.class);
+        if (oldest == null) {
+            return;
+        }
+
+        for (YearMonth month = YearMonth.from(oldest); month.isBefore(firstHotMonth); month = month.plusMonths(1)) {
+            LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+            try {
+                if (archivedBefore != null && !end.isAfter(archivedBefore)) {
+                    finishDeletes(month);
+                } else {
+                    archiveMonth(month);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to archive activity logs of {}", month, e);
+                return;
+            }
+        }
+    }
+
+    // Start of the table's range when a query from fromDate needs archived months too, null otherwise
+    public LocalDateTime getArchiveBoundary(LocalDateTime fromDate) {
+        if (fromDate == null) {
+            return null;
+        }
+        LocalDateTime archivedBefore = getArchivedBefore();
+        return archivedBefore != null && fromDate.isBefore(archivedBefore) ? archivedBefore : null;
+    }
+
+    // Archived logs matching the filters, newest first: the limit logs after skipping offset matches,
+    // and the number of matches
+    public ArchivedPage findPage(Long userId, String action, String entityType, LocalDateTime fromDate,
+                                 LocalDateTime toDate, long offset, int limit) {
+        List<ActivityLog> logs = new ArrayList<>();
+        long total = scan(userId, action, entityType, fromDate, toDate, null, (segment, row, index) -> {
+            if (index >= offset && logs.size() < limit) {
+                logs.add(segment.toActivityLog(row, this::userReference));
+            }
+            return true;
+        });
+        return new ArchivedPage(logs, total);
+    }
+
+    // Up to limit archived logs matching the filters that sort after the cursor, newest first
+    public List<ActivityLog> findBefore(Long userId, String action, String entityType, LocalDateTime fromDate,
+                                        LocalDateTime toDate, KeysetCursor before, int limit) {
+        List<ActivityLog> logs = new ArrayList<>();
+        if (limit > 0) {
+            scan(userId, action, entityType, fromDate, toDate, before, (segment, row, index) -> {
+                logs.add(segment.toActivityLog(row, this::userReference));
+                return logs.size() < limit;
+            });
+        }
+        return logs;
+    }
+
+    private void archiveMonth(YearMonth month) {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+        String monthKey = month.format(MONTH_FORMAT);
+
+        // A month's segments are committed together; a run that died before that starts over. The watermark
+        // moves before the rows are deleted, so queries read the month from the archive from then on
+        long archived = 0;
+        Long existing = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM activity_log_segments WHERE archive_month = ?", Long.class, monthKey);
+        if (existing == null || existing == 0) {
+            archived = new TransactionTemplate(transactionManager).execute(status -> writeSegments(monthKey, start, end));
+        }
+        watermarkRepository.save(new JobWatermark(WATERMARK_NAME, end));
+
+        long deleted = deleteRows(start, end);
+        logger.info("Archived {} activity logs of {}, deleted {} from the table", archived, month, deleted);
+    }
+
+    // Rows left in an archived month by a run that died while deleting; rows past the month's last archived
+    // log weren't archived and stay in the table
+    private void finishDeletes(YearMonth month) {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+        Long archivedUpTo = jdbcTemplate.queryForObject(
+            "SELECT MAX(max_created_at_micros) FROM activity_log_segments WHERE archive_month = ? AND row_count > 0",
+            Long.class, month.format(MONTH_FORMAT));
+        if (archivedUpTo != null) {
+            LocalDateTime deleteBefore = ActivityLogSegment.fromMicros(archivedUpTo + 1);
+            long deleted = deleteRows(start, deleteBefore.isBefore(end) ? deleteBefore : end);
+            logger.info("Deleted {} activity logs of archived month {} left by an earlier run", deleted, month);
+        }
+
+        Long left = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM activity_logs WHERE created_at >= ? AND created_at < ?", Long.class,
+            Timestamp.valueOf(start), Timestamp.valueOf(end));
+        if (left != null && left > 0) {
+            // Logs are stamped when they are written, so nothing should land in an archived month
+            logger.warn("{} activity logs found in already archived month {}; leaving them in the table", left, month);
+        }
+    }
+
+    private long writeSegments(String monthKey, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime cursorCreatedAt = start;
+        long cursorId = 0;
+        long written = 0;
+        for (int segment = 0; ; segment++) {
+            List<ActivityLog> logs = jdbcTemplate.query(SELECT_MONTH_CHUNK, this::mapRow, Timestamp.valueOf(end),
+                Timestamp.valueOf(cursorCreatedAt), Timestamp.valueOf(cursorCreatedAt), cursorId, segmentRows);
+            if (logs.isEmpty()) {
+                return written;
+            }
+            byte[] data;
+            try {
+                data = ActivityLogSegment.encode(logs);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to encode activity log segment", e);
+            }
+            ActivityLog last = logs.get(logs.size() - 1);
+            jdbcTemplate.update(INSERT_SEGMENT, monthKey, segment, logs.size(),
+                ActivityLogSegment.toMicros(logs.get(0).getCreatedAt()), ActivityLogSegment.toMicros(last.getCreatedAt()), data);
+            written += logs.size();
+
+            cursorCreatedAt = last.getCreatedAt();
+            cursorId = last.getId();
+        }
+    }
+
+    // Short delete statements so the table isn't locked for a whole month's worth of rows
+    private long deleteRows(LocalDateTime start, LocalDateTime end) {
+        long deleted = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_MONTH_IDS, Long.class,
+                Timestamp.valueOf(start), Timestamp.valueOf(end), deleteChunkSize);
+            if (ids.isEmpty()) {
+                return deleted;
+            }
+            String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            deleted += jdbcTemplate.update("DELETE FROM activity_logs WHERE id IN (" + placeholders + ")", ids.toArray());
+        }
+    }
+
+    private interface MatchVisitor {
+        // index counts matches from the newest; returning false stops the scan
+        boolean visit(ActivityLogSegment segment, int row, long index);
+    }
+
+    // Visits matching archived logs newest first and returns how many were visited
+    private long scan(Long userId, String action, String entityType, LocalDateTime fromDate, LocalDateTime toDate,
+                      KeysetCursor before, MatchVisitor visitor) {
+        long fromMicros = fromDate != null ? ActivityLogSegment.toMicros(fromDate) : Long.MIN_VALUE;
+        long toMicros = toDate != null ? ActivityLogSegment.toMicros(toDate) : Long.MAX_VALUE;
+        long beforeMicros = before != null ? ActivityLogSegment.toMicros(before.getCreatedAt()) : Long.MAX_VALUE;
+        long beforeId = before != null ? before.getId() : Long.MAX_VALUE;
+        LocalDateTime archivedBefore = getArchivedBefore();
+        if (archivedBefore == null) {
+            return 0;
+        }
+
+        // yyyy-MM keys sort in month order
+        String first = fromDate != null ? YearMonth.from(fromDate).format(MONTH_FORMAT) : "0000-00";
+        YearMonth last = YearMonth.from(toDate != null && toDate.isBefore(archivedBefore) ? toDate : archivedBefore.minusNanos(1));
+        List<Long> segmentIds = jdbcTemplate.queryForList(SELECT_SEGMENTS, Long.class, first, last.format(MONTH_FORMAT),
+            fromMicros, Math.min(toMicros, beforeMicros));
+
+        long matches = 0;
+        for (Long segmentId : segmentIds) {
+            ActivityLogSegment segment = loadSegment(segmentId);
+            for (int row = segment.size() - 1; row >= 0; row--) {
+                long createdAt = segment.getCreatedAtMicros(row);
+                if (createdAt < fromMicros || createdAt > toMicros
+                        || createdAt > beforeMicros || (createdAt == beforeMicros && segment.getId(row) >= beforeId)
+                        || (userId != null && !userId.equals(segment.getUserId(row)))
+                        || (action != null && !action.equals(segment.getAction(row)))
+                        || (entityType != null && !entityType.equals(segment.getEntityType(row)))) {
+                    continue;
+                }
+                if (!visitor.visit(segment, row, matches++)) {
+                    return matches;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private ActivityLogSegment loadSegment(Long segmentId) {
+        byte[] data = jdbcTemplate.queryForObject("SELECT data FROM activity_log_segments WHERE id = ?", byte[].class, segmentId);
+        try {
+            return ActivityLogSegment.decode(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the activity log archive", e);
+        }
+    }
+
+    private LocalDateTime getArchivedBefore() {
+        return watermarkRepository.findById(WATERMARK_NAME).map(JobWatermark::getWatermark).orElse(null);
+    }
+
+    private User userReference(Long userId) {
+        return userRepository.getReferenceById(userId);
+    }
+
+    private ActivityLog mapRow(ResultSet rs, int rowNum) throws SQLException {
+        User user = null;
+        long userId = rs.getLong("user_id");
+        if (!rs.wasNull()) {
+            user = new User();
+            user.setId(userId);
+        }
+        Long entityId = rs.getLong("entity_id");
+        if (rs.wasNull()) {
+            entityId = null;
+        }
+        ActivityLog log = new ActivityLog(user, rs.getString("action"), rs.getString("description"),
+            rs.getString("entity_type"), entityId, rs.getString("ip_address"));
+        log.setId(rs.getLong("id"));
+        log.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        return log;
+    }
+}
@@ -0,0 +1,223 @@
+package com.taskmanager.activity;
+
+import com.taskmanager.entity.ActivityLog;
+import com.taskmanager.repository.ActivityLogBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind buffer for activity logs. Callers only enqueue; a single flusher running on the activity
+// executor writes the logs with multi-row inserts once a batch is full or the flush interval has passed
+// since its first log. Writes are serialized, so a flush from another thread never overlaps the flusher's.
+@Component
+public class ActivityLogBuffer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogBuffer.class);
+    
+    public enum OverflowPolicy {
+        // Wait up to block-timeout-ms for space, then drop the new log
+        BLOCK,
+        DROP_NEWEST,
+        DROP_OLDEST
+    }
+    
+    @Autowired
+    private ActivityLogBatchRepository activityLogBatchRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.activity-log.buffer.capacity:10000}")
+    private int capacity;
+    
+    @Value("${app.activity-log.buffer.flush-size:500}")
+    private int flushSize;
+    
+    @Value("${app.activity-log.buffer.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+    
+    @Value("${app.activity-log.buffer.overflow-policy:BLOCK}")
+    private OverflowPolicy overflowPolicy;
+    
+    @Value("${app.activity-log.buffer.block-timeout-ms:100}")
+    private long blockTimeoutMs;
+    
+    @Value("${app.activity-log.buffer.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+    
+    private BlockingQueue<ActivityLog> queue;
+    
+    @Autowired
+    @Qualifier("activityExecutor")
+    private TaskExecutor activityExecutor;
+    
+    private final CountDownLatch flusherStopped = new CountDownLatch(1);
+    
+    private final ReentrantLock writeLock = new ReentrantLock();
+    
+    private volatile boolean running;
+    
+    private Counter droppedCounter;
+    private Counter writtenCounter;
+    private Counter failedCounter;
+    private Timer flushTimer;
+    
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(capacity);
+        
+        meterRegistry.gaugeCollectionSize("taskmanager.activity_log.buffer.depth", List.of(), queue);
+        droppedCounter = meterRegistry.counter("taskmanager.activity_log.buffer.dropped", "policy", overflowPolicy.name());
+        writtenCounter = meterRegistry.counter("taskmanager.activity_log.buffer.written");
+        failedCounter = meterRegistry.counter("taskmanager.activity_log.buffer.failed");
+        flushTimer = meterRegistry.timer("taskmanager.activity_log.buffer.flush");
+        
+        running = true;
+        activityExecutor.execute(this::run);
+    }
+    
+    // Returns false when the log was dropped because the buffer is full
+    public boolean add(ActivityLog log) {
+        return enqueue(log, true);
+    }
+    
+    // Like add, but never waits for space: BLOCK drops the new log at once when the buffer is full
+    public boolean offer(ActivityLog log) {
+        return enqueue(log, false);
+    }
+    
+    public void addAll(List<ActivityLog> logs) {
+        logs.forEach(this::add);
+    }
+    
+    public void offerAll(List<ActivityLog> logs) {
+        logs.forEach(this::offer);
+    }
+    
+    private boolean enqueue(ActivityLog log, boolean mayWait) {
+        boolean accepted;
+        switch (overflowPolicy) {
+            case DROP_NEWEST -> accepted = queue.offer(log);
+            case DROP_OLDEST -> {
+                while (!queue.offer(log)) {
+                    if (queue.poll() != null) {
+                        droppedCounter.increment();
+                    }
+                }
+                accepted = true;
+            }
+            default -> {
+                if (!mayWait) {
+                    accepted = queue.offer(log);
+                    break;
+                }
+                try {
+                    accepted = queue.offer(log, blockTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    accepted = false;
+                }
+            }
+        }
+        
+        if (!accepted) {
+            droppedCounter.increment();
+        }
+        return accepted;
+    }
+    
+    public int size() {
+        return queue.size();
+    }
+    
+    // Writes everything that is queued right now on the calling thread
+    public void flush() {
+        List<ActivityLog> batch = new ArrayList<>(flushSize);
+        while (queue.drainTo(batch, flushSize) > 0) {
+            write(batch);
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // The flusher notices within one flush interval; it isn't interrupted so an insert in progress completes
+        running = false;
+        if (!flusherStopped.await(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+            logger.warn("Activity log flusher still writing after {} ms; flushing the rest once it finishes", shutdownTimeoutMs);
+        }
+        // Whatever the flusher didn't get to before it stopped, after any write it has in progress
+        flush();
+        logger.info("Activity log buffer stopped");
+    }
+    
+    private void run() {
+        try {
+            runFlushLoop();
+        } finally {
+            flusherStopped.countDown();
+        }
+    }
+    
+    private void runFlushLoop() {
+        List<ActivityLog> batch = new ArrayList<>(flushSize);
+        while (running) {
+            try {
+                ActivityLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < flushSize) {
+                    if (queue.drainTo(batch, flushSize - batch.size()) == 0) {
+                        long remaining = deadline - System.nanoTime();
+                        ActivityLog next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            write(batch);
+        }
+    }
+    
+    private void write(List<ActivityLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            flushTimer.record(() -> activityLogBatchRepository.insertMultiRow(batch));
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            failedCounter.increment(batch.size());
+            logger.error("Failed to write {} activity logs", batch.size(), e);
+        } finally {
+            writeLock.unlock();
+            batch.clear();
+        }
+    }
+}
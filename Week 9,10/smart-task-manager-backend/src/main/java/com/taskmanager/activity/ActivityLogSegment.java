@@ -0,0 +1,311 @@
+package com.taskmanager.activity;
+
+import com.taskmanager.entity.ActivityLog;
+import com.taskmanager.entity.User;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// An archived run of activity logs in (created_at, id) order, stored column by column. A small plain header
+// (row count and created_at range) identifies the encoding and is also kept in columns next to the data so
+// readers can skip segments outside a range without loading them; the gzip body holds each column in turn. Ids and timestamps are delta encoded, action, entity type and
+// IP address are dictionary encoded.
+public class ActivityLogSegment {
+
+    private static final int MAGIC = 0x414C4F47;
+    private static final int VERSION = 1;
+
+    private final int size;
+    private final long[] ids;
+    private final long[] createdAtMicros;
+    private final Long[] userIds;
+    private final String[] actions;
+    private final String[] descriptions;
+    private final String[] entityTypes;
+    private final Long[] entityIds;
+    private final String[] ipAddresses;
+
+    private ActivityLogSegment(int size) {
+        this.size = size;
+        this.ids = new long[size];
+        this.createdAtMicros = new long[size];
+        this.userIds = new Long[size];
+        this.actions = new String[size];
+        this.descriptions = new String[size];
+        this.entityTypes = new String[size];
+        this.entityIds = new Long[size];
+        this.ipAddresses = new String[size];
+    }
+
+    public static class Header {
+        private final int rowCount;
+        private final long minCreatedAtMicros;
+        private final long maxCreatedAtMicros;
+
+        Header(int rowCount, long minCreatedAtMicros, long maxCreatedAtMicros) {
+            this.rowCount = rowCount;
+            this.minCreatedAtMicros = minCreatedAtMicros;
+            this.maxCreatedAtMicros = maxCreatedAtMicros;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public long getMinCreatedAtMicros() {
+            return minCreatedAtMicros;
+        }
+
+        public long getMaxCreatedAtMicros() {
+            return maxCreatedAtMicros;
+        }
+    }
+
+    // Logs must already be in (created_at, id) order; only the user's id is stored
+    public static byte[] encode(List<ActivityLog> logs) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (out) {
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeInt(logs.size());
+            header.writeLong(logs.isEmpty() ? 0 : toMicros(logs.get(0).getCreatedAt()));
+            header.writeLong(logs.isEmpty() ? 0 : toMicros(logs.get(logs.size() - 1).getCreatedAt()));
+            header.flush();
+
+            GZIPOutputStream body = new GZIPOutputStream(out, 64 * 1024);
+            DataOutputStream columns = new DataOutputStream(new BufferedOutputStream(body, 64 * 1024));
+
+            long previousId = 0;
+            for (ActivityLog log : logs) {
+                writeVarLong(columns, zigZag(log.getId() - previousId));
+                previousId = log.getId();
+            }
+            long previousMicros = 0;
+            for (ActivityLog log : logs) {
+                long micros = toMicros(log.getCreatedAt());
+                writeVarLong(columns, zigZag(micros - previousMicros));
+                previousMicros = micros;
+            }
+            for (ActivityLog log : logs) {
+                writeNullableLong(columns, log.getUser() != null ? log.getUser().getId() : null);
+            }
+            writeDictionaryColumn(columns, logs, ActivityLog::getAction);
+            for (ActivityLog log : logs) {
+                writeNullableString(columns, log.getDescription());
+            }
+            writeDictionaryColumn(columns, logs, ActivityLog::getEntityType);
+            for (ActivityLog log : logs) {
+                writeNullableLong(columns, log.getEntityId());
+            }
+            writeDictionaryColumn(columns, logs, ActivityLog::getIpAddress);
+            columns.flush();
+            body.finish();
+        }
+        return out.toByteArray();
+    }
+
+    public static Header readHeader(byte[] data) throws IOException {
+        return readHeader(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+
+    public static ActivityLogSegment decode(byte[] data) throws IOException {
+        try (InputStream raw = new ByteArrayInputStream(data)) {
+            Header header = readHeader(new DataInputStream(raw));
+            DataInputStream columns = new DataInputStream(new BufferedInputStream(new GZIPInputStream(raw, 64 * 1024)));
+            ActivityLogSegment segment = new ActivityLogSegment(header.getRowCount());
+
+            long id = 0;
+            for (int i = 0; i < segment.size; i++) {
+                id += unZigZag(readVarLong(columns));
+                segment.ids[i] = id;
+            }
+            long micros = 0;
+            for (int i = 0; i < segment.size; i++) {
+                micros += unZigZag(readVarLong(columns));
+                segment.createdAtMicros[i] = micros;
+            }
+            for (int i = 0; i < segment.size; i++) {
+                segment.userIds[i] = readNullableLong(columns);
+            }
+            readDictionaryColumn(columns, segment.actions);
+            for (int i = 0; i < segment.size; i++) {
+                segment.descriptions[i] = readNullableString(columns);
+            }
+            readDictionaryColumn(columns, segment.entityTypes);
+            for (int i = 0; i < segment.size; i++) {
+                segment.entityIds[i] = readNullableLong(columns);
+            }
+            readDictionaryColumn(columns, segment.ipAddresses);
+            return segment;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getId(int row) {
+        return ids[row];
+    }
+
+    public long getCreatedAtMicros(int row) {
+        return createdAtMicros[row];
+    }
+
+    public Long getUserId(int row) {
+        return userIds[row];
+    }
+
+    public String getAction(int row) {
+        return actions[row];
+    }
+
+    public String getEntityType(int row) {
+        return entityTypes[row];
+    }
+
+    public ActivityLog toActivityLog(int row, Function<Long, User> users) {
+        ActivityLog log = new ActivityLog(userIds[row] != null ? users.apply(userIds[row]) : null, actions[row],
+            descriptions[row], entityTypes[row], entityIds[row], ipAddresses[row]);
+        log.setId(ids[row]);
+        log.setCreatedAt(fromMicros(createdAtMicros[row]));
+        return log;
+    }
+
+    // created_at is a local date-time; UTC is only used as a fixed offset for the encoding
+    public static long toMicros(LocalDateTime dateTime) {
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), dateTime);
+    }
+
+    public static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+            (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    private static Header readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not an activity log segment");
+        }
+        return new Header(in.readInt(), in.readLong(), in.readLong());
+    }
+
+    // Distinct values once, then a 1-based index per row (0 for null)
+    private static void writeDictionaryColumn(DataOutput out, List<ActivityLog> logs,
+                                              Function<ActivityLog, String> column) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        for (ActivityLog log : logs) {
+            String value = column.apply(log);
+            if (value != null && !dictionary.containsKey(value)) {
+                dictionary.put(value, values.size() + 1);
+                values.add(value);
+            }
+        }
+        writeVarLong(out, values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+        for (ActivityLog log : logs) {
+            String value = column.apply(log);
+            writeVarLong(out, value != null ? dictionary.get(value) : 0);
+        }
+    }
+
+    private static void readDictionaryColumn(DataInput in, String[] column) throws IOException {
+        String[] values = new String[(int) readVarLong(in) + 1];
+        for (int i = 1; i < values.length; i++) {
+            values[i] = readString(in);
+        }
+        for (int i = 0; i < column.length; i++) {
+            column[i] = values[(int) readVarLong(in)];
+        }
+    }
+
+    private static void writeNullableLong(DataOutput out, Long value) throws IOException {
+        writeVarLong(out, value != null ? zigZag(value) + 1 : 0);
+    }
+
+    private static Long readNullableLong(DataInput in) throws IOException {
+        long value = readVarLong(in);
+        return value != 0 ? unZigZag(value - 1) : null;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeNullableString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readNullableString(DataInput in) throws IOException {
+        long length = readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[(int) (length - 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,159 @@
+package com.taskmanager.analytics;
+
+import com.taskmanager.entity.JobWatermark;
+import com.taskmanager.entity.TaskDailyRollup;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.event.TaskChangeFeed;
+import com.taskmanager.repository.JobWatermarkRepository;
+import com.taskmanager.repository.TaskDailyRollupRepository;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.scheduling.ClusterJobs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Incrementally maintains task_daily_rollup on one instance at a time. Each run only revisits users whose
+// tasks changed since the last watermark, or who were assignees of a change in the task change feed, which
+// also covers deletions made through any instance.
+@Component
+public class DailyRollupAggregator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DailyRollupAggregator.class);
+    
+    private static final String WATERMARK_NAME = "task_daily_rollup";
+    
+    private static final int USER_CHUNK_SIZE = 500;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private TaskDailyRollupRepository rollupRepository;
+    
+    @Autowired
+    private JobWatermarkRepository watermarkRepository;
+    
+    @Autowired
+    private TaskChangeFeed taskChangeFeed;
+    
+    @Autowired
+    private ClusterJobs clusterJobs;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.analytics.rollup-backfill-days:30}")
+    private int backfillDays;
+    
+    // Two instances would recompute the same users and race on the same rollup rows
+    @Scheduled(fixedDelayString = "${app.analytics.rollup-interval-ms:600000}", initialDelayString = "${app.analytics.rollup-interval-ms:600000}")
+    public void aggregateOnSchedule() {
+        clusterJobs.runExclusive("task-daily-rollup", Duration.ofMinutes(30), Duration.ofMinutes(1), this::aggregate);
+    }
+    
+    public void aggregate() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> aggregate(LocalDateTime.now()));
+    }
+    
+    private void aggregate(LocalDateTime runStartedAt) {
+        JobWatermark watermark = watermarkRepository.findById(WATERMARK_NAME).orElse(null);
+        
+        Set<Long> userIds = new HashSet<>();
+        LocalDateTime since;
+        if (watermark == null) {
+            since = runStartedAt.toLocalDate().minusDays(backfillDays).atStartOfDay();
+            userIds.addAll(taskRepository.findAllAssigneeIds());
+        } else {
+            // Completions are recomputed for whole days, so start at the watermark's day
+            since = watermark.getWatermark().toLocalDate().atStartOfDay();
+            userIds.addAll(taskRepository.findAssigneeIdsWithTasksUpdatedSince(watermark.getWatermark()));
+            Set<Long> changed = taskChangeFeed.findAssigneeIdsChangedSince(watermark.getWatermark());
+            if (changed != null) {
+                userIds.addAll(changed);
+            } else {
+                // The feed no longer reaches back to the watermark; revisit everyone who has tasks or rollups
+                userIds.addAll(taskRepository.findAllAssigneeIds());
+                userIds.addAll(rollupRepository.findUserIdsWithRollupsSince(since.toLocalDate()));
+            }
+        }
+        
+        List<Long> pending = new ArrayList<>(userIds);
+        for (int from = 0; from < pending.size(); from += USER_CHUNK_SIZE) {
+            aggregateUsers(pending.subList(from, Math.min(from + USER_CHUNK_SIZE, pending.size())), since, runStartedAt);
+        }
+        
+        watermarkRepository.save(new JobWatermark(WATERMARK_NAME, runStartedAt));
+        logger.info("Daily rollup updated for {} users in {} ms", pending.size(),
+            Duration.between(runStartedAt, LocalDateTime.now()).toMillis());
+    }
+    
+    private void aggregateUsers(List<Long> userIds, LocalDateTime since, LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        Map<String, TaskDailyRollup> rollups = new HashMap<>();
+        for (TaskDailyRollup rollup : rollupRepository.findByUserIdInAndDayGreaterThanEqual(userIds, since.toLocalDate())) {
+            rollups.put(key(rollup.getUserId(), rollup.getDay()), rollup);
+        }
+        
+        // Today's snapshot is overwritten; earlier snapshots stay as they were recorded
+        for (Long userId : userIds) {
+            TaskDailyRollup todayRollup = rollup(rollups, userId, today);
+            todayRollup.setTodoCount(0);
+            todayRollup.setInProgressCount(0);
+            todayRollup.setBlockedCount(0);
+            todayRollup.setCompletedCount(0);
+            todayRollup.setOverdueCount(0);
+        }
+        for (Object[] row : taskRepository.getTaskCountByStatusForAssignees(userIds)) {
+            TaskDailyRollup todayRollup = rollup(rollups, (Long) row[0], today);
+            long count = (Long) row[2];
+            switch ((TaskStatus) row[1]) {
+                case TODO -> todayRollup.setTodoCount(count);
+                case IN_PROGRESS -> todayRollup.setInProgressCount(count);
+                case BLOCKED -> todayRollup.setBlockedCount(count);
+                case COMPLETED -> todayRollup.setCompletedCount(count);
+            }
+        }
+        for (Object[] row : taskRepository.getOverdueCountForAssignees(userIds, now)) {
+            rollup(rollups, (Long) row[0], today).setOverdueCount((Long) row[1]);
+        }
+        
+        // Completions and cycle time are recomputed for every day since the watermark's day
+        for (TaskDailyRollup rollup : rollups.values()) {
+            rollup.setCompletions(0);
+            rollup.setCycleTimeSecondsSum(0);
+        }
+        for (Object[] row : taskRepository.findCompletionsForAssignees(userIds, since)) {
+            LocalDateTime createdAt = (LocalDateTime) row[1];
+            LocalDateTime completedAt = (LocalDateTime) row[2];
+            TaskDailyRollup rollup = rollup(rollups, (Long) row[0], completedAt.toLocalDate());
+            rollup.setCompletions(rollup.getCompletions() + 1);
+            rollup.setCycleTimeSecondsSum(rollup.getCycleTimeSecondsSum()
+                + Math.max(0, Duration.between(createdAt, completedAt).getSeconds()));
+        }
+        
+        rollupRepository.saveAll(rollups.values());
+    }
+    
+    private TaskDailyRollup rollup(Map<String, TaskDailyRollup> rollups, Long userId, LocalDate day) {
+        return rollups.computeIfAbsent(key(userId, day), k -> new TaskDailyRollup(userId, day));
+    }
+    
+    private static String key(Long userId, LocalDate day) {
+        return userId + ":" + day;
+    }
+}
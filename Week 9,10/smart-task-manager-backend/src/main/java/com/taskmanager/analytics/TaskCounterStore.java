@@ -0,0 +1,204 @@
+package com.taskmanager.analytics;
+
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.event.TaskSnapshot;
+import com.taskmanager.repository.TaskRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Task counts by status and by (assignee, status), kept current from task events
+// and periodically reconciled against the database. Events change the counters under the read lock, so
+// they don't block each other; reconcile() takes the write lock to start tracking which statuses and
+// assignees change while it reads the database, and again to reset the ones that didn't. Those that
+// changed keep their live counts (the read may or may not include the change) until a later run.
+@Component
+public class TaskCounterStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskCounterStore.class);
+    
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final LongAdder[] statusCounts = newCounters();
+    
+    private final ConcurrentHashMap<Long, LongAdder[]> assigneeCounts = new ConcurrentHashMap<>();
+    
+    private final AtomicLong lastDrift = new AtomicLong();
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // Changed while reconcile() reads the database; null outside of it
+    private Set<TaskStatus> statusesChangedDuringReconcile;
+    private Set<Long> assigneesChangedDuringReconcile;
+    
+    private volatile boolean ready = false;
+    
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("taskmanager.analytics.counter.drift", lastDrift, AtomicLong::get)
+            .description("Absolute difference between in-memory task counters and the database at the last reconciliation")
+            .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+        ready = true;
+    }
+    
+    // Ahead of the live update listener, which reads these counters
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onTaskChanged(TaskChangedEvent event) {
+        apply(event.getBefore(), -1);
+        apply(event.getAfter(), 1);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.analytics.reconcile-interval-ms:300000}",
+               initialDelayString = "${app.analytics.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        lock.writeLock().lock();
+        try {
+            statusesChangedDuringReconcile = ConcurrentHashMap.newKeySet();
+            assigneesChangedDuringReconcile = ConcurrentHashMap.newKeySet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        try {
+            Map<TaskStatus, Long> dbStatusCounts = new EnumMap<>(TaskStatus.class);
+            for (Object[] row : taskRepository.getTaskCountByStatus()) {
+                dbStatusCounts.put((TaskStatus) row[0], (Long) row[1]);
+            }
+            Map<Long, Map<TaskStatus, Long>> dbAssigneeCounts = new HashMap<>();
+            for (Object[] row : taskRepository.getTaskCountByAssigneeAndStatus()) {
+                dbAssigneeCounts.computeIfAbsent((Long) row[0], id -> new EnumMap<>(TaskStatus.class))
+                    .put((TaskStatus) row[1], (Long) row[2]);
+            }
+            
+            long drift = 0;
+            lock.writeLock().lock();
+            try {
+                for (TaskStatus status : STATUSES) {
+                    if (!statusesChangedDuringReconcile.contains(status)) {
+                        drift += resetCounter(statusCounts[status.ordinal()], dbStatusCounts.getOrDefault(status, 0L));
+                    }
+                }
+                Set<Long> assigneeIds = new HashSet<>(assigneeCounts.keySet());
+                assigneeIds.addAll(dbAssigneeCounts.keySet());
+                assigneeIds.removeAll(assigneesChangedDuringReconcile);
+                for (Long assigneeId : assigneeIds) {
+                    LongAdder[] counters = assigneeCounts.computeIfAbsent(assigneeId, id -> newCounters());
+                    Map<TaskStatus, Long> expected = dbAssigneeCounts.getOrDefault(assigneeId, Map.of());
+                    for (TaskStatus status : STATUSES) {
+                        drift += resetCounter(counters[status.ordinal()], expected.getOrDefault(status, 0L));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            
+            lastDrift.set(drift);
+            if (ready && drift != 0) {
+                logger.warn("Task counters drifted from the database by {} and were reset", drift);
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                statusesChangedDuringReconcile = null;
+                assigneesChangedDuringReconcile = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public Map<TaskStatus, Long> getStatusCounts() {
+        return toMap(statusCounts);
+    }
+    
+    public Map<TaskStatus, Long> getAssigneeStatusCounts(Long assigneeId) {
+        LongAdder[] counters = assigneeCounts.get(assigneeId);
+        return counters != null ? toMap(counters) : toMap(newCounters());
+    }
+    
+    public Map<Long, Map<TaskStatus, Long>> getAllAssigneeStatusCounts() {
+        Map<Long, Map<TaskStatus, Long>> counts = new HashMap<>();
+        assigneeCounts.forEach((assigneeId, counters) -> counts.put(assigneeId, toMap(counters)));
+        return counts;
+    }
+    
+    private void apply(TaskSnapshot snapshot, int delta) {
+        if (snapshot == null) {
+            return;
+        }
+        int status = snapshot.getStatus().ordinal();
+        lock.readLock().lock();
+        try {
+            statusCounts[status].add(delta);
+            for (Long assigneeId : snapshot.getAssigneeIds()) {
+                assigneeCounts.computeIfAbsent(assigneeId, id -> newCounters())[status].add(delta);
+            }
+            if (statusesChangedDuringReconcile != null) {
+                statusesChangedDuringReconcile.add(snapshot.getStatus());
+                assigneesChangedDuringReconcile.addAll(snapshot.getAssigneeIds());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Called under the write lock; one add, so readers never see the counter at zero in between
+    private long resetCounter(LongAdder counter, long expected) {
+        long difference = expected - counter.sum();
+        counter.add(difference);
+        return Math.abs(difference);
+    }
+    
+    private static Map<TaskStatus, Long> toMap(LongAdder[] counters) {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : STATUSES) {
+            counts.put(status, counters[status.ordinal()].sum());
+        }
+        return counts;
+    }
+    
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[STATUSES.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,158 @@
+package com.taskmanager.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Named executors for background work, each with its own limits. Spring Boot binds the executor.* metrics
+// of every pool under its bean name; rejections are counted here under the same name.
+// With app.executors.virtual-threads=true on JDK 21+ they run tasks on virtual threads instead, limited
+// by max-size concurrent tasks. Virtual threads are looked up reflectively since the build targets JDK 17.
+@Configuration
+public class ExecutorConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorConfig.class);
+    
+    @Autowired
+    private Environment environment;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.executors.virtual-threads:false}")
+    private boolean virtualThreads;
+    
+    // SMTP delivery workers of the email outbox
+    @Bean
+    public AsyncTaskExecutor emailExecutor() {
+        return createExecutor("email", 4, 4, 8, "CALLER_RUNS");
+    }
+    
+    // Activity log write-behind flushing
+    @Bean
+    public AsyncTaskExecutor activityExecutor() {
+        return createExecutor("activity", 1, 1, 0, "ABORT");
+    }
+    
+    // Reminders, index rebuilds; also the default for @Async
+    @Bean(name = {"reportingExecutor", "taskExecutor"})
+    public AsyncTaskExecutor reportingExecutor() {
+        return createExecutor("reporting", 4, 8, 100, "CALLER_RUNS");
+    }
+    
+    // Streams exports to the client, the only async MVC requests. Never CALLER_RUNS: an export would hold the
+    // request thread for its whole download. A rejected export is answered with 503 instead.
+    @Bean
+    public AsyncTaskExecutor exportExecutor() {
+        return createExecutor("export", 2, 4, 4, "ABORT");
+    }
+    
+    // Writes queued server-sent events to live update connections, one drain task per connection at a time.
+    // Never CALLER_RUNS: publishers hold a channel lock and must not write to a slow client themselves. A
+    // rejected drain closes that connection instead, and the client replays what it missed on reconnect.
+    @Bean
+    public AsyncTaskExecutor liveExecutor() {
+        return createExecutor("live", 2, 8, 1000, "ABORT");
+    }
+    
+    // Tomcat request threads; needs JDK 21 and is independent of app.executors.virtual-threads
+    @Bean
+    @ConditionalOnProperty(name = "app.tomcat.virtual-threads", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadTomcatCustomizer() {
+        return protocolHandler -> {
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            if (executor != null) {
+                protocolHandler.setExecutor(executor);
+                logger.info("Tomcat is handling requests on virtual threads");
+            } else {
+                logger.warn("app.tomcat.virtual-threads is set but virtual threads need JDK 21, keeping the Tomcat thread pool");
+            }
+        };
+    }
+    
+    private AsyncTaskExecutor createExecutor(String name, int defaultCoreSize, int defaultMaxSize,
+                                             int defaultQueueCapacity, String defaultRejectionPolicy) {
+        String prefix = "app.executors." + name + ".";
+        int coreSize = environment.getProperty(prefix + "core-size", Integer.class, defaultCoreSize);
+        int maxSize = environment.getProperty(prefix + "max-size", Integer.class, defaultMaxSize);
+        int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class, defaultQueueCapacity);
+        String rejectionPolicy = environment.getProperty(prefix + "rejection-policy", defaultRejectionPolicy);
+        
+        if (virtualThreads) {
+            ThreadFactory factory = virtualThreadFactory(name + "-vt-");
+            if (factory != null) {
+                SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(factory);
+                executor.setConcurrencyLimit(Math.max(maxSize, 1));
+                logger.info("Executor '{}' runs on virtual threads, at most {} at a time", name, maxSize);
+                return executor;
+            }
+            logger.warn("app.executors.virtual-threads is set but virtual threads need JDK 21, using a thread pool for '{}'", name);
+        }
+        
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(Math.max(coreSize, maxSize));
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(name + "-");
+        executor.setRejectedExecutionHandler(countingRejections(name, rejectionHandler(rejectionPolicy)));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+    
+    private RejectedExecutionHandler rejectionHandler(String policy) {
+        return switch (policy.toUpperCase(Locale.ROOT)) {
+            case "CALLER_RUNS" -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case "DISCARD" -> new ThreadPoolExecutor.DiscardPolicy();
+            case "DISCARD_OLDEST" -> new ThreadPoolExecutor.DiscardOldestPolicy();
+            case "ABORT" -> new ThreadPoolExecutor.AbortPolicy();
+            default -> throw new IllegalArgumentException("Unknown rejection policy: " + policy);
+        };
+    }
+    
+    private RejectedExecutionHandler countingRejections(String name, RejectedExecutionHandler delegate) {
+        Counter rejected = meterRegistry.counter("executor.rejected", "name", name + "Executor");
+        return (task, executor) -> {
+            rejected.increment();
+            delegate.rejectedExecution(task, executor);
+        };
+    }
+    
+    // Thread.ofVirtual().name(prefix, 0).factory(), or null before JDK 21
+    private ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builder.getClass().getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builder.getClass().getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+    
+    // Executors.newVirtualThreadPerTaskExecutor(), or null before JDK 21
+    private ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.taskmanager.config;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.jcache.JCacheManagerFactoryBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.util.UUID;
+
+// The second-level cache gets a JCache CacheManager of its own per application context. The caching
+// provider hands out one manager per URI and Hibernate closes it with the session factory, so with the
+// default URI closing one context would close the regions of every other context in the JVM.
+// Caffeine reads the regions from application.conf for any URI that isn't a file or classpath resource.
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean
+    public JCacheManagerFactoryBean hibernateCacheManager() {
+        JCacheManagerFactoryBean factory = new JCacheManagerFactoryBean();
+        factory.setCacheManagerUri(URI.create("taskmanager:hibernate-" + UUID.randomUUID()));
+        return factory;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
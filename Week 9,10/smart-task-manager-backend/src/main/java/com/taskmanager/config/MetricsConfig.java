@@ -0,0 +1,37 @@
+package com.taskmanager.config;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+// Service timers (@Timed) and the role tag on http.server.requests. Repository invocation timers,
+// executor and Hibernate session statistics are auto-configured by Spring Boot.
+@Configuration
+public class MetricsConfig {
+
+    // Set by AuthTokenFilter once the bearer token is resolved to a user
+    public static final String ROLE_ATTRIBUTE = MetricsConfig.class.getName() + ".role";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // The security context is already cleared when the request observation stops, so the role
+    // travels as a request attribute instead
+    @Bean
+    public ServerRequestObservationConvention serverRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                Object role = context.getCarrier().getAttribute(ROLE_ATTRIBUTE);
+                return super.getLowCardinalityKeyValues(context).and("role", role != null ? role.toString() : "ANONYMOUS");
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.taskmanager.config;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Per-query timers from Hibernate's query statistics (hibernate.generate_statistics=true). The query tag
+// is a short hash of the HQL/SQL text, logged with the text when the query is registered, so tag values
+// stay small. Only the queries with the most total execution time are registered, up to max-queries.
+@Component
+public class QueryMetricsRegistrar {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryMetricsRegistrar.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.metrics.max-queries:100}")
+    private int maxQueries;
+
+    private final Set<String> registered = ConcurrentHashMap.newKeySet();
+
+    @Scheduled(fixedDelayString = "${app.metrics.query-refresh-interval-ms:30000}", initialDelay = 0)
+    public void registerNewQueries() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+        if (registered.size() >= maxQueries) {
+            return;
+        }
+        String[] slowestFirst = statistics.getQueries();
+        Arrays.sort(slowestFirst, Comparator.comparingLong(
+            (String query) -> statistics.getQueryStatistics(query).getExecutionTotalTime()).reversed());
+        for (String query : slowestFirst) {
+            if (registered.size() >= maxQueries) {
+                return;
+            }
+            if (registered.add(query)) {
+                register(statistics, query);
+            }
+        }
+    }
+
+    private void register(Statistics statistics, String query) {
+        QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+        String queryId = queryId(query);
+        logger.info("Query metrics for {}: {}", queryId, query);
+        FunctionTimer.builder("taskmanager.hibernate.query", queryStatistics,
+                QueryStatistics::getExecutionCount, QueryStatistics::getExecutionTotalTime, TimeUnit.MILLISECONDS)
+            .tag("query", queryId)
+            .description("Executions and total execution time of a query")
+            .register(meterRegistry);
+        TimeGauge.builder("taskmanager.hibernate.query.max", queryStatistics, TimeUnit.MILLISECONDS,
+                QueryStatistics::getExecutionMaxTime)
+            .tag("query", queryId)
+            .description("Slowest execution of a query")
+            .register(meterRegistry);
+    }
+
+    private static String queryId(String query) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
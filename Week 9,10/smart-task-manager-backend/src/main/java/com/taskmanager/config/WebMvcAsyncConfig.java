@@ -0,0 +1,22 @@
+package com.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Streaming responses (exports) are written on the export executor
+@Configuration
+public class WebMvcAsyncConfig implements WebMvcConfigurer {
+    
+    @Autowired
+    @Qualifier("exportExecutor")
+    private AsyncTaskExecutor exportExecutor;
+    
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportExecutor);
+    }
+}
@@ -1,5 +1,6 @@
 package com.taskmanager.controller;
 
+import com.taskmanager.dto.response.CursorPage;
 import com.taskmanager.entity.ActivityLog;
 import com.taskmanager.entity.User;
 import com.taskmanager.service.ActivityLogService;
@@ -18,6 +19,8 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/activity-logs")
@@ -57,6 +60,32 @@ public class ActivityLogController {
         return ResponseEntity.ok(logs);
     }
     
+    @GetMapping("/scroll")
+    @Operation(summary = "Get activity logs with cursor pagination, newest first")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> scrollActivityLogs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate) {
+        try {
+            CursorPage<ActivityLog> logs;
+            if (userId != null || action != null || entityType != null || fromDate != null || toDate != null) {
+                logs = activityLogService.getActivityLogsWithFiltersByCursor(
+                    userId, action, entityType, fromDate, toDate, cursor, size);
+            } else {
+                logs = activityLogService.getAllActivityLogsByCursor(cursor, size);
+            }
+            return ResponseEntity.ok(logs);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(createErrorResponse(e.getMessage()));
+        }
+    }
+    
     @GetMapping("/user/{userId}")
     @Operation(summary = "Get activity logs for specific user")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
@@ -113,5 +142,10 @@ public class ActivityLogController {
         
         return ResponseEntity.ok(logs);
     }
+    
+    private Map<String, String> createErrorResponse(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
+    }
 }
-
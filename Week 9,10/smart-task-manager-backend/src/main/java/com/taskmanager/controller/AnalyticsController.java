@@ -2,15 +2,21 @@ package com.taskmanager.controller;
 
 import com.taskmanager.entity.User;
 import com.taskmanager.service.AnalyticsService;
+import com.taskmanager.web.ResourceVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -23,59 +29,101 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
     
+    @Autowired
+    private ResourceVersions resourceVersions;
+    
     @GetMapping("/dashboard")
     @Operation(summary = "Get dashboard statistics for current user")
-    public ResponseEntity<Map<String, Object>> getDashboardStats(@AuthenticationPrincipal User currentUser) {
-        Map<String, Object> stats = analyticsService.getDashboardStats(currentUser.getId());
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<Map<String, Object>> getDashboardStats(@AuthenticationPrincipal User currentUser,
+                                                                 WebRequest webRequest) {
+        return resourceVersions.respond(webRequest, resourceVersions.tasks("dashboard", currentUser.getId()),
+            () -> analyticsService.getDashboardStats(currentUser.getId()));
     }
     
     @GetMapping("/dashboard/overall")
     @Operation(summary = "Get overall dashboard statistics")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<Map<String, Object>> getOverallStats() {
-        Map<String, Object> stats = analyticsService.getOverallStats();
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<Map<String, Object>> getOverallStats(WebRequest webRequest) {
+        return resourceVersions.respond(webRequest, resourceVersions.tasks("overall"), analyticsService::getOverallStats);
     }
     
     @GetMapping("/tasks/status-distribution")
     @Operation(summary = "Get task count by status")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<Map<String, Long>> getTaskCountByStatus() {
-        Map<String, Long> statusCounts = analyticsService.getTaskCountByStatus();
-        return ResponseEntity.ok(statusCounts);
+    public ResponseEntity<Map<String, Long>> getTaskCountByStatus(WebRequest webRequest) {
+        return resourceVersions.respond(webRequest, resourceVersions.tasks("status-distribution"), analyticsService::getTaskCountByStatus);
     }
     
     @GetMapping("/tasks/completed-by-user")
     @Operation(summary = "Get completed tasks count by user")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<Map<String, Object>> getCompletedTasksByUser() {
-        Map<String, Object> userStats = analyticsService.getCompletedTasksByUser();
-        return ResponseEntity.ok(userStats);
+    public ResponseEntity<Map<String, Object>> getCompletedTasksByUser(WebRequest webRequest) {
+        return resourceVersions.respond(webRequest, resourceVersions.tasks("completed-by-user"), analyticsService::getCompletedTasksByUser);
     }
     
     @GetMapping("/tasks/total-by-user")
     @Operation(summary = "Get total tasks count by user")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<Map<String, Object>> getTotalTasksByUser() {
-        Map<String, Object> userStats = analyticsService.getTotalTasksByUser();
-        return ResponseEntity.ok(userStats);
+    public ResponseEntity<Map<String, Object>> getTotalTasksByUser(WebRequest webRequest) {
+        return resourceVersions.respond(webRequest, resourceVersions.tasks("total-by-user"), analyticsService::getTotalTasksByUser);
     }
     
     @GetMapping("/productivity")
     @Operation(summary = "Get productivity metrics")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<Map<String, Object>> getProductivityMetrics() {
-        Map<String, Object> metrics = analyticsService.getProductivityMetrics();
-        return ResponseEntity.ok(metrics);
+    public ResponseEntity<Map<String, Object>> getProductivityMetrics(WebRequest webRequest) {
+        return resourceVersions.respond(webRequest, resourceVersions.tasks("productivity"), analyticsService::getProductivityMetrics);
     }
     
     @GetMapping("/workload")
     @Operation(summary = "Get workload distribution")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<Map<String, Object>> getWorkloadDistribution() {
-        Map<String, Object> workload = analyticsService.getWorkloadDistribution();
-        return ResponseEntity.ok(workload);
+    public ResponseEntity<Map<String, Object>> getWorkloadDistribution(WebRequest webRequest) {
+        return resourceVersions.respond(webRequest, resourceVersions.tasks("workload"), analyticsService::getWorkloadDistribution);
+    }
+    
+    @GetMapping("/trend")
+    @Operation(summary = "Get daily task status trend from the rollups")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<?> getTrend(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                      @RequestParam(required = false) Long userId) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(createErrorResponse("'from' must not be after 'to'"));
+        }
+        List<Map<String, Object>> trend = analyticsService.getTrend(from, to, userId);
+        return ResponseEntity.ok(trend);
+    }
+    
+    @GetMapping("/throughput")
+    @Operation(summary = "Get completed tasks per day from the rollups")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<?> getThroughput(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                           @RequestParam(required = false) Long userId) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(createErrorResponse("'from' must not be after 'to'"));
+        }
+        Map<String, Object> throughput = analyticsService.getThroughput(from, to, userId);
+        return ResponseEntity.ok(throughput);
+    }
+    
+    @GetMapping("/cycle-time")
+    @Operation(summary = "Get average task cycle time from the rollups")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<?> getCycleTime(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          @RequestParam(required = false) Long userId) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(createErrorResponse("'from' must not be after 'to'"));
+        }
+        Map<String, Object> cycleTime = analyticsService.getCycleTime(from, to, userId);
+        return ResponseEntity.ok(cycleTime);
+    }
+    
+    private Map<String, String> createErrorResponse(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
     }
 }
-
@@ -0,0 +1,48 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.entity.User;
+import com.taskmanager.live.LiveUpdateBroker;
+import com.taskmanager.service.AnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/live")
+@Tag(name = "Live Updates", description = "Server-sent events for task and dashboard changes")
+@SecurityRequirement(name = "bearerAuth")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class LiveController {
+    
+    @Autowired
+    private LiveUpdateBroker liveUpdateBroker;
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream task changes and dashboard counters for the current user",
+               description = "Sends 'task', 'dashboard' and 'resync' events; reconnect with Last-Event-ID to replay missed events")
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                   @AuthenticationPrincipal User currentUser) {
+        return liveUpdateBroker.subscribe(currentUser.getId(), parseEventId(lastEventId),
+            () -> analyticsService.getDashboardStats(currentUser.getId()));
+    }
+    
+    // An unparseable id is treated like a fresh connection
+    private Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
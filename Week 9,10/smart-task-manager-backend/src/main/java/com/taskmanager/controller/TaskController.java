@@ -1,31 +1,49 @@
 package com.taskmanager.controller;
 
+import com.taskmanager.dto.request.BulkStatusUpdateRequest;
+import com.taskmanager.dto.request.BulkTaskRequest;
 import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.dto.response.CursorPage;
 import com.taskmanager.dto.response.TaskResponse;
+import com.taskmanager.dto.response.TaskStatusChangeResult;
 import com.taskmanager.entity.Priority;
 import com.taskmanager.entity.TaskStatus;
 import com.taskmanager.entity.User;
+import com.taskmanager.export.ExportFormat;
+import com.taskmanager.service.TaskExportService;
 import com.taskmanager.service.TaskService;
+import com.taskmanager.web.ResourceVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -37,6 +55,12 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
     
+    @Autowired
+    private TaskExportService taskExportService;
+    
+    @Autowired
+    private ResourceVersions resourceVersions;
+    
     @PostMapping
     @Operation(summary = "Create a new task")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
@@ -51,9 +75,23 @@ public class TaskController {
         }
     }
     
+    @PostMapping("/bulk")
+    @Operation(summary = "Create many tasks in a single import")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<?> createTasks(@Valid @RequestBody BulkTaskRequest bulkTaskRequest,
+                                        @AuthenticationPrincipal User currentUser) {
+        try {
+            List<TaskResponse> tasks = taskService.createTasks(bulkTaskRequest.getTasks(), currentUser);
+            return ResponseEntity.ok(tasks);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(createErrorResponse(e.getMessage()));
+        }
+    }
+    
     @GetMapping
     @Operation(summary = "Get all tasks with pagination and filtering")
-    public ResponseEntity<Page<TaskResponse>> getAllTasks(
+    public ResponseEntity<?> getAllTasks(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -63,28 +101,117 @@ public class TaskController {
             @RequestParam(required = false) Priority priority,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String tags,
+            WebRequest webRequest) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<TaskResponse> tasks = taskService.getTasksWithFilters(
-            assigneeId, status, priority, fromDate, toDate, search, pageable);
+        ResourceVersions.Validator validator = resourceVersions.tasks("all", page, size, sortBy, sortDir,
+            assigneeId, status, priority, fromDate, toDate, search, tags);
+        try {
+            return resourceVersions.respond(webRequest, validator, () -> taskService.getTasksWithFilters(
+                assigneeId, status, priority, fromDate, toDate, search, tags, pageable));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(createErrorResponse(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/tags/facets")
+    @Operation(summary = "Get the most used tags among tasks matching a tag filter, status and priority")
+    public ResponseEntity<?> getTagFacets(
+            @RequestParam(required = false) String tags,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
+        ResourceVersions.Validator validator = resourceVersions.tasks("tag-facets", tags, status, priority, limit);
+        try {
+            return resourceVersions.respond(webRequest, validator,
+                () -> taskService.getTagFacets(tags, status, priority, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(createErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(createErrorResponse(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/scroll")
+    @Operation(summary = "Get tasks with cursor pagination and filtering, newest first")
+    public ResponseEntity<?> scrollTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
+            @RequestParam(required = false) String search) {
+        try {
+            CursorPage<TaskResponse> tasks = taskService.getTasksWithFiltersByCursor(
+                assigneeId, status, priority, fromDate, toDate, search, cursor, size);
+            return ResponseEntity.ok(tasks);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(createErrorResponse(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/export")
+    @Operation(summary = "Export filtered tasks as CSV, XLSX or PDF")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
+            @RequestParam(required = false) String search) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            // Thrown rather than returned: the declared body type is what makes MVC stream the export
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
         
-        return ResponseEntity.ok(tasks);
+        // Rows are written to the response while they are read, on an async request thread
+        StreamingResponseBody body = out -> taskExportService.exportTasks(
+            exportFormat, out, assigneeId, status, priority, fromDate, toDate, search);
+        
+        String filename = "tasks-" + LocalDate.now() + "." + exportFormat.getExtension();
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(body);
+    }
+    
+    // The export executor is full. The export's headers are already on the response, and entity headers
+    // would be added next to them, so the attachment is replaced on the response itself
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<?> handleRejectedExport(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(createErrorResponse("Too many exports are running, try again later"));
+    }
+    
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<?> handleResponseStatus(ResponseStatusException e) {
+        return ResponseEntity.status(e.getStatusCode())
+            .body(createErrorResponse(e.getReason()));
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get task by ID")
-    public ResponseEntity<?> getTaskById(@PathVariable Long id) {
-        Optional<TaskResponse> task = taskService.getTaskById(id);
-        
-        if (task.isPresent()) {
-            return ResponseEntity.ok(task.get());
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<?> getTaskById(@PathVariable Long id, WebRequest webRequest) {
+        return resourceVersions.respondWithTask(webRequest, id, () -> taskService.getTaskById(id));
     }
     
     @PutMapping("/{id}")
@@ -95,6 +222,9 @@ public class TaskController {
         try {
             TaskResponse task = taskService.updateTask(id, taskRequest, currentUser);
             return ResponseEntity.ok(task);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(createErrorResponse("The task was changed by someone else, reload it and try again"));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                 .body(createErrorResponse(e.getMessage()));
@@ -105,10 +235,27 @@ public class TaskController {
     @Operation(summary = "Update task status")
     public ResponseEntity<?> updateTaskStatus(@PathVariable Long id,
                                              @RequestParam TaskStatus status,
+                                             @RequestParam(required = false) Long version,
                                              @AuthenticationPrincipal User currentUser) {
         try {
-            TaskResponse task = taskService.updateTaskStatus(id, status, currentUser);
+            TaskResponse task = taskService.updateTaskStatus(id, status, version, currentUser);
             return ResponseEntity.ok(task);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(createErrorResponse("The task was changed by someone else, reload it and try again"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(createErrorResponse(e.getMessage()));
+        }
+    }
+    
+    @PatchMapping("/status")
+    @Operation(summary = "Update the status of many tasks, with a result per task")
+    public ResponseEntity<?> updateTaskStatuses(@Valid @RequestBody BulkStatusUpdateRequest request,
+                                               @AuthenticationPrincipal User currentUser) {
+        try {
+            List<TaskStatusChangeResult> results = taskService.updateTaskStatuses(request.getChanges(), currentUser);
+            return ResponseEntity.ok(results);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                 .body(createErrorResponse(e.getMessage()));
@@ -139,15 +286,31 @@ public class TaskController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "dueDate") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir,
-            @AuthenticationPrincipal User currentUser) {
+            @AuthenticationPrincipal User currentUser,
+            WebRequest webRequest) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<TaskResponse> tasks = taskService.getTasksByAssignee(currentUser.getId(), pageable);
-        
-        return ResponseEntity.ok(tasks);
+        ResourceVersions.Validator validator = resourceVersions.tasks("assignee", currentUser.getId(), page, size, sortBy, sortDir);
+        return resourceVersions.respond(webRequest, validator,
+            () -> taskService.getTasksByAssignee(currentUser.getId(), pageable));
+    }
+    
+    @GetMapping("/my-tasks/scroll")
+    @Operation(summary = "Get tasks assigned to current user with cursor pagination, newest first")
+    public ResponseEntity<?> scrollMyTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal User currentUser) {
+        try {
+            CursorPage<TaskResponse> tasks = taskService.getTasksByAssigneeByCursor(currentUser.getId(), cursor, size);
+            return ResponseEntity.ok(tasks);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(createErrorResponse(e.getMessage()));
+        }
     }
     
     @GetMapping("/created-by-me")
@@ -158,32 +321,36 @@ public class TaskController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
-            @AuthenticationPrincipal User currentUser) {
+            @AuthenticationPrincipal User currentUser,
+            WebRequest webRequest) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<TaskResponse> tasks = taskService.getTasksByCreator(currentUser.getId(), pageable);
-        
-        return ResponseEntity.ok(tasks);
+        ResourceVersions.Validator validator = resourceVersions.tasks("creator", currentUser.getId(), page, size, sortBy, sortDir);
+        return resourceVersions.respond(webRequest, validator,
+            () -> taskService.getTasksByCreator(currentUser.getId(), pageable));
     }
     
     @GetMapping("/overdue")
     @Operation(summary = "Get overdue tasks")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<List<TaskResponse>> getOverdueTasks() {
-        List<TaskResponse> tasks = taskService.getOverdueTasks();
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskResponse>> getOverdueTasks(
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest webRequest) {
+        return resourceVersions.respond(webRequest, resourceVersions.tasks("overdue", limit),
+            () -> taskService.getOverdueTasks(limit));
     }
     
     @GetMapping("/upcoming")
     @Operation(summary = "Get upcoming tasks")
     public ResponseEntity<List<TaskResponse>> getUpcomingTasks(
             @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "100") int limit,
             @AuthenticationPrincipal User currentUser) {
         
-        List<TaskResponse> tasks = taskService.getUserUpcomingTasks(currentUser.getId(), hours);
+        List<TaskResponse> tasks = taskService.getUserUpcomingTasks(currentUser.getId(), hours, limit);
         return ResponseEntity.ok(tasks);
     }
     
@@ -195,15 +362,15 @@ public class TaskController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "dueDate") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest webRequest) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<TaskResponse> tasks = taskService.getTasksByAssignee(userId, pageable);
-        
-        return ResponseEntity.ok(tasks);
+        ResourceVersions.Validator validator = resourceVersions.tasks("assignee", userId, page, size, sortBy, sortDir);
+        return resourceVersions.respond(webRequest, validator, () -> taskService.getTasksByAssignee(userId, pageable));
     }
     
     private Map<String, String> createErrorResponse(String message) {
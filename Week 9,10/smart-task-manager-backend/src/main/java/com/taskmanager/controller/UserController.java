@@ -4,6 +4,7 @@ import com.taskmanager.dto.response.UserResponse;
 import com.taskmanager.entity.Role;
 import com.taskmanager.entity.User;
 import com.taskmanager.service.UserService;
+import com.taskmanager.web.ResourceVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -16,11 +17,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/users")
@@ -32,11 +33,14 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private ResourceVersions resourceVersions;
+    
     @GetMapping("/me")
     @Operation(summary = "Get current user profile")
-    public ResponseEntity<UserResponse> getCurrentUser(@AuthenticationPrincipal User currentUser) {
-        Optional<UserResponse> user = userService.getUserById(currentUser.getId());
-        return user.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<UserResponse> getCurrentUser(@AuthenticationPrincipal User currentUser, WebRequest webRequest) {
+        return resourceVersions.respondIfPresent(webRequest, resourceVersions.users("user", currentUser.getId()),
+            () -> userService.getUserById(currentUser.getId()));
     }
     
     @GetMapping
@@ -47,52 +51,52 @@ public class UserController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "firstName") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            WebRequest webRequest) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<UserResponse> users;
-        if (search != null && !search.trim().isEmpty()) {
-            users = userService.searchUsers(search, pageable);
-        } else {
-            users = userService.getAllUsers(pageable);
-        }
-        
-        return ResponseEntity.ok(users);
+        ResourceVersions.Validator validator = resourceVersions.users("all", page, size, sortBy, sortDir, search);
+        return resourceVersions.respond(webRequest, validator, () -> {
+            if (search != null && !search.trim().isEmpty()) {
+                return userService.searchUsers(search, pageable);
+            }
+            return userService.getAllUsers(pageable);
+        });
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
-        Optional<UserResponse> user = userService.getUserById(id);
-        return user.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id, WebRequest webRequest) {
+        return resourceVersions.respondIfPresent(webRequest, resourceVersions.users("user", id),
+            () -> userService.getUserById(id));
     }
     
     @GetMapping("/by-role/{role}")
     @Operation(summary = "Get users by role")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<List<UserResponse>> getUsersByRole(@PathVariable Role role) {
-        List<UserResponse> users = userService.getUsersByRole(role);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserResponse>> getUsersByRole(@PathVariable Role role, WebRequest webRequest) {
+        return resourceVersions.respond(webRequest, resourceVersions.users("role", role.name()),
+            () -> userService.getUsersByRole(role));
     }
     
     @GetMapping("/employees")
     @Operation(summary = "Get all employees")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<List<UserResponse>> getEmployees() {
-        List<UserResponse> employees = userService.getUsersByRole(Role.EMPLOYEE);
-        return ResponseEntity.ok(employees);
+    public ResponseEntity<List<UserResponse>> getEmployees(WebRequest webRequest) {
+        return resourceVersions.respond(webRequest, resourceVersions.users("role", Role.EMPLOYEE.name()),
+            () -> userService.getUsersByRole(Role.EMPLOYEE));
     }
     
     @GetMapping("/managers")
     @Operation(summary = "Get all managers")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponse>> getManagers() {
-        List<UserResponse> managers = userService.getUsersByRole(Role.MANAGER);
-        return ResponseEntity.ok(managers);
+    public ResponseEntity<List<UserResponse>> getManagers(WebRequest webRequest) {
+        return resourceVersions.respond(webRequest, resourceVersions.users("role", Role.MANAGER.name()),
+            () -> userService.getUsersByRole(Role.MANAGER));
     }
     
     @PutMapping("/{id}/role")
@@ -166,4 +170,3 @@ public class UserController {
         return error;
     }
 }
-
@@ -0,0 +1,241 @@
+package com.taskmanager.deadline;
+
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.event.TaskSnapshot;
+import com.taskmanager.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Due dates of open (not completed) tasks in due order, overall and per assignee, kept current from
+// task events. Overdue and upcoming lists are range reads of the sorted sets, so they cost the size
+// of the answer rather than a scan.
+@Component
+public class DeadlineIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineIndex.class);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("reportingExecutor")
+    private TaskExecutor taskExecutor;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private State state = new State();
+
+    // Latest snapshot (null once deleted) of tasks changed while a rebuild is running
+    private Map<Long, TaskSnapshot> changesDuringRebuild;
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        taskExecutor.execute(this::rebuild);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.isSuperseded()) {
+            return;
+        }
+        apply(event.getTaskId(), event.getAfter());
+    }
+
+    // Replaces what is indexed for the task; after is null for a deleted task
+    public void apply(Long taskId, TaskSnapshot after) {
+        lock.writeLock().lock();
+        try {
+            state.put(taskId, after);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(taskId, after);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Open tasks due before the given time, earliest first
+    public List<Long> overdue(LocalDateTime now, int limit) {
+        lock.readLock().lock();
+        try {
+            return ids(state.all.headSet(Deadline.first(now), false), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Open tasks due between from and to inclusive, earliest first; all assignees when userId is null
+    public List<Long> upcoming(Long userId, LocalDateTime from, LocalDateTime to, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Deadline> deadlines = userId != null ? state.byAssignee.get(userId) : state.all;
+            if (deadlines == null || from.isAfter(to)) {
+                return List.of();
+            }
+            return ids(deadlines.subSet(Deadline.first(from), true, Deadline.last(to), true), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State rebuilt = new State();
+        try {
+            Map<Long, LocalDateTime> dueDates = new HashMap<>();
+            Map<Long, Set<Long>> assignees = new HashMap<>();
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = taskRepository.streamOpenDueDates()) {
+                    rows.forEach(row -> dueDates.put((Long) row[0], (LocalDateTime) row[1]));
+                }
+                try (Stream<Object[]> rows = taskRepository.streamOpenAssignees()) {
+                    rows.forEach(row -> assignees.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]));
+                }
+            });
+            dueDates.forEach((taskId, dueDate) -> rebuilt.add(taskId, dueDate, assignees.getOrDefault(taskId, Set.of())));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Deadline index rebuild failed", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(rebuilt::put);
+            changesDuringRebuild = null;
+            state = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Deadline index rebuilt with {} open tasks in {} ms",
+            rebuilt.byTask.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private static List<Long> ids(Collection<Deadline> deadlines, int limit) {
+        List<Long> ids = new ArrayList<>();
+        for (Deadline deadline : deadlines) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            ids.add(deadline.taskId);
+        }
+        return ids;
+    }
+
+    private static final class State {
+
+        private final NavigableSet<Deadline> all = new TreeSet<>();
+        private final Map<Long, NavigableSet<Deadline>> byAssignee = new HashMap<>();
+        private final Map<Long, Deadline> byTask = new HashMap<>();
+
+        private void put(Long taskId, TaskSnapshot task) {
+            remove(taskId);
+            if (task != null && task.getStatus() != TaskStatus.COMPLETED) {
+                add(taskId, task.getDueDate(), task.getAssigneeIds());
+            }
+        }
+
+        private void add(Long taskId, LocalDateTime dueDate, Set<Long> assigneeIds) {
+            Deadline deadline = new Deadline(dueDate, taskId, assigneeIds);
+            byTask.put(taskId, deadline);
+            all.add(deadline);
+            for (Long userId : assigneeIds) {
+                byAssignee.computeIfAbsent(userId, id -> new TreeSet<>()).add(deadline);
+            }
+        }
+
+        private void remove(Long taskId) {
+            Deadline deadline = byTask.remove(taskId);
+            if (deadline == null) {
+                return;
+            }
+            all.remove(deadline);
+            for (Long userId : deadline.assigneeIds) {
+                NavigableSet<Deadline> deadlines = byAssignee.get(userId);
+                if (deadlines != null) {
+                    deadlines.remove(deadline);
+                    if (deadlines.isEmpty()) {
+                        byAssignee.remove(userId);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Deadline implements Comparable<Deadline> {
+
+        private final LocalDateTime dueDate;
+        private final long taskId;
+        private final Set<Long> assigneeIds;
+
+        private Deadline(LocalDateTime dueDate, long taskId, Set<Long> assigneeIds) {
+            this.dueDate = dueDate;
+            this.taskId = taskId;
+            this.assigneeIds = assigneeIds;
+        }
+
+        // Range bounds: before and after every task due at the given time
+        private static Deadline first(LocalDateTime dueDate) {
+            return new Deadline(dueDate, Long.MIN_VALUE, Set.of());
+        }
+
+        private static Deadline last(LocalDateTime dueDate) {
+            return new Deadline(dueDate, Long.MAX_VALUE, Set.of());
+        }
+
+        @Override
+        public int compareTo(Deadline other) {
+            int byDueDate = dueDate.compareTo(other.dueDate);
+            return byDueDate != 0 ? byDueDate : Long.compare(taskId, other.taskId);
+        }
+    }
+}
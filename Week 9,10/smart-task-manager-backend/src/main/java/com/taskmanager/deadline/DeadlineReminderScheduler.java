@@ -0,0 +1,90 @@
+package com.taskmanager.deadline;
+
+import com.taskmanager.entity.JobWatermark;
+import com.taskmanager.repository.JobWatermarkRepository;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.scheduling.ClusterJobs;
+import com.taskmanager.service.TaskReminderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Per-task reminders at fixed lead times before the due date (24h and 1h by default). Every tick takes
+// the tasks whose due date minus a lead time fell between the previous tick and now, as one due_date range
+// query, so a reminder goes out within a tick of its moment instead of in a daily batch. The range is read
+// from the database rather than DeadlineIndex: whichever instance holds the lease runs the tick, and its
+// local index may not have seen changes made through the other instances yet.
+// The last tick is kept in job_watermarks: after a restart the missed windows are caught up, except for
+// tasks that are overdue by then. A task created or rescheduled already inside a lead time only gets
+// the reminders still ahead of it.
+@Component
+public class DeadlineReminderScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineReminderScheduler.class);
+
+    private static final String WATERMARK_NAME = "deadline_reminders";
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskReminderService taskReminderService;
+
+    @Autowired
+    private JobWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private ClusterJobs clusterJobs;
+    
+    @Value("${app.reminders.lead-times:24h,1h}")
+    private List<Duration> leadTimes;
+    
+    @Value("${app.reminders.tick-ms:30000}")
+    private long tickMs;
+
+    @Scheduled(fixedDelayString = "${app.reminders.tick-ms:30000}", initialDelayString = "${app.reminders.tick-ms:30000}")
+    public void tick() {
+        // Ticks of the other instances wait their turn; the watermark makes the next one start where this ended
+        clusterJobs.runExclusive("deadline-reminders", Duration.ofMillis(tickMs).multipliedBy(10), Duration.ZERO, () -> {
+            try {
+                remindDue(LocalDateTime.now());
+            } catch (Exception e) {
+                logger.error("Deadline reminder tick failed, its window is retried on the next tick", e);
+            }
+        });
+    }
+
+    // Returns the number of tasks reminded
+    public long remindDue(LocalDateTime now) {
+        JobWatermark watermark = watermarkRepository.findById(WATERMARK_NAME).orElse(null);
+        if (watermark == null) {
+            watermarkRepository.save(new JobWatermark(WATERMARK_NAME, now));
+            return 0;
+        }
+        LocalDateTime last = watermark.getWatermark();
+        if (!now.isAfter(last)) {
+            return 0;
+        }
+
+        Set<Long> taskIds = new LinkedHashSet<>();
+        for (Duration leadTime : leadTimes) {
+            LocalDateTime from = last.plus(leadTime);
+            taskIds.addAll(taskRepository.findOpenTaskIdsDueIn(from.isAfter(now) ? from : now, now.plus(leadTime)));
+        }
+        long reminded = taskIds.isEmpty() ? 0 : taskReminderService.remindTasks(taskIds, now);
+        watermarkRepository.save(new JobWatermark(WATERMARK_NAME, now));
+        if (reminded > 0) {
+            logger.info("Sent lead-time reminders for {} tasks", reminded);
+        }
+        return reminded;
+    }
+}
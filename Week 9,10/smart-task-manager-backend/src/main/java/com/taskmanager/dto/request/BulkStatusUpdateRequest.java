@@ -0,0 +1,30 @@
+package com.taskmanager.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkStatusUpdateRequest {
+
+    @NotEmpty(message = "At least one status change is required")
+    @Size(max = 1000, message = "A single batch must not exceed 1000 status changes")
+    private List<@Valid TaskStatusChange> changes;
+
+    // Constructors
+    public BulkStatusUpdateRequest() {}
+
+    public BulkStatusUpdateRequest(List<TaskStatusChange> changes) {
+        this.changes = changes;
+    }
+
+    // Getters and Setters
+    public List<TaskStatusChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<TaskStatusChange> changes) {
+        this.changes = changes;
+    }
+}
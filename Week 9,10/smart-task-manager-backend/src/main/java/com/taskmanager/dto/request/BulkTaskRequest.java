@@ -0,0 +1,30 @@
+package com.taskmanager.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkTaskRequest {
+
+    @NotEmpty(message = "At least one task is required")
+    @Size(max = 5000, message = "A single import must not exceed 5000 tasks")
+    private List<@Valid TaskRequest> tasks;
+
+    // Constructors
+    public BulkTaskRequest() {}
+
+    public BulkTaskRequest(List<TaskRequest> tasks) {
+        this.tasks = tasks;
+    }
+
+    // Getters and Setters
+    public List<TaskRequest> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<TaskRequest> tasks) {
+        this.tasks = tasks;
+    }
+}
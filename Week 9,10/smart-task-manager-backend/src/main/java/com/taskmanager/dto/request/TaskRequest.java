@@ -28,6 +28,9 @@ public class TaskRequest {
     
     private Set<Long> assigneeIds;
     
+    // Version the client last read; when set, an update of a task changed since then is refused
+    private Long version;
+    
     // Constructors
     public TaskRequest() {}
     
@@ -94,5 +97,13 @@ public class TaskRequest {
     public void setAssigneeIds(Set<Long> assigneeIds) {
         this.assigneeIds = assigneeIds;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
 
@@ -0,0 +1,50 @@
+package com.taskmanager.dto.request;
+
+import com.taskmanager.entity.TaskStatus;
+import jakarta.validation.constraints.NotNull;
+
+public class TaskStatusChange {
+
+    @NotNull(message = "Task id is required")
+    private Long taskId;
+
+    @NotNull(message = "Status is required")
+    private TaskStatus status;
+
+    // Version the client last read; when set, a task changed since then is reported as a conflict
+    private Long version;
+
+    // Constructors
+    public TaskStatusChange() {}
+
+    public TaskStatusChange(Long taskId, TaskStatus status, Long version) {
+        this.taskId = taskId;
+        this.status = status;
+        this.version = version;
+    }
+
+    // Getters and Setters
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
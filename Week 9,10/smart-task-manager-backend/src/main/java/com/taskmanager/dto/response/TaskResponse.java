@@ -20,6 +20,7 @@ public class TaskResponse {
     private LocalDateTime updatedAt;
     private LocalDateTime completedAt;
     private boolean overdue;
+    private Long version;
     
     // Constructors
     public TaskResponse() {}
@@ -147,5 +148,13 @@ public class TaskResponse {
     public void setOverdue(boolean overdue) {
         this.overdue = overdue;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
 
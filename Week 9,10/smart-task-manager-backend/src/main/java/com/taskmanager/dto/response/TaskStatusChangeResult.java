@@ -0,0 +1,65 @@
+package com.taskmanager.dto.response;
+
+import com.taskmanager.entity.TaskStatus;
+
+public class TaskStatusChangeResult {
+
+    public enum Outcome {
+        UPDATED,
+        // Already in the requested status
+        UNCHANGED,
+        // The task changed after the version the client sent
+        CONFLICT,
+        NOT_FOUND,
+        FORBIDDEN
+    }
+
+    private Long taskId;
+    private Outcome outcome;
+    // Current status and version; null when the task was not found
+    private TaskStatus status;
+    private Long version;
+
+    // Constructors
+    public TaskStatusChangeResult() {}
+
+    public TaskStatusChangeResult(Long taskId, Outcome outcome, TaskStatus status, Long version) {
+        this.taskId = taskId;
+        this.outcome = outcome;
+        this.status = status;
+        this.version = version;
+    }
+
+    // Getters and Setters
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
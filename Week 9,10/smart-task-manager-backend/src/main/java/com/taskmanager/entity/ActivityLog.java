@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "activity_logs")
+@Table(name = "activity_logs", indexes = {
+    @Index(name = "idx_activity_logs_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_activity_logs_user_id_created_at", columnList = "user_id, created_at")
+})
 public class ActivityLog {
     
     @Id
@@ -0,0 +1,96 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.*;
+
+// One archived ActivityLogSegment; written and read by ActivityLogArchive with plain JDBC. The row count and
+// created_at range are kept as columns so readers can skip segments without loading the data.
+@Entity
+@Table(name = "activity_log_segments", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_activity_log_segments_month_index", columnNames = {"archive_month", "segment_index"})
+})
+public class ActivityLogSegmentRecord {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // yyyy-MM; MONTH is a keyword in some databases
+    @Column(name = "archive_month", nullable = false, length = 7)
+    private String month;
+    
+    @Column(name = "segment_index", nullable = false)
+    private int segmentIndex;
+    
+    @Column(name = "row_count", nullable = false)
+    private int rowCount;
+    
+    @Column(name = "min_created_at_micros", nullable = false)
+    private long minCreatedAtMicros;
+    
+    @Column(name = "max_created_at_micros", nullable = false)
+    private long maxCreatedAtMicros;
+    
+    @Lob
+    @Column(nullable = false)
+    private byte[] data;
+    
+    // Constructors
+    public ActivityLogSegmentRecord() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getMonth() {
+        return month;
+    }
+    
+    public void setMonth(String month) {
+        this.month = month;
+    }
+    
+    public int getSegmentIndex() {
+        return segmentIndex;
+    }
+    
+    public void setSegmentIndex(int segmentIndex) {
+        this.segmentIndex = segmentIndex;
+    }
+    
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    public void setRowCount(int rowCount) {
+        this.rowCount = rowCount;
+    }
+    
+    public long getMinCreatedAtMicros() {
+        return minCreatedAtMicros;
+    }
+    
+    public void setMinCreatedAtMicros(long minCreatedAtMicros) {
+        this.minCreatedAtMicros = minCreatedAtMicros;
+    }
+    
+    public long getMaxCreatedAtMicros() {
+        return maxCreatedAtMicros;
+    }
+    
+    public void setMaxCreatedAtMicros(long maxCreatedAtMicros) {
+        this.maxCreatedAtMicros = maxCreatedAtMicros;
+    }
+    
+    public byte[] getData() {
+        return data;
+    }
+    
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+}
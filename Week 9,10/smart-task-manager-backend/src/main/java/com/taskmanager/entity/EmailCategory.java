@@ -0,0 +1,20 @@
+package com.taskmanager.entity;
+
+public enum EmailCategory {
+    VERIFICATION(false),
+    PASSWORD_RESET(false),
+    TASK_ASSIGNMENT(true),
+    TASK_REMINDER(true),
+    WEEKLY_SUMMARY(false);
+    
+    // Notifications that may be merged with others for the same recipient into one digest
+    private final boolean digestible;
+    
+    EmailCategory(boolean digestible) {
+        this.digestible = digestible;
+    }
+    
+    public boolean isDigestible() {
+        return digestible;
+    }
+}
@@ -0,0 +1,203 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_email_outbox_claim_token", columnList = "claim_token")
+})
+public class EmailOutbox {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String recipient;
+    
+    // Lets the dispatcher skip rows for domains that are out of rate-limit permits
+    @Column(name = "recipient_domain")
+    private String recipientDomain;
+    
+    @Column(name = "recipient_name")
+    private String recipientName;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private EmailCategory category;
+    
+    @Column(nullable = false, length = 500)
+    private String subject;
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String body;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmailStatus status = EmailStatus.PENDING;
+    
+    private int attempts = 0;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+    
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+    
+    // Constructors
+    public EmailOutbox() {}
+    
+    public EmailOutbox(String recipient, String recipientName, EmailCategory category, String subject, String body) {
+        this.recipient = recipient;
+        this.recipientDomain = domainOf(recipient);
+        this.recipientName = recipientName;
+        this.category = category;
+        this.subject = subject;
+        this.body = body;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+        this.recipientDomain = domainOf(recipient);
+    }
+    
+    public String getRecipientDomain() {
+        return recipientDomain;
+    }
+    
+    public String getRecipientName() {
+        return recipientName;
+    }
+    
+    public void setRecipientName(String recipientName) {
+        this.recipientName = recipientName;
+    }
+    
+    public EmailCategory getCategory() {
+        return category;
+    }
+    
+    public void setCategory(EmailCategory category) {
+        this.category = category;
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+    
+    public void setBody(String body) {
+        this.body = body;
+    }
+    
+    public EmailStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(EmailStatus status) {
+        this.status = status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    
+    public String getClaimToken() {
+        return claimToken;
+    }
+    
+    public void setClaimToken(String claimToken) {
+        this.claimToken = claimToken;
+    }
+    
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+    
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+    
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+    
+    public static String domainOf(String recipient) {
+        int at = recipient.lastIndexOf('@');
+        return at >= 0 ? recipient.substring(at + 1).toLowerCase() : "";
+    }
+}
@@ -0,0 +1,8 @@
+package com.taskmanager.entity;
+
+public enum EmailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,66 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Cluster-wide lock of a scheduled job (or one shard of it); written by LeaseLock with plain JDBC
+@Entity
+@Table(name = "job_leases")
+public class JobLease {
+    
+    @Id
+    @Column(length = 150)
+    private String name;
+    
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+    
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+    
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+    
+    // Constructors
+    public JobLease() {}
+    
+    public JobLease(String name, LocalDateTime lockedUntil, LocalDateTime lockedAt, String lockedBy) {
+        this.name = name;
+        this.lockedUntil = lockedUntil;
+        this.lockedAt = lockedAt;
+        this.lockedBy = lockedBy;
+    }
+    
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+    
+    public void setLockedUntil(LocalDateTime lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+    
+    public LocalDateTime getLockedAt() {
+        return lockedAt;
+    }
+    
+    public void setLockedAt(LocalDateTime lockedAt) {
+        this.lockedAt = lockedAt;
+    }
+    
+    public String getLockedBy() {
+        return lockedBy;
+    }
+    
+    public void setLockedBy(String lockedBy) {
+        this.lockedBy = lockedBy;
+    }
+}
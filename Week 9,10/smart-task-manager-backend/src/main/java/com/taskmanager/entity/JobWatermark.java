@@ -0,0 +1,41 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "job_watermarks")
+public class JobWatermark {
+    
+    @Id
+    @Column(length = 100)
+    private String name;
+    
+    @Column(nullable = false)
+    private LocalDateTime watermark;
+    
+    // Constructors
+    public JobWatermark() {}
+    
+    public JobWatermark(String name, LocalDateTime watermark) {
+        this.name = name;
+        this.watermark = watermark;
+    }
+    
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+    
+    public void setWatermark(LocalDateTime watermark) {
+        this.watermark = watermark;
+    }
+}
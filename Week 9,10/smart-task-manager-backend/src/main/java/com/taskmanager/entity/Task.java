@@ -4,13 +4,19 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    @Index(name = "idx_tasks_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_tasks_status_priority_created_at", columnList = "status, priority, created_at"),
+    @Index(name = "idx_tasks_due_date", columnList = "due_date")
+})
 public class Task {
     
     @Id
@@ -25,6 +31,7 @@ public class Task {
     private String description;
     
     @NotNull
+    @Column(name = "due_date")
     private LocalDateTime dueDate;
     
     @Enumerated(EnumType.STRING)
@@ -35,6 +42,7 @@ public class Task {
     
     @ElementCollection
     @CollectionTable(name = "task_tags", joinColumns = @JoinColumn(name = "task_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "task-tags")
     @Column(name = "tag")
     private Set<String> tags = new HashSet<>();
     
@@ -46,7 +54,8 @@ public class Task {
     @JoinTable(
         name = "task_assignees",
         joinColumns = @JoinColumn(name = "task_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
+        inverseJoinColumns = @JoinColumn(name = "user_id"),
+        indexes = @Index(name = "idx_task_assignees_user_id_task_id", columnList = "user_id, task_id")
     )
     private Set<User> assignees = new HashSet<>();
     
@@ -59,6 +68,15 @@ public class Task {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
     
+    // Bumped on every update, including the set-based status updates in TaskBatchRepository
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
+    // Set by the reminder job with a bulk update, so it doesn't touch updatedAt
+    @Column(name = "last_reminded_at")
+    private LocalDateTime lastRemindedAt;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -183,7 +201,23 @@ public class Task {
         this.completedAt = completedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     // Helper methods
+    public LocalDateTime getLastRemindedAt() {
+        return lastRemindedAt;
+    }
+    
+    public void setLastRemindedAt(LocalDateTime lastRemindedAt) {
+        this.lastRemindedAt = lastRemindedAt;
+    }
+    
     public boolean isOverdue() {
         return dueDate.isBefore(LocalDateTime.now()) && status != TaskStatus.COMPLETED;
     }
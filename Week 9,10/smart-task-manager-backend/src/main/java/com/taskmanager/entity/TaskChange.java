@@ -0,0 +1,107 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One committed task change in the cluster-wide change feed; written and read by TaskChangeFeed with plain
+// JDBC. The before and after states are TaskSnapshot JSON; assignee_ids is the comma-separated union of both
+// states' assignees, so jobs that only need the affected users don't parse the snapshots.
+@Entity
+@Table(name = "task_changes", indexes = {
+    @Index(name = "idx_task_changes_created_at", columnList = "created_at")
+})
+public class TaskChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "instance_id", nullable = false, length = 150)
+    private String instanceId;
+    
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+    
+    @Column(name = "change_type", nullable = false, length = 20)
+    private String changeType;
+    
+    @Column(name = "before_state", columnDefinition = "MEDIUMTEXT")
+    private String beforeState;
+    
+    @Column(name = "after_state", columnDefinition = "MEDIUMTEXT")
+    private String afterState;
+    
+    @Column(name = "assignee_ids", columnDefinition = "TEXT")
+    private String assigneeIds;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public TaskChange() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getInstanceId() {
+        return instanceId;
+    }
+    
+    public void setInstanceId(String instanceId) {
+        this.instanceId = instanceId;
+    }
+    
+    public Long getTaskId() {
+        return taskId;
+    }
+    
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+    
+    public String getChangeType() {
+        return changeType;
+    }
+    
+    public void setChangeType(String changeType) {
+        this.changeType = changeType;
+    }
+    
+    public String getBeforeState() {
+        return beforeState;
+    }
+    
+    public void setBeforeState(String beforeState) {
+        this.beforeState = beforeState;
+    }
+    
+    public String getAfterState() {
+        return afterState;
+    }
+    
+    public void setAfterState(String afterState) {
+        this.afterState = afterState;
+    }
+    
+    public String getAssigneeIds() {
+        return assigneeIds;
+    }
+    
+    public void setAssigneeIds(String assigneeIds) {
+        this.assigneeIds = assigneeIds;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
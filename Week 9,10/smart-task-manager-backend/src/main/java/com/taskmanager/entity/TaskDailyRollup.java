@@ -0,0 +1,126 @@
+package com.taskmanager.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "task_daily_rollup",
+    uniqueConstraints = @UniqueConstraint(name = "uk_task_daily_rollup_user_day", columnNames = {"user_id", "rollup_day"}),
+    indexes = @Index(name = "idx_task_daily_rollup_day", columnList = "rollup_day"))
+public class TaskDailyRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+    
+    // Snapshot of the user's assigned tasks by status, taken on that day
+    private long todoCount;
+    
+    private long inProgressCount;
+    
+    private long blockedCount;
+    
+    private long completedCount;
+    
+    private long overdueCount;
+    
+    // Tasks completed on that day and the sum of their created-to-completed durations
+    private long completions;
+    
+    private long cycleTimeSecondsSum;
+    
+    // Constructors
+    public TaskDailyRollup() {}
+    
+    public TaskDailyRollup(Long userId, LocalDate day) {
+        this.userId = userId;
+        this.day = day;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public LocalDate getDay() {
+        return day;
+    }
+    
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+    
+    public long getTodoCount() {
+        return todoCount;
+    }
+    
+    public void setTodoCount(long todoCount) {
+        this.todoCount = todoCount;
+    }
+    
+    public long getInProgressCount() {
+        return inProgressCount;
+    }
+    
+    public void setInProgressCount(long inProgressCount) {
+        this.inProgressCount = inProgressCount;
+    }
+    
+    public long getBlockedCount() {
+        return blockedCount;
+    }
+    
+    public void setBlockedCount(long blockedCount) {
+        this.blockedCount = blockedCount;
+    }
+    
+    public long getCompletedCount() {
+        return completedCount;
+    }
+    
+    public void setCompletedCount(long completedCount) {
+        this.completedCount = completedCount;
+    }
+    
+    public long getOverdueCount() {
+        return overdueCount;
+    }
+    
+    public void setOverdueCount(long overdueCount) {
+        this.overdueCount = overdueCount;
+    }
+    
+    public long getCompletions() {
+        return completions;
+    }
+    
+    public void setCompletions(long completions) {
+        this.completions = completions;
+    }
+    
+    public long getCycleTimeSecondsSum() {
+        return cycleTimeSecondsSum;
+    }
+    
+    public void setCycleTimeSecondsSum(long cycleTimeSecondsSum) {
+        this.cycleTimeSecondsSum = cycleTimeSecondsSum;
+    }
+}
@@ -0,0 +1,287 @@
+package com.taskmanager.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskmanager.scheduling.ClusterJobs;
+import com.taskmanager.scheduling.LeaseLock;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// Cluster-wide feed of committed task changes, so the in-memory indexes, counters and live streams of every
+// instance follow the writes made through the others. The TaskChangedEvents of a transaction are written to
+// task_changes in one JDBC batch just before it commits, so the feed holds exactly the committed changes.
+// Each instance polls the rows written by the other instances and publishes them again as remote events,
+// which the usual listeners apply like local ones.
+// Polls read a created_at window overlapping the previous one, since a row inserted earlier may commit later
+// than another; ids already seen in the window are skipped. The session is flushed before the rows are
+// written, so a writer holds the task's row lock when its row gets an id and one task's rows are in id order.
+// A replayed row older than a change this instance has already applied to the task is marked superseded.
+@Component
+public class TaskChangeFeed {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskChangeFeed.class);
+    
+    // Covers clock differences between instances stamping created_at
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(10);
+    
+    private static final int CHUNK_SIZE = 500;
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO task_changes (instance_id, task_id, change_type, before_state, after_state, assignee_ids, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String WINDOW_SQL =
+        "SELECT id, instance_id FROM task_changes WHERE created_at >= ? ORDER BY id";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private LeaseLock leaseLock;
+    
+    @Autowired
+    private ClusterJobs clusterJobs;
+    
+    @Value("${app.cluster.change-feed.retention-hours:48}")
+    private long retentionHours;
+    
+    // Feed id of the latest change applied here per task, local or replayed
+    private final Cache<Long, Long> lastApplied = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofMinutes(10))
+        .build();
+    
+    private LocalDateTime lastPoll;
+    
+    private Set<Long> seen = Set.of();
+    
+    // Runs inside the publishing transaction, unlike the after-commit listeners
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            write(List.of(event));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+    
+    // Rows committed before this point are in what the indexes and counters load at startup
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (lastPoll != null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        seen = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM task_changes WHERE created_at >= ?",
+            Long.class, Timestamp.valueOf(now.minus(POLL_OVERLAP))));
+        lastPoll = now;
+    }
+    
+    // Returns the number of changes replayed
+    @Scheduled(fixedDelayString = "${app.cluster.change-feed.poll-interval-ms:1000}")
+    public synchronized int replayChangesFromOtherInstances() {
+        if (lastPoll == null) {
+            return 0;
+        }
+        LocalDateTime pollStartedAt = LocalDateTime.now();
+        String instanceId = leaseLock.getInstanceId();
+        Set<Long> window = new HashSet<>();
+        List<Long> unseen = new ArrayList<>();
+        jdbcTemplate.query(WINDOW_SQL, rs -> {
+            long id = rs.getLong(1);
+            window.add(id);
+            if (!seen.contains(id) && !instanceId.equals(rs.getString(2))) {
+                unseen.add(id);
+            }
+        }, Timestamp.valueOf(lastPoll.minus(POLL_OVERLAP)));
+        
+        for (int from = 0; from < unseen.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = unseen.subList(from, Math.min(from + CHUNK_SIZE, unseen.size()));
+            jdbcTemplate.query("SELECT id, task_id, change_type, before_state, after_state FROM task_changes WHERE id IN (" +
+                    String.join(", ", Collections.nCopies(chunk.size(), "?")) + ") ORDER BY id",
+                rs -> {
+                    replay(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getString(5));
+                }, chunk.toArray());
+        }
+        seen = window;
+        lastPoll = pollStartedAt;
+        return unseen.size();
+    }
+    
+    // Assignees before or after every change written since the given time, by any instance; null when the
+    // feed may already have been pruned that far back
+    public Set<Long> findAssigneeIdsChangedSince(LocalDateTime since) {
+        LocalDateTime from = since.minus(POLL_OVERLAP);
+        if (from.isBefore(LocalDateTime.now().minusHours(retentionHours))) {
+            return null;
+        }
+        Set<Long> userIds = new HashSet<>();
+        jdbcTemplate.query("SELECT assignee_ids FROM task_changes WHERE created_at >= ? AND assignee_ids <> ''", rs -> {
+            for (String userId : rs.getString(1).split(",")) {
+                userIds.add(Long.valueOf(userId));
+            }
+        }, Timestamp.valueOf(from));
+        return userIds;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.cluster.change-feed.prune-interval-ms:3600000}",
+               initialDelayString = "${app.cluster.change-feed.prune-interval-ms:3600000}")
+    public void prune() {
+        clusterJobs.runExclusive("task-change-feed-prune", Duration.ofMinutes(30), Duration.ofMinutes(5), () -> {
+            int deleted = jdbcTemplate.update("DELETE FROM task_changes WHERE created_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours)));
+            logger.info("Pruned {} task changes older than {} hours", deleted, retentionHours);
+        });
+    }
+    
+    private void replay(long id, long taskId, String type, String before, String after) {
+        Long applied = lastApplied.asMap().merge(taskId, id, Math::max);
+        boolean superseded = applied != id;
+        try {
+            eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.valueOf(type),
+                fromJson(before), fromJson(after), true, superseded));
+        } catch (RuntimeException e) {
+            logger.error("Failed to apply task change {} of task {} from another instance", id, taskId, e);
+        }
+    }
+    
+    private List<Long> write(List<TaskChangedEvent> events) {
+        String instanceId = leaseLock.getInstanceId();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> ids = new ArrayList<>(events.size());
+        for (int from = 0; from < events.size(); from += CHUNK_SIZE) {
+            List<TaskChangedEvent> chunk = events.subList(from, Math.min(from + CHUNK_SIZE, events.size()));
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    for (TaskChangedEvent event : chunk) {
+                        ps.setString(1, instanceId);
+                        ps.setLong(2, event.getTaskId());
+                        ps.setString(3, event.getType().name());
+                        ps.setString(4, toJson(event.getBefore()));
+                        ps.setString(5, toJson(event.getAfter()));
+                        ps.setString(6, assigneeIds(event));
+                        ps.setTimestamp(7, now);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            ids.add(keys.getLong(1));
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        if (ids.size() != events.size()) {
+            throw new IllegalStateException("Expected " + events.size() + " generated task change ids but got " + ids.size());
+        }
+        for (int i = 0; i < events.size(); i++) {
+            lastApplied.asMap().merge(events.get(i).getTaskId(), ids.get(i), Math::max);
+        }
+        return ids;
+    }
+    
+    private static String assigneeIds(TaskChangedEvent event) {
+        Set<Long> userIds = new TreeSet<>();
+        if (event.getBefore() != null) {
+            userIds.addAll(event.getBefore().getAssigneeIds());
+        }
+        if (event.getAfter() != null) {
+            userIds.addAll(event.getAfter().getAssigneeIds());
+        }
+        return userIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+    
+    private String toJson(TaskSnapshot snapshot) {
+        if (snapshot == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize task " + snapshot.getId(), e);
+        }
+    }
+    
+    private TaskSnapshot fromJson(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, TaskSnapshot.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read a task change", e);
+        }
+    }
+    
+    // The changes of one transaction, written just before it commits
+    private class PendingChanges implements TransactionSynchronization {
+        
+        private final List<TaskChangedEvent> events = new ArrayList<>();
+        private List<Long> ids = List.of();
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            entityManager.flush();
+            ids = write(events);
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TaskChangeFeed.this);
+            if (status != STATUS_COMMITTED) {
+                for (int i = 0; i < ids.size(); i++) {
+                    lastApplied.asMap().remove(events.get(i).getTaskId(), ids.get(i));
+                }
+            }
+        }
+    }
+}
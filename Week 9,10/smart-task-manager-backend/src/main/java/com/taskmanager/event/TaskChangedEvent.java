@@ -0,0 +1,68 @@
+package com.taskmanager.event;
+
+// Published by TaskService inside the business transaction; listeners react after commit. Changes committed
+// through other instances are published again here by TaskChangeFeed, marked remote.
+public class TaskChangedEvent {
+    
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+    
+    private final Type type;
+    private final TaskSnapshot before;
+    private final TaskSnapshot after;
+    private final boolean remote;
+    private final boolean superseded;
+    
+    public TaskChangedEvent(Type type, TaskSnapshot before, TaskSnapshot after) {
+        this(type, before, after, false, false);
+    }
+    
+    public TaskChangedEvent(Type type, TaskSnapshot before, TaskSnapshot after, boolean remote, boolean superseded) {
+        this.type = type;
+        this.before = before;
+        this.after = after;
+        this.remote = remote;
+        this.superseded = superseded;
+    }
+    
+    public static TaskChangedEvent created(TaskSnapshot after) {
+        return new TaskChangedEvent(Type.CREATED, null, after);
+    }
+    
+    public static TaskChangedEvent deleted(TaskSnapshot before) {
+        return new TaskChangedEvent(Type.DELETED, before, null);
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    // Null for CREATED
+    public TaskSnapshot getBefore() {
+        return before;
+    }
+    
+    // Null for DELETED
+    public TaskSnapshot getAfter() {
+        return after;
+    }
+    
+    // Committed through another instance and replayed from the change feed
+    public boolean isRemote() {
+        return remote;
+    }
+    
+    // A replayed change older than one this instance has already applied to the task. Listeners that keep
+    // the task's latest state skip it; counters still apply its delta.
+    public boolean isSuperseded() {
+        return superseded;
+    }
+    
+    public Long getTaskId() {
+        return after != null ? after.getId() : before.getId();
+    }
+}
@@ -0,0 +1,90 @@
+package com.taskmanager.event;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Immutable copy of the task state that listeners need once the session is gone; also the JSON stored in the
+// change feed
+public class TaskSnapshot {
+    
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final LocalDateTime dueDate;
+    private final Priority priority;
+    private final TaskStatus status;
+    private final Set<String> tags;
+    private final Long createdById;
+    private final Set<Long> assigneeIds;
+    
+    @JsonCreator
+    public TaskSnapshot(Long id, String title, String description, LocalDateTime dueDate, Priority priority,
+                        TaskStatus status, Set<String> tags, Long createdById, Set<Long> assigneeIds) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.dueDate = dueDate;
+        this.priority = priority;
+        this.status = status;
+        this.tags = Set.copyOf(tags);
+        this.createdById = createdById;
+        this.assigneeIds = Set.copyOf(assigneeIds);
+    }
+    
+    public static TaskSnapshot of(Task task) {
+        return new TaskSnapshot(
+            task.getId(),
+            task.getTitle(),
+            task.getDescription(),
+            task.getDueDate(),
+            task.getPriority(),
+            task.getStatus(),
+            task.getTags(),
+            task.getCreatedBy().getId(),
+            task.getAssignees().stream().map(User::getId).collect(Collectors.toSet())
+        );
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+    
+    public Priority getPriority() {
+        return priority;
+    }
+    
+    public TaskStatus getStatus() {
+        return status;
+    }
+    
+    public Set<String> getTags() {
+        return tags;
+    }
+    
+    public Long getCreatedById() {
+        return createdById;
+    }
+    
+    public Set<Long> getAssigneeIds() {
+        return assigneeIds;
+    }
+}
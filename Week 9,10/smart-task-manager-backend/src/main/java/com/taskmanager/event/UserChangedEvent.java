@@ -0,0 +1,21 @@
+package com.taskmanager.event;
+
+// Published by UserService when a user's account state changes; listeners react after commit
+public class UserChangedEvent {
+    
+    private final Long userId;
+    private final String email;
+    
+    public UserChangedEvent(Long userId, String email) {
+        this.userId = userId;
+        this.email = email;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+}
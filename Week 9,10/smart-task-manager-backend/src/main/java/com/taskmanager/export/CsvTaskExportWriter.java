@@ -0,0 +1,56 @@
+package com.taskmanager.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class CsvTaskExportWriter implements TaskExportWriter {
+    
+    private final Writer writer;
+    
+    public CsvTaskExportWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+    
+    @Override
+    public void writeHeader(List<String> columns) throws IOException {
+        // BOM so Excel opens the file as UTF-8
+        writer.write('\uFEFF');
+        writeRow(columns);
+    }
+    
+    @Override
+    public void writeRow(List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+    
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+    
+    private String escape(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        // Keep spreadsheet apps from evaluating user supplied text as a formula
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,63 @@
+package com.taskmanager.export;
+
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.UnitValue;
+
+import java.io.OutputStream;
+import java.util.List;
+
+// Uses an iText "large table": flushed rows are laid out, written and released from memory
+public class PdfTaskExportWriter implements TaskExportWriter {
+    
+    private static final int FLUSH_EVERY_ROWS = 200;
+    
+    private static final float FONT_SIZE = 7f;
+    
+    private final PdfWriter pdfWriter;
+    private final Document document;
+    
+    private Table table;
+    private int pendingRows;
+    
+    public PdfTaskExportWriter(OutputStream out) {
+        this.pdfWriter = new PdfWriter(out);
+        this.pdfWriter.setCloseStream(false);
+        this.document = new Document(new PdfDocument(pdfWriter), PageSize.A4.rotate());
+        this.document.setMargins(20, 20, 20, 20);
+    }
+    
+    @Override
+    public void writeHeader(List<String> columns) {
+        table = new Table(UnitValue.createPercentArray(columns.size()), true);
+        table.setWidth(UnitValue.createPercentValue(100));
+        for (String column : columns) {
+            table.addHeaderCell(new Cell().add(new Paragraph(column).setBold().setFontSize(FONT_SIZE)));
+        }
+        document.add(table);
+    }
+    
+    @Override
+    public void writeRow(List<String> values) {
+        for (String value : values) {
+            table.addCell(new Cell().add(new Paragraph(value != null ? value : "").setFontSize(FONT_SIZE)));
+        }
+        if (++pendingRows >= FLUSH_EVERY_ROWS) {
+            table.flush();
+            pendingRows = 0;
+        }
+    }
+    
+    @Override
+    public void close() {
+        if (table != null) {
+            table.complete();
+        }
+        document.close();
+    }
+}
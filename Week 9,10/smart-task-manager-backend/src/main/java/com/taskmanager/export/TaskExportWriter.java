@@ -0,0 +1,16 @@
+package com.taskmanager.export;
+
+import java.io.IOException;
+import java.util.List;
+
+// Writes rows to the output as they arrive; implementations must not hold on to previous rows
+public interface TaskExportWriter extends AutoCloseable {
+    
+    void writeHeader(List<String> columns) throws IOException;
+    
+    void writeRow(List<String> values) throws IOException;
+    
+    // Completes the document and flushes it; the underlying stream is left open
+    @Override
+    void close() throws IOException;
+}
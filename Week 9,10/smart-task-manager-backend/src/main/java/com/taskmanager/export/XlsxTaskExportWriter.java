@@ -0,0 +1,81 @@
+package com.taskmanager.export;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+// SXSSF keeps only the last ROW_WINDOW rows in memory and spills the rest to a compressed temp file
+public class XlsxTaskExportWriter implements TaskExportWriter {
+    
+    private static final int ROW_WINDOW = 100;
+    
+    // Stay below the 1,048,576 row limit of a sheet
+    private static final int MAX_ROWS_PER_SHEET = 1_000_000;
+    
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook;
+    private final CellStyle headerStyle;
+    
+    private List<String> columns;
+    private Sheet sheet;
+    private int rowIndex;
+    
+    public XlsxTaskExportWriter(OutputStream out) {
+        this.out = out;
+        this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+        this.workbook.setCompressTempFiles(true);
+        
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        this.headerStyle = workbook.createCellStyle();
+        this.headerStyle.setFont(bold);
+    }
+    
+    @Override
+    public void writeHeader(List<String> columns) {
+        this.columns = columns;
+        startSheet();
+    }
+    
+    @Override
+    public void writeRow(List<String> values) {
+        if (rowIndex >= MAX_ROWS_PER_SHEET) {
+            startSheet();
+        }
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i) != null) {
+                row.createCell(i).setCellValue(values.get(i));
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            workbook.write(out);
+            out.flush();
+        } finally {
+            workbook.close();
+            workbook.dispose();
+        }
+    }
+    
+    private void startSheet() {
+        sheet = workbook.createSheet("Tasks " + (workbook.getNumberOfSheets() + 1));
+        rowIndex = 0;
+        Row header = sheet.createRow(rowIndex++);
+        for (int i = 0; i < columns.size(); i++) {
+            Cell cell = header.createCell(i);
+            cell.setCellValue(columns.get(i));
+            cell.setCellStyle(headerStyle);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.taskmanager.live;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One open event stream. Events are queued and written by a single drain task on the live executor,
+// so publishers never block on a slow client; a client that falls more than maxPendingBytes behind
+// is disconnected and catches up through Last-Event-ID replay when it reconnects. So is one whose drain
+// task the live executor rejects because its queue is full.
+class LiveConnection {
+    
+    private final SseEmitter emitter;
+    private final TaskExecutor executor;
+    private final long maxPendingBytes;
+    private final Counter rejectedCounter;
+    
+    private final Queue<LiveEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+    
+    LiveConnection(SseEmitter emitter, TaskExecutor executor, long maxPendingBytes, Counter rejectedCounter) {
+        this.emitter = emitter;
+        this.executor = executor;
+        this.maxPendingBytes = maxPendingBytes;
+        this.rejectedCounter = rejectedCounter;
+    }
+    
+    // Returns false, without queueing, once the connection is closed or over its cap, and false after
+    // closing it when the drain task is rejected
+    boolean offer(LiveEvent event) {
+        if (closed || pendingBytes.addAndGet(event.getSize()) > maxPendingBytes) {
+            pendingBytes.addAndGet(-event.getSize());
+            return false;
+        }
+        pending.add(event);
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                rejectedCounter.increment();
+                close();
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    void close() {
+        if (!closed) {
+            closed = true;
+            pending.clear();
+            emitter.complete();
+        }
+    }
+    
+    boolean isClosed() {
+        return closed;
+    }
+    
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+    
+    private void drain() {
+        do {
+            LiveEvent event;
+            while (!closed && (event = pending.poll()) != null) {
+                pendingBytes.addAndGet(-event.getSize());
+                try {
+                    emitter.send(event.toSseEvent());
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away; the emitter's completion callback unregisters the connection
+                    closed = true;
+                    pending.clear();
+                    emitter.completeWithError(e);
+                }
+            }
+            draining.set(false);
+        } while (!closed && !pending.isEmpty() && draining.compareAndSet(false, true));
+    }
+}
@@ -0,0 +1,50 @@
+package com.taskmanager.live;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+
+// One server-sent event, serialized once and shared by every connection it is queued on.
+// Heartbeats are comments without an id, so they don't move the client's Last-Event-ID.
+public class LiveEvent {
+    
+    private final Long id;
+    private final String name;
+    private final String data;
+    private final int size;
+    
+    private LiveEvent(Long id, String name, String data) {
+        this.id = id;
+        this.name = name;
+        this.data = data;
+        this.size = data.getBytes(StandardCharsets.UTF_8).length + (name != null ? name.length() : 0) + 32;
+    }
+    
+    public static LiveEvent of(long id, String name, String json) {
+        return new LiveEvent(id, name, json);
+    }
+    
+    public static LiveEvent heartbeat() {
+        return new LiveEvent(null, null, "heartbeat");
+    }
+    
+    public SseEmitter.SseEventBuilder toSseEvent() {
+        if (id == null) {
+            return SseEmitter.event().comment(data);
+        }
+        return SseEmitter.event().id(Long.toString(id)).name(name).data(data);
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    // Approximate bytes on the wire, used for the per-connection cap
+    public int getSize() {
+        return size;
+    }
+}
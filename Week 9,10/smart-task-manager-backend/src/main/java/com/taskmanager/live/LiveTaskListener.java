@@ -0,0 +1,54 @@
+package com.taskmanager.live;
+
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.event.TaskSnapshot;
+import com.taskmanager.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.Set;
+
+// Pushes committed task changes to the assignees' live streams, followed by their recomputed dashboard
+// counters. Runs after TaskCounterStore so the counters already include the change.
+@Component
+public class LiveTaskListener {
+    
+    @Autowired
+    private LiveUpdateBroker liveUpdateBroker;
+    
+    @Autowired
+    private AnalyticsService analyticsService;
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onTaskChanged(TaskChangedEvent event) {
+        // Clients already have the newer state of the task
+        if (event.isSuperseded()) {
+            return;
+        }
+        TaskSnapshot before = event.getBefore();
+        TaskSnapshot after = event.getAfter();
+        
+        Set<Long> userIds = new HashSet<>();
+        if (before != null) {
+            userIds.addAll(before.getAssigneeIds());
+        }
+        if (after != null) {
+            userIds.addAll(after.getAssigneeIds());
+        }
+        
+        for (Long userId : userIds) {
+            if (!liveUpdateBroker.hasSubscribers(userId)) {
+                continue;
+            }
+            boolean assigned = after != null && after.getAssigneeIds().contains(userId);
+            TaskDelta delta = new TaskDelta(event.getType(), event.getTaskId(), assigned, assigned ? after : null);
+            liveUpdateBroker.publish(userId, LiveUpdateBroker.TASK_EVENT, delta);
+            liveUpdateBroker.publish(userId, LiveUpdateBroker.DASHBOARD_EVENT, analyticsService.getDashboardStats(userId));
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.taskmanager.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Per-user server-sent event channels. Every channel keeps the last replay-buffer-size events so a client
+// that reconnects with Last-Event-ID gets what it missed; a client whose id is older than the buffer is
+// told to resync instead. Event ids come from one sequence seeded from the clock, so ids handed out by a
+// previous process are always older than the new buffers and lead to a resync.
+@Component
+public class LiveUpdateBroker {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LiveUpdateBroker.class);
+    
+    public static final String TASK_EVENT = "task";
+    public static final String DASHBOARD_EVENT = "dashboard";
+    public static final String RESYNC_EVENT = "resync";
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    @Qualifier("liveExecutor")
+    private TaskExecutor liveExecutor;
+    
+    @Value("${app.live.replay-buffer-size:100}")
+    private int replayBufferSize;
+    
+    @Value("${app.live.max-pending-bytes:65536}")
+    private long maxPendingBytes;
+    
+    @Value("${app.live.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+    
+    @Value("${app.live.replay-retention-ms:300000}")
+    private long replayRetentionMs;
+    
+    private final ConcurrentHashMap<Long, Channel> channels = new ConcurrentHashMap<>();
+    
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    
+    private Counter overflowCounter;
+    
+    private Counter rejectedCounter;
+    
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("taskmanager.live.connections", connectionCount);
+        overflowCounter = meterRegistry.counter("taskmanager.live.overflow");
+        // Connections closed because the live executor's queue was full
+        rejectedCounter = meterRegistry.counter("taskmanager.live.rejected");
+    }
+    
+    // Fresh and resyncing clients get a dashboard snapshot; replayed clients already have current state
+    public SseEmitter subscribe(Long userId, Long lastEventId, Supplier<Object> dashboardSnapshot) {
+        Channel channel = channels.computeIfAbsent(userId, id -> new Channel(sequence.get()));
+        boolean replayable;
+        long position;
+        synchronized (channel) {
+            channel.lastActive = System.currentTimeMillis();
+            replayable = lastEventId != null && lastEventId >= channel.coveredFrom && lastEventId <= sequence.get();
+            position = replayable ? lastEventId : channel.position();
+        }
+        // Read outside the channel lock; whatever is published meanwhile is replayed on top of it
+        String snapshot = replayable ? null : toJson(dashboardSnapshot.get());
+        long resumeFrom = position;
+        
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        LiveConnection connection = new LiveConnection(emitter, liveExecutor, maxPendingBytes, rejectedCounter);
+        emitter.onCompletion(() -> unregister(userId, connection));
+        emitter.onTimeout(connection::close);
+        emitter.onError(e -> unregister(userId, connection));
+        
+        channels.compute(userId, (id, current) -> {
+            Channel target = current != null ? current : new Channel(sequence.get());
+            synchronized (target) {
+                if (resumeFrom < target.coveredFrom) {
+                    // More than a buffer's worth of events went by while connecting
+                    connection.offer(LiveEvent.of(target.position(), RESYNC_EVENT, "{}"));
+                } else {
+                    if (snapshot != null) {
+                        if (lastEventId != null) {
+                            connection.offer(LiveEvent.of(resumeFrom, RESYNC_EVENT, "{}"));
+                        }
+                        connection.offer(LiveEvent.of(resumeFrom, DASHBOARD_EVENT, snapshot));
+                    }
+                    for (LiveEvent event : target.replay) {
+                        if (event.getId() > resumeFrom) {
+                            connection.offer(event);
+                        }
+                    }
+                }
+                target.connections.add(connection);
+                target.lastActive = System.currentTimeMillis();
+            }
+            return target;
+        });
+        connectionCount.incrementAndGet();
+        return emitter;
+    }
+    
+    public boolean hasSubscribers(Long userId) {
+        return channels.containsKey(userId);
+    }
+    
+    // Buffers the event for replay and queues it on the user's open connections; no-op for users
+    // without a channel, who reload everything when they connect
+    public void publish(Long userId, String name, Object payload) {
+        Channel channel = channels.get(userId);
+        if (channel == null) {
+            return;
+        }
+        String json = toJson(payload);
+        synchronized (channel) {
+            LiveEvent event = LiveEvent.of(sequence.incrementAndGet(), name, json);
+            channel.replay.addLast(event);
+            while (channel.replay.size() > replayBufferSize) {
+                channel.coveredFrom = channel.replay.removeFirst().getId();
+            }
+            for (LiveConnection connection : channel.connections) {
+                if (!connection.offer(event)) {
+                    overflow(connection);
+                }
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.live.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long idleBefore = System.currentTimeMillis() - replayRetentionMs;
+        LiveEvent heartbeat = LiveEvent.heartbeat();
+        for (Long userId : channels.keySet()) {
+            channels.computeIfPresent(userId, (id, channel) -> {
+                synchronized (channel) {
+                    for (LiveConnection connection : channel.connections) {
+                        if (!connection.offer(heartbeat)) {
+                            overflow(connection);
+                        }
+                    }
+                    return channel.connections.isEmpty() && channel.lastActive < idleBefore ? null : channel;
+                }
+            });
+        }
+    }
+    
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+    
+    private void overflow(LiveConnection connection) {
+        if (!connection.isClosed()) {
+            overflowCounter.increment();
+            logger.debug("Closing live connection that fell more than {} bytes behind", maxPendingBytes);
+            connection.close();
+        }
+    }
+    
+    private void unregister(Long userId, LiveConnection connection) {
+        Channel channel = channels.get(userId);
+        if (channel == null) {
+            return;
+        }
+        synchronized (channel) {
+            if (channel.connections.remove(connection)) {
+                connectionCount.decrementAndGet();
+                // The replay buffer is kept for replay-retention-ms so the client can reconnect
+                channel.lastActive = System.currentTimeMillis();
+            }
+        }
+    }
+    
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize live event: " + e.getMessage(), e);
+        }
+    }
+    
+    private static class Channel {
+        
+        private final List<LiveConnection> connections = new CopyOnWriteArrayList<>();
+        private final Deque<LiveEvent> replay = new ArrayDeque<>();
+        // Every event after this id is still in the replay buffer
+        private long coveredFrom;
+        private long lastActive = System.currentTimeMillis();
+        
+        private Channel(long coveredFrom) {
+            this.coveredFrom = coveredFrom;
+        }
+        
+        private long position() {
+            return replay.isEmpty() ? coveredFrom : replay.getLast().getId();
+        }
+    }
+}
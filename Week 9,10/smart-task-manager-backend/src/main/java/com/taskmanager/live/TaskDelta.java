@@ -0,0 +1,57 @@
+package com.taskmanager.live;
+
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.event.TaskSnapshot;
+
+// Payload of a "task" event. assigned=false means the task left the user's list (deleted or unassigned),
+// in which case task is null and the client drops it by id.
+public class TaskDelta {
+    
+    private TaskChangedEvent.Type type;
+    private Long taskId;
+    private boolean assigned;
+    private TaskSnapshot task;
+    
+    // Constructors
+    public TaskDelta() {}
+    
+    public TaskDelta(TaskChangedEvent.Type type, Long taskId, boolean assigned, TaskSnapshot task) {
+        this.type = type;
+        this.taskId = taskId;
+        this.assigned = assigned;
+        this.task = task;
+    }
+    
+    // Getters and Setters
+    public TaskChangedEvent.Type getType() {
+        return type;
+    }
+    
+    public void setType(TaskChangedEvent.Type type) {
+        this.type = type;
+    }
+    
+    public Long getTaskId() {
+        return taskId;
+    }
+    
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+    
+    public boolean isAssigned() {
+        return assigned;
+    }
+    
+    public void setAssigned(boolean assigned) {
+        this.assigned = assigned;
+    }
+    
+    public TaskSnapshot getTask() {
+        return task;
+    }
+    
+    public void setTask(TaskSnapshot task) {
+        this.task = task;
+    }
+}
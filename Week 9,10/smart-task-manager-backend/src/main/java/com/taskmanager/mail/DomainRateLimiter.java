@@ -0,0 +1,56 @@
+package com.taskmanager.mail;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Token bucket per recipient domain, so a burst to one provider doesn't get the sender throttled
+public class DomainRateLimiter {
+    
+    private final double permitsPerSecond;
+    private final double burst;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    
+    public DomainRateLimiter(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = Math.max(1.0, permitsPerSecond);
+    }
+    
+    // Takes up to the requested number of permits and returns how many were granted
+    public int tryAcquire(String domain, int requested) {
+        Bucket bucket = buckets.computeIfAbsent(domain, d -> new Bucket());
+        synchronized (bucket) {
+            bucket.refill();
+            int granted = (int) Math.min(requested, Math.floor(bucket.tokens));
+            bucket.tokens -= granted;
+            return granted;
+        }
+    }
+    
+    // Domains without a whole permit left right now
+    public Set<String> exhaustedDomains() {
+        Set<String> exhausted = new HashSet<>();
+        buckets.forEach((domain, bucket) -> {
+            synchronized (bucket) {
+                bucket.refill();
+                if (bucket.tokens < 1.0) {
+                    exhausted.add(domain);
+                }
+            }
+        });
+        return exhausted;
+    }
+    
+    private final class Bucket {
+        
+        private double tokens = burst;
+        private long refilledAt = System.nanoTime();
+        
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) / 1_000_000_000.0 * permitsPerSecond);
+            refilledAt = now;
+        }
+    }
+}
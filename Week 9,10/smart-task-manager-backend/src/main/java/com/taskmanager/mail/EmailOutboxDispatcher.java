@@ -0,0 +1,301 @@
+package com.taskmanager.mail;
+
+import com.taskmanager.entity.EmailCategory;
+import com.taskmanager.entity.EmailOutbox;
+import com.taskmanager.entity.EmailStatus;
+import com.taskmanager.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Drains the email outbox. Each poll claims the due rows whose domain still has rate-limit permits, merges
+// digestible notifications per recipient and hands batches to the email executor; rows over the limit stay
+// pending, untouched, for a later poll. A worker sends its whole batch through one SMTP connection
+// (JavaMailSender#send(MimeMessage...)).
+@Component
+public class EmailOutboxDispatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    
+    @Autowired
+    private JavaMailSender mailSender;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+    
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${app.mail.outbox.workers:4}")
+    private int workers;
+    
+    @Value("${app.mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+    
+    @Value("${app.mail.outbox.backoff-initial-ms:30000}")
+    private long backoffInitialMs;
+    
+    @Value("${app.mail.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+    
+    @Value("${app.mail.outbox.per-domain-rate:10}")
+    private double perDomainRate;
+    
+    @Value("${app.mail.outbox.claim-timeout-ms:600000}")
+    private long claimTimeoutMs;
+    
+    @Autowired
+    @Qualifier("emailExecutor")
+    private TaskExecutor executor;
+    
+    private DomainRateLimiter rateLimiter;
+    
+    private Counter sentCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+    private Counter deferredCounter;
+    private DistributionSummary batchSizeSummary;
+    
+    @PostConstruct
+    public void init() {
+        rateLimiter = new DomainRateLimiter(perDomainRate);
+        
+        sentCounter = meterRegistry.counter("taskmanager.mail.outbox.sent");
+        retriedCounter = meterRegistry.counter("taskmanager.mail.outbox.retried");
+        failedCounter = meterRegistry.counter("taskmanager.mail.outbox.failed");
+        deferredCounter = meterRegistry.counter("taskmanager.mail.outbox.deferred");
+        batchSizeSummary = meterRegistry.summary("taskmanager.mail.send.batch.size");
+    }
+    
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}", initialDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        int released = emailOutboxRepository.releaseStaleClaims(LocalDateTime.now().minus(Duration.ofMillis(claimTimeoutMs)));
+        if (released > 0) {
+            logger.warn("Released {} stale email outbox claims", released);
+        }
+        
+        // Keep going while full pages come back, so a backlog drains without waiting for the next poll
+        int read;
+        do {
+            read = dispatchOnce();
+        } while (read == batchSize * workers);
+    }
+    
+    // Returns the number of due outbox rows read, or 0 when none of them could be claimed
+    public int dispatchOnce() {
+        String claimToken = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        
+        int[] read = {0};
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<EmailOutbox> claimed = transaction.execute(status -> {
+            // Domains out of permits are skipped in the query, so their backlog doesn't fill the page
+            Set<String> exhausted = rateLimiter.exhaustedDomains();
+            PageRequest page = PageRequest.of(0, batchSize * workers);
+            List<Object[]> ready = exhausted.isEmpty()
+                ? emailOutboxRepository.findReadyToSend(now, page)
+                : emailOutboxRepository.findReadyToSendExcludingDomains(now, exhausted, page);
+            read[0] = ready.size();
+            
+            List<Long> ids = withinRateLimit(ready);
+            if (ready.size() > ids.size()) {
+                deferredCounter.increment(ready.size() - ids.size());
+            }
+            if (ids.isEmpty()) {
+                return List.<EmailOutbox>of();
+            }
+            emailOutboxRepository.claim(ids, claimToken, now);
+            return emailOutboxRepository.findByClaimToken(claimToken);
+        });
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        
+        // One SMTP connection per batch of a domain
+        Map<String, List<OutgoingEmail>> byDomain = new LinkedHashMap<>();
+        for (OutgoingEmail email : OutgoingEmail.coalesce(claimed)) {
+            byDomain.computeIfAbsent(email.getDomain(), d -> new ArrayList<>()).add(email);
+        }
+        
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+        for (List<OutgoingEmail> emails : byDomain.values()) {
+            for (int from = 0; from < emails.size(); from += batchSize) {
+                List<OutgoingEmail> batch = new ArrayList<>(emails.subList(from, Math.min(from + batchSize, emails.size())));
+                deliveries.add(CompletableFuture.runAsync(() -> deliver(batch), executor));
+            }
+        }
+        CompletableFuture.allOf(deliveries.toArray(new CompletableFuture[0])).join();
+        return read[0];
+    }
+    
+    // Ids of the rows the per-domain rate limit lets through now; the rest stay pending, untouched.
+    // Permits are per outgoing mail, so digestible rows for a recipient already let through are free
+    private List<Long> withinRateLimit(List<Object[]> ready) {
+        Set<String> allowedMails = new HashSet<>();
+        Set<String> limitedDomains = new HashSet<>();
+        List<Long> ids = new ArrayList<>();
+        for (Object[] row : ready) {
+            Long id = (Long) row[0];
+            String recipient = (String) row[1];
+            String domain = row[2] != null ? (String) row[2] : EmailOutbox.domainOf(recipient);
+            String mail = ((EmailCategory) row[3]).isDigestible() ? recipient.toLowerCase() : "#" + id;
+            
+            if (allowedMails.contains(mail)) {
+                ids.add(id);
+            } else if (!limitedDomains.contains(domain) && rateLimiter.tryAcquire(domain, 1) == 1) {
+                allowedMails.add(mail);
+                ids.add(id);
+            } else {
+                limitedDomains.add(domain);
+            }
+        }
+        return ids;
+    }
+    
+    private void deliver(List<OutgoingEmail> batch) {
+        Map<MimeMessage, OutgoingEmail> messages = new IdentityHashMap<>();
+        Map<OutgoingEmail, Exception> failures = new IdentityHashMap<>();
+        for (OutgoingEmail email : batch) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException e) {
+                failures.put(email, e);
+            }
+        }
+        
+        if (!messages.isEmpty()) {
+            // One SMTP session per batch, so latency is timed per batch alongside the batch size
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "success";
+            try {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                outcome = "failure";
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(email -> failures.put(email, e));
+                } else {
+                    e.getFailedMessages().forEach((message, cause) -> {
+                        OutgoingEmail email = messages.get(message);
+                        if (email != null) {
+                            failures.put(email, cause);
+                        }
+                    });
+                }
+            } catch (MailException e) {
+                outcome = "failure";
+                messages.values().forEach(email -> failures.put(email, e));
+            } finally {
+                sample.stop(Timer.builder("taskmanager.mail.send")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+                batchSizeSummary.record(messages.size());
+            }
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> updated = new ArrayList<>();
+        for (OutgoingEmail email : batch) {
+            Exception failure = failures.get(email);
+            for (EmailOutbox entry : email.getEntries()) {
+                if (failure == null) {
+                    entry.setStatus(EmailStatus.SENT);
+                    entry.setSentAt(now);
+                    entry.setClaimToken(null);
+                    sentCounter.increment();
+                } else {
+                    recordFailure(entry, failure, now);
+                }
+                updated.add(entry);
+            }
+        }
+        emailOutboxRepository.saveAll(updated);
+        
+        if (!failures.isEmpty()) {
+            logger.warn("Failed to deliver {} of {} emails: {}", failures.size(), batch.size(),
+                failures.values().iterator().next().getMessage());
+        }
+    }
+    
+    private void recordFailure(EmailOutbox entry, Exception failure, LocalDateTime now) {
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(truncate(failure.getMessage()));
+        entry.setClaimToken(null);
+        
+        if (entry.getAttempts() >= maxAttempts) {
+            entry.setStatus(EmailStatus.FAILED);
+            failedCounter.increment();
+            logger.error("Giving up on email {} to {} after {} attempts", entry.getId(), entry.getRecipient(), entry.getAttempts());
+        } else {
+            // Exponential backoff with jitter
+            long backoff = Math.min(backoffMaxMs, backoffInitialMs << Math.min(entry.getAttempts() - 1, 20));
+            long jitter = ThreadLocalRandom.current().nextLong(backoff / 4 + 1);
+            release(entry, now.plus(Duration.ofMillis(backoff + jitter)));
+            retriedCounter.increment();
+        }
+    }
+    
+    private void release(EmailOutbox entry, LocalDateTime nextAttemptAt) {
+        entry.setStatus(EmailStatus.PENDING);
+        entry.setClaimToken(null);
+        entry.setNextAttemptAt(nextAttemptAt);
+    }
+    
+    private MimeMessage toMimeMessage(OutgoingEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody());
+        return message;
+    }
+    
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
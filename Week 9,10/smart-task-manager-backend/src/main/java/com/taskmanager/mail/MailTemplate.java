@@ -0,0 +1,52 @@
+package com.taskmanager.mail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// A plain-text template with {{name}} placeholders, parsed once into literal parts and slot indexes.
+// Rendering appends the parts and the values in order, with no parsing or lookups per email.
+public class MailTemplate {
+    
+    private final String[] literals;
+    private final int[] slots;
+    private final int literalLength;
+    
+    private MailTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+        this.literalLength = Arrays.stream(literals).mapToInt(String::length).sum();
+    }
+    
+    // Values are passed to render in the order of slotNames
+    public static MailTemplate compile(String source, String... slotNames) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int from = 0;
+        int open;
+        while ((open = source.indexOf("{{", from)) >= 0) {
+            int close = source.indexOf("}}", open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            String name = source.substring(open + 2, close).trim();
+            int slot = Arrays.asList(slotNames).indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Unknown placeholder: " + name);
+            }
+            literals.add(source.substring(from, open));
+            slots.add(slot);
+            from = close + 2;
+        }
+        literals.add(source.substring(from));
+        return new MailTemplate(literals.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+    
+    public String render(Object... values) {
+        StringBuilder out = new StringBuilder(literalLength + 16 * slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]).append(values[slots[i]]);
+        }
+        return out.append(literals[slots.length]).toString();
+    }
+}
@@ -0,0 +1,88 @@
+package com.taskmanager.mail;
+
+import com.taskmanager.entity.EmailOutbox;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One message on the wire, covering one or more outbox rows
+class OutgoingEmail {
+    
+    private static final String SIGN_OFF = "\n\nBest regards,\nSmart Task Manager Team";
+    
+    private final String recipient;
+    private final String subject;
+    private final String body;
+    private final List<EmailOutbox> entries;
+    
+    private OutgoingEmail(String recipient, String subject, String body, List<EmailOutbox> entries) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.entries = entries;
+    }
+    
+    // Digestible notifications for the same recipient are merged into one email; others go out as they are
+    static List<OutgoingEmail> coalesce(List<EmailOutbox> claimed) {
+        List<OutgoingEmail> emails = new ArrayList<>();
+        Map<String, List<EmailOutbox>> digests = new LinkedHashMap<>();
+        for (EmailOutbox entry : claimed) {
+            if (entry.getCategory().isDigestible()) {
+                digests.computeIfAbsent(entry.getRecipient().toLowerCase(), r -> new ArrayList<>()).add(entry);
+            } else {
+                emails.add(single(entry));
+            }
+        }
+        
+        for (List<EmailOutbox> entries : digests.values()) {
+            emails.add(entries.size() == 1 ? single(entries.get(0)) : digest(entries));
+        }
+        return emails;
+    }
+    
+    private static OutgoingEmail single(EmailOutbox entry) {
+        String body = greeting(entry) + entry.getBody() + SIGN_OFF;
+        return new OutgoingEmail(entry.getRecipient(), entry.getSubject(), body, List.of(entry));
+    }
+    
+    private static OutgoingEmail digest(List<EmailOutbox> entries) {
+        EmailOutbox first = entries.get(0);
+        StringBuilder body = new StringBuilder(greeting(first))
+            .append("You have ").append(entries.size()).append(" new notifications:\n");
+        for (EmailOutbox entry : entries) {
+            body.append("\n----------------------------------------\n")
+                .append(entry.getSubject()).append("\n\n")
+                .append(entry.getBody()).append('\n');
+        }
+        body.append(SIGN_OFF);
+        
+        String subject = entries.size() + " new notifications - Smart Task Manager";
+        return new OutgoingEmail(first.getRecipient(), subject, body.toString(), entries);
+    }
+    
+    private static String greeting(EmailOutbox entry) {
+        return entry.getRecipientName() != null ? "Dear " + entry.getRecipientName() + ",\n\n" : "Hello,\n\n";
+    }
+    
+    String getDomain() {
+        return EmailOutbox.domainOf(recipient);
+    }
+    
+    String getRecipient() {
+        return recipient;
+    }
+    
+    String getSubject() {
+        return subject;
+    }
+    
+    String getBody() {
+        return body;
+    }
+    
+    List<EmailOutbox> getEntries() {
+        return entries;
+    }
+}
@@ -0,0 +1,337 @@
+package com.taskmanager.perf;
+
+import com.taskmanager.entity.ActivityLog;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.Role;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.ActivityLogBatchRepository;
+import com.taskmanager.repository.TaskBatchRepository;
+import com.taskmanager.repository.UserBatchRepository;
+import com.taskmanager.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Production-shaped data for performance work, written straight through the JDBC batch repositories:
+// - users: about one manager per twenty employees, a few inactive or with notifications off
+// - tasks: created over the last history-days with more of them recent; older tasks are more
+//   likely completed, with log-normal cycle times; due dates one hour to a few weeks after creation,
+//   so open tasks include overdue ones
+// - assignees and tags: Zipf-distributed, so a few people and tags carry most of the load
+// - activity logs: task and user actions in realistic proportions, spread over the same history
+// Output is deterministic for a given seed and database. The in-memory indexes load on
+// ApplicationReadyEvent, so data generated after startup needs their rebuild() to be visible there.
+@Component
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    public static final String EMAIL_PREFIX = "perf";
+
+    public static final String PASSWORD = "perf123";
+
+    private static final String[] TAG_WORDS = {
+        "backend", "frontend", "bug", "feature", "customer", "infra", "docs", "design", "qa", "security",
+        "performance", "api", "mobile", "release", "billing", "onboarding", "reporting", "database", "ux", "ops"
+    };
+
+    private static final String[] VERBS = {"Fix", "Add", "Review", "Update", "Investigate", "Refactor", "Document", "Test"};
+
+    private static final String[] SUBJECTS = {
+        "login flow", "invoice export", "dashboard widgets", "search results", "email templates", "user settings",
+        "task board", "release notes", "API pagination", "mobile layout", "audit trail", "report scheduler"
+    };
+
+    private static final String[] TASK_ACTIONS = {"TASK_UPDATED", "TASK_STATUS_UPDATED", "TASK_CREATED", "TASK_DELETED"};
+
+    private static final int[] TASK_ACTION_WEIGHTS = {40, 30, 22, 3};
+
+    private static final String[] USER_ACTIONS = {"USER_REGISTERED", "EMAIL_VERIFIED", "NOTIFICATION_SETTINGS_UPDATED", "PASSWORD_RESET"};
+
+    @Autowired
+    private UserBatchRepository userBatchRepository;
+
+    @Autowired
+    private TaskBatchRepository taskBatchRepository;
+
+    @Autowired
+    private ActivityLogBatchRepository activityLogBatchRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.perf.generator.tags:2000}")
+    private int tagCount;
+
+    @Value("${app.perf.generator.history-days:365}")
+    private int historyDays;
+
+    @Value("${app.perf.generator.seed:42}")
+    private long seed;
+
+    @Value("${app.perf.generator.chunk-size:10000}")
+    private int chunkSize;
+
+    public Result generate(int users, int tasks, int activityLogs) {
+        long start = System.currentTimeMillis();
+        Random random = new Random(seed);
+        LocalDateTime now = LocalDateTime.now();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        List<User> managers = new ArrayList<>();
+        List<User> employees = new ArrayList<>();
+        List<User> allUsers = generateUsers(users, random, now, transaction, managers, employees);
+        if (managers.isEmpty() || employees.isEmpty()) {
+            throw new IllegalArgumentException("At least two users are needed: tasks need a manager and an employee");
+        }
+
+        Zipf assigneePopularity = new Zipf(employees.size(), 0.8);
+        Zipf tagPopularity = new Zipf(tagCount, 1.0);
+        DescendingUniforms taskAges = new DescendingUniforms(tasks);
+        long firstTaskId = Long.MAX_VALUE;
+        long lastTaskId = 0;
+        long tagRows = 0;
+        long assigneeRows = 0;
+        for (int from = 0; from < tasks; from += chunkSize) {
+            List<Task> chunk = new ArrayList<>(Math.min(chunkSize, tasks - from));
+            for (int i = from; i < Math.min(from + chunkSize, tasks); i++) {
+                Task task = generateTask(i, taskAges.next(random), random, now, managers, employees, assigneePopularity, tagPopularity);
+                tagRows += task.getTags().size();
+                assigneeRows += task.getAssignees().size();
+                chunk.add(task);
+            }
+            transaction.executeWithoutResult(status -> taskBatchRepository.insertAll(chunk));
+            firstTaskId = Math.min(firstTaskId, chunk.get(0).getId());
+            lastTaskId = chunk.get(chunk.size() - 1).getId();
+        }
+
+        Zipf userActivity = new Zipf(allUsers.size(), 0.9);
+        DescendingUniforms logAges = new DescendingUniforms(activityLogs);
+        for (int from = 0; from < activityLogs; from += chunkSize) {
+            List<ActivityLog> chunk = new ArrayList<>(Math.min(chunkSize, activityLogs - from));
+            for (int i = from; i < Math.min(from + chunkSize, activityLogs); i++) {
+                chunk.add(generateActivityLog(logAges.next(random), random, now, allUsers, userActivity, firstTaskId, lastTaskId));
+            }
+            transaction.executeWithoutResult(status -> activityLogBatchRepository.insertMultiRow(chunk));
+        }
+
+        long rows = users + tasks + tagRows + assigneeRows + activityLogs;
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        Result result = new Result(allUsers, tasks, tagRows, assigneeRows, activityLogs, elapsed);
+        logger.info("Generated {} users, {} tasks ({} tags, {} assignees) and {} activity logs: {} rows in {} ms, {} rows/s",
+            users, tasks, tagRows, assigneeRows, activityLogs, rows, elapsed, result.getRowsPerSecond());
+        return result;
+    }
+
+    private List<User> generateUsers(int count, Random random, LocalDateTime now, TransactionTemplate transaction,
+                                     List<User> managers, List<User> employees) {
+        // Numbered after any earlier run so emails stay unique; every generated user shares one hash
+        long offset = userRepository.countByEmailStartingWith(EMAIL_PREFIX);
+        String password = passwordEncoder.encode(PASSWORD);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long number = offset + i;
+            User user = new User("Perf", "User " + number, EMAIL_PREFIX + number + "@taskmanager.com", password);
+            user.setRole(i % 20 == 0 ? Role.MANAGER : Role.EMPLOYEE);
+            user.setEmailVerified(random.nextInt(100) < 97);
+            user.setActive(random.nextInt(100) < 97);
+            user.setNotificationsEnabled(random.nextInt(100) < 90);
+            user.setCreatedAt(now.minusDays(historyDays + random.nextInt(365)));
+            user.setUpdatedAt(user.getCreatedAt());
+            users.add(user);
+        }
+        transaction.executeWithoutResult(status -> userBatchRepository.insertAll(users));
+        for (User user : users) {
+            (user.getRole() == Role.MANAGER ? managers : employees).add(user);
+        }
+        return users;
+    }
+
+    private Task generateTask(int index, double uniform, Random random, LocalDateTime now, List<User> managers, List<User> employees,
+                              Zipf assigneePopularity, Zipf tagPopularity) {
+        long historySeconds = historyDays * 86400L;
+        // Squaring skews creation towards the recent end of the history
+        double age = uniform * uniform;
+        LocalDateTime createdAt = now.minusSeconds((long) (historySeconds * age));
+        LocalDateTime dueDate = createdAt.plusHours(1 + (long) exponential(random, 7 * 24));
+
+        String title = VERBS[random.nextInt(VERBS.length)] + " " + SUBJECTS[random.nextInt(SUBJECTS.length)] + " #" + index;
+        Priority priority = pick(random, Priority.values(), 30, 50, 20);
+        Task task = new Task(title, "Generated task " + index + ": " + title.toLowerCase(), dueDate, priority,
+            managers.get(random.nextInt(managers.size())));
+
+        if (random.nextDouble() < 0.1 + 0.85 * age) {
+            // Log-normal cycle time, median around half a day
+            LocalDateTime completedAt = createdAt.plusMinutes((long) (60 * Math.exp(2.5 + 1.2 * random.nextGaussian())));
+            task.setStatus(TaskStatus.COMPLETED);
+            task.setCompletedAt(completedAt.isAfter(now) ? now : completedAt);
+            task.setUpdatedAt(task.getCompletedAt());
+        } else {
+            task.setStatus(pick(random, new TaskStatus[]{TaskStatus.TODO, TaskStatus.IN_PROGRESS, TaskStatus.BLOCKED}, 50, 35, 15));
+            long sinceCreated = Duration.between(createdAt, now).getSeconds();
+            task.setUpdatedAt(createdAt.plusSeconds(sinceCreated > 0 ? (long) (random.nextDouble() * sinceCreated) : 0));
+        }
+        task.setCreatedAt(createdAt);
+
+        int assignees = pick(random, new Integer[]{0, 1, 2, 3}, 5, 60, 25, 10);
+        Set<User> assigned = new HashSet<>();
+        for (int attempt = 0; assigned.size() < Math.min(assignees, employees.size()) && attempt < 10; attempt++) {
+            assigned.add(employees.get(assigneePopularity.next(random)));
+        }
+        task.setAssignees(assigned);
+
+        int tags = pick(random, new Integer[]{0, 1, 2, 3, 4}, 10, 35, 30, 17, 8);
+        Set<String> tagged = new HashSet<>();
+        for (int i = 0; i < tags; i++) {
+            tagged.add(tagName(tagPopularity.next(random)));
+        }
+        task.setTags(tagged);
+        return task;
+    }
+
+    private ActivityLog generateActivityLog(double uniform, Random random, LocalDateTime now, List<User> users, Zipf userActivity,
+                                            long firstTaskId, long lastTaskId) {
+        User user = users.get(userActivity.next(random));
+        ActivityLog log;
+        if (lastTaskId >= firstTaskId && random.nextInt(100) < 90) {
+            long taskId = firstTaskId + (long) (random.nextDouble() * (lastTaskId - firstTaskId + 1));
+            String action = pick(random, TASK_ACTIONS, TASK_ACTION_WEIGHTS);
+            log = new ActivityLog(user, action, action.toLowerCase().replace('_', ' ') + " #" + taskId, "TASK", taskId,
+                "10.0." + random.nextInt(256) + "." + random.nextInt(256));
+        } else {
+            String action = USER_ACTIONS[random.nextInt(USER_ACTIONS.length)];
+            log = new ActivityLog(user, action, action.toLowerCase().replace('_', ' ') + " for " + user.getEmail(), "USER",
+                user.getId(), "10.0." + random.nextInt(256) + "." + random.nextInt(256));
+        }
+        log.setCreatedAt(now.minusSeconds((long) (historyDays * 86400L * uniform * uniform)));
+        return log;
+    }
+
+    private static String tagName(int rank) {
+        String word = TAG_WORDS[rank % TAG_WORDS.length];
+        return rank < TAG_WORDS.length ? word : word + "-" + rank / TAG_WORDS.length;
+    }
+
+    private static double exponential(Random random, double mean) {
+        return -Math.log(1 - random.nextDouble()) * mean;
+    }
+
+    private static <T> T pick(Random random, T[] values, int... weights) {
+        int total = Arrays.stream(weights).sum();
+        int roll = random.nextInt(total);
+        for (int i = 0; i < values.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return values[i];
+            }
+        }
+        return values[values.length - 1];
+    }
+
+    // n uniform samples handed out largest first (order statistics, without sorting), so creation times
+    // come out oldest first. Rows then arrive in created_at order and every created_at index is appended
+    // to at its end; random timestamps made H2 spend most of the load searching and splitting index pages.
+    private static final class DescendingUniforms {
+
+        private double current = 1;
+        private int remaining;
+
+        private DescendingUniforms(int n) {
+            remaining = n;
+        }
+
+        private double next(Random random) {
+            current *= Math.pow(random.nextDouble(), 1.0 / Math.max(1, remaining--));
+            return current;
+        }
+    }
+
+    // Ranks 0..n-1 drawn with probability proportional to 1 / (rank + 1)^exponent
+    private static final class Zipf {
+
+        private final double[] cumulative;
+
+        private Zipf(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int rank = 0; rank < n; rank++) {
+                sum += 1.0 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+        }
+
+        private int next(Random random) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+            return Math.min(rank >= 0 ? rank : -rank - 1, cumulative.length - 1);
+        }
+    }
+
+    public static class Result {
+
+        private final List<User> users;
+        private final long tasks;
+        private final long tags;
+        private final long assignees;
+        private final long activityLogs;
+        private final long elapsedMillis;
+
+        public Result(List<User> users, long tasks, long tags, long assignees, long activityLogs, long elapsedMillis) {
+            this.users = users;
+            this.tasks = tasks;
+            this.tags = tags;
+            this.assignees = assignees;
+            this.activityLogs = activityLogs;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public List<User> getUsers() {
+            return users;
+        }
+
+        public long getTasks() {
+            return tasks;
+        }
+
+        public long getTags() {
+            return tags;
+        }
+
+        public long getAssignees() {
+            return assignees;
+        }
+
+        public long getActivityLogs() {
+            return activityLogs;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public long getRowsPerSecond() {
+            return (users.size() + tasks + tags + assignees + activityLogs) * 1000 / Math.max(1, elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.taskmanager.perf;
+
+import com.taskmanager.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Fills an empty database once, on the perf and bench profiles. Runners finish before ApplicationReadyEvent,
+// so the in-memory indexes and counters load over the generated data. A file database that already holds
+// generated users is reused as is; delete it to generate again.
+@Component
+@ConditionalOnProperty(name = "app.perf.generator.on-startup", havingValue = "true")
+public class SyntheticDataLoader implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataLoader.class);
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.perf.generator.users:5000}")
+    private int users;
+
+    @Value("${app.perf.generator.tasks:500000}")
+    private int tasks;
+
+    @Value("${app.perf.generator.activity-logs:2000000}")
+    private int activityLogs;
+
+    @Override
+    public void run(String... args) {
+        long existing = userRepository.countByEmailStartingWith(SyntheticDataGenerator.EMAIL_PREFIX);
+        if (existing > 0) {
+            logger.info("Found {} generated users, keeping the existing dataset", existing);
+            return;
+        }
+        generator.generate(users, tasks, activityLogs);
+    }
+}
@@ -0,0 +1,73 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.ActivityLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public class ActivityLogBatchRepository {
+
+    private static final String INSERT_PREFIX =
+        "INSERT INTO activity_logs (user_id, action, description, entity_type, entity_id, ip_address, created_at) VALUES ";
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int COLUMN_COUNT = 7;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.activity-log.rows-per-statement:100}")
+    private int rowsPerStatement;
+
+    // One INSERT ... VALUES (...), (...) statement per rowsPerStatement logs
+    public void insertMultiRow(List<ActivityLog> logs) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < logs.size(); from += rowsPerStatement) {
+            List<ActivityLog> rows = logs.subList(from, Math.min(from + rowsPerStatement, logs.size()));
+            jdbcTemplate.update(multiRowSql(rows.size()), ps -> {
+                for (int i = 0; i < rows.size(); i++) {
+                    bind(ps, i * COLUMN_COUNT, rows.get(i), now);
+                }
+            });
+        }
+    }
+
+    private String multiRowSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+
+    private void bind(PreparedStatement ps, int offset, ActivityLog log, LocalDateTime now) throws SQLException {
+        if (log.getUser() != null) {
+            ps.setLong(offset + 1, log.getUser().getId());
+        } else {
+            ps.setNull(offset + 1, Types.BIGINT);
+        }
+        ps.setString(offset + 2, log.getAction());
+        ps.setString(offset + 3, log.getDescription());
+        ps.setString(offset + 4, log.getEntityType());
+        if (log.getEntityId() != null) {
+            ps.setLong(offset + 5, log.getEntityId());
+        } else {
+            ps.setNull(offset + 5, Types.BIGINT);
+        }
+        ps.setString(offset + 6, log.getIpAddress());
+        ps.setTimestamp(offset + 7, Timestamp.valueOf(log.getCreatedAt() != null ? log.getCreatedAt() : now));
+    }
+}
@@ -0,0 +1,12 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.ActivityLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ActivityLogFilterRepository {
+
+    // No count query; one extra row is read to tell whether there is a next slice
+    Slice<ActivityLog> findSlice(Specification<ActivityLog> spec, Pageable pageable);
+}
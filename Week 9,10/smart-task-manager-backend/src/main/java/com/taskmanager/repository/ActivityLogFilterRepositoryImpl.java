@@ -0,0 +1,41 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.ActivityLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+public class ActivityLogFilterRepositoryImpl implements ActivityLogFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<ActivityLog> findSlice(Specification<ActivityLog> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ActivityLog> query = cb.createQuery(ActivityLog.class);
+        Root<ActivityLog> root = query.from(ActivityLog.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<ActivityLog> logs = entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize() + 1)
+            .getResultList();
+        boolean hasNext = logs.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? logs.subList(0, pageable.getPageSize()) : logs, pageable, hasNext);
+    }
+}
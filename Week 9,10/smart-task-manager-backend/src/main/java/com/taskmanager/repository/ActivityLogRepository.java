@@ -3,7 +3,9 @@ package com.taskmanager.repository;
 import com.taskmanager.entity.ActivityLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,7 +14,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
+public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long>, JpaSpecificationExecutor<ActivityLog>,
+        ActivityLogFilterRepository {
     
     Page<ActivityLog> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
     
@@ -23,19 +26,13 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long>
     @Query("SELECT a FROM ActivityLog a WHERE a.createdAt BETWEEN :fromDate AND :toDate ORDER BY a.createdAt DESC")
     Page<ActivityLog> findByDateRange(@Param("fromDate") LocalDateTime fromDate, @Param("toDate") LocalDateTime toDate, Pageable pageable);
     
+    // Keyset (cursor) variant: newest first, no count query
     @Query("SELECT a FROM ActivityLog a WHERE " +
-           "(:userId IS NULL OR a.user.id = :userId) AND " +
-           "(:action IS NULL OR a.action = :action) AND " +
-           "(:entityType IS NULL OR a.entityType = :entityType) AND " +
-           "(:fromDate IS NULL OR a.createdAt >= :fromDate) AND " +
-           "(:toDate IS NULL OR a.createdAt <= :toDate) " +
-           "ORDER BY a.createdAt DESC")
-    Page<ActivityLog> findWithFilters(
-        @Param("userId") Long userId,
-        @Param("action") String action,
-        @Param("entityType") String entityType,
-        @Param("fromDate") LocalDateTime fromDate,
-        @Param("toDate") LocalDateTime toDate,
+           "(a.createdAt < :cursorCreatedAt OR (a.createdAt = :cursorCreatedAt AND a.id < :cursorId)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    Slice<ActivityLog> findAllBefore(
+        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+        @Param("cursorId") Long cursorId,
         Pageable pageable
     );
     
@@ -0,0 +1,44 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.ActivityLog;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+// Activity log filters as composable specifications; only the filters that are set end up in the query
+public final class ActivityLogSpecifications {
+
+    private ActivityLogSpecifications() {}
+
+    public static Specification<ActivityLog> withFilters(Long userId, String action, String entityType,
+                                                         LocalDateTime fromDate, LocalDateTime toDate) {
+        Specification<ActivityLog> spec = Specification.where(null);
+        if (userId != null) {
+            spec = spec.and(byUser(userId));
+        }
+        if (action != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("action"), action));
+        }
+        if (entityType != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("entityType"), entityType));
+        }
+        if (fromDate != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), fromDate));
+        }
+        if (toDate != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("createdAt"), toDate));
+        }
+        return spec;
+    }
+
+    // Compares the foreign key column, without joining users
+    public static Specification<ActivityLog> byUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    // Keyset position for newest-first scrolling
+    public static Specification<ActivityLog> createdBefore(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.or(cb.lessThan(root.get("createdAt"), createdAt),
+            cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+}
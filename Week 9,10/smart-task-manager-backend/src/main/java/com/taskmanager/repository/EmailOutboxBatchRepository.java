@@ -0,0 +1,42 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.EmailOutbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public class EmailOutboxBatchRepository {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO email_outbox (recipient, recipient_domain, recipient_name, category, subject, body, status, attempts, next_attempt_at, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.tasks.bulk.batch-size:500}")
+    private int batchSize;
+
+    // JDBC batches instead of saveAll, which inserts IDENTITY rows one statement at a time; ids are not read back
+    public void insertAll(List<EmailOutbox> emails) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, emails, batchSize, (ps, email) -> {
+            ps.setString(1, email.getRecipient());
+            ps.setString(2, email.getRecipientDomain());
+            ps.setString(3, email.getRecipientName());
+            ps.setString(4, email.getCategory().name());
+            ps.setString(5, email.getSubject());
+            ps.setString(6, email.getBody());
+            ps.setString(7, email.getStatus().name());
+            ps.setInt(8, email.getAttempts());
+            ps.setTimestamp(9, Timestamp.valueOf(email.getNextAttemptAt() != null ? email.getNextAttemptAt() : now));
+            ps.setTimestamp(10, Timestamp.valueOf(now));
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.EmailOutbox;
+import com.taskmanager.entity.EmailStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    
+    // Id, recipient, recipient domain and category of due rows; the domain is null on rows written before it was stored
+    @Query("SELECT e.id, e.recipient, e.recipientDomain, e.category FROM EmailOutbox e " +
+           "WHERE e.status = com.taskmanager.entity.EmailStatus.PENDING " +
+           "AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt, e.id")
+    List<Object[]> findReadyToSend(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    @Query("SELECT e.id, e.recipient, e.recipientDomain, e.category FROM EmailOutbox e " +
+           "WHERE e.status = com.taskmanager.entity.EmailStatus.PENDING AND e.nextAttemptAt <= :now " +
+           "AND (e.recipientDomain IS NULL OR e.recipientDomain NOT IN :domains) ORDER BY e.nextAttemptAt, e.id")
+    List<Object[]> findReadyToSendExcludingDomains(@Param("now") LocalDateTime now, @Param("domains") Collection<String> domains,
+                                                   Pageable pageable);
+    
+    // Only rows still pending are taken, so concurrent dispatchers never claim the same row twice
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = com.taskmanager.entity.EmailStatus.SENDING, " +
+           "e.claimToken = :claimToken, e.claimedAt = :now " +
+           "WHERE e.id IN :ids AND e.status = com.taskmanager.entity.EmailStatus.PENDING")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimToken") String claimToken, @Param("now") LocalDateTime now);
+    
+    List<EmailOutbox> findByClaimToken(String claimToken);
+    
+    // Rows left in SENDING by a dispatcher that died mid-batch
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = com.taskmanager.entity.EmailStatus.PENDING, e.claimToken = NULL " +
+           "WHERE e.status = com.taskmanager.entity.EmailStatus.SENDING AND e.claimedAt < :claimedBefore")
+    int releaseStaleClaims(@Param("claimedBefore") LocalDateTime claimedBefore);
+    
+    long countByStatus(EmailStatus status);
+}
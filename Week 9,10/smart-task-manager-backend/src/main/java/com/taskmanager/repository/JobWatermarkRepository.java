@@ -0,0 +1,9 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.JobWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark, String> {
+}
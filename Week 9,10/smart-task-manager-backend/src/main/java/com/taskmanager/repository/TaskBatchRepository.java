@@ -0,0 +1,137 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+public class TaskBatchRepository {
+
+    private static final String INSERT_TASK_SQL =
+        "INSERT INTO tasks (title, description, due_date, priority, status, created_by_id, created_at, updated_at, completed_at, version) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_TAG_SQL = "INSERT INTO task_tags (task_id, tag) VALUES (?, ?)";
+
+    private static final String INSERT_ASSIGNEE_SQL = "INSERT INTO task_assignees (task_id, user_id) VALUES (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.tasks.bulk.batch-size:500}")
+    private int batchSize;
+
+    // Task ids are IDENTITY generated, so Hibernate can't batch these inserts.
+    // Generated keys are read back onto the given entities.
+    public void insertAll(List<Task> tasks) {
+        for (int from = 0; from < tasks.size(); from += batchSize) {
+            List<Task> chunk = tasks.subList(from, Math.min(from + batchSize, tasks.size()));
+            insertTasks(chunk);
+        }
+        insertTags(tasks);
+        insertAssignees(tasks);
+    }
+
+    private void insertTasks(List<Task> chunk) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_TASK_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Task task : chunk) {
+                    ps.setString(1, task.getTitle());
+                    ps.setString(2, task.getDescription());
+                    ps.setTimestamp(3, Timestamp.valueOf(task.getDueDate()));
+                    ps.setString(4, task.getPriority().name());
+                    ps.setString(5, task.getStatus().name());
+                    ps.setLong(6, task.getCreatedBy().getId());
+                    ps.setTimestamp(7, Timestamp.valueOf(task.getCreatedAt()));
+                    ps.setTimestamp(8, Timestamp.valueOf(task.getUpdatedAt()));
+                    if (task.getCompletedAt() != null) {
+                        ps.setTimestamp(9, Timestamp.valueOf(task.getCompletedAt()));
+                    } else {
+                        ps.setNull(9, Types.TIMESTAMP);
+                    }
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < chunk.size()) {
+                        Task task = chunk.get(i++);
+                        task.setId(keys.getLong(1));
+                        task.setVersion(0L);
+                    }
+                    if (i != chunk.size()) {
+                        throw new IllegalStateException("Expected " + chunk.size() + " generated task ids but got " + i);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    // One set-based UPDATE per chunk of ids, with what Task.onUpdate does for a status change. Plain JDBC
+    // rather than a JPQL bulk update, which would evict the whole task-tags cache region every time.
+    // Callers check versions beforehand, under a row lock, and publish the change events.
+    public int updateStatus(List<Long> taskIds, TaskStatus status, LocalDateTime now) {
+        String completedAt = status == TaskStatus.COMPLETED ? "COALESCE(completed_at, ?)" : "NULL";
+        int updated = 0;
+        for (int from = 0; from < taskIds.size(); from += batchSize) {
+            List<Long> chunk = taskIds.subList(from, Math.min(from + batchSize, taskIds.size()));
+            String sql = "UPDATE tasks SET status = ?, version = version + 1, updated_at = ?, completed_at = " + completedAt +
+                " WHERE id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            updated += jdbcTemplate.update(sql, ps -> {
+                int index = 1;
+                ps.setString(index++, status.name());
+                ps.setTimestamp(index++, Timestamp.valueOf(now));
+                if (status == TaskStatus.COMPLETED) {
+                    ps.setTimestamp(index++, Timestamp.valueOf(now));
+                }
+                for (Long taskId : chunk) {
+                    ps.setLong(index++, taskId);
+                }
+            });
+        }
+        return updated;
+    }
+
+    private void insertTags(List<Task> tasks) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Task task : tasks) {
+            for (String tag : task.getTags()) {
+                rows.add(new Object[]{task.getId(), tag});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_TAG_SQL, rows, batchSize, (ps, row) -> {
+            ps.setLong(1, (Long) row[0]);
+            ps.setString(2, (String) row[1]);
+        });
+    }
+
+    private void insertAssignees(List<Task> tasks) {
+        List<long[]> rows = new ArrayList<>();
+        for (Task task : tasks) {
+            for (User assignee : task.getAssignees()) {
+                rows.add(new long[]{task.getId(), assignee.getId()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ASSIGNEE_SQL, rows, batchSize, (ps, row) -> {
+            ps.setLong(1, row[0]);
+            ps.setLong(2, row[1]);
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.TaskDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaskDailyRollupRepository extends JpaRepository<TaskDailyRollup, Long> {
+    
+    List<TaskDailyRollup> findByUserIdInAndDayGreaterThanEqual(Collection<Long> userIds, LocalDate fromDay);
+    
+    @Query("SELECT DISTINCT r.userId FROM TaskDailyRollup r WHERE r.day >= :fromDay")
+    List<Long> findUserIdsWithRollupsSince(@Param("fromDay") LocalDate fromDay);
+    
+    // Per-day totals across all users (or one user when userId is set)
+    @Query("SELECT r.day, SUM(r.todoCount), SUM(r.inProgressCount), SUM(r.blockedCount), SUM(r.completedCount), " +
+           "SUM(r.overdueCount), SUM(r.completions), SUM(r.cycleTimeSecondsSum) " +
+           "FROM TaskDailyRollup r WHERE r.day BETWEEN :fromDay AND :toDay AND " +
+           "(:userId IS NULL OR r.userId = :userId) " +
+           "GROUP BY r.day ORDER BY r.day")
+    List<Object[]> sumByDay(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay, @Param("userId") Long userId);
+}
@@ -0,0 +1,26 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.Task;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Specification queries that Spring Data's JpaSpecificationExecutor has no form for: id-only pages
+// and slices for the two-phase page reads in TaskService, and a forward-only scan for exports
+public interface TaskFilterRepository {
+
+    Page<Long> findIds(Specification<Task> spec, Pageable pageable);
+
+    // No count query; one extra row is read to tell whether there is a next slice
+    Slice<Long> findIdSlice(Specification<Task> spec, Pageable pageable);
+
+    List<Long> findIds(Specification<Task> spec);
+
+    // Fetches the creator with each task; collections are loaded per chunk by the caller
+    Stream<Task> streamWithCreator(Specification<Task> spec, Sort sort);
+}
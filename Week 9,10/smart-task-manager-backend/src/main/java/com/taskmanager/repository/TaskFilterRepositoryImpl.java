@@ -0,0 +1,91 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public class TaskFilterRepositoryImpl implements TaskFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Long> findIds(Specification<Task> spec, Pageable pageable) {
+        TypedQuery<Long> query = idQuery(spec, pageable.getSort());
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<Long> findIdSlice(Specification<Task> spec, Pageable pageable) {
+        TypedQuery<Long> query = idQuery(spec, pageable.getSort());
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<Long> ids = query.getResultList();
+        boolean hasNext = ids.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? ids.subList(0, pageable.getPageSize()) : ids, pageable, hasNext);
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Task> spec) {
+        return idQuery(spec, Sort.unsorted()).getResultList();
+    }
+
+    @Override
+    public Stream<Task> streamWithCreator(Specification<Task> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+        root.fetch("createdBy");
+        applySpecification(spec, root, query, cb);
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query)
+            .setHint(HINT_FETCH_SIZE, 1000)
+            .getResultStream();
+    }
+
+    private TypedQuery<Long> idQuery(Specification<Task> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(root.get("id"));
+        applySpecification(spec, root, query, cb);
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Task> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(cb.count(root));
+        applySpecification(spec, root, query, cb);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void applySpecification(Specification<Task> spec, Root<Task> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
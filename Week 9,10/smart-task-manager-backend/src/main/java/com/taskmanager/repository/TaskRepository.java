@@ -4,25 +4,44 @@ import com.taskmanager.entity.Priority;
 import com.taskmanager.entity.Task;
 import com.taskmanager.entity.TaskStatus;
 import com.taskmanager.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskFilterRepository {
+    
+    // Id-only page queries; the page content is loaded afterwards with findAllWithDetailsByIdIn
+    @Query("SELECT t.id FROM Task t")
+    Page<Long> findAllIds(Pageable pageable);
     
-    // Find tasks by assignee
-    @Query("SELECT t FROM Task t JOIN t.assignees a WHERE a.id = :userId")
-    Page<Task> findByAssigneeId(@Param("userId") Long userId, Pageable pageable);
+    @Query("SELECT t.id FROM Task t JOIN t.assignees a WHERE a.id = :userId")
+    Page<Long> findIdsByAssigneeId(@Param("userId") Long userId, Pageable pageable);
     
-    // Find tasks created by user
-    Page<Task> findByCreatedById(Long createdById, Pageable pageable);
+    @Query("SELECT t.id FROM Task t WHERE t.createdBy.id = :createdById")
+    Page<Long> findIdsByCreatedById(@Param("createdById") Long createdById, Pageable pageable);
+    
+    // Fetch tasks with creator, assignees and tags in one statement
+    @EntityGraph(attributePaths = {"createdBy", "assignees", "tags"})
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids")
+    List<Task> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
     
     // Find tasks by status
     Page<Task> findByStatus(TaskStatus status, Pageable pageable);
@@ -31,35 +50,81 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     Page<Task> findByPriority(Priority priority, Pageable pageable);
     
     // Find overdue tasks
-    @Query("SELECT t FROM Task t WHERE t.dueDate < :now AND t.status != 'COMPLETED'")
-    List<Task> findOverdueTasks(@Param("now") LocalDateTime now);
+    @Query("SELECT t FROM Task t WHERE t.dueDate < :now AND t.status != 'COMPLETED' ORDER BY t.dueDate ASC")
+    List<Task> findOverdueTasks(@Param("now") LocalDateTime now, Pageable pageable);
     
     // Find tasks due within specified hours
-    @Query("SELECT t FROM Task t WHERE t.dueDate BETWEEN :now AND :futureTime AND t.status != 'COMPLETED'")
-    List<Task> findTasksDueWithin(@Param("now") LocalDateTime now, @Param("futureTime") LocalDateTime futureTime);
+    @Query("SELECT t FROM Task t WHERE t.dueDate BETWEEN :now AND :futureTime AND t.status != 'COMPLETED' ORDER BY t.dueDate ASC")
+    List<Task> findTasksDueWithin(@Param("now") LocalDateTime now, @Param("futureTime") LocalDateTime futureTime, Pageable pageable);
+    
+    // Reminder job: keyset over the task ids of one shard, then the (task, assignee) pairs of each chunk
+    @Query("SELECT t.id FROM Task t WHERE t.id > :afterId AND MOD(t.id, :shardCount) = :shard AND t.status != 'COMPLETED' AND " +
+           "t.dueDate BETWEEN :overdueSince AND :dueBefore AND " +
+           "(t.lastRemindedAt IS NULL OR t.lastRemindedAt < :remindedBefore) ORDER BY t.id")
+    List<Long> findTaskIdsToRemind(@Param("afterId") Long afterId, @Param("shard") long shard, @Param("shardCount") long shardCount,
+                                   @Param("overdueSince") LocalDateTime overdueSince,
+                                   @Param("dueBefore") LocalDateTime dueBefore, @Param("remindedBefore") LocalDateTime remindedBefore,
+                                   Pageable pageable);
+    
+    @Query("SELECT t.id, a.id FROM Task t JOIN t.assignees a WHERE t.id IN :taskIds AND a.notificationsEnabled = true")
+    List<Object[]> findReminderRecipients(@Param("taskIds") Collection<Long> taskIds);
+    
+    @Modifying
+    @Query("UPDATE Task t SET t.lastRemindedAt = :remindedAt WHERE t.id IN :taskIds")
+    int markReminded(@Param("taskIds") Collection<Long> taskIds, @Param("remindedAt") LocalDateTime remindedAt);
     
     // Find tasks by assignee and status
     @Query("SELECT t FROM Task t JOIN t.assignees a WHERE a.id = :userId AND t.status = :status")
     List<Task> findByAssigneeIdAndStatus(@Param("userId") Long userId, @Param("status") TaskStatus status);
     
-    // Complex filtering query
-    @Query("SELECT t FROM Task t JOIN t.assignees a WHERE " +
-           "(:assigneeId IS NULL OR a.id = :assigneeId) AND " +
-           "(:status IS NULL OR t.status = :status) AND " +
-           "(:priority IS NULL OR t.priority = :priority) AND " +
-           "(:fromDate IS NULL OR t.createdAt >= :fromDate) AND " +
-           "(:toDate IS NULL OR t.createdAt <= :toDate) AND " +
-           "(:search IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Task> findTasksWithFilters(
-        @Param("assigneeId") Long assigneeId,
-        @Param("status") TaskStatus status,
-        @Param("priority") Priority priority,
-        @Param("fromDate") LocalDateTime fromDate,
-        @Param("toDate") LocalDateTime toDate,
-        @Param("search") String search,
+    // Keyset (cursor) variant: newest first, no count query
+    @Query("SELECT t.id FROM Task t JOIN t.assignees a WHERE a.id = :userId AND " +
+           "(t.createdAt < :cursorCreatedAt OR (t.createdAt = :cursorCreatedAt AND t.id < :cursorId)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Long> findIdsByAssigneeIdBefore(
+        @Param("userId") Long userId,
+        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+        @Param("cursorId") Long cursorId,
         Pageable pageable
     );
     
+    // Forward-only scans used to rebuild the search index
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id, t.title, t.description FROM Task t")
+    Stream<Object[]> streamSearchDocuments();
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id, tag FROM Task t JOIN t.tags tag")
+    Stream<Object[]> streamTags();
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id, t.status, t.priority FROM Task t")
+    Stream<Object[]> streamStatusAndPriority();
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id, t.dueDate FROM Task t WHERE t.status != 'COMPLETED'")
+    Stream<Object[]> streamOpenDueDates();
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id, a.id FROM Task t JOIN t.assignees a WHERE t.status != 'COMPLETED'")
+    Stream<Object[]> streamOpenAssignees();
+    
+    // Weekly digest: every (assignee, task) pair the digest counts, for one shard of the users, with each
+    // user's rows together. Native so the join runs from users in primary key order, which yields the order
+    // without a sort and the rows stream straight from the join; JPQL renders the collection join nested
+    // under tasks, which scans tasks and sorts the whole result
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT u.id, u.email, u.first_name, u.last_name, t.title, t.status, t.due_date, t.completed_at " +
+           "FROM users u JOIN task_assignees ta ON ta.user_id = u.id JOIN tasks t ON t.id = ta.task_id " +
+           "WHERE u.active = TRUE AND u.notifications_enabled = TRUE AND MOD(u.id, :shardCount) = :shard AND (" +
+           "(t.status = 'COMPLETED' AND t.completed_at >= :since) OR " +
+           "(t.status <> 'COMPLETED' AND t.due_date < :upcomingUntil) OR " +
+           "(t.due_date >= :since AND t.due_date < :now)) " +
+           "ORDER BY u.id", nativeQuery = true)
+    Stream<Object[]> streamWeeklyDigestRows(@Param("shard") long shard, @Param("shardCount") long shardCount,
+                                            @Param("since") LocalDateTime since, @Param("now") LocalDateTime now,
+                                            @Param("upcomingUntil") LocalDateTime upcomingUntil);
+    
     // Analytics queries
     @Query("SELECT COUNT(t) FROM Task t WHERE t.status = :status")
     long countByStatus(@Param("status") TaskStatus status);
@@ -70,18 +135,65 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT t.status, COUNT(t) FROM Task t GROUP BY t.status")
     List<Object[]> getTaskCountByStatus();
     
+    @Query("SELECT a.id, t.status, COUNT(t) FROM Task t JOIN t.assignees a GROUP BY a.id, t.status")
+    List<Object[]> getTaskCountByAssigneeAndStatus();
+    
     @Query("SELECT a.id, a.firstName, a.lastName, COUNT(t) FROM Task t JOIN t.assignees a WHERE t.status = 'COMPLETED' GROUP BY a.id, a.firstName, a.lastName")
     List<Object[]> getCompletedTaskCountByUser();
     
     @Query("SELECT a.id, a.firstName, a.lastName, COUNT(t) FROM Task t JOIN t.assignees a GROUP BY a.id, a.firstName, a.lastName")
     List<Object[]> getTotalTaskCountByUser();
     
+    @Query("SELECT t.id, a.firstName, a.lastName FROM Task t JOIN t.assignees a WHERE t.id IN :taskIds")
+    List<Object[]> findAssigneeNamesByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+    
+    @Query("SELECT t.id, tag FROM Task t JOIN t.tags tag WHERE t.id IN :taskIds")
+    List<Object[]> findTagsByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+    
+    @Query("SELECT t.id, a.id FROM Task t JOIN t.assignees a WHERE t.id IN :taskIds")
+    List<Object[]> findAssigneeIdsByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+    
+    // Rows of a batch status update, locked until it commits so the version checks hold
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id, t.title, t.description, t.dueDate, t.priority, t.status, t.createdBy.id, t.version " +
+           "FROM Task t WHERE t.id IN :taskIds")
+    List<Object[]> findStatusRowsForUpdate(@Param("taskIds") Collection<Long> taskIds);
+    
+    // Daily rollup aggregation
+    @Query("SELECT DISTINCT a.id FROM Task t JOIN t.assignees a")
+    List<Long> findAllAssigneeIds();
+    
+    @Query("SELECT DISTINCT a.id FROM Task t JOIN t.assignees a WHERE t.updatedAt >= :since")
+    List<Long> findAssigneeIdsWithTasksUpdatedSince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT a.id, t.status, COUNT(t) FROM Task t JOIN t.assignees a WHERE a.id IN :userIds GROUP BY a.id, t.status")
+    List<Object[]> getTaskCountByStatusForAssignees(@Param("userIds") Collection<Long> userIds);
+    
+    @Query("SELECT a.id, COUNT(t) FROM Task t JOIN t.assignees a WHERE a.id IN :userIds AND t.dueDate < :now AND t.status != 'COMPLETED' GROUP BY a.id")
+    List<Object[]> getOverdueCountForAssignees(@Param("userIds") Collection<Long> userIds, @Param("now") LocalDateTime now);
+    
+    // Overdue (task, assignee) pairs, as the daily rollup counts them, for one assignee or all
+    @Query("SELECT COUNT(t) FROM Task t JOIN t.assignees a WHERE (:userId IS NULL OR a.id = :userId) AND t.dueDate < :now AND t.status != 'COMPLETED'")
+    long countOverdueAssignments(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT a.id, t.createdAt, t.completedAt FROM Task t JOIN t.assignees a WHERE a.id IN :userIds AND t.completedAt >= :since")
+    List<Object[]> findCompletionsForAssignees(@Param("userIds") Collection<Long> userIds, @Param("since") LocalDateTime since);
+    
     // Find tasks by tags
     @Query("SELECT t FROM Task t WHERE :tag MEMBER OF t.tags")
     List<Task> findByTag(@Param("tag") String tag);
     
+    // Lead-time reminder window: open tasks due after from and up to to
+    @Query("SELECT t.id FROM Task t WHERE t.dueDate > :from AND t.dueDate <= :to AND t.status != 'COMPLETED' ORDER BY t.dueDate, t.id")
+    List<Long> findOpenTaskIdsDueIn(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
     // Find tasks assigned to user with upcoming deadlines
     @Query("SELECT t FROM Task t JOIN t.assignees a WHERE a.id = :userId AND t.dueDate BETWEEN :now AND :futureTime AND t.status != 'COMPLETED' ORDER BY t.dueDate ASC")
-    List<Task> findUpcomingTasksForUser(@Param("userId") Long userId, @Param("now") LocalDateTime now, @Param("futureTime") LocalDateTime futureTime);
+    List<Task> findUpcomingTasksForUser(@Param("userId") Long userId, @Param("now") LocalDateTime now, @Param("futureTime") LocalDateTime futureTime, Pageable pageable);
+    
+    // Conditional GET validators
+    @Query("SELECT t.updatedAt, t.dueDate, t.status FROM Task t WHERE t.id = :id")
+    List<Object[]> findVersionById(@Param("id") Long id);
+    
+    boolean existsByDueDateGreaterThanEqualAndDueDateLessThanAndStatusNot(LocalDateTime from, LocalDateTime to, TaskStatus status);
 }
-
@@ -0,0 +1,126 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.search.TagExpression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Locale;
+
+// Task filters as composable specifications. Only the filters that are set end up in the query,
+// so each combination gets its own statement (and plan) instead of one generic "IS NULL OR" query.
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {}
+
+    public static Specification<Task> withFilters(Long assigneeId, TaskStatus status, Priority priority,
+                                                  LocalDateTime fromDate, LocalDateTime toDate, String search) {
+        Specification<Task> spec = Specification.where(null);
+        if (assigneeId != null) {
+            spec = spec.and(assignedTo(assigneeId));
+        }
+        if (status != null) {
+            spec = spec.and(hasStatus(status));
+        }
+        if (priority != null) {
+            spec = spec.and(hasPriority(priority));
+        }
+        if (fromDate != null) {
+            spec = spec.and(createdFrom(fromDate));
+        }
+        if (toDate != null) {
+            spec = spec.and(createdTo(toDate));
+        }
+        if (search != null && !search.isBlank()) {
+            spec = spec.and(matchesText(search));
+        }
+        return spec;
+    }
+
+    // EXISTS instead of a join: tasks aren't repeated per assignee and the probe stays on task_assignees
+    public static Specification<Task> assignedTo(Long userId) {
+        return (root, query, cb) -> {
+            Subquery<Long> assignee = query.subquery(Long.class);
+            Root<Task> task = assignee.correlate(root);
+            Join<Task, User> user = task.join("assignees");
+            assignee.select(user.get("id")).where(cb.equal(user.get("id"), userId));
+            return cb.exists(assignee);
+        };
+    }
+
+    public static Specification<Task> hasStatus(TaskStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Task> hasPriority(Priority priority) {
+        return (root, query, cb) -> cb.equal(root.get("priority"), priority);
+    }
+
+    public static Specification<Task> createdFrom(LocalDateTime fromDate) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), fromDate);
+    }
+
+    public static Specification<Task> createdTo(LocalDateTime toDate) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("createdAt"), toDate);
+    }
+
+    public static Specification<Task> matchesText(String search) {
+        return (root, query, cb) -> {
+            String pattern = "%" + search.toLowerCase(Locale.ROOT) + "%";
+            return cb.or(cb.like(cb.lower(root.get("title")), pattern),
+                cb.like(cb.lower(root.get("description")), pattern));
+        };
+    }
+
+    // Keyset position for newest-first scrolling
+    public static Specification<Task> createdBefore(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.or(cb.lessThan(root.get("createdAt"), createdAt),
+            cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+
+    // SQL form of a tag filter, for when the tag index can't answer it: one EXISTS probe per tag
+    public static Specification<Task> matchesTags(TagExpression tags) {
+        return (root, query, cb) -> tags.accept(new TagExpression.Visitor<Predicate>() {
+            @Override
+            public Predicate tag(String tag) {
+                Subquery<Long> tagged = query.subquery(Long.class);
+                Root<Task> task = tagged.correlate(root);
+                Join<Task, String> taskTag = task.join("tags");
+                tagged.select(task.get("id")).where(cb.equal(taskTag, tag));
+                return cb.exists(tagged);
+            }
+
+            @Override
+            public Predicate and(Predicate left, Predicate right) {
+                return cb.and(left, right);
+            }
+
+            @Override
+            public Predicate or(Predicate left, Predicate right) {
+                return cb.or(left, right);
+            }
+
+            @Override
+            public Predicate not(Predicate operand) {
+                return cb.not(operand);
+            }
+
+            @Override
+            public Predicate andNot(Predicate left, Predicate right) {
+                return cb.and(left, cb.not(right));
+            }
+        });
+    }
+
+    public static Specification<Task> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+}
@@ -0,0 +1,67 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public class UserBatchRepository {
+
+    private static final String INSERT_USER_SQL =
+        "INSERT INTO users (first_name, last_name, email, password, role, email_verified, notifications_enabled, active, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.tasks.bulk.batch-size:500}")
+    private int batchSize;
+
+    // Same as TaskBatchRepository: ids are IDENTITY generated and read back onto the given users
+    public void insertAll(List<User> users) {
+        for (int from = 0; from < users.size(); from += batchSize) {
+            insertUsers(users.subList(from, Math.min(from + batchSize, users.size())));
+        }
+    }
+
+    private void insertUsers(List<User> chunk) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_USER_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (User user : chunk) {
+                    ps.setString(1, user.getFirstName());
+                    ps.setString(2, user.getLastName());
+                    ps.setString(3, user.getEmail());
+                    ps.setString(4, user.getPassword());
+                    ps.setString(5, user.getRole().name());
+                    ps.setBoolean(6, user.isEmailVerified());
+                    ps.setBoolean(7, user.isNotificationsEnabled());
+                    ps.setBoolean(8, user.isActive());
+                    ps.setTimestamp(9, Timestamp.valueOf(user.getCreatedAt()));
+                    ps.setTimestamp(10, Timestamp.valueOf(user.getUpdatedAt()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < chunk.size()) {
+                        chunk.get(i++).setId(keys.getLong(1));
+                    }
+                    if (i != chunk.size()) {
+                        throw new IllegalStateException("Expected " + chunk.size() + " generated user ids but got " + i);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -2,10 +2,14 @@ package com.taskmanager.repository;
 
 import com.taskmanager.entity.Role;
 import com.taskmanager.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -16,6 +20,9 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    // Query cache region of the role lookups; results are invalidated whenever the users table changes
+    String ROLE_LOOKUP_REGION = "user-role-lookups";
+    
     Optional<User> findByEmail(String email);
     
     Optional<User> findByEmailVerificationToken(String token);
@@ -24,8 +31,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     boolean existsByEmail(String email);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ROLE_LOOKUP_REGION)
+    })
     List<User> findByRole(Role role);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ROLE_LOOKUP_REGION)
+    })
     List<User> findByRoleAndActiveTrue(Role role);
     
     Page<User> findByActiveTrue(Pageable pageable);
@@ -39,10 +54,35 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.passwordResetToken IS NOT NULL AND u.passwordResetTokenExpiry < :now")
     List<User> findUsersWithExpiredPasswordResetTokens(@Param("now") LocalDateTime now);
     
+    @Query("SELECT u.id, u.email FROM User u WHERE u.passwordResetToken IS NOT NULL AND u.passwordResetTokenExpiry < :now")
+    List<Object[]> findIdsWithExpiredPasswordResetTokens(@Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.passwordResetToken = null, u.passwordResetTokenExpiry = null " +
+           "WHERE u.passwordResetToken IS NOT NULL AND u.passwordResetTokenExpiry < :now")
+    int clearExpiredPasswordResetTokens(@Param("now") LocalDateTime now);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ROLE_LOOKUP_REGION)
+    })
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role AND u.active = true")
     long countByRoleAndActiveTrue(@Param("role") Role role);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ROLE_LOOKUP_REGION)
+    })
     @Query("SELECT u FROM User u WHERE u.role IN :roles AND u.active = true")
     List<User> findByRoleInAndActiveTrue(@Param("roles") List<Role> roles);
+    
+    long countByEmailStartingWith(String prefix);
+    
+    // Principal cache sync across instances
+    @Query("SELECT u.email FROM User u WHERE u.updatedAt >= :since")
+    List<String> findEmailsUpdatedSince(@Param("since") LocalDateTime since);
+    
+    // Conditional GET sync across instances
+    boolean existsByUpdatedAtGreaterThanEqual(LocalDateTime since);
 }
 
@@ -0,0 +1,69 @@
+package com.taskmanager.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Runs scheduled jobs once per cluster. Every instance still fires the @Scheduled method; the lease
+// decides which one does the work. A sharded job is split into a fixed number of shards with a lease
+// each: shard k of n owns the keys (user or task ids) with id % n == k, so every instance derives the
+// same split without agreeing on id ranges or on who is alive. Each instance walks the shards from a
+// random start and runs those it can lease, so the live instances share the work between them and the
+// shards of a dead instance are picked up by the others.
+@Component
+public class ClusterJobs {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterJobs.class);
+
+    @FunctionalInterface
+    public interface ShardedJob {
+        void run(int shard, int shardCount);
+    }
+
+    @Autowired
+    private LeaseLock leaseLock;
+
+    @Value("${app.scheduling.shards:1}")
+    private int shardCount;
+
+    // Returns whether this instance ran the job
+    public boolean runExclusive(String name, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable job) {
+        LeaseLock.Lease lease = leaseLock.tryAcquire(name, lockAtMostFor);
+        if (lease == null) {
+            logger.debug("Job {} is running or has run on another instance", name);
+            return false;
+        }
+        try {
+            job.run();
+        } finally {
+            leaseLock.release(lease, lockAtLeastFor);
+        }
+        return true;
+    }
+
+    // Returns the number of shards this instance ran
+    public int runSharded(String name, Duration lockAtMostFor, Duration lockAtLeastFor, ShardedJob job) {
+        int shards = Math.max(1, shardCount);
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        int ran = 0;
+        for (int i = 0; i < shards; i++) {
+            int shard = (start + i) % shards;
+            if (runExclusive(name + "#" + shard + "/" + shards, lockAtMostFor, lockAtLeastFor, () -> job.run(shard, shards))) {
+                ran++;
+            }
+        }
+        if (ran > 0) {
+            logger.info("Ran {} of {} shards of job {} on {}", ran, shards, name, leaseLock.getInstanceId());
+        }
+        return ran;
+    }
+
+    public int getShardCount() {
+        return Math.max(1, shardCount);
+    }
+}
@@ -0,0 +1,131 @@
+package com.taskmanager.scheduling;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Leases in the job_leases table, in the manner of ShedLock: a lease is taken by inserting its row or by
+// moving locked_until forward on a row whose lease has run out, each a single statement, so exactly one
+// instance wins. Every statement commits on its own, outside any transaction of the job. lockAtMostFor
+// frees the lease of an instance that died mid-run; on release the lease is still held for lockAtLeastFor
+// from its start, so an instance whose clock or cron fires a little later doesn't run the job again.
+@Component
+public class LeaseLock {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaseLock.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO job_leases (name, locked_until, locked_at, locked_by) VALUES (?, ?, ?, ?)";
+
+    private static final String TAKE_OVER_SQL =
+        "UPDATE job_leases SET locked_until = ?, locked_at = ?, locked_by = ? WHERE name = ? AND locked_until <= ?";
+
+    private static final String RELEASE_SQL =
+        "UPDATE job_leases SET locked_until = ? WHERE name = ? AND locked_by = ? AND locked_at = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.scheduling.instance-id:}")
+    private String configuredInstanceId;
+
+    private String instanceId;
+
+    private TransactionTemplate ownTransaction;
+
+    // Names whose row is known to exist, so later acquisitions go straight to the update
+    private final Set<String> knownLeases = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        instanceId = !configuredInstanceId.isBlank() ? configuredInstanceId : defaultInstanceId();
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Null when another instance holds the lease
+    public Lease tryAcquire(String name, Duration lockAtMostFor) {
+        // Millisecond precision, so locked_at reads back equal on every database
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime lockedUntil = now.plus(lockAtMostFor);
+        if (!knownLeases.contains(name)) {
+            try {
+                ownTransaction.executeWithoutResult(status -> jdbcTemplate.update(INSERT_SQL,
+                    name, Timestamp.valueOf(lockedUntil), Timestamp.valueOf(now), instanceId));
+                knownLeases.add(name);
+                return new Lease(name, now);
+            } catch (DataIntegrityViolationException e) {
+                knownLeases.add(name);
+            }
+        }
+        Integer updated = ownTransaction.execute(status -> jdbcTemplate.update(TAKE_OVER_SQL,
+            Timestamp.valueOf(lockedUntil), Timestamp.valueOf(now), instanceId, name, Timestamp.valueOf(now)));
+        return updated != null && updated == 1 ? new Lease(name, now) : null;
+    }
+
+    public void release(Lease lease, Duration lockAtLeastFor) {
+        // Same precision as tryAcquire, so a lease released now can be taken again within the same millisecond
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime earliest = lease.lockedAt.plus(lockAtLeastFor);
+        LocalDateTime lockedUntil = earliest.isAfter(now) ? earliest : now;
+        try {
+            ownTransaction.executeWithoutResult(status -> jdbcTemplate.update(RELEASE_SQL,
+                Timestamp.valueOf(lockedUntil), lease.name, instanceId, Timestamp.valueOf(lease.lockedAt)));
+        } catch (RuntimeException e) {
+            // The lease then runs out at lockAtMostFor
+            logger.warn("Failed to release job lease {}", lease.name, e);
+        }
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        // Unique even for two application contexts in one JVM
+        return host + ":" + ManagementFactory.getRuntimeMXBean().getPid() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public static final class Lease {
+
+        private final String name;
+        private final LocalDateTime lockedAt;
+
+        private Lease(String name, LocalDateTime lockedAt) {
+            this.name = name;
+            this.lockedAt = lockedAt;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
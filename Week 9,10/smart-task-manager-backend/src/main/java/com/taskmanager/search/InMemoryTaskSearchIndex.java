@@ -0,0 +1,247 @@
+package com.taskmanager.search;
+
+import com.taskmanager.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+public class InMemoryTaskSearchIndex implements TaskSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryTaskSearchIndex.class);
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float TAG_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float EXACT_MATCH_BOOST = 1.5f;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("reportingExecutor")
+    private TaskExecutor taskExecutor;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private State state = new State();
+
+    // Changes made while a rebuild is running, replayed onto the rebuilt state (null terms = removal)
+    private Map<Long, Map<String, Float>> changesDuringRebuild;
+
+    private volatile boolean ready = false;
+
+    // Searches fall back to the database until the first rebuild completes
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        taskExecutor.execute(this::rebuild);
+    }
+
+    @Override
+    public void index(Long taskId, String title, String description, Collection<String> tags) {
+        Map<String, Float> terms = weigh(title, description, tags);
+        lock.writeLock().lock();
+        try {
+            state.put(taskId, terms);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(taskId, terms);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long taskId) {
+        lock.writeLock().lock();
+        try {
+            state.remove(taskId);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(taskId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Float> scores = null;
+        lock.readLock().lock();
+        try {
+            int documentCount = Math.max(1, state.documents.size());
+            for (String queryTerm : queryTerms) {
+                Map<Long, Float> termScores = new HashMap<>();
+                // Every indexed term starting with the query term contributes, weighted by its idf
+                for (Map.Entry<String, Map<Long, Float>> posting :
+                        state.postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, true).entrySet()) {
+                    float idf = (float) Math.log(1.0 + (double) documentCount / posting.getValue().size());
+                    float boost = posting.getKey().equals(queryTerm) ? EXACT_MATCH_BOOST : 1.0f;
+                    for (Map.Entry<Long, Float> hit : posting.getValue().entrySet()) {
+                        if (scores == null || scores.containsKey(hit.getKey())) {
+                            termScores.merge(hit.getKey(), hit.getValue() * idf * boost, Float::sum);
+                        }
+                    }
+                }
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((taskId, score) -> score + termScores.get(taskId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return scores.entrySet().stream()
+            .sorted(Map.Entry.<Long, Float>comparingByValue().reversed()
+                .thenComparing(Map.Entry.<Long, Float>comparingByKey().reversed()))
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State rebuilt = new State();
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = taskRepository.streamSearchDocuments()) {
+                    rows.forEach(row -> rebuilt.put((Long) row[0], weigh((String) row[1], (String) row[2], List.of())));
+                }
+                try (Stream<Object[]> rows = taskRepository.streamTags()) {
+                    rows.forEach(row -> rebuilt.addTerms((Long) row[0], weigh(null, null, List.of((String) row[1]))));
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Task search index rebuild failed", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach((taskId, terms) -> {
+                if (terms == null) {
+                    rebuilt.remove(taskId);
+                } else {
+                    rebuilt.put(taskId, terms);
+                }
+            });
+            changesDuringRebuild = null;
+            state = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Task search index rebuilt with {} tasks and {} terms in {} ms",
+            rebuilt.documents.size(), rebuilt.postings.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    private Map<String, Float> weigh(String title, String description, Collection<String> tags) {
+        Map<String, Float> terms = new HashMap<>();
+        for (String term : SearchTokenizer.tokenize(title)) {
+            terms.merge(term, TITLE_WEIGHT, Float::sum);
+        }
+        if (tags != null) {
+            for (String tag : tags) {
+                for (String term : SearchTokenizer.tokenize(tag)) {
+                    terms.merge(term, TAG_WEIGHT, Float::sum);
+                }
+            }
+        }
+        for (String term : SearchTokenizer.tokenize(description)) {
+            terms.merge(term, DESCRIPTION_WEIGHT, Float::sum);
+        }
+        return terms;
+    }
+
+    private static final class State {
+
+        private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+        private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+
+        private void put(Long taskId, Map<String, Float> terms) {
+            remove(taskId);
+            addTerms(taskId, terms);
+        }
+
+        private void addTerms(Long taskId, Map<String, Float> terms) {
+            Map<String, Float> documentTerms = documents.computeIfAbsent(taskId, id -> new HashMap<>());
+            terms.forEach((term, weight) -> {
+                float total = documentTerms.merge(term, weight, Float::sum);
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(taskId, total);
+            });
+        }
+
+        private void remove(Long taskId) {
+            Map<String, Float> documentTerms = documents.remove(taskId);
+            if (documentTerms == null) {
+                return;
+            }
+            for (String term : documentTerms.keySet()) {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(taskId);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+}
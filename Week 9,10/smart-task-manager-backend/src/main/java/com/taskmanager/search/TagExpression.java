@@ -0,0 +1,208 @@
+package com.taskmanager.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Boolean tag filter such as: backend AND (urgent OR bug) AND NOT wontfix
+// AND, OR and NOT are case-insensitive; adjacent terms are ANDed, and tags containing spaces or
+// parentheses can be quoted. Evaluated against the tag bitmaps, or turned into SQL when the index
+// isn't available, through the same Visitor. Parsing and evaluation recurse, so the length and the
+// nesting of parentheses and NOTs are capped.
+public abstract class TagExpression {
+
+    public static final int MAX_LENGTH = 1000;
+
+    public static final int MAX_DEPTH = 32;
+
+    public interface Visitor<T> {
+        T tag(String tag);
+        T and(T left, T right);
+        T or(T left, T right);
+        T not(T operand);
+        // "a AND NOT b" without materializing NOT b
+        T andNot(T left, T right);
+    }
+
+    public abstract <T> T accept(Visitor<T> visitor);
+
+    public static TagExpression parse(String expression) {
+        if (expression.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Tag filter is longer than " + MAX_LENGTH + " characters");
+        }
+        Parser parser = new Parser(tokenize(expression));
+        TagExpression result = parser.parseOr();
+        if (parser.position < parser.tokens.size()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.tokens.get(parser.position) + "' in tag filter");
+        }
+        return result;
+    }
+
+    private static List<String> tokenize(String expression) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '"') {
+                int end = expression.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated quote in tag filter");
+                }
+                // Quoted tags are marked so they are never read as operators
+                tokens.add("\"" + expression.substring(i + 1, end));
+                i = end + 1;
+            } else {
+                int start = i;
+                while (i < expression.length() && !Character.isWhitespace(expression.charAt(i))
+                        && "()\"".indexOf(expression.charAt(i)) < 0) {
+                    i++;
+                }
+                tokens.add(expression.substring(start, i));
+            }
+        }
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("Tag filter is empty");
+        }
+        return tokens;
+    }
+
+    private static final class Parser {
+
+        private final List<String> tokens;
+        private int position;
+        private int depth;
+
+        private Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        private TagExpression parseOr() {
+            TagExpression left = parseAnd();
+            while (accept("OR")) {
+                left = new Or(left, parseAnd());
+            }
+            return left;
+        }
+
+        private TagExpression parseAnd() {
+            TagExpression left = parseNot();
+            while (position < tokens.size() && !isKeyword("OR") && !tokens.get(position).equals(")")) {
+                accept("AND");
+                left = new And(left, parseNot());
+            }
+            return left;
+        }
+
+        private TagExpression parseNot() {
+            if (accept("NOT")) {
+                enter();
+                TagExpression operand = parseNot();
+                depth--;
+                return new Not(operand);
+            }
+            if (position >= tokens.size()) {
+                throw new IllegalArgumentException("Tag filter ends unexpectedly");
+            }
+            String token = tokens.get(position++);
+            if (token.equals("(")) {
+                enter();
+                TagExpression inner = parseOr();
+                if (position >= tokens.size() || !tokens.get(position).equals(")")) {
+                    throw new IllegalArgumentException("Missing ')' in tag filter");
+                }
+                position++;
+                depth--;
+                return inner;
+            }
+            if (token.equals(")") || token.equalsIgnoreCase("AND") || token.equalsIgnoreCase("OR")) {
+                throw new IllegalArgumentException("Unexpected '" + token + "' in tag filter");
+            }
+            return new Tag(token.startsWith("\"") ? token.substring(1) : token);
+        }
+
+        private void enter() {
+            if (++depth > MAX_DEPTH) {
+                throw new IllegalArgumentException("Tag filter is nested more than " + MAX_DEPTH + " levels deep");
+            }
+        }
+
+        private boolean isKeyword(String keyword) {
+            return position < tokens.size() && tokens.get(position).equalsIgnoreCase(keyword);
+        }
+
+        private boolean accept(String keyword) {
+            if (isKeyword(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Tag extends TagExpression {
+
+        private final String tag;
+
+        private Tag(String tag) {
+            this.tag = tag;
+        }
+
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.tag(tag);
+        }
+    }
+
+    private static final class And extends TagExpression {
+
+        private final TagExpression left;
+        private final TagExpression right;
+
+        private And(TagExpression left, TagExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            if (right instanceof Not not) {
+                return visitor.andNot(left.accept(visitor), not.operand.accept(visitor));
+            }
+            return visitor.and(left.accept(visitor), right.accept(visitor));
+        }
+    }
+
+    private static final class Or extends TagExpression {
+
+        private final TagExpression left;
+        private final TagExpression right;
+
+        private Or(TagExpression left, TagExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.or(left.accept(visitor), right.accept(visitor));
+        }
+    }
+
+    private static final class Not extends TagExpression {
+
+        private final TagExpression operand;
+
+        private Not(TagExpression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.not(operand.accept(visitor));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.taskmanager.search;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskSearchIndex {
+    
+    // Adds or replaces the indexed text of a task
+    void index(Long taskId, String title, String description, Collection<String> tags);
+    
+    void remove(Long taskId);
+    
+    // Task ids matching every query term (prefix match), best match first
+    List<Long> search(String query, int limit);
+    
+    void rebuild();
+    
+    boolean isReady();
+}
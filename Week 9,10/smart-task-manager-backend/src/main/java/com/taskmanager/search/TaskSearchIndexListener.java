@@ -0,0 +1,27 @@
+package com.taskmanager.search;
+
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.event.TaskSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class TaskSearchIndexListener {
+    
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.isSuperseded()) {
+            return;
+        }
+        TaskSnapshot after = event.getAfter();
+        if (after == null) {
+            taskSearchIndex.remove(event.getTaskId());
+        } else if (event.getType() == TaskChangedEvent.Type.CREATED || event.getType() == TaskChangedEvent.Type.UPDATED) {
+            taskSearchIndex.index(after.getId(), after.getTitle(), after.getDescription(), after.getTags());
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.taskmanager.search;
+
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.event.TaskSnapshot;
+import com.taskmanager.repository.TaskRepository;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Task ids per tag, status and priority as compressed bitmaps, kept current from task events.
+// Tag expressions, status and priority filters combine with bitmap AND/OR/ANDNOT, and facet counts
+// are AND-cardinalities, so neither touches the task_tags table. Ids must fit in an int; the index
+// disables itself (and callers fall back to SQL) if one doesn't.
+@Component
+public class TaskTagIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskTagIndex.class);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("reportingExecutor")
+    private TaskExecutor taskExecutor;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private State state = new State();
+
+    // Tasks changed while a rebuild is running, replayed onto the rebuilt state
+    private Map<Long, Change> changesDuringRebuild;
+
+    private volatile boolean ready = false;
+
+    private volatile boolean overflowed = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        taskExecutor.execute(this::rebuild);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.isSuperseded()) {
+            return;
+        }
+        apply(event.getTaskId(), event.getBefore(), event.getAfter());
+    }
+
+    // Replaces what is indexed for the task; after is null for a deleted task
+    public void apply(Long taskId, TaskSnapshot before, TaskSnapshot after) {
+        if (!fitsInt(taskId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Collection<String> oldTags = before != null ? before.getTags() : List.of();
+            state.remove((int) (long) taskId, oldTags);
+            if (after != null) {
+                state.add((int) (long) taskId, after.getTags(), after.getStatus(), after.getPriority());
+            }
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.computeIfAbsent(taskId, id -> new Change()).record(before, after);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Adds a task the index hasn't seen; used by rebuilds and benchmarks
+    public void add(Long taskId, Collection<String> tags, TaskStatus status, Priority priority) {
+        if (!fitsInt(taskId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            state.add((int) (long) taskId, tags, status, priority);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Matching task ids; any of the arguments may be null. The result is a copy the caller owns.
+    public RoaringBitmap match(TagExpression tags, TaskStatus status, Priority priority) {
+        lock.readLock().lock();
+        try {
+            if (tags == null && status == null && priority == null) {
+                return state.all.clone();
+            }
+            BitmapEvaluator evaluator = new BitmapEvaluator(state);
+            RoaringBitmap result = tags != null ? tags.accept(evaluator) : null;
+            RoaringBitmap statusBitmap = status != null ? state.statuses.get(status) : null;
+            RoaringBitmap priorityBitmap = priority != null ? state.priorities.get(priority) : null;
+            result = intersect(intersect(result, statusBitmap), priorityBitmap);
+            // Without any operator the result is still one of the indexed bitmaps
+            boolean indexed = result == evaluator.lastTag || result == statusBitmap || result == priorityBitmap;
+            return indexed ? result.clone() : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The most frequent tags among the given tasks, or among all tasks when filter is null.
+    // With a filter, tags are visited largest first so the scan stops at the first one too small to
+    // make the top; tags smaller than the filter are counted by probing a flat copy of it, which is
+    // much cheaper than merging their ids with the filter's.
+    public List<TagCount> facets(RoaringBitmap filter, int limit) {
+        if (limit <= 0 || (filter != null && filter.isEmpty())) {
+            return List.of();
+        }
+        Comparator<TagCount> byCount = Comparator.comparingLong(TagCount::getCount)
+            .thenComparing(TagCount::getTag, Comparator.reverseOrder());
+        PriorityQueue<TagCount> top = new PriorityQueue<>(byCount);
+        lock.readLock().lock();
+        try {
+            List<TagCount> totals = new ArrayList<>(state.tags.size());
+            state.tags.forEach((tag, bitmap) -> totals.add(new TagCount(tag, bitmap.getLongCardinality())));
+            long[] filterWords = null;
+            if (filter != null) {
+                totals.sort(Comparator.comparingLong(TagCount::getCount).reversed());
+                filterWords = toWords(filter);
+            }
+            for (TagCount total : totals) {
+                if (filter != null && top.size() == limit && total.getCount() < top.peek().getCount()) {
+                    break;
+                }
+                TagCount candidate = total;
+                if (filter != null) {
+                    RoaringBitmap bitmap = state.tags.get(total.getTag());
+                    long count = total.getCount() < filter.getLongCardinality()
+                        ? countIn(bitmap, filterWords)
+                        : RoaringBitmap.andCardinality(bitmap, filter);
+                    candidate = new TagCount(total.getTag(), count);
+                }
+                if (candidate.getCount() == 0) {
+                    continue;
+                }
+                if (top.size() < limit) {
+                    top.add(candidate);
+                } else if (byCount.compare(candidate, top.peek()) > 0) {
+                    top.poll();
+                    top.add(candidate);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<TagCount> result = new ArrayList<>(top);
+        result.sort(byCount.reversed());
+        return result;
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State rebuilt = new State();
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = taskRepository.streamStatusAndPriority()) {
+                    rows.forEach(row -> {
+                        if (fitsInt((Long) row[0])) {
+                            rebuilt.add((int) (long) (Long) row[0], List.of(), (TaskStatus) row[1], (Priority) row[2]);
+                        }
+                    });
+                }
+                try (Stream<Object[]> rows = taskRepository.streamTags()) {
+                    rows.forEach(row -> {
+                        if (fitsInt((Long) row[0])) {
+                            rebuilt.addTag((int) (long) (Long) row[0], (String) row[1]);
+                        }
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Task tag index rebuild failed", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // The rebuilt row may predate or follow any of these changes, so clear every tag it could hold
+            changesDuringRebuild.forEach((taskId, change) -> {
+                rebuilt.remove((int) (long) taskId, change.tags);
+                if (change.last != null) {
+                    rebuilt.add((int) (long) taskId, change.last.getTags(), change.last.getStatus(), change.last.getPriority());
+                }
+            });
+            changesDuringRebuild = null;
+            state = rebuilt;
+            ready = !overflowed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Task tag index rebuilt with {} tasks and {} tags in {} ms",
+            rebuilt.all.getLongCardinality(), rebuilt.tags.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private static RoaringBitmap intersect(RoaringBitmap left, RoaringBitmap right) {
+        if (left == null) {
+            return right;
+        }
+        return right != null ? RoaringBitmap.and(left, right) : left;
+    }
+
+    private static long[] toWords(RoaringBitmap bitmap) {
+        long[] words = new long[(bitmap.last() >>> 6) + 1];
+        bitmap.forEach((int id) -> words[id >>> 6] |= 1L << id);
+        return words;
+    }
+
+    private static long countIn(RoaringBitmap bitmap, long[] words) {
+        long count = 0;
+        IntIterator ids = bitmap.getIntIterator();
+        while (ids.hasNext()) {
+            int id = ids.next();
+            if ((id >>> 6) < words.length && (words[id >>> 6] & (1L << id)) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean fitsInt(Long taskId) {
+        if (taskId >= 0 && taskId <= Integer.MAX_VALUE) {
+            return true;
+        }
+        if (!overflowed) {
+            overflowed = true;
+            ready = false;
+            logger.warn("Task id {} does not fit the tag index, tag filters fall back to SQL", taskId);
+        }
+        return false;
+    }
+
+    public static class TagCount {
+
+        private final String tag;
+        private final long count;
+
+        public TagCount(String tag, long count) {
+            this.tag = tag;
+            this.count = count;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    private static final class Change {
+
+        private final Set<String> tags = new HashSet<>();
+        private TaskSnapshot last;
+
+        private void record(TaskSnapshot before, TaskSnapshot after) {
+            if (before != null) {
+                tags.addAll(before.getTags());
+            }
+            if (after != null) {
+                tags.addAll(after.getTags());
+            }
+            last = after;
+        }
+    }
+
+    private static final class State {
+
+        private final Map<String, RoaringBitmap> tags = new HashMap<>();
+        private final Map<TaskStatus, RoaringBitmap> statuses = newBitmaps(TaskStatus.class);
+        private final Map<Priority, RoaringBitmap> priorities = newBitmaps(Priority.class);
+        private final RoaringBitmap all = new RoaringBitmap();
+
+        private void add(int taskId, Collection<String> taskTags, TaskStatus status, Priority priority) {
+            all.add(taskId);
+            statuses.get(status).add(taskId);
+            priorities.get(priority).add(taskId);
+            for (String tag : taskTags) {
+                addTag(taskId, tag);
+            }
+        }
+
+        private void addTag(int taskId, String tag) {
+            tags.computeIfAbsent(tag, t -> new RoaringBitmap()).add(taskId);
+        }
+
+        // Status and priority aren't needed: there are only a handful of those bitmaps
+        private void remove(int taskId, Collection<String> taskTags) {
+            all.remove(taskId);
+            statuses.values().forEach(bitmap -> bitmap.remove(taskId));
+            priorities.values().forEach(bitmap -> bitmap.remove(taskId));
+            for (String tag : taskTags) {
+                RoaringBitmap bitmap = tags.get(tag);
+                if (bitmap != null) {
+                    bitmap.remove(taskId);
+                    if (bitmap.isEmpty()) {
+                        tags.remove(tag);
+                    }
+                }
+            }
+        }
+
+        private static <E extends Enum<E>> Map<E, RoaringBitmap> newBitmaps(Class<E> type) {
+            Map<E, RoaringBitmap> bitmaps = new EnumMap<>(type);
+            for (E value : type.getEnumConstants()) {
+                bitmaps.put(value, new RoaringBitmap());
+            }
+            return bitmaps;
+        }
+    }
+
+    // Leaves are the indexed bitmaps themselves; the operators always build new ones and never modify them
+    private static final class BitmapEvaluator implements TagExpression.Visitor<RoaringBitmap> {
+
+        private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+        private final State state;
+        private RoaringBitmap lastTag;
+
+        private BitmapEvaluator(State state) {
+            this.state = state;
+        }
+
+        @Override
+        public RoaringBitmap tag(String tag) {
+            lastTag = state.tags.getOrDefault(tag, EMPTY);
+            return lastTag;
+        }
+
+        @Override
+        public RoaringBitmap and(RoaringBitmap left, RoaringBitmap right) {
+            return RoaringBitmap.and(left, right);
+        }
+
+        @Override
+        public RoaringBitmap or(RoaringBitmap left, RoaringBitmap right) {
+            return RoaringBitmap.or(left, right);
+        }
+
+        @Override
+        public RoaringBitmap not(RoaringBitmap operand) {
+            return RoaringBitmap.andNot(state.all, operand);
+        }
+
+        @Override
+        public RoaringBitmap andNot(RoaringBitmap left, RoaringBitmap right) {
+            return RoaringBitmap.andNot(left, right);
+        }
+    }
+}
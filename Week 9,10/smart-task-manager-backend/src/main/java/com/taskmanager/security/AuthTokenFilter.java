@@ -1,5 +1,7 @@
 package com.taskmanager.security;
 
+import com.taskmanager.config.MetricsConfig;
+import com.taskmanager.entity.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +27,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
     
     @Override
@@ -32,15 +37,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                                   FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            String username = jwt != null ? jwtUtils.validateAndGetUserName(jwt) : null;
+            if (username != null) {
+                UserDetails userDetails = principalCache.get(username, email -> (User) userDetailsService.loadUserByUsername(email));
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                userDetails.getAuthorities().stream().findFirst().ifPresent(authority ->
+                    request.setAttribute(MetricsConfig.ROLE_ATTRIBUTE, authority.getAuthority().replace("ROLE_", "")));
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e.getMessage());
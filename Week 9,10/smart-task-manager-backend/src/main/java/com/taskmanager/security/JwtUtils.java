@@ -2,6 +2,8 @@ package com.taskmanager.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,8 +25,21 @@ public class JwtUtils {
     @Value("${app.jwt.expiration}")
     private int jwtExpirationMs;
     
+    // Built once; both are thread-safe
+    private SecretKey signingKey;
+    
+    private JwtParser jwtParser;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
     
     public String generateJwtToken(Authentication authentication) {
@@ -48,21 +63,23 @@ public class JwtUtils {
     }
     
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
+        return jwtParser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
     
     public boolean validateJwtToken(String authToken) {
+        return validateAndGetUserName(authToken) != null;
+    }
+    
+    // Verifies the token and returns its subject with a single parse, or null if the token is not valid
+    public String validateAndGetUserName(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken)
+                .getBody()
+                .getSubject();
+        } catch (SecurityException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -73,14 +90,11 @@ public class JwtUtils {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
         
-        return false;
+        return null;
     }
     
     public Date getExpirationDateFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
+        return jwtParser.parseClaimsJws(token)
                 .getBody()
                 .getExpiration();
     }
@@ -0,0 +1,85 @@
+package com.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskmanager.entity.User;
+import com.taskmanager.event.UserChangedEvent;
+import com.taskmanager.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+// Authenticated principals by email, so a request with a valid token doesn't need to load the user.
+// Entries are PrincipalSnapshots and every get() returns a fresh User built from one. A change to the
+// user drops its entry when it commits on this instance; changes made through other instances are
+// picked up from users.updated_at every sync interval. Entries also expire after a TTL.
+@Component
+public class PrincipalCache {
+    
+    // Covers clock differences between instances stamping updated_at
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Value("${app.security.principal-cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${app.security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+    
+    private Cache<String, PrincipalSnapshot> cache;
+    
+    private LocalDateTime lastSync = LocalDateTime.now();
+    
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(enabled ? maxSize : 0)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+    }
+    
+    public User get(String email, Function<String, User> loader) {
+        if (!enabled) {
+            return loader.apply(email);
+        }
+        return cache.get(email, key -> PrincipalSnapshot.of(loader.apply(key))).toUser();
+    }
+    
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getEmail());
+    }
+    
+    @Scheduled(fixedDelayString = "${app.security.principal-cache.sync-interval-ms:5000}",
+               initialDelayString = "${app.security.principal-cache.sync-interval-ms:5000}")
+    public void invalidateUsersChangedElsewhere() {
+        LocalDateTime syncStartedAt = LocalDateTime.now();
+        if (cache.estimatedSize() > 0) {
+            userRepository.findEmailsUpdatedSince(lastSync.minus(SYNC_OVERLAP)).forEach(this::invalidate);
+        }
+        lastSync = syncStartedAt;
+    }
+}
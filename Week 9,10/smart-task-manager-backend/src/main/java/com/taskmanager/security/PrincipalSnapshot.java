@@ -0,0 +1,59 @@
+package com.taskmanager.security;
+
+import com.taskmanager.entity.Role;
+import com.taskmanager.entity.User;
+
+import java.time.LocalDateTime;
+
+// What PrincipalCache keeps of a user: immutable, without the password or tokens, and never attached to a
+// persistence context. Each request gets its own User built from it, so requests don't share an entity.
+public final class PrincipalSnapshot {
+    
+    private final Long id;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final Role role;
+    private final boolean emailVerified;
+    private final boolean notificationsEnabled;
+    private final boolean active;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    
+    private PrincipalSnapshot(User user) {
+        this.id = user.getId();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.email = user.getEmail();
+        this.role = user.getRole();
+        this.emailVerified = user.isEmailVerified();
+        this.notificationsEnabled = user.isNotificationsEnabled();
+        this.active = user.isActive();
+        this.createdAt = user.getCreatedAt();
+        this.updatedAt = user.getUpdatedAt();
+    }
+    
+    public static PrincipalSnapshot of(User user) {
+        return new PrincipalSnapshot(user);
+    }
+    
+    public User toUser() {
+        User user = new User(firstName, lastName, email, null);
+        user.setId(id);
+        user.setRole(role);
+        user.setEmailVerified(emailVerified);
+        user.setNotificationsEnabled(notificationsEnabled);
+        user.setActive(active);
+        user.setCreatedAt(createdAt);
+        user.setUpdatedAt(updatedAt);
+        return user;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+}
@@ -1,28 +1,78 @@
 package com.taskmanager.service;
 
+import com.taskmanager.activity.ActivityLogArchive;
+import com.taskmanager.activity.ActivityLogBuffer;
+import com.taskmanager.dto.request.KeysetCursor;
+import com.taskmanager.dto.response.CursorPage;
 import com.taskmanager.entity.ActivityLog;
 import com.taskmanager.entity.User;
 import com.taskmanager.repository.ActivityLogRepository;
+import com.taskmanager.repository.ActivityLogSpecifications;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
+@Timed(value = "taskmanager.service", histogram = true)
 @Transactional
 public class ActivityLogService {
     
     @Autowired
     private ActivityLogRepository activityLogRepository;
     
-    @Async
+    @Autowired
+    private ActivityLogBuffer activityLogBuffer;
+    
+    @Autowired
+    private ActivityLogArchive activityLogArchive;
+    
+    // Logs are written behind by ActivityLogBuffer, so callers never wait on the insert. Inside a transaction
+    // they are queued once it commits, so rolled-back work leaves no log, and without waiting for buffer space
+    // since the caller still holds its connection; outside one the buffer's overflow policy applies as is.
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void logActivity(User user, String action, String description, String entityType, Long entityId, String ipAddress) {
         ActivityLog log = new ActivityLog(user, action, description, entityType, entityId, ipAddress);
-        activityLogRepository.save(log);
+        log.setCreatedAt(LocalDateTime.now());
+        enqueueAfterCommit(List.of(log));
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void logActivities(List<ActivityLog> logs) {
+        LocalDateTime now = LocalDateTime.now();
+        for (ActivityLog log : logs) {
+            if (log.getCreatedAt() == null) {
+                log.setCreatedAt(now);
+            }
+        }
+        enqueueAfterCommit(logs);
+    }
+    
+    private void enqueueAfterCommit(List<ActivityLog> logs) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            activityLogBuffer.addAll(logs);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                activityLogBuffer.offerAll(logs);
+            }
+        });
     }
     
     public Page<ActivityLog> getAllActivityLogs(Pageable pageable) {
@@ -34,16 +84,96 @@ public class ActivityLogService {
     }
     
     public Page<ActivityLog> getActivityLogsByDateRange(LocalDateTime fromDate, LocalDateTime toDate, Pageable pageable) {
-        return activityLogRepository.findByDateRange(fromDate, toDate, pageable);
+        LocalDateTime boundary = activityLogArchive.getArchiveBoundary(fromDate);
+        if (boundary == null) {
+            return activityLogRepository.findByDateRange(fromDate, toDate, pageable);
+        }
+        Page<ActivityLog> hot = toDate.isBefore(boundary) ? Page.empty(pageable)
+            : activityLogRepository.findByDateRange(boundary, toDate, pageable);
+        return withArchived(hot, null, null, null, fromDate, toDate, pageable);
     }
     
     public Page<ActivityLog> getActivityLogsWithFilters(Long userId, String action, String entityType, 
                                                        LocalDateTime fromDate, LocalDateTime toDate, Pageable pageable) {
-        return activityLogRepository.findWithFilters(userId, action, entityType, fromDate, toDate, pageable);
+        LocalDateTime boundary = activityLogArchive.getArchiveBoundary(fromDate);
+        if (boundary == null) {
+            return activityLogRepository.findAll(
+                ActivityLogSpecifications.withFilters(userId, action, entityType, fromDate, toDate), newestFirst(pageable));
+        }
+        Page<ActivityLog> hot = toDate != null && toDate.isBefore(boundary) ? Page.empty(pageable)
+            : activityLogRepository.findAll(
+                ActivityLogSpecifications.withFilters(userId, action, entityType, boundary, toDate), newestFirst(pageable));
+        return withArchived(hot, userId, action, entityType, fromDate, toDate, pageable);
+    }
+    
+    public CursorPage<ActivityLog> getAllActivityLogsByCursor(String cursor, int size) {
+        KeysetCursor.checkPageSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toCursorPage(activityLogRepository.findAllBefore(
+            after.getCreatedAt(), after.getId(), PageRequest.of(0, size)));
+    }
+    
+    public CursorPage<ActivityLog> getActivityLogsWithFiltersByCursor(Long userId, String action, String entityType,
+                                                                     LocalDateTime fromDate, LocalDateTime toDate,
+                                                                     String cursor, int size) {
+        KeysetCursor.checkPageSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LocalDateTime boundary = activityLogArchive.getArchiveBoundary(fromDate);
+        if (boundary == null) {
+            return toCursorPage(findSliceBefore(userId, action, entityType, fromDate, toDate, after, size));
+        }
+        
+        List<ActivityLog> logs = new ArrayList<>();
+        if ((toDate == null || !toDate.isBefore(boundary)) && !after.getCreatedAt().isBefore(boundary)) {
+            Slice<ActivityLog> hot = findSliceBefore(userId, action, entityType, boundary, toDate, after, size);
+            if (hot.hasNext()) {
+                return toCursorPage(hot);
+            }
+            logs.addAll(hot.getContent());
+        }
+        // One extra archived log tells whether there is a next page
+        int remaining = size - logs.size();
+        List<ActivityLog> archived = activityLogArchive.findBefore(userId, action, entityType, fromDate, toDate, after, remaining + 1);
+        logs.addAll(archived.subList(0, Math.min(remaining, archived.size())));
+        return toCursorPage(new SliceImpl<>(logs, PageRequest.of(0, size), archived.size() > remaining));
     }
     
     public long getUserActivityCount(Long userId, LocalDateTime fromDate) {
         return activityLogRepository.countUserActivitiesSince(userId, fromDate);
     }
+    
+    private Slice<ActivityLog> findSliceBefore(Long userId, String action, String entityType, LocalDateTime fromDate,
+                                               LocalDateTime toDate, KeysetCursor after, int size) {
+        return activityLogRepository.findSlice(
+            ActivityLogSpecifications.withFilters(userId, action, entityType, fromDate, toDate)
+                .and(ActivityLogSpecifications.createdBefore(after.getCreatedAt(), after.getId())),
+            PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "createdAt", "id")));
+    }
+    
+    // Newest first, then the requested order within equal timestamps
+    private Pageable newestFirst(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+            Sort.by(Sort.Direction.DESC, "createdAt").and(pageable.getSort()));
+    }
+    
+    // Archived logs are all older than the ones in the table, so they follow its matches
+    private Page<ActivityLog> withArchived(Page<ActivityLog> hot, Long userId, String action, String entityType,
+                                           LocalDateTime fromDate, LocalDateTime toDate, Pageable pageable) {
+        List<ActivityLog> logs = new ArrayList<>(hot.getContent());
+        long archivedOffset = Math.max(0, pageable.getOffset() - hot.getTotalElements());
+        ActivityLogArchive.ArchivedPage archived = activityLogArchive.findPage(userId, action, entityType, fromDate, toDate,
+            archivedOffset, pageable.getPageSize() - logs.size());
+        logs.addAll(archived.getLogs());
+        return new PageImpl<>(logs, pageable, hot.getTotalElements() + archived.getTotal());
+    }
+    
+    private CursorPage<ActivityLog> toCursorPage(Slice<ActivityLog> slice) {
+        List<ActivityLog> logs = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !logs.isEmpty()) {
+            ActivityLog last = logs.get(logs.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(logs, slice.getSize(), nextCursor != null, nextCursor);
+    }
 }
-
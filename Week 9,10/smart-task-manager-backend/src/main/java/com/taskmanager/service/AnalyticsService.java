@@ -1,16 +1,27 @@
 package com.taskmanager.service;
 
+import com.taskmanager.analytics.TaskCounterStore;
 import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.TaskDailyRollupRepository;
 import com.taskmanager.repository.TaskRepository;
 import com.taskmanager.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 @Service
+@Timed(value = "taskmanager.service", histogram = true)
 public class AnalyticsService {
     
     @Autowired
@@ -19,40 +30,46 @@ public class AnalyticsService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TaskCounterStore taskCounterStore;
+    
+    @Autowired
+    private TaskDailyRollupRepository rollupRepository;
+    
     public Map<String, Object> getDashboardStats(Long userId) {
-        Map<String, Object> stats = new HashMap<>();
+        // Served from the in-memory counters once they are loaded
+        if (taskCounterStore.isReady()) {
+            return buildStatusStats(taskCounterStore.getAssigneeStatusCounts(userId));
+        }
         
         // Task counts by status for the user
-        long todoCount = taskRepository.countByAssigneeIdAndStatus(userId, TaskStatus.TODO);
-        long inProgressCount = taskRepository.countByAssigneeIdAndStatus(userId, TaskStatus.IN_PROGRESS);
-        long blockedCount = taskRepository.countByAssigneeIdAndStatus(userId, TaskStatus.BLOCKED);
-        long completedCount = taskRepository.countByAssigneeIdAndStatus(userId, TaskStatus.COMPLETED);
-        
-        stats.put("todoTasks", todoCount);
-        stats.put("inProgressTasks", inProgressCount);
-        stats.put("blockedTasks", blockedCount);
-        stats.put("completedTasks", completedCount);
-        stats.put("totalTasks", todoCount + inProgressCount + blockedCount + completedCount);
-        
-        // Task distribution by status
-        Map<String, Long> statusDistribution = new HashMap<>();
-        statusDistribution.put("TODO", todoCount);
-        statusDistribution.put("IN_PROGRESS", inProgressCount);
-        statusDistribution.put("BLOCKED", blockedCount);
-        statusDistribution.put("COMPLETED", completedCount);
-        stats.put("statusDistribution", statusDistribution);
-        
-        return stats;
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, taskRepository.countByAssigneeIdAndStatus(userId, status));
+        }
+        return buildStatusStats(counts);
     }
     
     public Map<String, Object> getOverallStats() {
-        Map<String, Object> stats = new HashMap<>();
+        if (taskCounterStore.isReady()) {
+            return buildStatusStats(taskCounterStore.getStatusCounts());
+        }
         
         // Overall task counts by status
-        long todoCount = taskRepository.countByStatus(TaskStatus.TODO);
-        long inProgressCount = taskRepository.countByStatus(TaskStatus.IN_PROGRESS);
-        long blockedCount = taskRepository.countByStatus(TaskStatus.BLOCKED);
-        long completedCount = taskRepository.countByStatus(TaskStatus.COMPLETED);
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, taskRepository.countByStatus(status));
+        }
+        return buildStatusStats(counts);
+    }
+    
+    private Map<String, Object> buildStatusStats(Map<TaskStatus, Long> counts) {
+        Map<String, Object> stats = new HashMap<>();
+        
+        long todoCount = counts.getOrDefault(TaskStatus.TODO, 0L);
+        long inProgressCount = counts.getOrDefault(TaskStatus.IN_PROGRESS, 0L);
+        long blockedCount = counts.getOrDefault(TaskStatus.BLOCKED, 0L);
+        long completedCount = counts.getOrDefault(TaskStatus.COMPLETED, 0L);
         
         stats.put("todoTasks", todoCount);
         stats.put("inProgressTasks", inProgressCount);
@@ -72,6 +89,16 @@ public class AnalyticsService {
     }
     
     public Map<String, Long> getTaskCountByStatus() {
+        if (taskCounterStore.isReady()) {
+            Map<String, Long> statusCounts = new HashMap<>();
+            taskCounterStore.getStatusCounts().forEach((status, count) -> {
+                if (count > 0) {
+                    statusCounts.put(status.name(), count);
+                }
+            });
+            return statusCounts;
+        }
+        
         List<Object[]> results = taskRepository.getTaskCountByStatus();
         Map<String, Long> statusCounts = new HashMap<>();
         
@@ -130,8 +157,8 @@ public class AnalyticsService {
         Map<String, Object> metrics = new HashMap<>();
         
         // Get completed vs total tasks by user
-        Map<String, Object> completedByUser = getCompletedTasksByUser();
-        Map<String, Object> totalByUser = getTotalTasksByUser();
+        Map<String, Object> totalByUser = taskCounterStore.isReady() ? getUserTotalsFromCounters() : getTotalTasksByUser();
+        Map<String, Object> completedByUser = taskCounterStore.isReady() ? totalByUser : getCompletedTasksByUser();
         
         Map<String, Object> productivityByUser = new HashMap<>();
         
@@ -163,7 +190,7 @@ public class AnalyticsService {
         Map<String, Object> workload = new HashMap<>();
         
         // Get total tasks by user
-        Map<String, Object> totalByUser = getTotalTasksByUser();
+        Map<String, Object> totalByUser = taskCounterStore.isReady() ? getUserTotalsFromCounters() : getTotalTasksByUser();
         
         // Calculate workload distribution
         long totalTasksOverall = totalByUser.values().stream()
@@ -192,5 +219,127 @@ public class AnalyticsService {
         
         return workload;
     }
+    public List<Map<String, Object>> getTrend(LocalDate from, LocalDate to, Long userId) {
+        LocalDate today = LocalDate.now();
+        List<Map<String, Object>> trend = new ArrayList<>();
+        for (Object[] row : rollupRepository.sumByDay(from, to, userId)) {
+            // Today's rollup is only as current as the last aggregation run
+            if (today.equals(row[0])) {
+                continue;
+            }
+            trend.add(trendDay(row[0], row[1], row[2], row[3], row[4], row[5]));
+        }
+        if (!today.isBefore(from) && !today.isAfter(to)) {
+            Map<TaskStatus, Long> counts = getLiveAssigneeStatusCounts(userId);
+            trend.add(trendDay(today, counts.get(TaskStatus.TODO), counts.get(TaskStatus.IN_PROGRESS),
+                counts.get(TaskStatus.BLOCKED), counts.get(TaskStatus.COMPLETED),
+                taskRepository.countOverdueAssignments(userId, LocalDateTime.now())));
+            trend.sort(Comparator.comparing(day -> (LocalDate) day.get("day")));
+        }
+        return trend;
+    }
+    
+    private Map<String, Object> trendDay(Object day, Object todo, Object inProgress, Object blocked, Object completed, Object overdue) {
+        Map<String, Object> trendDay = new LinkedHashMap<>();
+        trendDay.put("day", day);
+        trendDay.put("todoTasks", todo);
+        trendDay.put("inProgressTasks", inProgress);
+        trendDay.put("blockedTasks", blocked);
+        trendDay.put("completedTasks", completed);
+        trendDay.put("overdueTasks", overdue);
+        return trendDay;
+    }
+    
+    // Status counts over (task, assignee) pairs like the rollup: one assignee's, or summed over everyone's
+    private Map<TaskStatus, Long> getLiveAssigneeStatusCounts(Long userId) {
+        if (userId != null && taskCounterStore.isReady()) {
+            return taskCounterStore.getAssigneeStatusCounts(userId);
+        }
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, userId != null ? taskRepository.countByAssigneeIdAndStatus(userId, status) : 0L);
+        }
+        if (userId != null) {
+            return counts;
+        }
+        if (taskCounterStore.isReady()) {
+            taskCounterStore.getAllAssigneeStatusCounts().values()
+                .forEach(userCounts -> userCounts.forEach((status, count) -> counts.merge(status, count, Long::sum)));
+        } else {
+            for (Object[] row : taskRepository.getTaskCountByAssigneeAndStatus()) {
+                counts.merge((TaskStatus) row[1], (Long) row[2], Long::sum);
+            }
+        }
+        return counts;
+    }
+    
+    public Map<String, Object> getThroughput(LocalDate from, LocalDate to, Long userId) {
+        Map<String, Object> throughput = new HashMap<>();
+        Map<String, Long> completionsByDay = new LinkedHashMap<>();
+        long totalCompletions = 0;
+        
+        for (Object[] row : rollupRepository.sumByDay(from, to, userId)) {
+            long completions = (Long) row[6];
+            completionsByDay.put(row[0].toString(), completions);
+            totalCompletions += completions;
+        }
+        
+        long days = Math.max(1, to.toEpochDay() - from.toEpochDay() + 1);
+        throughput.put("completionsByDay", completionsByDay);
+        throughput.put("totalCompletions", totalCompletions);
+        throughput.put("averagePerDay", Math.round((double) totalCompletions / days * 100.0) / 100.0);
+        
+        return throughput;
+    }
+    
+    public Map<String, Object> getCycleTime(LocalDate from, LocalDate to, Long userId) {
+        Map<String, Object> cycleTime = new HashMap<>();
+        Map<String, Double> averageHoursByDay = new LinkedHashMap<>();
+        long totalCompletions = 0;
+        long totalSeconds = 0;
+        
+        for (Object[] row : rollupRepository.sumByDay(from, to, userId)) {
+            long completions = (Long) row[6];
+            long seconds = (Long) row[7];
+            if (completions > 0) {
+                averageHoursByDay.put(row[0].toString(), toHours(seconds / (double) completions));
+            }
+            totalCompletions += completions;
+            totalSeconds += seconds;
+        }
+        
+        cycleTime.put("averageHoursByDay", averageHoursByDay);
+        cycleTime.put("completedTasks", totalCompletions);
+        cycleTime.put("averageHours", totalCompletions > 0 ? toHours(totalSeconds / (double) totalCompletions) : 0.0);
+        
+        return cycleTime;
+    }
+    
+    private double toHours(double seconds) {
+        return Math.round(seconds / 3600.0 * 100.0) / 100.0;
+    }
+    
+    // Same shape as getTotalTasksByUser/getCompletedTasksByUser, built from the in-memory counters
+    private Map<String, Object> getUserTotalsFromCounters() {
+        Map<Long, Map<TaskStatus, Long>> countsByUser = taskCounterStore.getAllAssigneeStatusCounts();
+        Map<String, Object> userStats = new HashMap<>();
+        
+        for (User user : userRepository.findAllById(countsByUser.keySet())) {
+            Map<TaskStatus, Long> counts = countsByUser.get(user.getId());
+            long total = counts.values().stream().mapToLong(Long::longValue).sum();
+            if (total == 0) {
+                continue;
+            }
+            
+            Map<String, Object> userInfo = new HashMap<>();
+            userInfo.put("userId", user.getId());
+            userInfo.put("name", user.getFirstName() + " " + user.getLastName());
+            userInfo.put("totalTasks", total);
+            userInfo.put("completedTasks", counts.getOrDefault(TaskStatus.COMPLETED, 0L));
+            
+            userStats.put(user.getId().toString(), userInfo);
+        }
+        
+        return userStats;
+    }
 }
-
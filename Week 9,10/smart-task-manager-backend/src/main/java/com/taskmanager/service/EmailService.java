@@ -1,181 +1,168 @@
 package com.taskmanager.service;
 
+import com.taskmanager.entity.EmailCategory;
+import com.taskmanager.entity.EmailOutbox;
 import com.taskmanager.entity.Task;
 import com.taskmanager.entity.User;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.taskmanager.repository.EmailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+// Emails are written to the outbox in the caller's transaction and delivered by EmailOutboxDispatcher,
+// so nothing is sent for work that is rolled back. Bodies exclude the greeting and sign-off, which
+// are added at delivery time so several notifications can be merged into one digest.
 @Service
 public class EmailService {
     
-    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
-    
     @Autowired
-    private JavaMailSender mailSender;
-    
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private EmailOutboxRepository emailOutboxRepository;
     
     @Value("${app.base-url}")
     private String baseUrl;
     
-    @Async
     public void sendVerificationEmail(User user) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(user.getEmail());
-            message.setSubject("Email Verification - Smart Task Manager");
-            
-            String verificationUrl = baseUrl + "/api/auth/verify-email?token=" + user.getEmailVerificationToken();
-            String emailBody = String.format(
-                "Dear %s,\n\n" +
-                "Thank you for registering with Smart Task Manager!\n\n" +
-                "Please click the following link to verify your email address:\n" +
-                "%s\n\n" +
-                "If you didn't create this account, please ignore this email.\n\n" +
-                "Best regards,\n" +
-                "Smart Task Manager Team",
-                user.getFullName(), verificationUrl
-            );
-            
-            message.setText(emailBody);
-            mailSender.send(message);
-            
-            logger.info("Verification email sent to: {}", user.getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send verification email to: {}", user.getEmail(), e);
-        }
+        String verificationUrl = baseUrl + "/api/auth/verify-email?token=" + user.getEmailVerificationToken();
+        String emailBody = String.format(
+            "Thank you for registering with Smart Task Manager!\n\n" +
+            "Please click the following link to verify your email address:\n" +
+            "%s\n\n" +
+            "If you didn't create this account, please ignore this email.",
+            verificationUrl
+        );
+        
+        enqueue(user, EmailCategory.VERIFICATION, "Email Verification - Smart Task Manager", emailBody);
     }
     
-    @Async
     public void sendPasswordResetEmail(User user, String resetToken) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(user.getEmail());
-            message.setSubject("Password Reset - Smart Task Manager");
-            
-            String resetUrl = baseUrl + "/reset-password?token=" + resetToken;
-            String emailBody = String.format(
-                "Dear %s,\n\n" +
-                "You have requested to reset your password for Smart Task Manager.\n\n" +
-                "Please click the following link to reset your password:\n" +
-                "%s\n\n" +
-                "This link will expire in 24 hours.\n\n" +
-                "If you didn't request this password reset, please ignore this email.\n\n" +
-                "Best regards,\n" +
-                "Smart Task Manager Team",
-                user.getFullName(), resetUrl
-            );
-            
-            message.setText(emailBody);
-            mailSender.send(message);
-            
-            logger.info("Password reset email sent to: {}", user.getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send password reset email to: {}", user.getEmail(), e);
-        }
+        String resetUrl = baseUrl + "/reset-password?token=" + resetToken;
+        String emailBody = String.format(
+            "You have requested to reset your password for Smart Task Manager.\n\n" +
+            "Please click the following link to reset your password:\n" +
+            "%s\n\n" +
+            "This link will expire in 24 hours.\n\n" +
+            "If you didn't request this password reset, please ignore this email.",
+            resetUrl
+        );
+        
+        enqueue(user, EmailCategory.PASSWORD_RESET, "Password Reset - Smart Task Manager", emailBody);
     }
     
-    @Async
     public void sendTaskAssignmentNotification(User assignee, Task task, User assignedBy) {
         if (!assignee.isNotificationsEnabled()) {
             return;
         }
         
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(assignee.getEmail());
-            message.setSubject("New Task Assigned - " + task.getTitle());
-            
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm");
-            String emailBody = String.format(
-                "Dear %s,\n\n" +
-                "You have been assigned a new task:\n\n" +
-                "Task: %s\n" +
-                "Description: %s\n" +
-                "Priority: %s\n" +
-                "Due Date: %s\n" +
-                "Assigned by: %s\n\n" +
-                "Please log in to the Smart Task Manager to view more details and update the task status.\n\n" +
-                "Best regards,\n" +
-                "Smart Task Manager Team",
-                assignee.getFullName(),
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm");
+        String emailBody = String.format(
+            "You have been assigned a new task:\n\n" +
+            "Task: %s\n" +
+            "Description: %s\n" +
+            "Priority: %s\n" +
+            "Due Date: %s\n" +
+            "Assigned by: %s\n\n" +
+            "Please log in to the Smart Task Manager to view more details and update the task status.",
+            task.getTitle(),
+            task.getDescription() != null ? task.getDescription() : "No description provided",
+            task.getPriority().getDisplayName(),
+            task.getDueDate().format(formatter),
+            assignedBy.getFullName()
+        );
+        
+        enqueue(assignee, EmailCategory.TASK_ASSIGNMENT, "New Task Assigned - " + task.getTitle(), emailBody);
+    }
+    
+    public void sendBulkTaskAssignmentNotification(User assignee, List<Task> tasks, User assignedBy) {
+        if (!assignee.isNotificationsEnabled() || tasks.isEmpty()) {
+            return;
+        }
+        
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm");
+        StringBuilder taskList = new StringBuilder();
+        for (Task task : tasks) {
+            taskList.append(String.format("- %s (Priority: %s, Due: %s)\n",
                 task.getTitle(),
-                task.getDescription() != null ? task.getDescription() : "No description provided",
                 task.getPriority().getDisplayName(),
-                task.getDueDate().format(formatter),
-                assignedBy.getFullName()
-            );
-            
-            message.setText(emailBody);
-            mailSender.send(message);
-            
-            logger.info("Task assignment notification sent to: {}", assignee.getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send task assignment notification to: {}", assignee.getEmail(), e);
+                task.getDueDate().format(formatter)));
         }
+        
+        String emailBody = String.format(
+            "You have been assigned %d new tasks by %s:\n\n" +
+            "%s\n" +
+            "Please log in to the Smart Task Manager to view more details and update the task status.",
+            tasks.size(),
+            assignedBy.getFullName(),
+            taskList
+        );
+        
+        enqueue(assignee, EmailCategory.TASK_ASSIGNMENT, tasks.size() + " New Tasks Assigned", emailBody);
     }
     
-    @Async
-    public void sendTaskReminderNotifications(List<Task> tasks) {
-        for (Task task : tasks) {
-            for (User assignee : task.getAssignees()) {
-                if (assignee.isNotificationsEnabled()) {
-                    sendTaskReminderNotification(assignee, task);
-                }
+    // One reminder per assignee, listing all of their tasks that are due soon or overdue
+    public void sendTaskReminders(Map<User, List<Task>> tasksByAssignee) {
+        List<EmailOutbox> emails = new ArrayList<>();
+        tasksByAssignee.forEach((assignee, tasks) -> {
+            if (assignee.isNotificationsEnabled() && !tasks.isEmpty()) {
+                emails.add(tasks.size() == 1 ? buildTaskReminder(assignee, tasks.get(0)) : buildTaskReminderList(assignee, tasks));
             }
-        }
+        });
+        emailOutboxRepository.saveAll(emails);
     }
     
-    private void sendTaskReminderNotification(User assignee, Task task) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(assignee.getEmail());
-            
-            boolean isOverdue = task.isOverdue();
-            message.setSubject((isOverdue ? "Overdue Task: " : "Task Reminder: ") + task.getTitle());
-            
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm");
-            String emailBody = String.format(
-                "Dear %s,\n\n" +
-                "This is a reminder about your %s task:\n\n" +
-                "Task: %s\n" +
-                "Description: %s\n" +
-                "Priority: %s\n" +
-                "Due Date: %s\n" +
-                "Status: %s\n\n" +
-                "Please log in to the Smart Task Manager to update the task status.\n\n" +
-                "Best regards,\n" +
-                "Smart Task Manager Team",
-                assignee.getFullName(),
-                isOverdue ? "overdue" : "upcoming",
+    private EmailOutbox buildTaskReminder(User assignee, Task task) {
+        boolean isOverdue = task.isOverdue();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm");
+        String emailBody = String.format(
+            "This is a reminder about your %s task:\n\n" +
+            "Task: %s\n" +
+            "Description: %s\n" +
+            "Priority: %s\n" +
+            "Due Date: %s\n" +
+            "Status: %s\n\n" +
+            "Please log in to the Smart Task Manager to update the task status.",
+            isOverdue ? "overdue" : "upcoming",
+            task.getTitle(),
+            task.getDescription() != null ? task.getDescription() : "No description provided",
+            task.getPriority().getDisplayName(),
+            task.getDueDate().format(formatter),
+            task.getStatus().getDisplayName()
+        );
+        
+        String subject = (isOverdue ? "Overdue Task: " : "Task Reminder: ") + task.getTitle();
+        return new EmailOutbox(assignee.getEmail(), assignee.getFullName(), EmailCategory.TASK_REMINDER, subject, emailBody);
+    }
+    
+    private EmailOutbox buildTaskReminderList(User assignee, List<Task> tasks) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm");
+        StringBuilder overdue = new StringBuilder();
+        StringBuilder upcoming = new StringBuilder();
+        for (Task task : tasks) {
+            (task.isOverdue() ? overdue : upcoming).append(String.format("- %s (Priority: %s, Due: %s, Status: %s)\n",
                 task.getTitle(),
-                task.getDescription() != null ? task.getDescription() : "No description provided",
                 task.getPriority().getDisplayName(),
                 task.getDueDate().format(formatter),
-                task.getStatus().getDisplayName()
-            );
-            
-            message.setText(emailBody);
-            mailSender.send(message);
-            
-            logger.info("Task reminder notification sent to: {}", assignee.getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send task reminder notification to: {}", assignee.getEmail(), e);
+                task.getStatus().getDisplayName()));
         }
+        
+        StringBuilder emailBody = new StringBuilder("This is a reminder about your tasks:\n\n");
+        if (overdue.length() > 0) {
+            emailBody.append("Overdue:\n").append(overdue).append('\n');
+        }
+        if (upcoming.length() > 0) {
+            emailBody.append("Due within 24 hours:\n").append(upcoming).append('\n');
+        }
+        emailBody.append("Please log in to the Smart Task Manager to update the task status.");
+        
+        String subject = "Task Reminder: " + tasks.size() + " tasks need your attention";
+        return new EmailOutbox(assignee.getEmail(), assignee.getFullName(), EmailCategory.TASK_REMINDER, subject, emailBody.toString());
+    }
+    
+    private void enqueue(User recipient, EmailCategory category, String subject, String body) {
+        emailOutboxRepository.save(new EmailOutbox(recipient.getEmail(), recipient.getFullName(), category, subject, body));
     }
 }
-
@@ -1,16 +1,20 @@
 package com.taskmanager.service;
 
-import com.taskmanager.entity.Task;
-import com.taskmanager.entity.User;
-import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.event.UserChangedEvent;
 import com.taskmanager.repository.UserRepository;
+import com.taskmanager.scheduling.ClusterJobs;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -21,84 +25,90 @@ public class ScheduledTaskService {
     private static final Logger logger = LoggerFactory.getLogger(ScheduledTaskService.class);
     
     @Autowired
-    private TaskRepository taskRepository;
+    private UserRepository userRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private TaskReminderService taskReminderService;
+    
+    @Autowired
+    private WeeklyDigestService weeklyDigestService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     @Autowired
-    private EmailService emailService;
+    private ClusterJobs clusterJobs;
     
-    // Send daily reminders at 9:00 AM every day
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // Send daily overdue reminders at 9:00 AM; reminders ahead of due dates go out at their lead times.
+    // The tasks are split into shards across the running instances
     @Scheduled(cron = "0 0 9 * * *")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void sendDailyTaskReminders() {
-        logger.info("Starting daily task reminder job");
-        
-        try {
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime tomorrow = now.plusDays(1);
-            
-            // Get tasks due within 24 hours
-            List<Task> upcomingTasks = taskRepository.findTasksDueWithin(now, tomorrow);
+        clusterJobs.runSharded("daily-task-reminders", Duration.ofHours(1), Duration.ofMinutes(5), (shard, shardCount) -> {
+            logger.info("Starting daily task reminder job, shard {} of {}", shard + 1, shardCount);
             
-            // Get overdue tasks
-            List<Task> overdueTasks = taskRepository.findOverdueTasks(now);
-            
-            // Send reminders for upcoming tasks
-            if (!upcomingTasks.isEmpty()) {
-                emailService.sendTaskReminderNotifications(upcomingTasks);
-                logger.info("Sent reminders for {} upcoming tasks", upcomingTasks.size());
+            try {
+                // Each chunk runs in its own transaction on the reminder workers
+                long reminded = taskReminderService.sendReminders(shard, shardCount);
+                logger.info("Daily task reminder job completed successfully, {} tasks reminded", reminded);
+            } catch (Exception e) {
+                logger.error("Error in daily task reminder job", e);
             }
-            
-            // Send reminders for overdue tasks
-            if (!overdueTasks.isEmpty()) {
-                emailService.sendTaskReminderNotifications(overdueTasks);
-                logger.info("Sent reminders for {} overdue tasks", overdueTasks.size());
-            }
-            
-            logger.info("Daily task reminder job completed successfully");
-        } catch (Exception e) {
-            logger.error("Error in daily task reminder job", e);
-        }
+        });
     }
     
-    // Clean up expired password reset tokens every hour
+    // Clean up expired password reset tokens every hour, on one instance
     @Scheduled(cron = "0 0 * * * *")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void cleanupExpiredTokens() {
-        logger.info("Starting expired token cleanup job");
-        
-        try {
-            LocalDateTime now = LocalDateTime.now();
-            List<User> usersWithExpiredTokens = userRepository.findUsersWithExpiredPasswordResetTokens(now);
+        clusterJobs.runExclusive("expired-token-cleanup", Duration.ofMinutes(10), Duration.ofMinutes(1), () -> {
+            logger.info("Starting expired token cleanup job");
             
-            for (User user : usersWithExpiredTokens) {
-                user.setPasswordResetToken(null);
-                user.setPasswordResetTokenExpiry(null);
-                userRepository.save(user);
+            try {
+                int cleaned = cleanupExpiredTokens(LocalDateTime.now());
+                if (cleaned > 0) {
+                    logger.info("Cleaned up expired tokens for {} users", cleaned);
+                }
+                
+                logger.info("Expired token cleanup job completed successfully");
+            } catch (Exception e) {
+                logger.error("Error in expired token cleanup job", e);
             }
-            
-            if (!usersWithExpiredTokens.isEmpty()) {
-                logger.info("Cleaned up expired tokens for {} users", usersWithExpiredTokens.size());
+        });
+    }
+    
+    // One bulk UPDATE; the ids are read first only to tell listeners which users changed
+    public int cleanupExpiredTokens(LocalDateTime now) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<Object[]> users = userRepository.findIdsWithExpiredPasswordResetTokens(now);
+            if (users.isEmpty()) {
+                return 0;
             }
-            
-            logger.info("Expired token cleanup job completed successfully");
-        } catch (Exception e) {
-            logger.error("Error in expired token cleanup job", e);
-        }
+            int cleaned = userRepository.clearExpiredPasswordResetTokens(now);
+            for (Object[] user : users) {
+                eventPublisher.publishEvent(new UserChangedEvent((Long) user[0], (String) user[1]));
+            }
+            return cleaned;
+        });
     }
     
-    // Send weekly summary every Monday at 8:00 AM
+    // Send weekly summary every Monday at 8:00 AM, each shard of the users on one instance
     @Scheduled(cron = "0 0 8 * * MON")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void sendWeeklySummary() {
-        logger.info("Starting weekly summary job");
-        
-        try {
-            // This could be expanded to send weekly productivity reports
-            // For now, just log that the job ran
-            logger.info("Weekly summary job completed successfully");
-        } catch (Exception e) {
-            logger.error("Error in weekly summary job", e);
-        }
+        clusterJobs.runSharded("weekly-summary", Duration.ofHours(1), Duration.ofMinutes(5), (shard, shardCount) -> {
+            logger.info("Starting weekly summary job, shard {} of {}", shard + 1, shardCount);
+            
+            try {
+                // One streaming pass over the shard's users; the digests are delivered by the outbox dispatcher
+                long digests = weeklyDigestService.sendDigests(shard, shardCount);
+                logger.info("Weekly summary job completed successfully, {} digests queued", digests);
+            } catch (Exception e) {
+                logger.error("Error in weekly summary job", e);
+            }
+        });
     }
 }
-
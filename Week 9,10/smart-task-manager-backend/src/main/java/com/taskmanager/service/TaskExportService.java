@@ -0,0 +1,134 @@
+package com.taskmanager.service;
+
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.export.CsvTaskExportWriter;
+import com.taskmanager.export.ExportFormat;
+import com.taskmanager.export.PdfTaskExportWriter;
+import com.taskmanager.export.TaskExportWriter;
+import com.taskmanager.export.XlsxTaskExportWriter;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.TaskSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class TaskExportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskExportService.class);
+    
+    private static final List<String> COLUMNS = List.of(
+        "ID", "Title", "Description", "Status", "Priority", "Due Date",
+        "Created By", "Assignees", "Tags", "Created At", "Completed At");
+    
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${app.tasks.export.chunk-size:500}")
+    private int chunkSize;
+    
+    // Streams the matching tasks to the output. Memory use is bounded by the chunk size: after every
+    // chunk is written the persistence context is cleared, so nothing read so far stays reachable.
+    @Transactional(readOnly = true)
+    public long exportTasks(ExportFormat format, OutputStream out, Long assigneeId, TaskStatus status, Priority priority,
+                            LocalDateTime fromDate, LocalDateTime toDate, String search) throws IOException {
+        long start = System.currentTimeMillis();
+        long exported = 0;
+        
+        try (TaskExportWriter writer = createWriter(format, out);
+             Stream<Task> tasks = taskRepository.streamWithCreator(
+                 TaskSpecifications.withFilters(assigneeId, status, priority, fromDate, toDate, search),
+                 Sort.by(Sort.Direction.DESC, "createdAt", "id"))) {
+            writer.writeHeader(COLUMNS);
+            
+            List<Task> chunk = new ArrayList<>(chunkSize);
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    exported += writeChunk(writer, chunk);
+                }
+            }
+            exported += writeChunk(writer, chunk);
+        }
+        
+        logger.info("Exported {} tasks as {} in {} ms", exported, format, System.currentTimeMillis() - start);
+        return exported;
+    }
+    
+    private TaskExportWriter createWriter(ExportFormat format, OutputStream out) {
+        return switch (format) {
+            case CSV -> new CsvTaskExportWriter(out);
+            case XLSX -> new XlsxTaskExportWriter(out);
+            case PDF -> new PdfTaskExportWriter(out);
+        };
+    }
+    
+    private int writeChunk(TaskExportWriter writer, List<Task> chunk) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<Long> taskIds = chunk.stream().map(Task::getId).collect(Collectors.toList());
+        
+        // One query per collection for the whole chunk instead of two lazy loads per task
+        Map<Long, List<String>> assignees = new HashMap<>();
+        for (Object[] row : taskRepository.findAssigneeNamesByTaskIdIn(taskIds)) {
+            assignees.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(row[1] + " " + row[2]);
+        }
+        Map<Long, TreeSet<String>> tags = new HashMap<>();
+        for (Object[] row : taskRepository.findTagsByTaskIdIn(taskIds)) {
+            tags.computeIfAbsent((Long) row[0], id -> new TreeSet<>()).add((String) row[1]);
+        }
+        
+        for (Task task : chunk) {
+            List<String> values = new ArrayList<>(COLUMNS.size());
+            values.add(task.getId().toString());
+            values.add(task.getTitle());
+            values.add(task.getDescription());
+            values.add(task.getStatus().getDisplayName());
+            values.add(task.getPriority().getDisplayName());
+            values.add(format(task.getDueDate()));
+            values.add(task.getCreatedBy().getFullName());
+            values.add(String.join("; ", assignees.getOrDefault(task.getId(), List.of())));
+            values.add(String.join("; ", tags.getOrDefault(task.getId(), new TreeSet<>())));
+            values.add(format(task.getCreatedAt()));
+            values.add(format(task.getCompletedAt()));
+            writer.writeRow(values);
+        }
+        
+        int written = chunk.size();
+        chunk.clear();
+        entityManager.clear();
+        return written;
+    }
+    
+    private String format(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.format(DATE_TIME_FORMAT) : null;
+    }
+}
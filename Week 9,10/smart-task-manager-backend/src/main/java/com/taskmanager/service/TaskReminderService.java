@@ -0,0 +1,157 @@
+package com.taskmanager.service;
+
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Sends reminders for overdue tasks; reminders ahead of a due date go out at their lead times from
+// DeadlineReminderScheduler instead. Task ids are read in keyset order and each chunk is handled on the
+// reporting executor in its own transaction: one reminder per assignee is written to the email outbox
+// and the chunk's tasks get last_reminded_at, so a re-run on the same day skips them.
+@Service
+public class TaskReminderService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskReminderService.class);
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EmailService emailService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.reminders.chunk-size:200}")
+    private int chunkSize;
+    
+    @Value("${app.reminders.overdue-lookback-days:30}")
+    private int overdueLookbackDays;
+    
+    @Autowired
+    @Qualifier("reportingExecutor")
+    private TaskExecutor executor;
+    
+    private Timer jobTimer;
+    private Counter tasksCounter;
+    private Counter emailsCounter;
+    private final AtomicLong lastItemsPerSecond = new AtomicLong();
+    
+    @PostConstruct
+    public void init() {
+        jobTimer = meterRegistry.timer("taskmanager.reminders.job.duration");
+        tasksCounter = meterRegistry.counter("taskmanager.reminders.tasks");
+        emailsCounter = meterRegistry.counter("taskmanager.reminders.emails");
+        meterRegistry.gauge("taskmanager.reminders.job.items_per_second", lastItemsPerSecond);
+    }
+    
+    // Returns the number of tasks reminded
+    public long sendReminders() {
+        return sendReminders(0, 1);
+    }
+    
+    // Only the tasks of one shard: ids with id % shardCount == shard
+    public long sendReminders(int shard, int shardCount) {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime overdueSince = now.minusDays(overdueLookbackDays);
+        LocalDateTime dueBefore = now;
+        LocalDateTime remindedBefore = now.toLocalDate().atStartOfDay();
+        
+        AtomicLong reminded = new AtomicLong();
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        long afterId = 0;
+        List<Long> taskIds;
+        do {
+            taskIds = taskRepository.findTaskIdsToRemind(afterId, shard, shardCount, overdueSince, dueBefore, remindedBefore,
+                PageRequest.of(0, chunkSize));
+            if (!taskIds.isEmpty()) {
+                List<Long> chunk = taskIds;
+                afterId = chunk.get(chunk.size() - 1);
+                chunks.add(CompletableFuture.runAsync(() -> reminded.addAndGet(remindChunk(chunk, now)), executor)
+                    .exceptionally(e -> {
+                        logger.error("Reminder chunk starting at task {} failed, it will be retried on the next run", chunk.get(0), e);
+                        return null;
+                    }));
+            }
+        } while (taskIds.size() == chunkSize);
+        CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+        
+        long elapsedNanos = System.nanoTime() - start;
+        jobTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        lastItemsPerSecond.set(elapsedNanos > 0 ? reminded.get() * 1_000_000_000L / elapsedNanos : 0);
+        logger.info("Sent reminders for {} tasks in {} ms", reminded.get(), elapsedNanos / 1_000_000);
+        return reminded.get();
+    }
+    
+    // Reminds the given tasks right away, chunk by chunk on the calling thread
+    public long remindTasks(Collection<Long> taskIds, LocalDateTime remindedAt) {
+        List<Long> ids = new ArrayList<>(taskIds);
+        long reminded = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            reminded += remindChunk(ids.subList(from, Math.min(from + chunkSize, ids.size())), remindedAt);
+        }
+        return reminded;
+    }
+    
+    private int remindChunk(List<Long> taskIds, LocalDateTime remindedAt) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return transaction.execute(status -> {
+            // De-duplicate per user: every assignee gets one reminder listing their tasks in this chunk
+            Map<Long, List<Long>> taskIdsByUser = new LinkedHashMap<>();
+            for (Object[] pair : taskRepository.findReminderRecipients(taskIds)) {
+                taskIdsByUser.computeIfAbsent((Long) pair[1], id -> new ArrayList<>()).add((Long) pair[0]);
+            }
+            
+            if (!taskIdsByUser.isEmpty()) {
+                Map<Long, Task> tasks = taskRepository.findAllById(taskIds).stream()
+                    .collect(Collectors.toMap(Task::getId, Function.identity()));
+                Map<User, List<Task>> tasksByAssignee = new LinkedHashMap<>();
+                for (User user : userRepository.findAllById(taskIdsByUser.keySet())) {
+                    tasksByAssignee.put(user, taskIdsByUser.get(user.getId()).stream()
+                        .map(tasks::get)
+                        .collect(Collectors.toList()));
+                }
+                emailService.sendTaskReminders(tasksByAssignee);
+                emailsCounter.increment(tasksByAssignee.size());
+            }
+            
+            taskRepository.markReminded(taskIds, remindedAt);
+            tasksCounter.increment(taskIds.size());
+            return taskIds.size();
+        });
+    }
+}
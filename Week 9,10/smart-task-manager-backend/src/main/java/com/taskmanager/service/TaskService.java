@@ -1,31 +1,64 @@
 package com.taskmanager.service;
 
+import com.taskmanager.dto.request.KeysetCursor;
 import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.dto.request.TaskStatusChange;
+import com.taskmanager.dto.response.CursorPage;
 import com.taskmanager.dto.response.TaskResponse;
+import com.taskmanager.dto.response.TaskStatusChangeResult;
 import com.taskmanager.dto.response.UserResponse;
+import com.taskmanager.deadline.DeadlineIndex;
 import com.taskmanager.entity.*;
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.event.TaskSnapshot;
+import com.taskmanager.repository.ActivityLogBatchRepository;
+import com.taskmanager.repository.TaskBatchRepository;
 import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.TaskSpecifications;
 import com.taskmanager.repository.UserRepository;
+import com.taskmanager.search.TagExpression;
+import com.taskmanager.search.TaskSearchIndex;
+import com.taskmanager.search.TaskTagIndex;
+import io.micrometer.core.annotation.Timed;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "taskmanager.service", histogram = true)
 @Transactional
 public class TaskService {
     
     @Autowired
     private TaskRepository taskRepository;
     
+    @Autowired
+    private TaskBatchRepository taskBatchRepository;
+    
     @Autowired
     private UserRepository userRepository;
     
@@ -35,6 +68,27 @@ public class TaskService {
     @Autowired
     private ActivityLogService activityLogService;
     
+    @Autowired
+    private ActivityLogBatchRepository activityLogBatchRepository;
+    
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+    
+    @Autowired
+    private TaskTagIndex taskTagIndex;
+    
+    @Autowired
+    private DeadlineIndex deadlineIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.search.max-candidates:10000}")
+    private int maxSearchCandidates;
+    
+    @Value("${app.tasks.tag-index.max-id-list:10000}")
+    private int maxTagIndexIdList;
+    
     public TaskResponse createTask(TaskRequest taskRequest, User createdBy) {
         Task task = new Task();
         task.setTitle(taskRequest.getTitle());
@@ -61,6 +115,7 @@ public class TaskService {
         }
         
         Task savedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.created(TaskSnapshot.of(savedTask)));
         
         // Send notifications to assignees
         for (User assignee : savedTask.getAssignees()) {
@@ -74,6 +129,69 @@ public class TaskService {
         return convertToTaskResponse(savedTask);
     }
     
+    public List<TaskResponse> createTasks(List<TaskRequest> taskRequests, User createdBy) {
+        // Resolve every assignee of the import in a single query
+        Set<Long> assigneeIds = taskRequests.stream()
+            .filter(request -> request.getAssigneeIds() != null)
+            .flatMap(request -> request.getAssigneeIds().stream())
+            .collect(Collectors.toSet());
+        Map<Long, User> assigneesById = userRepository.findAllById(assigneeIds).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = new ArrayList<>(taskRequests.size());
+        for (TaskRequest taskRequest : taskRequests) {
+            Task task = new Task();
+            task.setTitle(taskRequest.getTitle());
+            task.setDescription(taskRequest.getDescription());
+            task.setDueDate(taskRequest.getDueDate());
+            task.setPriority(taskRequest.getPriority() != null ? taskRequest.getPriority() : Priority.MEDIUM);
+            task.setStatus(TaskStatus.TODO);
+            task.setCreatedBy(createdBy);
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            
+            if (taskRequest.getTags() != null) {
+                task.setTags(new HashSet<>(taskRequest.getTags()));
+            }
+            
+            if (taskRequest.getAssigneeIds() != null) {
+                for (Long assigneeId : taskRequest.getAssigneeIds()) {
+                    User assignee = assigneesById.get(assigneeId);
+                    if (assignee == null) {
+                        throw new RuntimeException("Assignee not found with id: " + assigneeId);
+                    }
+                    task.addAssignee(assignee);
+                }
+            }
+            tasks.add(task);
+        }
+        
+        taskBatchRepository.insertAll(tasks);
+        tasks.forEach(task -> eventPublisher.publishEvent(TaskChangedEvent.created(TaskSnapshot.of(task))));
+        
+        // One coalesced notification per assignee instead of one per task
+        Map<Long, List<Task>> tasksByAssignee = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            for (User assignee : task.getAssignees()) {
+                tasksByAssignee.computeIfAbsent(assignee.getId(), id -> new ArrayList<>()).add(task);
+            }
+        }
+        tasksByAssignee.forEach((assigneeId, assignedTasks) ->
+            emailService.sendBulkTaskAssignmentNotification(assigneesById.get(assigneeId), assignedTasks, createdBy));
+        
+        // Log activity with multi-row INSERTs in the import's transaction, so a large import can't overflow the buffer
+        List<ActivityLog> logs = tasks.stream()
+            .map(task -> new ActivityLog(createdBy, "TASK_CREATED", 
+                "Created task: " + task.getTitle(), "Task", task.getId(), null))
+            .collect(Collectors.toList());
+        activityLogBatchRepository.insertMultiRow(logs);
+        
+        return tasks.stream()
+            .map(this::convertToTaskResponse)
+            .collect(Collectors.toList());
+    }
+    
     public TaskResponse updateTask(Long taskId, TaskRequest taskRequest, User currentUser) {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new RuntimeException("Task not found"));
@@ -82,7 +200,9 @@ public class TaskService {
         if (!canUserModifyTask(currentUser, task)) {
             throw new RuntimeException("You don't have permission to modify this task");
         }
+        checkVersion(task, taskRequest.getVersion());
         
+        TaskSnapshot before = TaskSnapshot.of(task);
         String oldStatus = task.getStatus().name();
         
         task.setTitle(taskRequest.getTitle());
@@ -121,7 +241,11 @@ public class TaskService {
             }
         }
         
-        Task updatedTask = taskRepository.save(task);
+        // Tag or assignee changes alone don't dirty the row; updatedAt is the task's ETag version
+        task.setUpdatedAt(LocalDateTime.now());
+        // Flushed here so a concurrent update fails this call and the response carries the new version
+        Task updatedTask = taskRepository.saveAndFlush(task);
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, before, TaskSnapshot.of(updatedTask)));
         
         // Log activity
         String statusChange = !oldStatus.equals(updatedTask.getStatus().name()) ? 
@@ -134,6 +258,10 @@ public class TaskService {
     }
     
     public TaskResponse updateTaskStatus(Long taskId, TaskStatus newStatus, User currentUser) {
+        return updateTaskStatus(taskId, newStatus, null, currentUser);
+    }
+    
+    public TaskResponse updateTaskStatus(Long taskId, TaskStatus newStatus, Long expectedVersion, User currentUser) {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new RuntimeException("Task not found"));
         
@@ -141,10 +269,13 @@ public class TaskService {
         if (!canUserModifyTask(currentUser, task)) {
             throw new RuntimeException("You don't have permission to modify this task");
         }
+        checkVersion(task, expectedVersion);
         
+        TaskSnapshot before = TaskSnapshot.of(task);
         TaskStatus oldStatus = task.getStatus();
         task.setStatus(newStatus);
-        Task updatedTask = taskRepository.save(task);
+        Task updatedTask = taskRepository.saveAndFlush(task);
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.STATUS_CHANGED, before, TaskSnapshot.of(updatedTask)));
         
         // Log activity
         activityLogService.logActivity(currentUser, "TASK_STATUS_UPDATED", 
@@ -155,6 +286,86 @@ public class TaskService {
         return convertToTaskResponse(updatedTask);
     }
     
+    // Moves many tasks in one go: three queries load and lock the rows, their tags and assignees, one UPDATE
+    // per target status applies the moves, and the activity logs are written with multi-row INSERTs in the same
+    // transaction, so they commit with the moves and a large batch can't overflow the write-behind buffer. Each
+    // change gets its own outcome, so a conflict or a missing permission doesn't fail the others.
+    public List<TaskStatusChangeResult> updateTaskStatuses(List<TaskStatusChange> changes, User currentUser) {
+        Set<Long> taskIds = new HashSet<>();
+        for (TaskStatusChange change : changes) {
+            if (!taskIds.add(change.getTaskId())) {
+                throw new IllegalArgumentException("Task " + change.getTaskId() + " appears more than once in the batch");
+            }
+        }
+        
+        Map<Long, Object[]> rows = taskRepository.findStatusRowsForUpdate(taskIds).stream()
+            .collect(Collectors.toMap(row -> (Long) row[0], Function.identity()));
+        Map<Long, Set<Long>> assigneeIds = new HashMap<>();
+        Map<Long, Set<String>> tags = new HashMap<>();
+        if (!rows.isEmpty()) {
+            for (Object[] row : taskRepository.findAssigneeIdsByTaskIdIn(rows.keySet())) {
+                assigneeIds.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+            }
+            for (Object[] row : taskRepository.findTagsByTaskIdIn(rows.keySet())) {
+                tags.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]);
+            }
+        }
+        boolean canModifyAny = currentUser.getRole() == Role.ADMIN || currentUser.getRole() == Role.MANAGER;
+        
+        List<TaskStatusChangeResult> results = new ArrayList<>(changes.size());
+        Map<TaskStatus, List<Long>> idsByStatus = new LinkedHashMap<>();
+        List<TaskSnapshot> befores = new ArrayList<>();
+        for (TaskStatusChange change : changes) {
+            Object[] row = rows.get(change.getTaskId());
+            if (row == null) {
+                results.add(new TaskStatusChangeResult(change.getTaskId(), TaskStatusChangeResult.Outcome.NOT_FOUND, null, null));
+                continue;
+            }
+            TaskStatus status = (TaskStatus) row[5];
+            Long version = (Long) row[7];
+            Set<Long> assignees = assigneeIds.getOrDefault(change.getTaskId(), Set.of());
+            TaskStatusChangeResult.Outcome outcome;
+            if (!canModifyAny && !assignees.contains(currentUser.getId())) {
+                outcome = TaskStatusChangeResult.Outcome.FORBIDDEN;
+            } else if (change.getVersion() != null && !change.getVersion().equals(version)) {
+                outcome = TaskStatusChangeResult.Outcome.CONFLICT;
+            } else if (status == change.getStatus()) {
+                outcome = TaskStatusChangeResult.Outcome.UNCHANGED;
+            } else {
+                outcome = TaskStatusChangeResult.Outcome.UPDATED;
+                idsByStatus.computeIfAbsent(change.getStatus(), s -> new ArrayList<>()).add(change.getTaskId());
+                befores.add(new TaskSnapshot(change.getTaskId(), (String) row[1], (String) row[2], (LocalDateTime) row[3],
+                    (Priority) row[4], status, tags.getOrDefault(change.getTaskId(), Set.of()), (Long) row[6], assignees));
+                status = change.getStatus();
+                version = version + 1;
+            }
+            results.add(new TaskStatusChangeResult(change.getTaskId(), outcome, status, version));
+        }
+        if (befores.isEmpty()) {
+            return results;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        idsByStatus.forEach((status, ids) -> taskBatchRepository.updateStatus(ids, status, now));
+        
+        List<ActivityLog> logs = new ArrayList<>(befores.size());
+        Map<Long, TaskStatus> newStatuses = changes.stream()
+            .collect(Collectors.toMap(TaskStatusChange::getTaskId, TaskStatusChange::getStatus));
+        for (TaskSnapshot before : befores) {
+            TaskStatus newStatus = newStatuses.get(before.getId());
+            TaskSnapshot after = new TaskSnapshot(before.getId(), before.getTitle(), before.getDescription(), before.getDueDate(),
+                before.getPriority(), newStatus, before.getTags(), before.getCreatedById(), before.getAssigneeIds());
+            eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.STATUS_CHANGED, before, after));
+            logs.add(new ActivityLog(currentUser, "TASK_STATUS_UPDATED",
+                String.format("Task status changed from %s to %s for task: %s",
+                    before.getStatus().getDisplayName(), newStatus.getDisplayName(), before.getTitle()),
+                "Task", before.getId(), null));
+        }
+        activityLogBatchRepository.insertMultiRow(logs);
+        
+        return results;
+    }
+    
     public void deleteTask(Long taskId, User currentUser) {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new RuntimeException("Task not found"));
@@ -164,7 +375,9 @@ public class TaskService {
             throw new RuntimeException("You don't have permission to delete this task");
         }
         
+        TaskSnapshot before = TaskSnapshot.of(task);
         taskRepository.delete(task);
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(before));
         
         // Log activity
         activityLogService.logActivity(currentUser, "TASK_DELETED", 
@@ -177,60 +390,214 @@ public class TaskService {
     }
     
     public Page<TaskResponse> getAllTasks(Pageable pageable) {
-        return taskRepository.findAll(pageable)
-            .map(this::convertToTaskResponse);
+        return loadTaskPage(taskRepository.findAllIds(pageable));
     }
     
     public Page<TaskResponse> getTasksByAssignee(Long assigneeId, Pageable pageable) {
-        return taskRepository.findByAssigneeId(assigneeId, pageable)
-            .map(this::convertToTaskResponse);
+        return loadTaskPage(taskRepository.findIdsByAssigneeId(assigneeId, pageable));
     }
     
     public Page<TaskResponse> getTasksByCreator(Long creatorId, Pageable pageable) {
-        return taskRepository.findByCreatedById(creatorId, pageable)
-            .map(this::convertToTaskResponse);
+        return loadTaskPage(taskRepository.findIdsByCreatedById(creatorId, pageable));
     }
     
     public Page<TaskResponse> getTasksWithFilters(Long assigneeId, TaskStatus status, Priority priority,
                                                  LocalDateTime fromDate, LocalDateTime toDate, 
-                                                 String search, Pageable pageable) {
-        return taskRepository.findTasksWithFilters(assigneeId, status, priority, fromDate, toDate, search, pageable)
-            .map(this::convertToTaskResponse);
+                                                 String search, String tags, Pageable pageable) {
+        TagExpression tagExpression = tags != null && !tags.isBlank() ? TagExpression.parse(tags) : null;
+        boolean hasSearch = search != null && !search.isBlank();
+        if (hasSearch && taskSearchIndex.isReady()) {
+            return searchTasks(assigneeId, status, priority, fromDate, toDate, search, tagExpression, pageable);
+        }
+        
+        Specification<Task> spec = TaskSpecifications.withFilters(assigneeId, status, priority, fromDate, toDate, search);
+        if (tagExpression != null && taskTagIndex.isReady()) {
+            RoaringBitmap matches = taskTagIndex.match(tagExpression, status, priority);
+            // Tags, status and priority are all in the bitmap, so an id-ordered page can be read straight off it
+            if (assigneeId == null && fromDate == null && toDate == null && !hasSearch && isIdOrder(pageable.getSort())) {
+                return loadTaskPage(pageOf(matches, pageable));
+            }
+            if (matches.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            if (matches.getLongCardinality() <= maxTagIndexIdList) {
+                return loadTaskPage(taskRepository.findIds(spec.and(TaskSpecifications.idIn(toIds(matches))), pageable));
+            }
+        }
+        if (tagExpression != null) {
+            spec = spec.and(TaskSpecifications.matchesTags(tagExpression));
+        }
+        return loadTaskPage(taskRepository.findIds(spec, pageable));
+    }
+    
+    // Most used tags among the tasks matching the filters
+    public List<TaskTagIndex.TagCount> getTagFacets(String tags, TaskStatus status, Priority priority, int limit) {
+        TagExpression tagExpression = tags != null && !tags.isBlank() ? TagExpression.parse(tags) : null;
+        if (!taskTagIndex.isReady()) {
+            throw new IllegalStateException("Tag facets are not available while the tag index is loading");
+        }
+        RoaringBitmap filter = tagExpression != null || status != null || priority != null
+            ? taskTagIndex.match(tagExpression, status, priority)
+            : null;
+        return taskTagIndex.facets(filter, limit);
+    }
+    
+    public CursorPage<TaskResponse> getTasksWithFiltersByCursor(Long assigneeId, TaskStatus status, Priority priority,
+                                                               LocalDateTime fromDate, LocalDateTime toDate,
+                                                               String search, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return loadTaskSlice(taskRepository.findIdSlice(
+            TaskSpecifications.withFilters(assigneeId, status, priority, fromDate, toDate, search)
+                .and(TaskSpecifications.createdBefore(after.getCreatedAt(), after.getId())),
+            PageRequest.of(0, KeysetCursor.checkPageSize(size), Sort.by(Sort.Direction.DESC, "createdAt", "id"))));
+    }
+    
+    public CursorPage<TaskResponse> getTasksByAssigneeByCursor(Long assigneeId, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return loadTaskSlice(taskRepository.findIdsByAssigneeIdBefore(
+            assigneeId, after.getCreatedAt(), after.getId(), PageRequest.of(0, KeysetCursor.checkPageSize(size))));
     }
     
-    public List<TaskResponse> getOverdueTasks() {
-        return taskRepository.findOverdueTasks(LocalDateTime.now())
+    // Deadline lists come off the deadline index in due order; SQL only until it has loaded
+    public List<TaskResponse> getOverdueTasks(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        if (deadlineIndex.isReady()) {
+            return loadTaskResponses(deadlineIndex.overdue(now, limit));
+        }
+        return taskRepository.findOverdueTasks(now, PageRequest.of(0, limit))
             .stream()
             .map(this::convertToTaskResponse)
             .collect(Collectors.toList());
     }
     
-    public List<TaskResponse> getUpcomingTasks(int hours) {
+    public List<TaskResponse> getUpcomingTasks(int hours, int limit) {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime futureTime = now.plusHours(hours);
-        return taskRepository.findTasksDueWithin(now, futureTime)
+        if (deadlineIndex.isReady()) {
+            return loadTaskResponses(deadlineIndex.upcoming(null, now, futureTime, limit));
+        }
+        return taskRepository.findTasksDueWithin(now, futureTime, PageRequest.of(0, limit))
             .stream()
             .map(this::convertToTaskResponse)
             .collect(Collectors.toList());
     }
     
-    public List<TaskResponse> getUserUpcomingTasks(Long userId, int hours) {
+    public List<TaskResponse> getUserUpcomingTasks(Long userId, int hours, int limit) {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime futureTime = now.plusHours(hours);
-        return taskRepository.findUpcomingTasksForUser(userId, now, futureTime)
+        if (deadlineIndex.isReady()) {
+            return loadTaskResponses(deadlineIndex.upcoming(userId, now, futureTime, limit));
+        }
+        return taskRepository.findUpcomingTasksForUser(userId, now, futureTime, PageRequest.of(0, limit))
+            .stream()
+            .map(this::convertToTaskResponse)
+            .collect(Collectors.toList());
+    }
+    
+    // Full-text matches come from the search index ranked by relevance,
+    // then the other filters are applied to those candidates in the database
+    private Page<TaskResponse> searchTasks(Long assigneeId, TaskStatus status, Priority priority,
+                                          LocalDateTime fromDate, LocalDateTime toDate,
+                                          String search, TagExpression tags, Pageable pageable) {
+        List<Long> rankedIds = taskSearchIndex.search(search, maxSearchCandidates);
+        if (rankedIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        
+        Specification<Task> spec = TaskSpecifications.withFilters(assigneeId, status, priority, fromDate, toDate, null)
+            .and(TaskSpecifications.idIn(rankedIds));
+        if (tags != null) {
+            spec = spec.and(TaskSpecifications.matchesTags(tags));
+        }
+        Set<Long> matchingIds = new HashSet<>(taskRepository.findIds(spec));
+        List<Long> filteredIds = rankedIds.stream()
+            .filter(matchingIds::contains)
+            .collect(Collectors.toList());
+        
+        int from = (int) Math.min(pageable.getOffset(), filteredIds.size());
+        int to = Math.min(from + pageable.getPageSize(), filteredIds.size());
+        return loadTaskPage(new PageImpl<>(filteredIds.subList(from, to), pageable, filteredIds.size()));
+    }
+    
+    private boolean isIdOrder(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        return orders.size() == 1 && orders.get(0).getProperty().equals("id");
+    }
+    
+    // Bitmap ids are ascending, so a descending page counts ranks from the end
+    private Page<Long> pageOf(RoaringBitmap ids, Pageable pageable) {
+        long total = ids.getLongCardinality();
+        boolean descending = pageable.getSort().getOrderFor("id").isDescending();
+        List<Long> content = new ArrayList<>();
+        for (long rank = pageable.getOffset(); rank < total && content.size() < pageable.getPageSize(); rank++) {
+            content.add((long) ids.select((int) (descending ? total - 1 - rank : rank)));
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+    
+    private List<Long> toIds(RoaringBitmap ids) {
+        List<Long> result = new ArrayList<>(ids.getCardinality());
+        ids.forEach((int id) -> result.add((long) id));
+        return result;
+    }
+    
+    // Second phase of a page read: one fetch for the page's tasks, returned in id-page order
+    private Page<TaskResponse> loadTaskPage(Page<Long> idPage) {
+        List<TaskResponse> content = loadTasksInOrder(idPage.getContent())
+            .stream()
+            .map(this::convertToTaskResponse)
+            .collect(Collectors.toList());
+        return new PageImpl<>(content, idPage.getPageable(), idPage.getTotalElements());
+    }
+    
+    private CursorPage<TaskResponse> loadTaskSlice(Slice<Long> idSlice) {
+        List<Task> tasks = loadTasksInOrder(idSlice.getContent());
+        String nextCursor = null;
+        if (idSlice.hasNext() && !tasks.isEmpty()) {
+            Task last = tasks.get(tasks.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<TaskResponse> content = tasks.stream()
+            .map(this::convertToTaskResponse)
+            .collect(Collectors.toList());
+        return new CursorPage<>(content, idSlice.getSize(), nextCursor != null, nextCursor);
+    }
+    
+    private List<TaskResponse> loadTaskResponses(List<Long> ids) {
+        return loadTasksInOrder(ids)
             .stream()
             .map(this::convertToTaskResponse)
             .collect(Collectors.toList());
     }
     
+    private List<Task> loadTasksInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Task> tasksById = taskRepository.findAllWithDetailsByIdIn(new HashSet<>(ids))
+            .stream()
+            .collect(Collectors.toMap(Task::getId, Function.identity(), (first, second) -> first));
+        return ids.stream()
+            .map(tasksById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+    
     private boolean canUserModifyTask(User user, Task task) {
         // Admins and managers can modify any task
         if (user.getRole() == Role.ADMIN || user.getRole() == Role.MANAGER) {
             return true;
         }
         
-        // Employees can only modify tasks assigned to them
-        return task.getAssignees().contains(user);
+        // Employees can only modify tasks assigned to them. By id: User has no equals, and the principal
+        // is never the instance in this session
+        return task.getAssignees().stream().anyMatch(assignee -> assignee.getId().equals(user.getId()));
+    }
+    
+    private void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, task.getId());
+        }
     }
     
     private boolean canUserDeleteTask(User user, Task task) {
@@ -254,7 +621,7 @@ public class TaskService {
             .map(this::convertToUserResponse)
             .collect(Collectors.toSet());
         
-        return new TaskResponse(
+        TaskResponse response = new TaskResponse(
             task.getId(),
             task.getTitle(),
             task.getDescription(),
@@ -268,6 +635,8 @@ public class TaskService {
             task.getUpdatedAt(),
             task.getCompletedAt()
         );
+        response.setVersion(task.getVersion());
+        return response;
     }
     
     private UserResponse convertToUserResponse(User user) {
@@ -4,8 +4,11 @@ import com.taskmanager.dto.request.RegisterRequest;
 import com.taskmanager.dto.response.UserResponse;
 import com.taskmanager.entity.Role;
 import com.taskmanager.entity.User;
+import com.taskmanager.event.UserChangedEvent;
 import com.taskmanager.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,6 +22,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "taskmanager.service", histogram = true)
 @Transactional
 public class UserService {
     
@@ -34,6 +38,9 @@ public class UserService {
     @Autowired
     private ActivityLogService activityLogService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public User createUser(RegisterRequest registerRequest) {
         if (userRepository.existsByEmail(registerRequest.getEmail())) {
             throw new RuntimeException("Email is already in use!");
@@ -48,6 +55,7 @@ public class UserService {
         user.setEmailVerificationToken(UUID.randomUUID().toString());
         
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId(), savedUser.getEmail()));
         
         // Send verification email
         emailService.sendVerificationEmail(savedUser);
@@ -66,6 +74,7 @@ public class UserService {
             user.setEmailVerified(true);
             user.setEmailVerificationToken(null);
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
             
             activityLogService.logActivity(user, "EMAIL_VERIFIED", 
                 "Email verified successfully", "User", user.getId(), null);
@@ -83,6 +92,7 @@ public class UserService {
             user.setPasswordResetToken(resetToken);
             user.setPasswordResetTokenExpiry(LocalDateTime.now().plusHours(24)); // 24 hours expiry
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
             
             emailService.sendPasswordResetEmail(user, resetToken);
             
@@ -100,6 +110,7 @@ public class UserService {
                 user.setPasswordResetToken(null);
                 user.setPasswordResetTokenExpiry(null);
                 userRepository.save(user);
+                eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
                 
                 activityLogService.logActivity(user, "PASSWORD_RESET", 
                     "Password reset successfully", "User", user.getId(), null);
@@ -144,6 +155,7 @@ public class UserService {
         Role oldRole = user.getRole();
         user.setRole(newRole);
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
         
         activityLogService.logActivity(currentUser, "USER_ROLE_UPDATED", 
             String.format("User role changed from %s to %s for user: %s", 
@@ -158,6 +170,7 @@ public class UserService {
         
         user.setActive(false);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
         
         activityLogService.logActivity(currentUser, "USER_DEACTIVATED", 
             "User deactivated: " + user.getEmail(), "User", user.getId(), null);
@@ -169,6 +182,7 @@ public class UserService {
         
         user.setActive(true);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
         
         activityLogService.logActivity(currentUser, "USER_ACTIVATED", 
             "User activated: " + user.getEmail(), "User", user.getId(), null);
@@ -180,6 +194,7 @@ public class UserService {
         
         user.setNotificationsEnabled(notificationsEnabled);
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
         
         activityLogService.logActivity(user, "NOTIFICATION_SETTINGS_UPDATED", 
             "Notification settings updated to: " + notificationsEnabled, "User", user.getId(), null);
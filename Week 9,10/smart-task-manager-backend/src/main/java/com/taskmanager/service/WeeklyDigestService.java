@@ -0,0 +1,310 @@
+package com.taskmanager.service;
+
+import com.taskmanager.entity.EmailCategory;
+import com.taskmanager.entity.EmailOutbox;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.mail.MailTemplate;
+import com.taskmanager.repository.EmailOutboxBatchRepository;
+import com.taskmanager.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Weekly productivity digest: tasks completed in the last 7 days, overdue, due in the next 7 days, and the
+// share of the tasks due in the last 7 days that were completed. One forward-only query per shard streams
+// the (assignee, task) rows ordered by assignee; each user's rows are folded into one accumulator and the
+// digest is rendered from a precompiled template when the next user's rows start, so memory holds one
+// user and one batch of emails however many users there are. Batches go to the outbox with JDBC batch
+// inserts in their own transactions, with next_attempt_at spread at app.digest.send-rate so the
+// dispatcher's rate-limited path delivers them over time and other mail isn't queued behind them.
+@Service
+public class WeeklyDigestService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WeeklyDigestService.class);
+    
+    private static final String TEMPLATE = "mail/weekly-summary.txt";
+    
+    private static final String[] SLOTS = {
+        "period", "completed", "overdue", "upcoming", "completionRate", "overdueList", "upcomingList"
+    };
+    
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+    private static final DateTimeFormatter DUE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' HH:mm");
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private EmailOutboxBatchRepository emailOutboxBatchRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.digest.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.digest.send-rate:20}")
+    private double sendRate;
+    
+    @Value("${app.digest.list-limit:5}")
+    private int listLimit;
+    
+    @Value("${app.digest.progress-interval:10000}")
+    private int progressInterval;
+    
+    private MailTemplate template;
+    
+    private Timer jobTimer;
+    private Counter rowsCounter;
+    private Counter emailsCounter;
+    private final AtomicLong usersInRun = new AtomicLong();
+    private final AtomicLong lastItemsPerSecond = new AtomicLong();
+    
+    @PostConstruct
+    public void init() {
+        try (InputStream in = new ClassPathResource(TEMPLATE).getInputStream()) {
+            template = MailTemplate.compile(StreamUtils.copyToString(in, StandardCharsets.UTF_8).strip(), SLOTS);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load email template " + TEMPLATE, e);
+        }
+        
+        jobTimer = meterRegistry.timer("taskmanager.digest.job.duration");
+        rowsCounter = meterRegistry.counter("taskmanager.digest.rows");
+        emailsCounter = meterRegistry.counter("taskmanager.digest.emails");
+        // Progress of the running shard, reset when a shard starts
+        meterRegistry.gauge("taskmanager.digest.job.users", usersInRun);
+        meterRegistry.gauge("taskmanager.digest.job.items_per_second", lastItemsPerSecond);
+    }
+    
+    // Returns the number of digests written to the outbox
+    public long sendDigests() {
+        return sendDigests(0, 1);
+    }
+    
+    // Only the users of one shard: ids with id % shardCount == shard
+    public long sendDigests(int shard, int shardCount) {
+        long start = System.nanoTime();
+        usersInRun.set(0);
+        DigestRun run = new DigestRun(LocalDateTime.now(), shard, shardCount);
+        
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = taskRepository.streamWeeklyDigestRows(shard, shardCount, run.since, run.now, run.upcomingUntil)) {
+                rows.forEach(run::accept);
+            }
+            run.finish();
+        });
+        
+        long elapsedNanos = System.nanoTime() - start;
+        jobTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        lastItemsPerSecond.set(elapsedNanos > 0 ? run.emails * 1_000_000_000L / elapsedNanos : 0);
+        logger.info("Wrote weekly digests for {} users ({} task rows) in {} ms", run.emails, run.rows, elapsedNanos / 1_000_000);
+        return run.emails;
+    }
+    
+    // The digest query is native, so timestamps come back as JDBC types
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value != null ? ((Timestamp) value).toLocalDateTime() : null;
+    }
+    
+    private final class DigestRun {
+        
+        private final LocalDateTime now;
+        private final LocalDateTime since;
+        private final LocalDateTime upcomingUntil;
+        private final String period;
+        private final int shard;
+        private final int shardCount;
+        // Shards running at the same time stay within sendRate together
+        private final long spacingNanos;
+        private final TransactionTemplate writeTransaction;
+        
+        private final List<EmailOutbox> pending = new ArrayList<>();
+        private UserDigest current;
+        private LocalDateTime nextAttemptAt;
+        private long rows;
+        private long rowsCounted;
+        private long emails;
+        
+        private DigestRun(LocalDateTime now, int shard, int shardCount) {
+            this.now = now;
+            this.since = now.minusDays(7);
+            this.upcomingUntil = now.plusDays(7);
+            this.period = since.format(DAY_FORMAT) + " - " + now.format(DAY_FORMAT);
+            this.shard = shard;
+            this.shardCount = shardCount;
+            this.spacingNanos = (long) (1_000_000_000L * shardCount / sendRate);
+            this.nextAttemptAt = now;
+            this.writeTransaction = new TransactionTemplate(transactionManager);
+            this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+        
+        private void accept(Object[] row) {
+            Long userId = (Long) row[0];
+            if (current == null || !current.userId.equals(userId)) {
+                complete();
+                current = new UserDigest(userId, (String) row[1], row[2] + " " + row[3]);
+            }
+            current.add((String) row[4], TaskStatus.valueOf((String) row[5]),
+                toLocalDateTime(row[6]), toLocalDateTime(row[7]));
+            rows++;
+        }
+        
+        private void finish() {
+            complete();
+            flush();
+        }
+        
+        private void complete() {
+            if (current == null) {
+                return;
+            }
+            EmailOutbox email = current.render();
+            email.setNextAttemptAt(nextAttemptAt);
+            nextAttemptAt = nextAttemptAt.plusNanos(spacingNanos);
+            pending.add(email);
+            current = null;
+            
+            long users = usersInRun.incrementAndGet();
+            if (users % progressInterval == 0) {
+                logger.info("Weekly digest shard {} of {}: {} users, {} task rows so far", shard + 1, shardCount, users, rows);
+            }
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+        
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            writeTransaction.executeWithoutResult(status -> emailOutboxBatchRepository.insertAll(pending));
+            emails += pending.size();
+            emailsCounter.increment(pending.size());
+            rowsCounter.increment(rows - rowsCounted);
+            rowsCounted = rows;
+            pending.clear();
+        }
+        
+        private final class UserDigest {
+            
+            private final Long userId;
+            private final String email;
+            private final String name;
+            private int completed;
+            private int overdue;
+            private int upcoming;
+            private int dueInPeriod;
+            private int dueInPeriodCompleted;
+            // The earliest due of each, at most listLimit
+            private final List<DueTask> overdueTasks = new ArrayList<>();
+            private final List<DueTask> upcomingTasks = new ArrayList<>();
+            
+            private UserDigest(Long userId, String email, String name) {
+                this.userId = userId;
+                this.email = email;
+                this.name = name;
+            }
+            
+            private void add(String title, TaskStatus status, LocalDateTime dueDate, LocalDateTime completedAt) {
+                boolean done = status == TaskStatus.COMPLETED;
+                if (done && completedAt != null && !completedAt.isBefore(since)) {
+                    completed++;
+                }
+                if (dueDate == null) {
+                    return;
+                }
+                if (!done && dueDate.isBefore(now)) {
+                    overdue++;
+                    keepEarliest(overdueTasks, title, dueDate);
+                } else if (!done && dueDate.isBefore(upcomingUntil)) {
+                    upcoming++;
+                    keepEarliest(upcomingTasks, title, dueDate);
+                }
+                if (!dueDate.isBefore(since) && dueDate.isBefore(now)) {
+                    dueInPeriod++;
+                    if (done) {
+                        dueInPeriodCompleted++;
+                    }
+                }
+            }
+            
+            private EmailOutbox render() {
+                String completionRate = dueInPeriod == 0 ? "no tasks were due this week"
+                    : Math.round(100.0 * dueInPeriodCompleted / dueInPeriod) + "% of the " + dueInPeriod
+                        + (dueInPeriod == 1 ? " task" : " tasks") + " due this week";
+                String body = template.render(period, completed, overdue, upcoming, completionRate,
+                    list("Overdue tasks", overdueTasks, overdue), list("Due in the next 7 days", upcomingTasks, upcoming));
+                String subject = "Your weekly summary: " + completed + " completed, " + overdue + " overdue";
+                return new EmailOutbox(email, name, EmailCategory.WEEKLY_SUMMARY, subject, body);
+            }
+            
+            // Insertion into a list of at most listLimit tasks ordered by due date
+            private void keepEarliest(List<DueTask> tasks, String title, LocalDateTime dueDate) {
+                if (listLimit <= 0 || tasks.size() == listLimit && !dueDate.isBefore(tasks.get(tasks.size() - 1).dueDate)) {
+                    return;
+                }
+                int at = tasks.size();
+                while (at > 0 && dueDate.isBefore(tasks.get(at - 1).dueDate)) {
+                    at--;
+                }
+                tasks.add(at, new DueTask(title, dueDate));
+                if (tasks.size() > listLimit) {
+                    tasks.remove(tasks.size() - 1);
+                }
+            }
+            
+            private String list(String heading, List<DueTask> tasks, int count) {
+                if (count == 0) {
+                    return "";
+                }
+                StringBuilder list = new StringBuilder("\n").append(heading).append(":\n");
+                for (DueTask task : tasks) {
+                    list.append("- ").append(task.title).append(" (Due: ").append(task.dueDate.format(DUE_FORMAT)).append(")\n");
+                }
+                if (count > tasks.size()) {
+                    list.append("- and ").append(count - tasks.size()).append(" more\n");
+                }
+                return list.toString();
+            }
+        }
+    }
+    
+    private static final class DueTask {
+        
+        private final String title;
+        private final LocalDateTime dueDate;
+        
+        private DueTask(String title, LocalDateTime dueDate) {
+            this.title = title;
+            this.dueDate = dueDate;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.taskmanager.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskmanager.dto.response.TaskResponse;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.event.UserChangedEvent;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Cheap validators for conditional GETs. Lists and analytics are versioned by a modification counter per
+// collection, bumped after every committed write; single tasks by their updatedAt. A request whose
+// If-None-Match or If-Modified-Since still matches gets a 304 before the query runs.
+// The counters live in this process and every instance has its own ETags, seeded from its start time. Task
+// changes made through other instances reach them through the change feed; user changes are picked up from
+// users.updated_at every sync interval. Cached task validators also expire, in case an invalidation is missed.
+@Component
+public class ResourceVersions {
+    
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
+    // Covers clock differences between instances stamping updated_at
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.http.task-validator-cache.max-size:10000}")
+    private long taskValidatorCacheSize;
+    
+    @Value("${app.http.task-validator-cache.ttl-seconds:60}")
+    private long taskValidatorTtlSeconds;
+    
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    
+    private final AtomicLong taskVersion = new AtomicLong();
+    private final AtomicLong userVersion = new AtomicLong();
+    private volatile long tasksModifiedAt = System.currentTimeMillis();
+    private volatile long usersModifiedAt = System.currentTimeMillis();
+    
+    private volatile LocalDateTime deadlinesCheckedUpTo = LocalDateTime.now();
+    
+    private LocalDateTime lastUserSync = LocalDateTime.now();
+    
+    private Cache<Long, TaskValidator> taskValidators;
+    
+    @PostConstruct
+    public void init() {
+        taskValidators = Caffeine.newBuilder()
+            .maximumSize(taskValidatorCacheSize)
+            .expireAfterWrite(Duration.ofSeconds(taskValidatorTtlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, taskValidators, "taskValidators");
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        tasksModifiedAt = System.currentTimeMillis();
+        taskVersion.incrementAndGet();
+        // After the bump, so a validator read concurrently is either dropped here or by cache()
+        taskValidators.invalidate(event.getTaskId());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        usersModifiedAt = System.currentTimeMillis();
+        userVersion.incrementAndGet();
+    }
+    
+    @Scheduled(fixedDelayString = "${app.http.user-sync-interval-ms:5000}",
+               initialDelayString = "${app.http.user-sync-interval-ms:5000}")
+    public void syncUsersChangedElsewhere() {
+        LocalDateTime syncStartedAt = LocalDateTime.now();
+        if (userRepository.existsByUpdatedAtGreaterThanEqual(lastUserSync.minus(SYNC_OVERLAP))) {
+            usersModifiedAt = System.currentTimeMillis();
+            userVersion.incrementAndGet();
+        }
+        lastUserSync = syncStartedAt;
+    }
+    
+    // Task responses carry an overdue flag, so lists change when a due date passes without any write
+    @Scheduled(fixedDelayString = "${app.http.deadline-check-interval-ms:60000}")
+    public void checkDeadlines() {
+        LocalDateTime from = deadlinesCheckedUpTo;
+        LocalDateTime to = LocalDateTime.now();
+        if (taskRepository.existsByDueDateGreaterThanEqualAndDueDateLessThanAndStatusNot(from, to, TaskStatus.COMPLETED)) {
+            tasksModifiedAt = System.currentTimeMillis();
+            taskVersion.incrementAndGet();
+        }
+        deadlinesCheckedUpTo = to;
+    }
+    
+    // Task lists embed users, so they depend on both collections; key identifies the query
+    public Validator tasks(Object... key) {
+        return new Validator(tag("t", taskVersion.get(), userVersion.get(), key), Math.max(tasksModifiedAt, usersModifiedAt));
+    }
+    
+    public Validator users(Object... key) {
+        return new Validator(tag("u", 0, userVersion.get(), key), usersModifiedAt);
+    }
+    
+    // Null when the task doesn't exist
+    public Validator task(Long taskId) {
+        TaskValidator validator = taskValidators.getIfPresent(taskId);
+        if (validator == null) {
+            long version = taskVersion.get();
+            List<Object[]> rows = taskRepository.findVersionById(taskId);
+            if (rows.isEmpty()) {
+                return null;
+            }
+            Object[] row = rows.get(0);
+            validator = new TaskValidator((LocalDateTime) row[0], (LocalDateTime) row[1], (TaskStatus) row[2]);
+            cache(taskId, validator, version);
+        }
+        return validator.toValidator(taskId);
+    }
+    
+    // Answers 304 when the request's validators still match, otherwise builds the body
+    public <T> ResponseEntity<T> respond(WebRequest request, Validator validator, Supplier<T> body) {
+        if (request.checkNotModified(validator.getEtag(), validator.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body.get());
+    }
+    
+    public <T> ResponseEntity<T> respondIfPresent(WebRequest request, Validator validator, Supplier<Optional<T>> body) {
+        if (request.checkNotModified(validator.getEtag(), validator.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return body.get()
+            .map(value -> ResponseEntity.ok().cacheControl(REVALIDATE).body(value))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    // Only requests that carry a validator pay for looking one up before the task is loaded
+    public ResponseEntity<?> respondWithTask(WebRequest request, Long taskId, Supplier<Optional<TaskResponse>> loader) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            Validator validator = task(taskId);
+            if (validator != null && request.checkNotModified(validator.getEtag(), validator.getLastModified())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+            }
+        }
+        
+        long version = taskVersion.get();
+        Optional<TaskResponse> task = loader.get();
+        if (task.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        TaskValidator validator = new TaskValidator(task.get().getUpdatedAt(), task.get().getDueDate(), task.get().getStatus());
+        cache(taskId, validator, version);
+        return respond(request, validator.toValidator(taskId), task::get);
+    }
+    
+    // Skipped when a task changed while the validator was read, it could predate the change
+    private void cache(Long taskId, TaskValidator validator, long versionBefore) {
+        taskValidators.put(taskId, validator);
+        if (taskVersion.get() != versionBefore) {
+            taskValidators.invalidate(taskId);
+        }
+    }
+    
+    private String tag(String collection, long tasks, long users, Object... key) {
+        return "W/\"" + collection + "-" + epoch + "-" + tasks + "-" + users + "-"
+            + Integer.toHexString(Arrays.deepHashCode(key)) + "\"";
+    }
+    
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    public static class Validator {
+        
+        private final String etag;
+        private final long lastModified;
+        
+        public Validator(String etag, long lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+        
+        public String getEtag() {
+            return etag;
+        }
+        
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+    
+    private class TaskValidator {
+        
+        private final LocalDateTime updatedAt;
+        private final LocalDateTime dueDate;
+        private final TaskStatus status;
+        
+        private TaskValidator(LocalDateTime updatedAt, LocalDateTime dueDate, TaskStatus status) {
+            this.updatedAt = updatedAt;
+            this.dueDate = dueDate;
+            this.status = status;
+        }
+        
+        private Validator toValidator(Long taskId) {
+            // Mirrors Task.isOverdue(); the flag flips without the row changing
+            boolean overdue = dueDate.isBefore(LocalDateTime.now()) && status != TaskStatus.COMPLETED;
+            long lastModified = Math.max(toMillis(updatedAt), usersModifiedAt);
+            if (overdue) {
+                lastModified = Math.max(lastModified, toMillis(dueDate));
+            }
+            String version = toMillis(updatedAt) + "." + updatedAt.getNano() % 1_000_000;
+            String etag = "W/\"task-" + taskId + "-" + epoch + "-" + version + "-" + userVersion.get()
+                + (overdue ? "-overdue" : "") + "\"";
+            return new Validator(etag, lastModified);
+        }
+    }
+}
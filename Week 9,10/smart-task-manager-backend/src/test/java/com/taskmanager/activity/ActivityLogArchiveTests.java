@@ -0,0 +1,140 @@
+package com.taskmanager.activity;
+
+import com.taskmanager.dto.response.CursorPage;
+import com.taskmanager.entity.ActivityLog;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.ActivityLogBatchRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.ActivityLogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:archivetestdb",
+    "app.activity-log.retention.hot-months=3",
+    "app.activity-log.archive.segment-rows=2"
+})
+@ActiveProfiles("test")
+class ActivityLogArchiveTests {
+
+    private static final String ENTITY_TYPE = "ARCHIVE_TEST";
+
+    @Autowired
+    private ActivityLogArchive activityLogArchive;
+
+    @Autowired
+    private ActivityLogService activityLogService;
+
+    @Autowired
+    private ActivityLogBatchRepository activityLogBatchRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void archivedMonthsLeaveTheTableAndStayQueryable() {
+        User user = userRepository.findByEmail("employee@taskmanager.com").orElseThrow();
+        activityLogBatchRepository.insertMultiRow(List.of(
+            log(user, "LOGIN", monthsAgo(5, 3)),
+            log(user, "TASK_CREATED", monthsAgo(5, 10)),
+            log(user, "LOGIN", monthsAgo(5, 20)),
+            log(null, "TASK_CREATED", monthsAgo(4, 5)),
+            log(user, "LOGIN", monthsAgo(4, 15)),
+            log(user, "LOGIN", monthsAgo(2, 1)),
+            log(user, "TASK_CREATED", monthsAgo(2, 12))
+        ));
+        LocalDateTime from = monthsAgo(6, 1);
+        LocalDateTime to = monthsAgo(1, 1);
+
+        List<Long> all = ids(activityLogService.getActivityLogsWithFilters(null, null, ENTITY_TYPE, from, null, PageRequest.of(0, 20)));
+        List<Long> logins = ids(activityLogService.getActivityLogsWithFilters(user.getId(), "LOGIN", ENTITY_TYPE, from, null, PageRequest.of(0, 20)));
+        List<Long> range = ids(activityLogService.getActivityLogsByDateRange(from, to, PageRequest.of(0, 20)));
+        assertEquals(7, all.size());
+
+        activityLogArchive.archiveExpiredMonths();
+
+        assertEquals(2, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM activity_logs WHERE entity_type = ?", Long.class, ENTITY_TYPE));
+        // segment-rows=2: the oldest month's three logs take two segments
+        assertEquals(List.of(0, 1), jdbcTemplate.queryForList(
+            "SELECT segment_index FROM activity_log_segments WHERE archive_month = ? ORDER BY segment_index",
+            Integer.class, YearMonth.from(monthsAgo(5, 1)).toString()));
+        assertArchivedResultsMatch(user, from, to, all, logins, range);
+
+        // A second run finds nothing left to archive
+        activityLogArchive.archiveExpiredMonths();
+        assertArchivedResultsMatch(user, from, to, all, logins, range);
+
+        // A row left behind by a run that died while deleting is hidden by the watermark, and the next run deletes it
+        activityLogBatchRepository.insertMultiRow(List.of(log(user, "LOGIN", monthsAgo(5, 3))));
+        assertArchivedResultsMatch(user, from, to, all, logins, range);
+        activityLogArchive.archiveExpiredMonths();
+        assertEquals(2, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM activity_logs WHERE entity_type = ?", Long.class, ENTITY_TYPE));
+        assertArchivedResultsMatch(user, from, to, all, logins, range);
+    }
+
+    private void assertArchivedResultsMatch(User user, LocalDateTime from, LocalDateTime to,
+                                            List<Long> all, List<Long> logins, List<Long> range) {
+        // Pages spanning the table and the archive
+        List<Long> paged = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            Page<ActivityLog> logs = activityLogService.getActivityLogsWithFilters(null, null, ENTITY_TYPE, from, null, PageRequest.of(page, 3));
+            assertEquals(7, logs.getTotalElements());
+            paged.addAll(ids(logs));
+        }
+        assertEquals(all, paged);
+
+        assertEquals(logins, ids(activityLogService.getActivityLogsWithFilters(user.getId(), "LOGIN", ENTITY_TYPE, from, null, PageRequest.of(0, 20))));
+        assertEquals(range, ids(activityLogService.getActivityLogsByDateRange(from, to, PageRequest.of(0, 20))));
+        Page<ActivityLog> oldestMonth = activityLogService.getActivityLogsByDateRange(monthsAgo(5, 1), monthsAgo(5, 28), PageRequest.of(0, 20));
+        assertEquals(all.subList(4, 7), ids(oldestMonth));
+        ActivityLog oldest = oldestMonth.getContent().get(2);
+        assertEquals("LOGIN", oldest.getAction());
+        assertEquals("LOGIN at " + monthsAgo(5, 3), oldest.getDescription());
+        assertEquals(monthsAgo(5, 3), oldest.getCreatedAt());
+        assertEquals(user.getId(), oldest.getUser().getId());
+        assertEquals(1L, oldest.getEntityId());
+        assertEquals("127.0.0.1", oldest.getIpAddress());
+
+        List<Long> scrolled = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ActivityLog> logs = activityLogService.getActivityLogsWithFiltersByCursor(null, null, ENTITY_TYPE, from, null, cursor, 3);
+            logs.getContent().forEach(log -> scrolled.add(log.getId()));
+            cursor = logs.getNextCursor();
+        } while (cursor != null);
+        assertEquals(all, scrolled);
+    }
+
+    private static LocalDateTime monthsAgo(int months, int day) {
+        return LocalDateTime.now().minusMonths(months).withDayOfMonth(day).withHour(12).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    private static ActivityLog log(User user, String action, LocalDateTime createdAt) {
+        ActivityLog log = new ActivityLog(user, action, action + " at " + createdAt, ENTITY_TYPE, 1L, "127.0.0.1");
+        log.setCreatedAt(createdAt);
+        return log;
+    }
+
+    private static List<Long> ids(Iterable<ActivityLog> logs) {
+        List<Long> ids = new ArrayList<>();
+        logs.forEach(log -> ids.add(log.getId()));
+        return ids;
+    }
+}
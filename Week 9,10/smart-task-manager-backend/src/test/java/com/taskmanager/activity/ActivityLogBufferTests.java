@@ -0,0 +1,199 @@
+package com.taskmanager.activity;
+
+import com.taskmanager.entity.ActivityLog;
+import com.taskmanager.repository.ActivityLogBatchRepository;
+import com.taskmanager.service.ActivityLogService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:activitybuffertestdb",
+    "app.activity-log.buffer.capacity=20",
+    "app.activity-log.buffer.flush-size=5",
+    "app.activity-log.buffer.flush-interval-ms=100",
+    "app.activity-log.buffer.overflow-policy=DROP_OLDEST",
+    "app.activity-log.buffer.shutdown-timeout-ms=200"
+})
+@ActiveProfiles("test")
+class ActivityLogBufferTests {
+
+    private static final String ENTITY_TYPE = "BUFFER_TEST";
+
+    @Autowired
+    private ActivityLogBuffer activityLogBuffer;
+
+    @Autowired
+    private ActivityLogService activityLogService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private ActivityLogBatchRepository activityLogBatchRepository;
+
+    // The actions of this test's logs in each insert, in the order they were written
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger writing = new AtomicInteger();
+
+    private final AtomicInteger maxWriting = new AtomicInteger();
+
+    // When set, inserts of this test's logs wait for the gate
+    private volatile CountDownLatch writeStarted;
+
+    private volatile CountDownLatch gate;
+
+    @BeforeEach
+    void recordWrites() {
+        Answer<?> realMethod = mockingDetails(activityLogBatchRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            List<ActivityLog> logs = invocation.getArgument(0);
+            List<String> actions = logs.stream()
+                .filter(log -> ENTITY_TYPE.equals(log.getEntityType()))
+                .map(ActivityLog::getAction)
+                .toList();
+            maxWriting.accumulateAndGet(writing.incrementAndGet(), Math::max);
+            try {
+                if (gate != null && !actions.isEmpty()) {
+                    writeStarted.countDown();
+                    gate.await();
+                }
+                Object result = realMethod.answer(invocation);
+                if (!actions.isEmpty()) {
+                    batches.add(actions);
+                }
+                return result;
+            } finally {
+                writing.decrementAndGet();
+            }
+        }).when(activityLogBatchRepository).insertMultiRow(anyList());
+    }
+
+    @Test
+    void writesInBatchesOfAtMostFlushSize() throws InterruptedException {
+        List<String> actions = actions("BATCH", 12);
+        actions.forEach(action -> assertTrue(activityLogBuffer.add(log(action))));
+
+        assertEquals(actions, awaitWritten(12));
+        assertTrue(batches.size() >= 3);
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 5));
+    }
+
+    @Test
+    void dropsTheOldestLogsWhenFull() throws InterruptedException {
+        blockWrites();
+        double dropped = droppedCount();
+
+        // 25 logs into a buffer of 20 while the flusher is stuck in an insert
+        List<String> actions = actions("OVERFLOW", 25);
+        actions.forEach(action -> assertTrue(activityLogBuffer.add(log(action))));
+        assertEquals(20, activityLogBuffer.size());
+        assertEquals(5, droppedCount() - dropped);
+
+        gate.countDown();
+        List<String> written = awaitWritten(21);
+        assertEquals("BLOCKER", written.get(0));
+        assertEquals(actions.subList(5, 25), written.subList(1, 21));
+    }
+
+    @Test
+    void queuesLogsOnlyWhenTheirTransactionCommits() throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            activityLogService.logActivity(null, "ROLLED_BACK", "ROLLED_BACK", ENTITY_TYPE, null, null);
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status ->
+            activityLogService.logActivity(null, "COMMITTED", "COMMITTED", ENTITY_TYPE, null, null));
+
+        assertEquals(List.of("COMMITTED"), awaitWritten(1));
+        Thread.sleep(200);
+        assertEquals(List.of("COMMITTED"), written());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void drainsTheBufferOnShutdownAfterTheFlusherFinishes() throws InterruptedException {
+        blockWrites();
+        List<String> actions = actions("SHUTDOWN", 10);
+        actions.forEach(action -> activityLogBuffer.add(log(action)));
+
+        // The flusher is still in its insert when the shutdown timeout passes
+        Thread stopping = new Thread(() -> {
+            try {
+                activityLogBuffer.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stopping.start();
+        stopping.join(600);
+        assertTrue(stopping.isAlive());
+
+        gate.countDown();
+        stopping.join(5000);
+        assertFalse(stopping.isAlive());
+        assertEquals(0, activityLogBuffer.size());
+        assertEquals(1, maxWriting.get());
+        List<String> written = awaitWritten(11);
+        assertEquals(actions, written.subList(1, 11));
+    }
+
+    private void blockWrites() throws InterruptedException {
+        writeStarted = new CountDownLatch(1);
+        gate = new CountDownLatch(1);
+        activityLogBuffer.add(log("BLOCKER"));
+        assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+    }
+
+    private List<String> awaitWritten(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (written().size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(count, written().size());
+        return written();
+    }
+
+    private List<String> written() {
+        return batches.stream().flatMap(List::stream).toList();
+    }
+
+    private double droppedCount() {
+        return meterRegistry.counter("taskmanager.activity_log.buffer.dropped", "policy", "DROP_OLDEST").count();
+    }
+
+    private List<String> actions(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + "_" + i).toList();
+    }
+
+    private ActivityLog log(String action) {
+        return new ActivityLog(null, action, action, ENTITY_TYPE, null, null);
+    }
+}
@@ -0,0 +1,96 @@
+package com.taskmanager.analytics;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.TaskDailyRollupRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.AnalyticsService;
+import com.taskmanager.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:rolluptestdb")
+@ActiveProfiles("test")
+class DailyRollupAggregatorTests {
+
+    @Autowired
+    private DailyRollupAggregator aggregator;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @SpyBean
+    private TaskDailyRollupRepository rollupRepository;
+
+    @Test
+    void trendShowsTodayLiveAndRetriesUsersOfAFailedRun() {
+        User manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        User user = userRepository.save(new User("Rollup", "User", "rollup@example.com", "password"));
+        LocalDate today = LocalDate.now();
+
+        Long first = create("First", user, manager);
+        aggregator.aggregate();
+        assertEquals(1L, today(user).get("todoTasks"));
+
+        // Changes after the run show up for today without waiting for the next one
+        Long second = create("Second", user, manager);
+        taskService.updateTaskStatus(second, TaskStatus.IN_PROGRESS, manager);
+        assertEquals(1L, today(user).get("todoTasks"));
+        assertEquals(1L, today(user).get("inProgressTasks"));
+
+        // A deletion only reaches the rollup through the change feed; a failed run leaves the watermark behind it
+        taskService.deleteTask(first, manager);
+        taskService.deleteTask(second, manager);
+        doThrow(new IllegalStateException("rollup write failed")).when(rollupRepository).saveAll(anyIterable());
+        assertThrows(RuntimeException.class, () -> aggregator.aggregate());
+        reset(rollupRepository);
+
+        aggregator.aggregate();
+        Map<String, Long> stored = storedToday(user);
+        assertEquals(0L, stored.get("todo"));
+        assertEquals(0L, stored.get("inProgress"));
+        assertEquals(0L, today(user).get("todoTasks"));
+    }
+
+    private Map<String, Object> today(User user) {
+        List<Map<String, Object>> trend = analyticsService.getTrend(LocalDate.now().minusDays(1), LocalDate.now(), user.getId());
+        Map<String, Object> day = trend.get(trend.size() - 1);
+        assertEquals(LocalDate.now(), day.get("day"));
+        return day;
+    }
+
+    private Map<String, Long> storedToday(User user) {
+        List<Object[]> rows = rollupRepository.sumByDay(LocalDate.now(), LocalDate.now(), user.getId());
+        assertEquals(1, rows.size());
+        return Map.of("todo", (Long) rows.get(0)[1], "inProgress", (Long) rows.get(0)[2]);
+    }
+
+    private Long create(String title, User assignee, User manager) {
+        TaskRequest request = new TaskRequest(title, title, LocalDateTime.now().plusDays(3), Priority.MEDIUM);
+        request.setAssigneeIds(Set.of(assignee.getId()));
+        return taskService.createTask(request, manager).getId();
+    }
+}
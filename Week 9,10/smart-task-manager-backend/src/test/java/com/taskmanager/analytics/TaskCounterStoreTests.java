@@ -0,0 +1,82 @@
+package com.taskmanager.analytics;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:counterstoretestdb")
+@ActiveProfiles("test")
+class TaskCounterStoreTests {
+
+    @Autowired
+    private TaskCounterStore taskCounterStore;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @SpyBean
+    private TaskRepository taskRepository;
+
+    @Test
+    void keepsTasksCreatedWhileReconciling() {
+        assertTrue(taskCounterStore.isReady());
+        User manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        User employee = userRepository.findByEmail("employee@taskmanager.com").orElseThrow();
+
+        // Another thread creates a task between reading the status counts and the assignee counts
+        Answer<?> realMethod = mockingDetails(taskRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            Thread writer = new Thread(() -> {
+                TaskRequest request = new TaskRequest("During reconcile", "During reconcile", LocalDateTime.now().plusDays(1), Priority.LOW);
+                request.setAssigneeIds(Set.of(employee.getId()));
+                taskService.createTask(request, manager);
+            });
+            writer.start();
+            writer.join();
+            return realMethod.answer(invocation);
+        }).when(taskRepository).getTaskCountByAssigneeAndStatus();
+
+        taskCounterStore.reconcile();
+        reset(taskRepository);
+
+        assertEquals(databaseStatusCounts(), taskCounterStore.getStatusCounts());
+        assertEquals(taskRepository.countByAssigneeIdAndStatus(employee.getId(), TaskStatus.TODO),
+            taskCounterStore.getAssigneeStatusCounts(employee.getId()).get(TaskStatus.TODO));
+
+        // The next run has nothing to correct
+        taskCounterStore.reconcile();
+        assertEquals(databaseStatusCounts(), taskCounterStore.getStatusCounts());
+    }
+
+    private Map<TaskStatus, Long> databaseStatusCounts() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, taskRepository.countByStatus(status));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,132 @@
+package com.taskmanager.deadline;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.dto.response.TaskResponse;
+import com.taskmanager.entity.EmailCategory;
+import com.taskmanager.entity.EmailOutbox;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.EmailOutboxRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Ticks are driven by the test, the scheduled one is pushed out of the way
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:deadlinetestdb",
+    "app.reminders.tick-ms=3600000"
+})
+@ActiveProfiles("test")
+class DeadlineIndexTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private DeadlineIndex deadlineIndex;
+
+    @Autowired
+    private DeadlineReminderScheduler reminderScheduler;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    private User manager;
+
+    private User employee;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        employee = userRepository.findByEmail("employee@taskmanager.com").orElseThrow();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!deadlineIndex.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(deadlineIndex.isReady());
+    }
+
+    @Test
+    void listsOpenDeadlinesInDueOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        Long completed = create("Completed", now.minusHours(3), employee);
+        Long overdueFirst = create("Overdue first", now.minusHours(2), employee);
+        Long overdueSecond = create("Overdue second", now.minusHours(1), employee);
+        Long soon = create("Soon", now.plusHours(3), employee);
+        Long later = create("Later", now.plusHours(30), employee);
+        Long managers = create("Manager's", now.plusHours(2), manager);
+        taskService.updateTaskStatus(completed, TaskStatus.COMPLETED, manager);
+
+        assertEquals(List.of(overdueFirst, overdueSecond), ids(taskService.getOverdueTasks(10)));
+        assertEquals(List.of(overdueFirst), ids(taskService.getOverdueTasks(1)));
+        assertEquals(List.of(soon), ids(taskService.getUserUpcomingTasks(employee.getId(), 24, 10)));
+        assertEquals(List.of(soon, later), ids(taskService.getUserUpcomingTasks(employee.getId(), 48, 10)));
+        assertEquals(List.of(managers, soon), ids(taskService.getUpcomingTasks(24, 10)));
+
+        // A rebuild from the database gives the same answers
+        deadlineIndex.rebuild();
+        assertEquals(List.of(overdueFirst, overdueSecond), ids(taskService.getOverdueTasks(10)));
+        assertEquals(List.of(managers, soon), ids(taskService.getUpcomingTasks(24, 10)));
+
+        taskService.updateTaskStatus(overdueFirst, TaskStatus.COMPLETED, manager);
+        taskService.updateTask(soon, request("Soon", now.plusHours(3), manager), manager);
+        taskService.deleteTask(managers, manager);
+        assertEquals(List.of(overdueSecond), ids(taskService.getOverdueTasks(10)));
+        assertEquals(List.of(), ids(taskService.getUserUpcomingTasks(employee.getId(), 24, 10)));
+        assertEquals(List.of(soon), ids(taskService.getUserUpcomingTasks(manager.getId(), 24, 10)));
+    }
+
+    @Test
+    void remindsOncePerLeadTime() {
+        // Well clear of the other test's tasks
+        LocalDateTime start = LocalDateTime.now().plusDays(100);
+        create("Due tomorrow", start.plusHours(24).plusMinutes(5), employee);
+        create("Due in an hour", start.plusMinutes(65), manager);
+        Long done = create("Done early", start.plusHours(24).plusMinutes(15), employee);
+        taskService.updateTaskStatus(done, TaskStatus.COMPLETED, manager);
+
+        assertEquals(0, reminderScheduler.remindDue(start));
+        assertEquals(2, reminderScheduler.remindDue(start.plusMinutes(10)));
+        assertEquals(0, reminderScheduler.remindDue(start.plusMinutes(20)));
+        // The 1h reminder for the task due tomorrow
+        assertEquals(1, reminderScheduler.remindDue(start.plusHours(23).plusMinutes(10)));
+
+        List<String> reminders = emailOutboxRepository.findAll().stream()
+            .filter(email -> email.getCategory() == EmailCategory.TASK_REMINDER)
+            .map(EmailOutbox::getSubject)
+            .sorted()
+            .collect(Collectors.toList());
+        assertEquals(List.of("Task Reminder: Due in an hour", "Task Reminder: Due tomorrow",
+            "Task Reminder: Due tomorrow"), reminders);
+    }
+
+    private Long create(String title, LocalDateTime dueDate, User assignee) {
+        return taskService.createTask(request(title, dueDate, assignee), manager).getId();
+    }
+
+    private TaskRequest request(String title, LocalDateTime dueDate, User assignee) {
+        TaskRequest request = new TaskRequest(title, title, dueDate, Priority.MEDIUM);
+        request.setAssigneeIds(Set.of(assignee.getId()));
+        return request;
+    }
+
+    private List<Long> ids(List<TaskResponse> tasks) {
+        return tasks.stream().map(TaskResponse::getId).collect(Collectors.toList());
+    }
+}
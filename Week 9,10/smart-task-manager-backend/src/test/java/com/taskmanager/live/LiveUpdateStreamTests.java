@@ -0,0 +1,156 @@
+package com.taskmanager.live;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.JwtUtils;
+import com.taskmanager.service.TaskService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:livetestdb")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LiveUpdateStreamTests {
+
+    private static final Pattern EVENT = Pattern.compile("id:(\\d+)\\nevent:(\\w+)\\ndata:(.*)\\n");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void streamsCommittedTaskChangesAndReplaysThemAfterReconnect() throws Exception {
+        User manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        User employee = userRepository.findByEmail("employee@taskmanager.com").orElseThrow();
+
+        MockHttpServletResponse stream = connect(employee, null);
+        List<String[]> initial = awaitEvents(stream, 1);
+        assertEquals("dashboard", initial.get(0)[1]);
+        long connectedAt = Long.parseLong(initial.get(0)[0]);
+
+        TaskRequest request = new TaskRequest("Live task", "Pushed over SSE", LocalDateTime.now().plusDays(2), Priority.HIGH);
+        request.setAssigneeIds(Set.of(employee.getId()));
+        Long taskId = taskService.createTask(request, manager).getId();
+
+        List<String[]> events = awaitEvents(stream, 3);
+        assertEquals("task", events.get(1)[1]);
+        assertTrue(events.get(1)[2].contains("\"taskId\":" + taskId), events.get(1)[2]);
+        assertTrue(events.get(1)[2].contains("\"assigned\":true"), events.get(1)[2]);
+        assertEquals("dashboard", events.get(2)[1]);
+        assertTrue(Long.parseLong(events.get(1)[0]) > connectedAt);
+
+        // A reconnect resumes after the last seen id, without a fresh snapshot
+        List<String[]> replayed = awaitEvents(connect(employee, connectedAt), 2);
+        assertEquals("task", replayed.get(0)[1]);
+        assertEquals(events.get(1)[0], replayed.get(0)[0]);
+        assertEquals("dashboard", replayed.get(1)[1]);
+
+        // An id older than the replay buffer asks the client to reload
+        List<String[]> stale = awaitEvents(connect(employee, 1L), 2);
+        assertEquals("resync", stale.get(0)[1]);
+        assertEquals("dashboard", stale.get(1)[1]);
+
+        // Deleting the task removes it from the list without resending its contents
+        taskService.deleteTask(taskId, manager);
+        List<String[]> afterDelete = awaitEvents(stream, 5);
+        assertEquals("task", afterDelete.get(3)[1]);
+        assertTrue(afterDelete.get(3)[2].contains("\"assigned\":false"), afterDelete.get(3)[2]);
+        assertFalse(afterDelete.get(3)[2].contains("Live task"));
+    }
+
+    @Test
+    void closesAConnectionWhoseDrainTaskIsRejected() {
+        Counter rejected = new SimpleMeterRegistry().counter("taskmanager.live.rejected");
+        TaskExecutor saturated = task -> {
+            throw new TaskRejectedException("live executor queue is full");
+        };
+        LiveConnection connection = new LiveConnection(new SseEmitter(), saturated, 65536, rejected);
+
+        // Dropped rather than written on the publishing thread
+        assertFalse(connection.offer(LiveEvent.heartbeat()));
+        assertTrue(connection.isClosed());
+        assertEquals(1.0, rejected.count());
+        assertFalse(connection.offer(LiveEvent.heartbeat()));
+        assertEquals(1.0, rejected.count());
+
+        // The pool itself is reported with the other executors
+        assertNotNull(meterRegistry.find("executor.queued").tag("name", "liveExecutor").gauge());
+        assertNotNull(meterRegistry.find("executor.rejected").tag("name", "liveExecutor").counter());
+        assertNotNull(meterRegistry.find("taskmanager.live.rejected").counter());
+    }
+
+    private MockHttpServletResponse connect(User user, Long lastEventId) throws Exception {
+        MockHttpServletRequestBuilder builder = get("/api/live/events")
+            .header("Authorization", "Bearer " + jwtUtils.generateTokenFromUsername(user.getEmail()));
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId.toString());
+        }
+        MvcResult result = mockMvc.perform(builder)
+            .andExpect(status().isOk())
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return result.getResponse();
+    }
+
+    // Events are written by the live executor, so wait for them to show up in the response body
+    private List<String[]> awaitEvents(MockHttpServletResponse response, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<String[]> events = parse(response.getContentAsString());
+        while (events.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            events = parse(response.getContentAsString());
+        }
+        assertTrue(events.size() >= count, "expected " + count + " events in: " + response.getContentAsString());
+        return events;
+    }
+
+    private List<String[]> parse(String body) {
+        List<String[]> events = new ArrayList<>();
+        Matcher matcher = EVENT.matcher(body);
+        while (matcher.find()) {
+            events.add(new String[]{matcher.group(1), matcher.group(2), matcher.group(3)});
+        }
+        return events;
+    }
+}
@@ -0,0 +1,171 @@
+package com.taskmanager.mail;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.taskmanager.entity.EmailOutbox;
+import com.taskmanager.entity.EmailStatus;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.EmailOutboxRepository;
+import com.taskmanager.service.EmailService;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:mailtestdb",
+    "spring.mail.port=3025",
+    "app.mail.outbox.per-domain-rate=10000"
+})
+@ActiveProfiles("test")
+class EmailOutboxDispatcherTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+        .withConfiguration(GreenMailConfiguration.aConfig().withUser("test@example.com", "test"));
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void notificationsForTheSameRecipientAreMergedIntoOneDigest() throws Exception {
+        User alice = user("alice@example.com");
+        User bob = user("bob@example.org");
+        emailService.sendVerificationEmail(alice);
+        emailService.sendTaskAssignmentNotification(alice, task("Write report"), bob);
+        emailService.sendTaskAssignmentNotification(alice, task("Review report"), bob);
+        emailService.sendTaskAssignmentNotification(bob, task("Ship report"), alice);
+
+        dispatcher.dispatch();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        List<String> subjects = Arrays.stream(received).map(this::subject).toList();
+        assertTrue(subjects.contains("Email Verification - Smart Task Manager"));
+        assertTrue(subjects.contains("2 new notifications - Smart Task Manager"));
+        assertTrue(subjects.contains("New Task Assigned - Ship report"));
+        assertEquals(4, emailOutboxRepository.countByStatus(EmailStatus.SENT));
+    }
+
+    @Test
+    void failedDeliveriesAreRetriedWithBackoff() {
+        emailService.sendTaskAssignmentNotification(user("carol@example.com"), task("Retry me"), user("dave@example.com"));
+
+        int port = mailSender.getPort();
+        mailSender.setPort(1);
+        try {
+            dispatcher.dispatch();
+        } finally {
+            mailSender.setPort(port);
+        }
+
+        EmailOutbox retried = emailOutboxRepository.findAll().get(0);
+        assertEquals(EmailStatus.PENDING, retried.getStatus());
+        assertEquals(1, retried.getAttempts());
+        assertTrue(retried.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertEquals(0, greenMail.getReceivedMessages().length);
+
+        // Not due yet, so the next poll leaves it alone
+        dispatcher.dispatch();
+        assertEquals(0, greenMail.getReceivedMessages().length);
+
+        retried.setNextAttemptAt(LocalDateTime.now());
+        emailOutboxRepository.save(retried);
+        dispatcher.dispatch();
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(EmailStatus.SENT, emailOutboxRepository.findAll().get(0).getStatus());
+    }
+
+    @Test
+    void drainsABacklogInBatches() {
+        int count = 500;
+        User sender = user("manager@example.com");
+        for (int i = 0; i < count; i++) {
+            emailService.sendTaskAssignmentNotification(user("user" + i + "@example.com"), task("Task " + i), sender);
+        }
+
+        dispatcher.dispatch();
+
+        assertEquals(count, greenMail.getReceivedMessages().length);
+        assertEquals(count, emailOutboxRepository.countByStatus(EmailStatus.SENT));
+        assertEquals(0, emailOutboxRepository.countByStatus(EmailStatus.PENDING));
+    }
+
+    @Test
+    void rowsOverTheDomainRateLimitStayPendingWithoutBeingClaimed() {
+        Object limiter = ReflectionTestUtils.getField(dispatcher, "rateLimiter");
+        // One permit per domain, then none for the rest of the test
+        ReflectionTestUtils.setField(dispatcher, "rateLimiter", new DomainRateLimiter(0.001));
+        try {
+            for (int i = 0; i < 5; i++) {
+                emailService.sendVerificationEmail(user("slow" + i + "@slow.example"));
+            }
+            emailService.sendVerificationEmail(user("fast@example.net"));
+
+            dispatcher.dispatch();
+            dispatcher.dispatch();
+
+            assertEquals(2, greenMail.getReceivedMessages().length);
+            List<EmailOutbox> pending = emailOutboxRepository.findAll().stream()
+                .filter(entry -> entry.getStatus() == EmailStatus.PENDING)
+                .toList();
+            assertEquals(4, pending.size());
+            for (EmailOutbox entry : pending) {
+                assertEquals("slow.example", entry.getRecipientDomain());
+                assertNull(entry.getClaimedAt());
+                assertFalse(entry.getNextAttemptAt().isAfter(LocalDateTime.now()));
+            }
+        } finally {
+            ReflectionTestUtils.setField(dispatcher, "rateLimiter", limiter);
+        }
+    }
+
+    private User user(String email) {
+        User user = new User("Test", email.substring(0, email.indexOf('@')), email, "password");
+        user.setEmailVerificationToken("token");
+        return user;
+    }
+
+    private Task task(String title) {
+        return new Task(title, null, LocalDateTime.now().plusDays(1), Priority.MEDIUM, null);
+    }
+
+    private String subject(MimeMessage message) {
+        try {
+            return message.getSubject();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.taskmanager.perf;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:perfgeneratortestdb",
+    "app.perf.generator.tags=100",
+    "app.perf.generator.chunk-size=1000"
+})
+@ActiveProfiles("test")
+class SyntheticDataGeneratorTests {
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void generatesRealisticallyDistributedData() {
+        SyntheticDataGenerator.Result result = generator.generate(200, 5000, 8000);
+
+        assertEquals(200, result.getUsers().size());
+        assertEquals(200L, count("SELECT COUNT(*) FROM users WHERE email LIKE 'perf%'"));
+        assertEquals(10L, count("SELECT COUNT(*) FROM users WHERE email LIKE 'perf%' AND role = 'MANAGER'"));
+        assertEquals(5000L, count("SELECT COUNT(*) FROM tasks t JOIN users u ON u.id = t.created_by_id WHERE u.role = 'MANAGER'"));
+        assertEquals(result.getTags(), count("SELECT COUNT(*) FROM task_tags"));
+        assertEquals(result.getAssignees(), count("SELECT COUNT(*) FROM task_assignees"));
+        assertEquals(8000L, count("SELECT COUNT(*) FROM activity_logs"));
+
+        // Every status shows up, completed tasks carry a completion time and open ones don't
+        Map<String, Long> byStatus = new HashMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT status, COUNT(*) AS n FROM tasks GROUP BY status")) {
+            byStatus.put((String) row.get("STATUS"), ((Number) row.get("N")).longValue());
+        }
+        assertEquals(4, byStatus.size());
+        assertEquals(byStatus.get("COMPLETED"), count("SELECT COUNT(*) FROM tasks WHERE completed_at IS NOT NULL"));
+        assertTrue(byStatus.get("TODO") > byStatus.get("BLOCKED"));
+        assertTrue(count("SELECT COUNT(*) FROM tasks WHERE status <> 'COMPLETED' AND due_date < CURRENT_TIMESTAMP") > 0);
+        assertTrue(count("SELECT COUNT(*) FROM tasks WHERE due_date <= created_at") == 0);
+
+        // Zipf: the most used tag and the busiest assignee are far above the average
+        List<Long> tagCounts = jdbcTemplate.queryForList(
+            "SELECT COUNT(*) FROM task_tags GROUP BY tag ORDER BY COUNT(*) DESC", Long.class);
+        assertTrue(tagCounts.get(0) > 5 * result.getTags() / tagCounts.size());
+        List<Long> assigneeCounts = jdbcTemplate.queryForList(
+            "SELECT COUNT(*) FROM task_assignees GROUP BY user_id ORDER BY COUNT(*) DESC", Long.class);
+        assertTrue(assigneeCounts.get(0) > 5 * result.getAssignees() / assigneeCounts.size());
+
+        // A second run on the same database numbers its users after the first
+        assertEquals("perf200@taskmanager.com", generator.generate(2, 1, 0).getUsers().get(0).getEmail());
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
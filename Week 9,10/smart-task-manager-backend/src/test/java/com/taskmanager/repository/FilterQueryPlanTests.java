@@ -0,0 +1,144 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.service.TaskService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs H2's EXPLAIN on the statements the filter specifications actually produce
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:planstestdb",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.taskmanager.repository.FilterQueryPlanTests$RecordingInspector"
+})
+@ActiveProfiles("test")
+class FilterQueryPlanTests {
+
+    private static final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    // Only the test thread is recorded; index rebuilds run their own queries in the background
+    private static volatile Thread recordedThread;
+
+    public static class RecordingInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == recordedThread) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void statusAndPriorityFiltersUseTheCompositeIndex() {
+        String sql = capture("tasks", () -> taskRepository.findIds(
+            TaskSpecifications.withFilters(null, TaskStatus.TODO, Priority.HIGH, null, null, null),
+            PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"))));
+
+        assertFalse(sql.toLowerCase(Locale.ROOT).contains("is null"), sql);
+        String plan = explain(sql);
+        assertTrue(plan.contains("IDX_TASKS_STATUS_PRIORITY_CREATED_AT: STATUS = ?1"), plan);
+    }
+
+    @Test
+    void assigneeFilterProbesTaskAssigneesByIndex() {
+        String sql = capture("tasks", () -> taskRepository.findIds(
+            TaskSpecifications.withFilters(1L, null, null, null, null, null), PageRequest.of(0, 20)));
+
+        assertTrue(sql.contains("exists("), sql);
+        String plan = explain(sql);
+        assertTrue(plan.contains("USER_ID = ?1") && plan.contains("AND TASK_ID = T1_0.ID"), plan);
+        assertFalse(plan.contains("TASK_ASSIGNEES.tableScan"), plan);
+
+        // Lookups driven by the user read task_assignees through (user_id, task_id)
+        String byUser = explain(capture("tasks", () -> taskRepository.findIdsByAssigneeId(1L, PageRequest.of(0, 20))));
+        assertTrue(byUser.contains("IDX_TASK_ASSIGNEES_USER_ID_TASK_ID: USER_ID = ?1"), byUser);
+    }
+
+    @Test
+    void activityLogUserFilterUsesTheUserCreatedAtIndex() {
+        String sql = capture("activity_logs", () -> activityLogRepository.findAll(
+            ActivityLogSpecifications.withFilters(1L, null, null, LocalDateTime.now().minusDays(7), null),
+            PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"))));
+
+        String plan = explain(sql);
+        assertTrue(plan.contains("IDX_ACTIVITY_LOGS_USER_ID_CREATED_AT: USER_ID = ?1"), plan);
+        assertTrue(plan.contains("AND CREATED_AT >= ?2"), plan);
+    }
+
+    @Test
+    void unfilteredQueriesIncludeUnassignedTasksOnce() {
+        User manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        User employee = userRepository.findByEmail("employee@taskmanager.com").orElseThrow();
+        Long unassigned = taskService.createTask(request("Unassigned", Set.of()), manager).getId();
+        Long shared = taskService.createTask(request("Shared", Set.of(manager.getId(), employee.getId())), manager).getId();
+
+        List<Long> ids = taskRepository.findIds(TaskSpecifications.withFilters(null, null, null, null, null, null)
+            .and(TaskSpecifications.idIn(List.of(unassigned, shared))));
+        assertEquals(2, ids.size());
+        assertTrue(ids.containsAll(List.of(unassigned, shared)));
+
+        assertEquals(List.of(shared), taskRepository.findIds(TaskSpecifications.withFilters(employee.getId(), null, null, null, null, null)
+            .and(TaskSpecifications.idIn(List.of(unassigned, shared)))));
+    }
+
+    // The first statement of the query that selects from the given table
+    private String capture(String table, Runnable query) {
+        statements.clear();
+        recordedThread = Thread.currentThread();
+        try {
+            query.run();
+        } finally {
+            recordedThread = null;
+        }
+        String from = " from " + table + " ";
+        return statements.stream()
+            .filter(sql -> sql.toLowerCase(Locale.ROOT).contains(from))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No statement from " + table + " in " + statements));
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    private static TaskRequest request(String title, Set<Long> assigneeIds) {
+        TaskRequest request = new TaskRequest(title, title + " task", LocalDateTime.now().plusDays(3), Priority.LOW);
+        request.setAssigneeIds(assigneeIds);
+        return request;
+    }
+}
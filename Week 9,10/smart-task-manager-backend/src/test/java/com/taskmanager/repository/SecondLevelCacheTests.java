@@ -0,0 +1,130 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.dto.response.UserResponse;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.Role;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+import com.taskmanager.service.TaskService;
+import com.taskmanager.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void repeatedUserLoadsAreServedFromTheCache() {
+        Long userId = userRepository.findByEmail("employee@taskmanager.com").orElseThrow().getId();
+        transactionTemplate.executeWithoutResult(status -> userRepository.findById(userId).orElseThrow());
+
+        statistics.clear();
+        User user = transactionTemplate.execute(status -> userRepository.findById(userId).orElseThrow());
+
+        assertEquals("employee@taskmanager.com", user.getEmail());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics("users").getHitCount() > 0);
+    }
+
+    @Test
+    void repeatedRoleLookupsAreServedFromTheQueryCacheUntilUsersChange() {
+        userService.getUsersByRole(Role.EMPLOYEE);
+
+        statistics.clear();
+        List<UserResponse> employees = userService.getUsersByRole(Role.EMPLOYEE);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryRegionStatistics(UserRepository.ROLE_LOOKUP_REGION).getHitCount());
+
+        // A write to users invalidates the cached result, and the next lookup sees it
+        User user = new User("Cache", "Test", "cache.test@taskmanager.com", "password123");
+        user.setRole(Role.EMPLOYEE);
+        userRepository.save(user);
+        try {
+            statistics.clear();
+            List<UserResponse> refreshed = userService.getUsersByRole(Role.EMPLOYEE);
+            assertEquals(employees.size() + 1, refreshed.size());
+            assertEquals(1, statistics.getPrepareStatementCount());
+
+            statistics.clear();
+            userService.getUsersByRole(Role.EMPLOYEE);
+            assertEquals(0, statistics.getPrepareStatementCount());
+        } finally {
+            userRepository.delete(user);
+        }
+    }
+
+    @Test
+    void taskTagsAreCachedAndEvictedOnUpdate() {
+        User manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        TaskRequest request = new TaskRequest("Cached tags", "Tags come from the cache", LocalDateTime.now().plusDays(1), Priority.LOW);
+        request.setTags(new HashSet<>(Set.of("cache", "tags")));
+        Long taskId = taskService.createTask(request, manager).getId();
+
+        assertEquals(Set.of("cache", "tags"), loadTags(taskId));
+
+        statistics.clear();
+        assertEquals(Set.of("cache", "tags"), loadTags(taskId));
+        // Only the task row itself; the tags come from the collection cache
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        request.setTags(new HashSet<>(Set.of("updated")));
+        taskService.updateTask(taskId, request, manager);
+        assertEquals(Set.of("updated"), loadTags(taskId));
+
+        taskService.deleteTask(taskId, manager);
+    }
+
+    private Set<String> loadTags(Long taskId) {
+        return transactionTemplate.execute(status -> {
+            Task task = taskRepository.findById(taskId).orElseThrow();
+            return Set.copyOf(task.getTags());
+        });
+    }
+}
@@ -0,0 +1,321 @@
+package com.taskmanager.scheduling;
+
+import com.taskmanager.SmartTaskManagerApplication;
+import com.taskmanager.activity.ActivityLogArchive;
+import com.taskmanager.analytics.TaskCounterStore;
+import com.taskmanager.deadline.DeadlineIndex;
+import com.taskmanager.deadline.DeadlineReminderScheduler;
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.entity.ActivityLog;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.event.TaskChangeFeed;
+import com.taskmanager.repository.ActivityLogBatchRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.search.InMemoryTaskSearchIndex;
+import com.taskmanager.search.TagExpression;
+import com.taskmanager.search.TaskTagIndex;
+import com.taskmanager.service.ActivityLogService;
+import com.taskmanager.service.ScheduledTaskService;
+import com.taskmanager.service.TaskService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two application contexts on one H2 file database stand in for two replicas
+class ClusterJobsTests {
+
+    private static final int SHARDS = 4;
+
+    private static Path databaseDir;
+
+    private static ConfigurableApplicationContext first;
+
+    private static ConfigurableApplicationContext second;
+
+    @BeforeAll
+    static void startInstances() {
+        databaseDir = Paths.get("target", "cluster-test-" + UUID.randomUUID());
+        first = start("instance-a");
+        second = start("instance-b");
+    }
+
+    @AfterAll
+    static void stopInstances() throws IOException {
+        second.close();
+        first.close();
+        try (Stream<Path> files = Files.walk(databaseDir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void runsAJobOnOneInstance() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        Runnable job = () -> {
+            runs.incrementAndGet();
+            sleep(300);
+        };
+        concurrently(
+            () -> first.getBean(ClusterJobs.class).runExclusive("test-exclusive", Duration.ofMinutes(1), Duration.ofMinutes(1), job),
+            () -> second.getBean(ClusterJobs.class).runExclusive("test-exclusive", Duration.ofMinutes(1), Duration.ofMinutes(1), job));
+        assertEquals(1, runs.get());
+
+        // Held for lockAtLeastFor after the run
+        assertTrue(!second.getBean(ClusterJobs.class).runExclusive("test-exclusive", Duration.ofMinutes(1), Duration.ZERO, job));
+    }
+
+    @Test
+    void takesOverTheLeaseOfAnInstanceThatDied() {
+        LeaseLock.Lease lease = first.getBean(LeaseLock.class).tryAcquire("test-expiry", Duration.ofMillis(300));
+        assertNotNull(lease);
+        assertNull(second.getBean(LeaseLock.class).tryAcquire("test-expiry", Duration.ofMinutes(1)));
+        sleep(400);
+        LeaseLock.Lease takenOver = second.getBean(LeaseLock.class).tryAcquire("test-expiry", Duration.ofMinutes(1));
+        assertNotNull(takenOver);
+
+        // The stale holder's release doesn't cut the new lease short
+        first.getBean(LeaseLock.class).release(lease, Duration.ZERO);
+        assertNull(first.getBean(LeaseLock.class).tryAcquire("test-expiry", Duration.ofMinutes(1)));
+        second.getBean(LeaseLock.class).release(takenOver, Duration.ZERO);
+        assertNotNull(first.getBean(LeaseLock.class).tryAcquire("test-expiry", Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void runsEveryShardOnceAcrossInstances() throws InterruptedException {
+        Map<Integer, String> ranBy = new ConcurrentHashMap<>();
+        AtomicInteger runs = new AtomicInteger();
+        concurrently(
+            () -> first.getBean(ClusterJobs.class).runSharded("test-sharded", Duration.ofMinutes(1), Duration.ofMinutes(1),
+                (shard, shardCount) -> { runs.incrementAndGet(); ranBy.put(shard, "a"); sleep(200); }),
+            () -> second.getBean(ClusterJobs.class).runSharded("test-sharded", Duration.ofMinutes(1), Duration.ofMinutes(1),
+                (shard, shardCount) -> { runs.incrementAndGet(); ranBy.put(shard, "b"); sleep(200); }));
+        assertEquals(SHARDS, runs.get());
+        assertEquals(Set.of(0, 1, 2, 3), ranBy.keySet());
+    }
+
+    @Test
+    void remindsEachOverdueTaskOnceWhenBothInstancesFire() throws InterruptedException {
+        User manager = first.getBean(UserRepository.class).findByEmail("manager@taskmanager.com").orElseThrow();
+        User employee = first.getBean(UserRepository.class).findByEmail("employee@taskmanager.com").orElseThrow();
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            TaskRequest request = new TaskRequest("Overdue " + i, "Overdue " + i, LocalDateTime.now().minusHours(i + 1), Priority.HIGH);
+            request.setAssigneeIds(Set.of(employee.getId()));
+            taskIds.add(first.getBean(TaskService.class).createTask(request, manager).getId());
+        }
+
+        concurrently(
+            () -> first.getBean(ScheduledTaskService.class).sendDailyTaskReminders(),
+            () -> second.getBean(ScheduledTaskService.class).sendDailyTaskReminders());
+
+        JdbcTemplate jdbcTemplate = first.getBean(JdbcTemplate.class);
+        assertEquals(Long.valueOf(taskIds.size()), jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM tasks WHERE title LIKE 'Overdue %' AND last_reminded_at IS NOT NULL", Long.class));
+        // One reminder per shard holding some of the employee's tasks, none twice
+        Set<Long> shards = new HashSet<>();
+        taskIds.forEach(id -> shards.add(id % SHARDS));
+        assertEquals(Long.valueOf(shards.size()), jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM email_outbox WHERE category = 'TASK_REMINDER' AND recipient = ?", Long.class, employee.getEmail()));
+    }
+
+    @Test
+    void remindsTasksChangedOnTheOtherInstance() {
+        User manager = first.getBean(UserRepository.class).findByEmail("manager@taskmanager.com").orElseThrow();
+        User employee = first.getBean(UserRepository.class).findByEmail("employee@taskmanager.com").orElseThrow();
+        // Well clear of the other tests' tasks
+        LocalDateTime start = LocalDateTime.now().plusDays(200);
+        TaskService tasks = first.getBean(TaskService.class);
+        TaskRequest dueTomorrow = new TaskRequest("Lead time", "Lead time", start.plusHours(24).plusMinutes(5), Priority.HIGH);
+        dueTomorrow.setAssigneeIds(Set.of(employee.getId()));
+        tasks.createTask(dueTomorrow, manager);
+        TaskRequest doneEarly = new TaskRequest("Lead time done", "Lead time done", start.plusHours(24).plusMinutes(6), Priority.HIGH);
+        doneEarly.setAssigneeIds(Set.of(employee.getId()));
+        tasks.updateTaskStatus(tasks.createTask(doneEarly, manager).getId(), TaskStatus.COMPLETED, manager);
+
+        DeadlineReminderScheduler scheduler = second.getBean(DeadlineReminderScheduler.class);
+        scheduler.remindDue(start);
+        assertEquals(1, scheduler.remindDue(start.plusMinutes(10)));
+        assertEquals(1L, first.getBean(JdbcTemplate.class).queryForObject(
+            "SELECT COUNT(*) FROM email_outbox WHERE subject LIKE 'Task Reminder: Lead time%'", Long.class));
+    }
+
+    @Test
+    void replaysTaskChangesMadeOnTheOtherInstance() throws InterruptedException {
+        User manager = first.getBean(UserRepository.class).findByEmail("manager@taskmanager.com").orElseThrow();
+        User employee = first.getBean(UserRepository.class).findByEmail("employee@taskmanager.com").orElseThrow();
+        awaitIndexes(first);
+        awaitIndexes(second);
+        TaskRequest request = new TaskRequest("Qqfeed report", "Qqfeed report", LocalDateTime.now().plusDays(2), Priority.HIGH);
+        request.setTags(new HashSet<>(Set.of("qqfeed")));
+        request.setAssigneeIds(Set.of(employee.getId()));
+        Long taskId = first.getBean(TaskService.class).createTask(request, manager).getId();
+
+        second.getBean(TaskChangeFeed.class).replayChangesFromOtherInstances();
+        assertEquals(List.of(taskId), second.getBean(InMemoryTaskSearchIndex.class).search("qqfeed", 10));
+        assertTrue(second.getBean(TaskTagIndex.class).match(TagExpression.parse("qqfeed"), null, null).contains(taskId.intValue()));
+        assertTrue(second.getBean(DeadlineIndex.class).upcoming(employee.getId(), LocalDateTime.now(),
+            LocalDateTime.now().plusDays(3), 1000).contains(taskId));
+        assertEquals(databaseStatusCounts(), second.getBean(TaskCounterStore.class).getStatusCounts());
+
+        // Completed on the second instance, the task leaves the first one's deadline index
+        second.getBean(TaskService.class).updateTaskStatus(taskId, TaskStatus.COMPLETED, manager);
+        first.getBean(TaskChangeFeed.class).replayChangesFromOtherInstances();
+        assertTrue(!first.getBean(DeadlineIndex.class).upcoming(employee.getId(), LocalDateTime.now(),
+            LocalDateTime.now().plusDays(3), 1000).contains(taskId));
+        assertEquals(databaseStatusCounts(), first.getBean(TaskCounterStore.class).getStatusCounts());
+
+        // Renamed on both instances before either replays: the older rename doesn't overwrite the newer one
+        request.setTitle("Qqfeed older");
+        second.getBean(TaskService.class).updateTask(taskId, request, manager);
+        request.setTitle("Qqfeed newer");
+        first.getBean(TaskService.class).updateTask(taskId, request, manager);
+        first.getBean(TaskChangeFeed.class).replayChangesFromOtherInstances();
+        second.getBean(TaskChangeFeed.class).replayChangesFromOtherInstances();
+        for (ConfigurableApplicationContext instance : List.of(first, second)) {
+            assertEquals(List.of(taskId), instance.getBean(InMemoryTaskSearchIndex.class).search("qqfeed newer", 10));
+            assertEquals(List.of(), instance.getBean(InMemoryTaskSearchIndex.class).search("qqfeed older", 10));
+        }
+
+        first.getBean(TaskService.class).deleteTask(taskId, manager);
+        second.getBean(TaskChangeFeed.class).replayChangesFromOtherInstances();
+        assertEquals(List.of(), second.getBean(InMemoryTaskSearchIndex.class).search("qqfeed", 10));
+        assertEquals(databaseStatusCounts(), second.getBean(TaskCounterStore.class).getStatusCounts());
+    }
+
+    @Test
+    void clearsExpiredTokensInOneStatement() throws InterruptedException {
+        UserRepository users = first.getBean(UserRepository.class);
+        User admin = users.findByEmail("admin@taskmanager.com").orElseThrow();
+        admin.setPasswordResetToken("expired");
+        admin.setPasswordResetTokenExpiry(LocalDateTime.now().minusMinutes(5));
+        users.save(admin);
+        User manager = users.findByEmail("manager@taskmanager.com").orElseThrow();
+        manager.setPasswordResetToken("still-valid");
+        manager.setPasswordResetTokenExpiry(LocalDateTime.now().plusHours(1));
+        users.save(manager);
+
+        concurrently(
+            () -> first.getBean(ScheduledTaskService.class).cleanupExpiredTokens(),
+            () -> second.getBean(ScheduledTaskService.class).cleanupExpiredTokens());
+
+        assertNull(users.findByEmail("admin@taskmanager.com").orElseThrow().getPasswordResetToken());
+        assertEquals("still-valid", users.findByEmail("manager@taskmanager.com").orElseThrow().getPasswordResetToken());
+        assertEquals(0, first.getBean(ScheduledTaskService.class).cleanupExpiredTokens(LocalDateTime.now()));
+    }
+
+    @Test
+    void readsLogsArchivedByTheOtherInstance() {
+        User employee = first.getBean(UserRepository.class).findByEmail("employee@taskmanager.com").orElseThrow();
+        LocalDateTime createdAt = LocalDateTime.now().minusMonths(6).withDayOfMonth(10).withNano(0);
+        ActivityLog log = new ActivityLog(employee, "LOGIN", "Archived login", "CLUSTER_ARCHIVE", 1L, "127.0.0.1");
+        log.setCreatedAt(createdAt);
+        first.getBean(ActivityLogBatchRepository.class).insertMultiRow(List.of(log));
+
+        first.getBean(ActivityLogArchive.class).archiveExpiredMonths();
+
+        assertEquals(0L, first.getBean(JdbcTemplate.class).queryForObject(
+            "SELECT COUNT(*) FROM activity_logs WHERE entity_type = 'CLUSTER_ARCHIVE'", Long.class));
+        List<ActivityLog> archived = second.getBean(ActivityLogService.class).getActivityLogsWithFilters(
+            null, null, "CLUSTER_ARCHIVE", createdAt.minusDays(1), null, PageRequest.of(0, 10)).getContent();
+        assertEquals(1, archived.size());
+        assertEquals("Archived login", archived.get(0).getDescription());
+        assertEquals(createdAt, archived.get(0).getCreatedAt());
+    }
+
+    private static Map<TaskStatus, Long> databaseStatusCounts() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, first.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT COUNT(*) FROM tasks WHERE status = ?", Long.class, status.name()));
+        }
+        return counts;
+    }
+
+    private static void awaitIndexes(ConfigurableApplicationContext instance) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!(instance.getBean(InMemoryTaskSearchIndex.class).isReady() && instance.getBean(TaskTagIndex.class).isReady()
+                && instance.getBean(DeadlineIndex.class).isReady()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(instance.getBean(DeadlineIndex.class).isReady());
+    }
+
+    private static ConfigurableApplicationContext start(String instanceId) {
+        return new SpringApplicationBuilder(SmartTaskManagerApplication.class)
+            .profiles("test")
+            .web(WebApplicationType.NONE)
+            // Arguments rather than default properties, which application.properties would override
+            .run(
+                "--spring.datasource.url=jdbc:h2:file:./" + databaseDir.resolve("db").toString().replace('\\', '/'),
+                "--spring.jpa.hibernate.ddl-auto=update",
+                // Separate JVMs don't share a second-level cache either
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                "--app.scheduling.instance-id=" + instanceId,
+                "--app.scheduling.shards=" + SHARDS,
+                "--app.reminders.tick-ms=3600000");
+    }
+
+    private static void concurrently(Runnable firstAction, Runnable secondAction) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> failures = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (Runnable action : List.of(firstAction, secondAction)) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    action.run();
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(List.of(), failures);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
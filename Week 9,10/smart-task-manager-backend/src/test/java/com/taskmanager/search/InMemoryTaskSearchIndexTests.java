@@ -0,0 +1,130 @@
+package com.taskmanager.search;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.dto.response.TaskResponse;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.TaskSpecifications;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:searchindextestdb")
+@ActiveProfiles("test")
+class InMemoryTaskSearchIndexTests {
+
+    @Autowired
+    private InMemoryTaskSearchIndex searchIndex;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void ranksIndexedTasksAndFollowsUpdatesAndRemovals() throws InterruptedException {
+        awaitIndex();
+        // Ids no real task has, so the rest of the index doesn't matter
+        long inTitle = 1_000_001L;
+        long inTag = 1_000_002L;
+        long inDescription = 1_000_003L;
+        searchIndex.index(inTitle, "Quarterly Zyxreport", "Numbers for the board", Set.of("finance"));
+        searchIndex.index(inTag, "Board meeting", "Agenda", Set.of("zyxreport"));
+        searchIndex.index(inDescription, "Follow up", "Send the zyxreport draft", Set.of());
+
+        // Title over tag over description, prefixes match, and accents and case are folded
+        assertEquals(List.of(inTitle, inTag, inDescription), searchIndex.search("zyxreport", 10));
+        assertEquals(List.of(inTitle, inTag, inDescription), searchIndex.search("ZYXRÉP", 10));
+        assertEquals(List.of(inTitle, inTag), searchIndex.search("zyxreport", 2));
+        // Every term has to match
+        assertEquals(List.of(inTitle), searchIndex.search("zyxreport finance", 10));
+        assertEquals(List.of(inTag), searchIndex.search("zyxreport agenda", 10));
+        assertEquals(List.of(), searchIndex.search("zyxreport missingterm", 10));
+        assertEquals(List.of(), searchIndex.search("  ", 10));
+
+        // Re-indexing replaces the old terms
+        searchIndex.index(inTitle, "Quarterly summary", "Numbers for the board", Set.of("finance"));
+        assertEquals(List.of(inTag, inDescription), searchIndex.search("zyxreport", 10));
+        assertEquals(List.of(inTitle), searchIndex.search("summary finance", 10));
+
+        searchIndex.remove(inTag);
+        searchIndex.remove(inDescription);
+        assertEquals(List.of(), searchIndex.search("zyxreport", 10));
+        searchIndex.remove(inTitle);
+        assertEquals(List.of(), searchIndex.search("summary finance", 10));
+    }
+
+    @Test
+    void matchesTheDatabaseSearch() throws InterruptedException {
+        awaitIndex();
+        User manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        Long invoice = create(manager, "Prepare qqinvoice", "For the client");
+        Long reminder = create(manager, "Call the client", "About the qqinvoice and the qqcontract");
+        Long contract = create(manager, "Sign qqcontract", "Legal review first");
+        create(manager, "Unrelated", "Nothing to see");
+
+        for (String term : List.of("qqinvoice", "qqcontract", "qqinv", "legal", "qqmissing")) {
+            assertEquals(databaseMatches(term), indexMatches(term), term);
+        }
+        assertEquals(Set.of(invoice, reminder), indexMatches("qqinvoice"));
+
+        // Index updates follow task writes through the task events
+        taskService.updateTask(contract, request("Sign qqinvoice", "Legal review first"), manager);
+        taskService.deleteTask(reminder, manager);
+        for (String term : List.of("qqinvoice", "qqcontract")) {
+            assertEquals(databaseMatches(term), indexMatches(term), term);
+        }
+        assertEquals(Set.of(invoice, contract), indexMatches("qqinvoice"));
+
+        // With other filters the index only supplies the candidates
+        taskService.updateTaskStatus(invoice, TaskStatus.COMPLETED, manager);
+        assertEquals(Set.of(invoice), ids(taskService.getTasksWithFilters(null, TaskStatus.COMPLETED, null, null, null,
+            "qqinvoice", null, PageRequest.of(0, 50)).getContent()));
+    }
+
+    private Set<Long> indexMatches(String search) {
+        return ids(taskService.getTasksWithFilters(null, null, null, null, null, search, null, PageRequest.of(0, 50)).getContent());
+    }
+
+    private Set<Long> databaseMatches(String search) {
+        return Set.copyOf(taskRepository.findIds(TaskSpecifications.withFilters(null, null, null, null, null, search)));
+    }
+
+    private Set<Long> ids(List<TaskResponse> tasks) {
+        return tasks.stream().map(TaskResponse::getId).collect(Collectors.toSet());
+    }
+
+    private Long create(User manager, String title, String description) {
+        return taskService.createTask(request(title, description), manager).getId();
+    }
+
+    private TaskRequest request(String title, String description) {
+        return new TaskRequest(title, description, LocalDateTime.now().plusDays(3), Priority.MEDIUM);
+    }
+
+    private void awaitIndex() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!searchIndex.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(searchIndex.isReady());
+    }
+}
@@ -0,0 +1,141 @@
+package com.taskmanager.search;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.dto.response.TaskResponse;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.TaskSpecifications;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.JwtUtils;
+import com.taskmanager.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:tagindextestdb")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskTagIndexTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskTagIndex taskTagIndex;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void filtersAndFacetsFollowTaskWrites() throws Exception {
+        awaitIndex();
+        User manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        Long first = create(manager, Priority.HIGH, "tt-alpha", "tt-beta");
+        Long second = create(manager, Priority.LOW, "tt-alpha");
+        Long third = create(manager, Priority.HIGH, "tt-beta", "tt-gamma");
+        Long fourth = create(manager, Priority.HIGH, "tt-gamma");
+        taskService.updateTaskStatus(fourth, TaskStatus.IN_PROGRESS, manager);
+
+        assertMatches(List.of(second), "tt-alpha AND NOT tt-beta", null, null);
+        assertMatches(List.of(fourth), "(tt-alpha OR tt-gamma) not tt-beta", null, Priority.HIGH);
+        assertMatches(List.of(first, third), "tt-beta", TaskStatus.TODO, null);
+        assertMatches(List.of(), "tt-alpha AND tt-missing", null, null);
+
+        List<TaskTagIndex.TagCount> facets = taskService.getTagFacets("tt-beta", null, null, 3);
+        assertEquals(List.of("tt-beta=2", "tt-alpha=1", "tt-gamma=1"),
+            facets.stream().map(facet -> facet.getTag() + "=" + facet.getCount()).collect(Collectors.toList()));
+
+        TaskRequest retagged = request(Priority.LOW, "tt-gamma");
+        taskService.updateTask(second, retagged, manager);
+        taskService.deleteTask(third, manager);
+        assertMatches(List.of(second, fourth), "tt-gamma", null, null);
+        assertMatches(List.of(first), "tt-alpha OR tt-beta", null, null);
+
+        String token = jwtUtils.generateTokenFromUsername(manager.getEmail());
+        mockMvc.perform(get("/api/tasks").param("tags", "(tt-alpha OR").header("Authorization", "Bearer " + token))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsMalformedExpressions() {
+        for (String expression : List.of("", "a AND", "(a OR b", "a OR OR b", "a )", "\"open")) {
+            assertThrows(IllegalArgumentException.class, () -> TagExpression.parse(expression), expression);
+        }
+    }
+
+    @Test
+    void capsNestingAndLength() {
+        String nested = "(".repeat(TagExpression.MAX_DEPTH) + "a" + ")".repeat(TagExpression.MAX_DEPTH);
+        TagExpression.parse(nested);
+        TagExpression.parse("NOT ".repeat(TagExpression.MAX_DEPTH) + "a");
+
+        for (String expression : List.of("(" + nested + ")", "NOT ".repeat(TagExpression.MAX_DEPTH + 1) + "a",
+                "(".repeat(100_000) + "a" + ")".repeat(100_000), "a OR b".repeat(200))) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> TagExpression.parse(expression), expression.substring(0, 20));
+            assertTrue(e.getMessage().startsWith("Tag filter is"), e.getMessage());
+        }
+    }
+
+    // Both index paths and the SQL fallback have to agree
+    private void assertMatches(List<Long> expected, String tags, TaskStatus status, Priority priority) {
+        Set<Long> expectedIds = Set.copyOf(expected);
+        assertEquals(expectedIds, ids(taskService.getTasksWithFilters(null, status, priority, null, null, null, tags,
+            PageRequest.of(0, 50, Sort.by("id").descending())).getContent()), tags);
+        assertEquals(expectedIds, ids(taskService.getTasksWithFilters(null, status, priority, null, null, null, tags,
+            PageRequest.of(0, 50, Sort.by("createdAt").descending())).getContent()), tags);
+        assertEquals(expectedIds, Set.copyOf(taskRepository.findIds(
+            TaskSpecifications.withFilters(null, status, priority, null, null, null)
+                .and(TaskSpecifications.matchesTags(TagExpression.parse(tags))))), tags);
+    }
+
+    private Set<Long> ids(List<TaskResponse> tasks) {
+        return tasks.stream().map(TaskResponse::getId).collect(Collectors.toSet());
+    }
+
+    private Long create(User manager, Priority priority, String... tags) {
+        return taskService.createTask(request(priority, tags), manager).getId();
+    }
+
+    private TaskRequest request(Priority priority, String... tags) {
+        TaskRequest request = new TaskRequest("Tagged task", "Tag index test", LocalDateTime.now().plusDays(3), priority);
+        request.setTags(new HashSet<>(List.of(tags)));
+        return request;
+    }
+
+    private void awaitIndex() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!taskTagIndex.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(taskTagIndex.isReady());
+    }
+}
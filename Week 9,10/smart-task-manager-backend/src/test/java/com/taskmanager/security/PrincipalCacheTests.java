@@ -0,0 +1,106 @@
+package com.taskmanager.security;
+
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The scheduled sync is pushed out of the way so the test decides when it runs
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:principalcachetestdb",
+    "app.security.principal-cache.sync-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class PrincipalCacheTests {
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<String, User> loader = email -> {
+        loads.incrementAndGet();
+        return userRepository.findByEmail(email).orElseThrow();
+    };
+
+    // The second-level cache regions are shared by every test context in the JVM, so a user another
+    // context cached under the same id would stand in for the ones created here
+    @BeforeEach
+    void evictCachedUsers() {
+        entityManagerFactory.getCache().evict(User.class);
+    }
+
+    @Test
+    void returnsDetachedCopiesWithoutCredentials() {
+        User user = userRepository.save(new User("Cached", "User", "cached@example.com", "secret"));
+
+        User first = principalCache.get(user.getEmail(), loader);
+        User second = principalCache.get(user.getEmail(), loader);
+        assertEquals(1, loads.get());
+        assertNotSame(first, second);
+        assertEquals(user.getId(), second.getId());
+        assertEquals("Cached", second.getFirstName());
+        assertNull(second.getPassword());
+        assertNull(second.getPasswordResetToken());
+
+        // Changing one request's principal doesn't reach the next request
+        first.setFirstName("Changed");
+        assertEquals("Cached", principalCache.get(user.getEmail(), loader).getFirstName());
+    }
+
+    @Test
+    void dropsUsersChangedOnThisInstance() {
+        User admin = userRepository.findByEmail("admin@taskmanager.com").orElseThrow();
+        User user = userRepository.save(new User("Local", "User", "local-change@example.com", "secret"));
+        assertTrue(principalCache.get(user.getEmail(), loader).isActive());
+
+        userService.deactivateUser(user.getId(), admin);
+        assertFalse(principalCache.get(user.getEmail(), loader).isActive());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void dropsUsersChangedOnAnotherInstance() {
+        User user = userRepository.save(new User("Remote", "User", "remote-change@example.com", "secret"));
+        principalCache.invalidateUsersChangedElsewhere();
+        assertTrue(principalCache.get(user.getEmail(), loader).isActive());
+
+        // Another instance deactivates the user: only the row changes here, no event is published
+        jdbcTemplate.update("UPDATE users SET active = false, updated_at = ? WHERE id = ?", LocalDateTime.now(), user.getId());
+        entityManagerFactory.getCache().evict(User.class, user.getId());
+        // Until the next sync the cached principal is served
+        assertTrue(principalCache.get(user.getEmail(), loader).isActive());
+
+        principalCache.invalidateUsersChangedElsewhere();
+        assertFalse(principalCache.get(user.getEmail(), loader).isActive());
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,208 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.dto.response.TaskResponse;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:bulkcreatetestdb",
+    "app.tasks.bulk.batch-size=50"
+})
+@ActiveProfiles("test")
+class TaskBulkCreateTests {
+
+    private static final int TASKS = 120;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void insertsTheImportWithJdbcBatches() {
+        User manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        User employee = userRepository.findByEmail("employee@taskmanager.com").orElseThrow();
+        List<TaskRequest> requests = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            TaskRequest request = new TaskRequest("Bulk task " + i, "Imported " + i, LocalDateTime.now().plusDays(2), Priority.LOW);
+            request.setTags(Set.of("bulk", "bulk-" + i % 3));
+            request.setAssigneeIds(Set.of(manager.getId(), employee.getId()));
+            requests.add(request);
+        }
+
+        RecordingDataSource.start();
+        List<TaskResponse> created;
+        try {
+            created = taskService.createTasks(requests, manager);
+        } finally {
+            RecordingDataSource.stop();
+        }
+
+        // The generated ids come back in request order and belong to the inserted rows
+        Map<Long, String> titles = new HashMap<>();
+        jdbcTemplate.query("SELECT id, title FROM tasks WHERE title LIKE 'Bulk task %'",
+            row -> { titles.put(row.getLong("id"), row.getString("title")); });
+        assertEquals(TASKS, created.size());
+        assertEquals(TASKS, titles.size());
+        for (int i = 0; i < TASKS; i++) {
+            assertNotNull(created.get(i).getId());
+            assertEquals("Bulk task " + i, titles.get(created.get(i).getId()));
+        }
+        Long seventh = created.get(7).getId();
+        assertEquals(Set.of("bulk", "bulk-1"), new HashSet<>(jdbcTemplate.queryForList(
+            "SELECT tag FROM task_tags WHERE task_id = ?", String.class, seventh)));
+        assertEquals(Set.of(manager.getId(), employee.getId()), new HashSet<>(jdbcTemplate.queryForList(
+            "SELECT user_id FROM task_assignees WHERE task_id = ?", Long.class, seventh)));
+        assertEquals(2L * TASKS, countJoined("task_tags"));
+        assertEquals(2L * TASKS, countJoined("task_assignees"));
+        // The activity logs are written with the import, not behind it
+        assertEquals((long) TASKS, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM activity_logs a JOIN tasks t ON t.id = a.entity_id " +
+            "WHERE a.action = 'TASK_CREATED' AND a.entity_type = 'Task' AND t.title LIKE 'Bulk task %'", Long.class));
+
+        // Batches of 50: a statement per chunk of tasks, one statement each for the tags and assignees
+        assertStatements("INSERT INTO tasks ", 3, TASKS, 3);
+        assertStatements("INSERT INTO task_tags ", 1, 2 * TASKS, 5);
+        assertStatements("INSERT INTO task_assignees ", 1, 2 * TASKS, 5);
+    }
+
+    private long countJoined(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " j JOIN tasks t ON t.id = j.task_id " +
+            "WHERE t.title LIKE 'Bulk task %'", Long.class);
+    }
+
+    private void assertStatements(String prefix, int prepared, int rows, int batches) {
+        StatementCounts counts = new StatementCounts();
+        RecordingDataSource.statements.forEach((sql, recorded) -> {
+            if (sql.startsWith(prefix)) {
+                counts.prepared += recorded.prepared;
+                counts.rows += recorded.rows;
+                counts.batches += recorded.batches;
+                counts.single += recorded.single;
+            }
+        });
+        assertEquals(prepared, counts.prepared, prefix + "statements");
+        assertEquals(rows, counts.rows, prefix + "rows");
+        assertEquals(batches, counts.batches, prefix + "batches");
+        assertEquals(0, counts.single, prefix + "single-row executions");
+    }
+
+    // Counts what the test thread does with each prepared statement while recording
+    @TestConfiguration
+    static class StatementRecording {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new RecordingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    static final class StatementCounts {
+
+        private int prepared;
+
+        private int rows;
+
+        private int batches;
+
+        private int single;
+    }
+
+    static final class RecordingDataSource extends DelegatingDataSource {
+
+        private static final Map<String, StatementCounts> statements = new ConcurrentHashMap<>();
+
+        private static volatile Thread recordingThread;
+
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+
+        static void start() {
+            statements.clear();
+            recordingThread = Thread.currentThread();
+        }
+
+        static void stop() {
+            recordingThread = null;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return Thread.currentThread() == recordingThread ? recording(connection) : connection;
+        }
+
+        private static Connection recording(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (method.getName().equals("prepareStatement")) {
+                        return recording((PreparedStatement) result, (String) args[0]);
+                    }
+                    return result;
+                });
+        }
+
+        private static PreparedStatement recording(PreparedStatement statement, String sql) {
+            StatementCounts counts = statements.computeIfAbsent(sql, key -> new StatementCounts());
+            counts.prepared++;
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "addBatch" -> counts.rows++;
+                        case "executeBatch" -> counts.batches++;
+                        case "execute", "executeUpdate" -> counts.single++;
+                        default -> { }
+                    }
+                    return invoke(statement, method, args);
+                });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.request.KeysetCursor;
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.dto.response.CursorPage;
+import com.taskmanager.dto.response.TaskResponse;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:cursortestdb")
+@ActiveProfiles("test")
+class TaskCursorPaginationTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ActivityLogService activityLogService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void cursorsRoundTrip() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_456_000), 42L);
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+        assertEquals(cursor.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals(42L, decoded.getId());
+
+        KeysetCursor wholeMinute = KeysetCursor.decode(new KeysetCursor(LocalDateTime.of(2024, 3, 1, 9, 30), 7L).encode());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 9, 30), wholeMinute.getCreatedAt());
+
+        assertSame(KeysetCursor.FIRST, KeysetCursor.decode(null));
+        assertSame(KeysetCursor.FIRST, KeysetCursor.decode(" "));
+    }
+
+    @Test
+    void rejectsTamperedCursorsAndPageSizes() {
+        String valid = new KeysetCursor(LocalDateTime.of(2024, 3, 1, 9, 30), 42L).encode();
+        for (String tampered : List.of("not a cursor!", valid + "!", encode("2024-03-01T09:30"),
+                encode("2024-03-01T09:30|"), encode("2024-03-01T09:30|abc"), encode("yesterday|42"), encode("|42"))) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(tampered), tampered);
+            assertEquals("Invalid cursor", e.getMessage());
+        }
+
+        User manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksByAssigneeByCursor(manager.getId(), "not a cursor!", 10));
+        for (int size : new int[]{0, -1, KeysetCursor.MAX_PAGE_SIZE + 1}) {
+            assertThrows(IllegalArgumentException.class, () -> taskService.getTasksByAssigneeByCursor(manager.getId(), null, size));
+            assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTasksWithFiltersByCursor(null, null, null, null, null, null, null, size));
+            assertThrows(IllegalArgumentException.class, () -> activityLogService.getAllActivityLogsByCursor(null, size));
+        }
+        assertTrue(taskService.getTasksByAssigneeByCursor(manager.getId(), null, KeysetCursor.MAX_PAGE_SIZE).getContent().size() <= KeysetCursor.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void pagesThroughTasksCreatedAtTheSameInstant() {
+        User manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        User assignee = userRepository.save(new User("Cursor", "User", "cursor@example.com", "password"));
+
+        // A bulk import stamps every task with the same createdAt, so only the id orders them
+        List<TaskRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            TaskRequest request = new TaskRequest("Tied " + i, "Tied " + i, LocalDateTime.now().plusDays(1), Priority.LOW);
+            request.setAssigneeIds(Set.of(assignee.getId()));
+            requests.add(request);
+        }
+        List<TaskResponse> created = taskService.createTasks(requests, manager);
+        assertEquals(1, created.stream().map(TaskResponse::getCreatedAt).distinct().count());
+
+        List<Long> scrolled = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<TaskResponse> page = taskService.getTasksByAssigneeByCursor(assignee.getId(), cursor, 10);
+            page.getContent().forEach(task -> scrolled.add(task.getId()));
+            cursor = page.getNextCursor();
+            assertEquals(cursor != null, page.isHasNext());
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        List<Long> expected = created.stream().map(TaskResponse::getId).sorted(Comparator.reverseOrder()).toList();
+        assertEquals(expected, scrolled);
+        assertEquals(3, pages);
+    }
+
+    private String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
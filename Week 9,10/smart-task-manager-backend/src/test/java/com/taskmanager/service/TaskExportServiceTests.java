@@ -0,0 +1,241 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.User;
+import com.taskmanager.export.ExportFormat;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.JwtUtils;
+import jakarta.servlet.DispatcherType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Statement counts are global to the session factory, so the jobs that poll the database are pushed out
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:exporttestdb",
+    "app.reminders.tick-ms=3600000",
+    "app.security.principal-cache.sync-interval-ms=3600000",
+    "app.http.deadline-check-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskExportServiceTests {
+
+    private static final int TASK_COUNT = 3000;
+
+    private static final String MARKER = "export-check";
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    @Qualifier("exportExecutor")
+    private AsyncTaskExecutor exportExecutor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.tasks.export.chunk-size:500}")
+    private int chunkSize;
+
+    private static boolean seeded = false;
+
+    @BeforeEach
+    void setUp() {
+        if (seeded) {
+            return;
+        }
+        User manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        User employee = userRepository.findByEmail("employee@taskmanager.com").orElseThrow();
+
+        List<TaskRequest> requests = new ArrayList<>();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            TaskRequest request = new TaskRequest(MARKER + " " + i, "Line one, \"quoted\"\nline two",
+                LocalDateTime.now().plusDays(1), Priority.HIGH);
+            request.setTags(Set.of("export", "batch-" + (i % 5)));
+            request.setAssigneeIds(Set.of(manager.getId(), employee.getId()));
+            requests.add(request);
+        }
+        taskService.createTasks(requests, manager);
+        seeded = true;
+    }
+
+    @Test
+    void csvExportKeepsThePersistenceContextBoundedByTheChunkSize() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // Samples the number of managed entities every time the writer pushes bytes out
+        int[] maxManagedEntities = {0};
+        long[] bytes = {0};
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                int managed = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+                maxManagedEntities[0] = Math.max(maxManagedEntities[0], managed);
+                if (head.size() < 4096) {
+                    head.write(b, off, Math.min(len, 4096 - head.size()));
+                }
+                bytes[0] += len;
+            }
+        };
+
+        long exported = taskExportService.exportTasks(ExportFormat.CSV, sink, null, null, null, null, null, MARKER);
+
+        assertEquals(TASK_COUNT, exported);
+        assertTrue(bytes[0] > 0);
+        // A chunk of tasks plus their creators, never the whole result
+        assertTrue(maxManagedEntities[0] <= chunkSize + 10, "managed entities: " + maxManagedEntities[0]);
+        // The stream itself plus one assignee and one tag query per chunk
+        int chunks = (TASK_COUNT + chunkSize - 1) / chunkSize;
+        assertEquals(1 + 2 * chunks, statistics.getPrepareStatementCount());
+
+        String csv = head.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("\uFEFFID,Title,Description"));
+        assertTrue(csv.contains("\"Line one, \"\"quoted\"\"\nline two\""));
+    }
+
+    @Test
+    void exportEndpointStreamsTheFileAsynchronously() throws Exception {
+        String token = jwtUtils.generateTokenFromUsername("manager@taskmanager.com");
+        MvcResult result = mockMvc.perform(get("/api/tasks/export")
+                .param("search", MARKER)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/csv"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, startsWith("attachment; filename=\"tasks-")));
+        String csv = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("\uFEFFID,Title,Description"));
+        assertTrue(csv.contains("\"Line one, \"\"quoted\"\"\nline two\""));
+    }
+
+    @Test
+    void unsupportedExportFormatsAreRejected() throws Exception {
+        String token = jwtUtils.generateTokenFromUsername("manager@taskmanager.com");
+        mockMvc.perform(get("/api/tasks/export")
+                .param("format", "docx")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Unsupported export format: docx"));
+    }
+
+    @Test
+    void exportsAreRejectedWith503WhileTheExportExecutorIsFull() throws Exception {
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) exportExecutor;
+        String token = jwtUtils.generateTokenFromUsername("manager@taskmanager.com");
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<?>> blockers = new ArrayList<>();
+        try {
+            for (int i = 0; i < executor.getMaxPoolSize() + executor.getQueueCapacity(); i++) {
+                blockers.add(executor.submit(() -> {
+                    release.await();
+                    return null;
+                }));
+            }
+
+            MvcResult result = mockMvc.perform(get("/api/tasks/export")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andReturn();
+            assertInstanceOf(RejectedExecutionException.class,
+                WebAsyncUtils.getAsyncManager(result.getRequest()).getConcurrentResult());
+
+            // The rejection is dispatched before the request returns, which asyncDispatch doesn't wait for,
+            // so the request is dispatched back to the controller here
+            MockHttpServletRequest request = result.getRequest();
+            mockMvc.perform(servletContext -> {
+                    request.setDispatcherType(DispatcherType.ASYNC);
+                    request.setAsyncStarted(false);
+                    return request;
+                })
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "inline"))
+                .andExpect(jsonPath("$.error").value("Too many exports are running, try again later"));
+        } finally {
+            release.countDown();
+            for (Future<?> blocker : blockers) {
+                blocker.get();
+            }
+        }
+    }
+
+    @Test
+    void xlsxAndPdfExportsProduceDocuments() throws Exception {
+        ByteArrayOutputStream xlsx = new ByteArrayOutputStream();
+        assertEquals(TASK_COUNT, taskExportService.exportTasks(ExportFormat.XLSX, xlsx, null, null, null, null, null, MARKER));
+        assertEquals("PK", new String(xlsx.toByteArray(), 0, 2, StandardCharsets.US_ASCII));
+
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        assertEquals(TASK_COUNT, taskExportService.exportTasks(ExportFormat.PDF, pdf, null, null, null, null, null, MARKER));
+        assertEquals("%PDF-", new String(pdf.toByteArray(), 0, 5, StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,144 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.entity.EmailCategory;
+import com.taskmanager.entity.EmailOutbox;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.EmailOutboxRepository;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+// Chunks of two tasks, so each run is split across several chunks; lead-time reminders are kept out of the way
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:remindertestdb",
+    "app.reminders.chunk-size=2",
+    "app.reminders.overdue-lookback-days=30",
+    "app.reminders.tick-ms=3600000"
+})
+@ActiveProfiles("test")
+class TaskReminderServiceTests {
+
+    @Autowired
+    private TaskReminderService taskReminderService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @SpyBean
+    private EmailService emailService;
+
+    @Test
+    void remindsEachOverdueTaskOncePerDay() {
+        User manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        User rita = userRepository.save(new User("Rita", "Reminder", "rita@example.com", "password"));
+        User quiet = new User("Quinn", "Quiet", "quinn-reminders@example.com", "password");
+        quiet.setNotificationsEnabled(false);
+        quiet = userRepository.save(quiet);
+
+        LocalDateTime now = LocalDateTime.now();
+        Long lateA = create("Late A", now.minusHours(1), manager, rita, quiet);
+        Long lateB = create("Late B", now.minusDays(2), manager, rita);
+        Long lateC = create("Late C", now.minusHours(3), manager, rita);
+        Long done = create("Late but done", now.minusHours(4), manager, rita);
+        taskService.updateTaskStatus(done, TaskStatus.COMPLETED, manager);
+        Long ancient = create("Long forgotten", now.minusDays(40), manager, rita);
+        Long future = create("Not due yet", now.plusDays(3), manager, rita);
+        emailOutboxRepository.deleteAll();
+
+        assertTrue(taskReminderService.sendReminders() >= 3);
+
+        // Due selection: open tasks that went overdue within the lookback
+        for (Long taskId : List.of(lateA, lateB, lateC)) {
+            assertNotNull(remindedAt(taskId));
+        }
+        for (Long taskId : List.of(done, ancient, future)) {
+            assertNull(remindedAt(taskId));
+        }
+        // Every task appears in exactly one of Rita's reminders, and nothing goes to a user who opted out
+        assertEquals(List.of(1, 1, 1), occurrences(reminders("rita@example.com"), "Late A", "Late B", "Late C"));
+        assertTrue(reminders("rita@example.com").stream().noneMatch(email -> email.getBody().contains("Long forgotten")));
+        assertTrue(reminders("quinn-reminders@example.com").isEmpty());
+
+        // A second run on the same day finds nothing left for these tasks
+        LocalDateTime firstReminder = remindedAt(lateA);
+        emailOutboxRepository.deleteAll();
+        taskReminderService.sendReminders();
+        assertTrue(reminders("rita@example.com").isEmpty());
+        assertEquals(firstReminder, remindedAt(lateA));
+    }
+
+    @Test
+    void retriesAFailedChunkOnTheNextRun() {
+        User manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        User rory = userRepository.save(new User("Rory", "Retry", "rory@example.com", "password"));
+        LocalDateTime now = LocalDateTime.now();
+        Long first = create("Retry one", now.minusHours(1), manager, rory);
+        Long second = create("Retry two", now.minusHours(2), manager, rory);
+        emailOutboxRepository.deleteAll();
+
+        // The outbox write fails, so the chunk's transaction rolls back without marking its tasks
+        doThrow(new IllegalStateException("outbox unavailable")).when(emailService).sendTaskReminders(anyMap());
+        taskReminderService.sendReminders();
+        reset(emailService);
+        assertNull(remindedAt(first));
+        assertNull(remindedAt(second));
+        assertTrue(reminders("rory@example.com").isEmpty());
+
+        taskReminderService.sendReminders();
+        assertEquals(LocalDate.now(), remindedAt(first).toLocalDate());
+        assertEquals(LocalDate.now(), remindedAt(second).toLocalDate());
+        assertEquals(List.of(1, 1), occurrences(reminders("rory@example.com"), "Retry one", "Retry two"));
+    }
+
+    private LocalDateTime remindedAt(Long taskId) {
+        return taskRepository.findById(taskId).orElseThrow().getLastRemindedAt();
+    }
+
+    private List<EmailOutbox> reminders(String recipient) {
+        return emailOutboxRepository.findAll().stream()
+            .filter(email -> email.getCategory() == EmailCategory.TASK_REMINDER && email.getRecipient().equals(recipient))
+            .collect(Collectors.toList());
+    }
+
+    private List<Integer> occurrences(List<EmailOutbox> emails, String... titles) {
+        return Set.of(titles).stream().sorted()
+            .map(title -> (int) emails.stream().filter(email -> email.getBody().contains(title)).count())
+            .collect(Collectors.toList());
+    }
+
+    private Long create(String title, LocalDateTime dueDate, User manager, User... assignees) {
+        TaskRequest request = new TaskRequest(title, title, dueDate, Priority.MEDIUM);
+        request.setAssigneeIds(Set.of(assignees).stream().map(User::getId).collect(Collectors.toSet()));
+        return taskService.createTask(request, manager).getId();
+    }
+}
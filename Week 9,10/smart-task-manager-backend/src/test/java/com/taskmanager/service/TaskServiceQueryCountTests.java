@@ -0,0 +1,120 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.dto.response.TaskResponse;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Statement counts are global to the session factory, so the jobs that poll the database are pushed out
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:querycounttestdb",
+    "app.reminders.tick-ms=3600000",
+    "app.security.principal-cache.sync-interval-ms=3600000",
+    "app.http.deadline-check-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class TaskServiceQueryCountTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User manager;
+
+    private Statistics statistics;
+
+    private List<Long> fixtureIds;
+
+    @BeforeEach
+    void setUp() {
+        manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        User admin = userRepository.findByEmail("admin@taskmanager.com").orElseThrow();
+        User employee = userRepository.findByEmail("employee@taskmanager.com").orElseThrow();
+
+        // Enough for a full second page of the largest size
+        List<TaskRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            TaskRequest request = new TaskRequest("Query count task " + i, "Description " + i,
+                LocalDateTime.now().plusDays(i % 7 + 1), Priority.MEDIUM);
+            request.setTags(Set.of("backend", "sprint-" + (i % 3)));
+            request.setAssigneeIds(Set.of(admin.getId(), manager.getId(), employee.getId()));
+            requests.add(request);
+        }
+        fixtureIds = taskService.createTasks(requests, manager).stream().map(TaskResponse::getId).toList();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    // Through the service, so the in-memory indexes and counters other tests on this database read drop them too
+    @AfterEach
+    void deleteFixtures() {
+        fixtureIds.forEach(taskId -> taskService.deleteTask(taskId, manager));
+    }
+
+    @Test
+    void filteredPagesUseAConstantNumberOfStatements() {
+        for (int size : new int[]{1, 10, 50}) {
+            statistics.clear();
+
+            Page<TaskResponse> page = taskService.getTasksWithFilters(manager.getId(), null, null, null, null,
+                null, null, PageRequest.of(1, size, Sort.by("createdAt").descending()));
+            touch(page);
+
+            assertEquals(size, page.getNumberOfElements());
+            // id page + count + one fetch of creators, assignees and tags
+            assertEquals(3, statistics.getPrepareStatementCount(), "statements for page size " + size);
+        }
+    }
+
+    @Test
+    void assigneeAndCreatorPagesUseAConstantNumberOfStatements() {
+        for (int size : new int[]{1, 10, 50}) {
+            statistics.clear();
+            Page<TaskResponse> assigned = taskService.getTasksByAssignee(manager.getId(), PageRequest.of(1, size, Sort.by("dueDate")));
+            touch(assigned);
+            assertEquals(size, assigned.getNumberOfElements());
+            // id page + count + one fetch of creators, assignees and tags
+            assertEquals(3, statistics.getPrepareStatementCount(), "assignee page size " + size);
+
+            statistics.clear();
+            Page<TaskResponse> created = taskService.getTasksByCreator(manager.getId(), PageRequest.of(1, size, Sort.by("createdAt")));
+            touch(created);
+            assertEquals(size, created.getNumberOfElements());
+            assertEquals(3, statistics.getPrepareStatementCount(), "creator page size " + size);
+        }
+    }
+
+    private void touch(Page<TaskResponse> page) {
+        page.forEach(task -> {
+            task.getCreatedBy().getEmail();
+            task.getAssignees().forEach(assignee -> assignee.getEmail());
+            task.getTags().size();
+        });
+    }
+}
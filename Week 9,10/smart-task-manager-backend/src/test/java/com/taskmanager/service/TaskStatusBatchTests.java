@@ -0,0 +1,157 @@
+package com.taskmanager.service;
+
+import com.taskmanager.deadline.DeadlineIndex;
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.dto.request.TaskStatusChange;
+import com.taskmanager.dto.response.TaskResponse;
+import com.taskmanager.dto.response.TaskStatusChangeResult;
+import com.taskmanager.dto.response.TaskStatusChangeResult.Outcome;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.ActivityLogRepository;
+import com.taskmanager.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:statusbatchtestdb")
+@ActiveProfiles("test")
+class TaskStatusBatchTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DeadlineIndex deadlineIndex;
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User manager;
+
+    private User employee;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        employee = userRepository.findByEmail("employee@taskmanager.com").orElseThrow();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!deadlineIndex.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void appliesEachChangeWithItsOwnOutcome() {
+        TaskResponse moved = create("Moved", employee);
+        TaskResponse completed = create("Completed", employee);
+        TaskResponse unchanged = create("Unchanged", employee);
+        TaskResponse stale = create("Stale", employee);
+        TaskResponse notMine = create("Not mine", manager);
+        taskService.updateTaskStatus(stale.getId(), TaskStatus.BLOCKED, manager);
+
+        List<TaskStatusChangeResult> results = taskService.updateTaskStatuses(List.of(
+            new TaskStatusChange(moved.getId(), TaskStatus.IN_PROGRESS, moved.getVersion()),
+            new TaskStatusChange(completed.getId(), TaskStatus.COMPLETED, null),
+            new TaskStatusChange(unchanged.getId(), TaskStatus.TODO, unchanged.getVersion()),
+            new TaskStatusChange(stale.getId(), TaskStatus.COMPLETED, stale.getVersion()),
+            new TaskStatusChange(notMine.getId(), TaskStatus.COMPLETED, null),
+            new TaskStatusChange(Long.MAX_VALUE, TaskStatus.COMPLETED, null)
+        ), employee);
+
+        assertEquals(List.of(Outcome.UPDATED, Outcome.UPDATED, Outcome.UNCHANGED, Outcome.CONFLICT, Outcome.FORBIDDEN,
+            Outcome.NOT_FOUND), results.stream().map(TaskStatusChangeResult::getOutcome).collect(Collectors.toList()));
+        assertEquals(TaskStatus.BLOCKED, results.get(3).getStatus());
+        assertNull(results.get(5).getVersion());
+
+        TaskResponse reloaded = taskService.getTaskById(moved.getId()).orElseThrow();
+        assertEquals(TaskStatus.IN_PROGRESS, reloaded.getStatus());
+        assertEquals(moved.getVersion() + 1, reloaded.getVersion());
+        assertEquals(reloaded.getVersion(), results.get(0).getVersion());
+        assertNotNull(taskService.getTaskById(completed.getId()).orElseThrow().getCompletedAt());
+        assertEquals(TaskStatus.BLOCKED, taskService.getTaskById(stale.getId()).orElseThrow().getStatus());
+        assertEquals(TaskStatus.TODO, taskService.getTaskById(notMine.getId()).orElseThrow().getStatus());
+
+        // One activity log per moved task, written with the moves rather than through the buffer
+        assertEquals(1, activityLogRepository.findByActionAndEntityTypeAndEntityId("TASK_STATUS_UPDATED", "Task", moved.getId()).size());
+        assertEquals(1, activityLogRepository.findByActionAndEntityTypeAndEntityId("TASK_STATUS_UPDATED", "Task", completed.getId()).size());
+        assertEquals(0, activityLogRepository.findByActionAndEntityTypeAndEntityId("TASK_STATUS_UPDATED", "Task", unchanged.getId()).size());
+
+        // Listeners saw the changes: the completed task left the deadline index
+        List<Long> upcoming = taskService.getUserUpcomingTasks(employee.getId(), 48, 100).stream()
+            .map(TaskResponse::getId).collect(Collectors.toList());
+        assertTrue(upcoming.contains(moved.getId()));
+        assertTrue(!upcoming.contains(completed.getId()));
+
+        // Moving back clears the completion time
+        taskService.updateTaskStatuses(List.of(new TaskStatusChange(completed.getId(), TaskStatus.TODO, null)), manager);
+        assertNull(taskService.getTaskById(completed.getId()).orElseThrow().getCompletedAt());
+    }
+
+    @Test
+    void usesTheSameStatementsForAnyBatchSize() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        for (int size : new int[]{1, 25}) {
+            List<TaskStatusChange> changes = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                TaskResponse task = create("Batch " + size + "/" + i, employee);
+                changes.add(new TaskStatusChange(task.getId(), i % 2 == 0 ? TaskStatus.IN_PROGRESS : TaskStatus.COMPLETED,
+                    task.getVersion()));
+            }
+            statistics.clear();
+            List<TaskStatusChangeResult> results = taskService.updateTaskStatuses(changes, employee);
+
+            assertTrue(results.stream().allMatch(result -> result.getOutcome() == Outcome.UPDATED));
+            // Locked rows, assignees and tags; the UPDATEs go through JDBC
+            assertEquals(3, statistics.getPrepareStatementCount(), "statements for batch size " + size);
+        }
+    }
+
+    @Test
+    void refusesStaleSingleUpdates() {
+        TaskResponse task = create("Single", employee);
+        TaskResponse updated = taskService.updateTaskStatus(task.getId(), TaskStatus.IN_PROGRESS, task.getVersion(), employee);
+        assertEquals(task.getVersion() + 1, updated.getVersion());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+            () -> taskService.updateTaskStatus(task.getId(), TaskStatus.COMPLETED, task.getVersion(), employee));
+        TaskRequest request = new TaskRequest("Single", "Single", LocalDateTime.now().plusHours(5), Priority.HIGH);
+        request.setVersion(task.getVersion());
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> taskService.updateTask(task.getId(), request, manager));
+        assertThrows(IllegalArgumentException.class, () -> taskService.updateTaskStatuses(List.of(
+            new TaskStatusChange(task.getId(), TaskStatus.TODO, null),
+            new TaskStatusChange(task.getId(), TaskStatus.BLOCKED, null)), manager));
+    }
+
+    private TaskResponse create(String title, User assignee) {
+        TaskRequest request = new TaskRequest(title, title, LocalDateTime.now().plusHours(5), Priority.MEDIUM);
+        request.setAssigneeIds(Set.of(assignee.getId()));
+        return taskService.createTask(request, manager);
+    }
+}
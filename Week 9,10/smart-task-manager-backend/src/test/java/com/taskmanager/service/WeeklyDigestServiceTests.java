@@ -0,0 +1,137 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.entity.EmailCategory;
+import com.taskmanager.entity.EmailOutbox;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.perf.SyntheticDataGenerator;
+import com.taskmanager.repository.EmailOutboxRepository;
+import com.taskmanager.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:digesttestdb",
+    "app.digest.send-rate=10",
+    "app.digest.list-limit=2",
+    "app.perf.generator.tags=50"
+})
+@ActiveProfiles("test")
+class WeeklyDigestServiceTests {
+
+    @Autowired
+    private WeeklyDigestService weeklyDigestService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void summarisesTheWeekOfEachUser() {
+        User manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        User dana = userRepository.save(new User("Dana", "Digest", "dana@example.com", "password"));
+        User quiet = new User("Quinn", "Quiet", "quinn@example.com", "password");
+        quiet.setNotificationsEnabled(false);
+        quiet = userRepository.save(quiet);
+
+        LocalDateTime now = LocalDateTime.now();
+        taskService.updateTaskStatus(create("Done", now.plusHours(5), manager, dana, quiet), TaskStatus.COMPLETED, manager);
+        taskService.updateTaskStatus(create("Done late", now.minusDays(2), manager, dana), TaskStatus.COMPLETED, manager);
+        create("Late A", now.minusHours(1), manager, dana);
+        create("Late B", now.minusHours(2), manager, dana);
+        create("Late C", now.minusDays(3), manager, dana);
+        create("Soon", now.plusDays(2), manager, dana, quiet);
+        create("Far", now.plusDays(20), manager, dana);
+        emailOutboxRepository.deleteAll();
+
+        weeklyDigestService.sendDigests();
+
+        List<EmailOutbox> digests = digests();
+        assertTrue(digests.stream().noneMatch(email -> email.getRecipient().equals("quinn@example.com")));
+        List<EmailOutbox> danas = digests.stream()
+            .filter(email -> email.getRecipient().equals("dana@example.com"))
+            .collect(Collectors.toList());
+        assertEquals(1, danas.size());
+        EmailOutbox digest = danas.get(0);
+        assertEquals("Dana Digest", digest.getRecipientName());
+        assertEquals("Your weekly summary: 2 completed, 3 overdue", digest.getSubject());
+        String body = digest.getBody();
+        assertTrue(body.contains("Completed: 2\nOverdue: 3\nDue in the next 7 days: 1\n"), body);
+        assertTrue(body.contains("Completion rate: 25% of the 4 tasks due this week"), body);
+        // Earliest due first, cut at the list limit
+        assertTrue(body.indexOf("- Late C") < body.indexOf("- Late B"), body);
+        assertTrue(!body.contains("- Late A") && body.contains("- and 1 more"), body);
+        assertTrue(body.contains("- Soon") && !body.contains("Far"), body);
+    }
+
+    @Test
+    void streamsEveryShardInOneQueryAndPacesDelivery() {
+        generator.generate(300, 3000, 0);
+        emailOutboxRepository.deleteAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        long digests = weeklyDigestService.sendDigests();
+
+        // No per-user queries; the outbox rows go in as JDBC batches
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(digests > 100, "digests: " + digests);
+        List<EmailOutbox> all = digests();
+        assertEquals(digests, all.size());
+        assertEquals(digests, all.stream().map(EmailOutbox::getRecipient).distinct().count());
+        // 10 per second: the last digest is due (n - 1) / 10 seconds after the first
+        List<LocalDateTime> sendTimes = all.stream().map(EmailOutbox::getNextAttemptAt)
+            .sorted(Comparator.naturalOrder()).collect(Collectors.toList());
+        assertEquals((digests - 1) * 100, Duration.between(sendTimes.get(0), sendTimes.get(sendTimes.size() - 1)).toMillis());
+
+        // The shards split the same users between them
+        emailOutboxRepository.deleteAll();
+        long sharded = 0;
+        for (int shard = 0; shard < 3; shard++) {
+            sharded += weeklyDigestService.sendDigests(shard, 3);
+        }
+        assertEquals(digests, sharded);
+        assertEquals(sharded, digests().stream().map(EmailOutbox::getRecipient).distinct().count());
+    }
+
+    private Long create(String title, LocalDateTime dueDate, User manager, User... assignees) {
+        TaskRequest request = new TaskRequest(title, title, dueDate, Priority.MEDIUM);
+        request.setAssigneeIds(Set.of(assignees).stream().map(User::getId).collect(Collectors.toSet()));
+        return taskService.createTask(request, manager).getId();
+    }
+
+    private List<EmailOutbox> digests() {
+        return emailOutboxRepository.findAll().stream()
+            .filter(email -> email.getCategory() == EmailCategory.WEEKLY_SUMMARY)
+            .collect(Collectors.toList());
+    }
+}
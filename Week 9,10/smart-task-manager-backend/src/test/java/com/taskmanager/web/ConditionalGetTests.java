@@ -0,0 +1,168 @@
+package com.taskmanager.web;
+
+import com.taskmanager.dto.request.TaskRequest;
+import com.taskmanager.entity.Priority;
+import com.taskmanager.entity.TaskStatus;
+import com.taskmanager.entity.User;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.security.JwtUtils;
+import com.taskmanager.service.TaskService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// 304s must be answered from the in-memory validators, so no SQL may run on the request thread
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:conditionaltestdb",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.taskmanager.web.ConditionalGetTests$RecordingInspector"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTests {
+
+    private static final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    private static volatile Thread recordedThread;
+
+    public static class RecordingInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == recordedThread) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    private User manager;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        manager = userRepository.findByEmail("manager@taskmanager.com").orElseThrow();
+        token = jwtUtils.generateTokenFromUsername(manager.getEmail());
+        recordedThread = Thread.currentThread();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recordedThread = null;
+    }
+
+    @Test
+    void listsAndAnalyticsAnswer304WithoutQueries() throws Exception {
+        taskService.createTask(request("Listed task"), manager);
+
+        for (String url : List.of("/api/tasks?page=0&size=5", "/api/tasks/my-tasks", "/api/users/employees",
+                                  "/api/analytics/dashboard", "/api/analytics/workload")) {
+            MockHttpServletResponse first = fetch(url, null);
+            assertEquals(200, first.getStatus(), url);
+            String etag = first.getHeader(HttpHeaders.ETAG);
+            assertNotNull(etag, url);
+            assertEquals(1, first.getHeaders(HttpHeaders.ETAG).size(), url);
+            assertNotNull(first.getHeader(HttpHeaders.LAST_MODIFIED), url);
+            assertTrue(first.getHeader(HttpHeaders.CACHE_CONTROL).contains("no-cache"), url);
+
+            statements.clear();
+            MockHttpServletResponse second = fetch(url, etag);
+            assertEquals(304, second.getStatus(), url);
+            assertEquals(0, second.getContentLength(), url);
+            assertEquals(List.of(), statements, url);
+        }
+    }
+
+    @Test
+    void taskWritesChangeTheValidators() throws Exception {
+        Long taskId = taskService.createTask(request("Versioned task"), manager).getId();
+        String listEtag = fetch("/api/tasks/my-tasks", null).getHeader(HttpHeaders.ETAG);
+        String taskEtag = fetch("/api/tasks/" + taskId, null).getHeader(HttpHeaders.ETAG);
+
+        statements.clear();
+        assertEquals(304, fetch("/api/tasks/" + taskId, taskEtag).getStatus());
+        assertEquals(List.of(), statements);
+
+        taskService.updateTaskStatus(taskId, TaskStatus.IN_PROGRESS, manager);
+
+        MockHttpServletResponse task = fetch("/api/tasks/" + taskId, taskEtag);
+        assertEquals(200, task.getStatus());
+        assertNotEquals(taskEtag, task.getHeader(HttpHeaders.ETAG));
+        assertTrue(task.getContentAsString().contains("IN_PROGRESS"));
+
+        MockHttpServletResponse list = fetch("/api/tasks/my-tasks", listEtag);
+        assertEquals(200, list.getStatus());
+        assertNotEquals(listEtag, list.getHeader(HttpHeaders.ETAG));
+
+        // Changing only the assignees still moves the task's updatedAt
+        taskEtag = task.getHeader(HttpHeaders.ETAG);
+        TaskRequest update = request("Versioned task");
+        update.setAssigneeIds(Set.of());
+        taskService.updateTask(taskId, update, manager);
+        assertEquals(200, fetch("/api/tasks/" + taskId, taskEtag).getStatus());
+    }
+
+    @Test
+    void usersChangedThroughAnotherInstanceChangeTheValidators() throws Exception {
+        String etag = fetch("/api/users/employees", null).getHeader(HttpHeaders.ETAG);
+        assertEquals(304, fetch("/api/users/employees", etag).getStatus());
+
+        // Saved without a UserChangedEvent, as seen from an instance that didn't make the change
+        User employee = userRepository.findByEmail("employee@taskmanager.com").orElseThrow();
+        employee.setLastName("Renamed elsewhere");
+        userRepository.save(employee);
+        resourceVersions.syncUsersChangedElsewhere();
+
+        MockHttpServletResponse users = fetch("/api/users/employees", etag);
+        assertEquals(200, users.getStatus());
+        assertTrue(users.getContentAsString().contains("Renamed elsewhere"));
+    }
+
+    private MockHttpServletResponse fetch(String url, String ifNoneMatch) throws Exception {
+        var builder = get(url).header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        if (ifNoneMatch != null) {
+            builder.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(builder).andReturn().getResponse();
+    }
+
+    private TaskRequest request(String title) {
+        TaskRequest request = new TaskRequest(title, title, LocalDateTime.now().plusDays(2), Priority.MEDIUM);
+        request.setAssigneeIds(Set.of(manager.getId()));
+        return request;
+    }
+}